@@ -35,6 +35,7 @@ CREATE TABLE item (
     Status ENUM('Lost', 'Found') NOT NULL,
     Date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     PRIMARY KEY (Item_ID),
+    FULLTEXT KEY ft_item_text (Name, Description),
     FOREIGN KEY (User_ID) REFERENCES user(User_ID) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -46,10 +47,34 @@ CREATE TABLE reports (
     Report_Type ENUM('Lost', 'Found') NOT NULL,
     Report_Date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     PRIMARY KEY (Report_ID),
+    KEY idx_reports_date (Report_Date, Report_ID),
     FOREIGN KEY (User_ID) REFERENCES user(User_ID) ON DELETE CASCADE,
     FOREIGN KEY (Item_ID) REFERENCES item(Item_ID) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- Create Table: image_blob
+-- Uploaded photos stored once per distinct content under images/store, keyed by the SHA-256 of
+-- their bytes. Ref_Count is the number of lost_item and found_item rows using the photo; it is
+-- kept by triggers and recounted by the image store's garbage collection.
+CREATE TABLE image_blob (
+    Content_Key CHAR(64) NOT NULL,
+    Path VARCHAR(255) NOT NULL,
+    Size BIGINT NOT NULL,
+    Ref_Count INT NOT NULL DEFAULT 0,
+    Last_Stored_At TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (Content_Key),
+    KEY idx_image_blob_unused (Ref_Count, Last_Stored_At)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Table: image_blob_deleted
+-- Blobs whose image_blob row is gone but whose files may still exist. Garbage collection deletes
+-- the files only after the row's delete has committed, and retries any a failed run left here.
+CREATE TABLE image_blob_deleted (
+    Content_Key CHAR(64) NOT NULL,
+    Deleted_At TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (Content_Key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- Create Table: lost_item
 CREATE TABLE lost_item (
     Lost_Item_ID INT NOT NULL AUTO_INCREMENT,
@@ -58,9 +83,13 @@ CREATE TABLE lost_item (
     Last_Seen_Date DATE,
     Additional_Details TEXT,
     image_path VARCHAR(255),
+    Image_Key CHAR(64),
     PRIMARY KEY (Lost_Item_ID),
     UNIQUE KEY uk_item_id (Item_ID),
-    FOREIGN KEY (Item_ID) REFERENCES item(Item_ID) ON DELETE CASCADE
+    KEY idx_lost_image_key (Image_Key),
+    FULLTEXT KEY ft_lost_location (Last_Seen_Location),
+    FOREIGN KEY (Item_ID) REFERENCES item(Item_ID) ON DELETE CASCADE,
+    FOREIGN KEY (Image_Key) REFERENCES image_blob(Content_Key)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- Create Table: found_item
@@ -72,11 +101,206 @@ CREATE TABLE found_item (
     Storage_Location VARCHAR(255),
     Additional_Details TEXT,
     image_path VARCHAR(255),
+    Image_Key CHAR(64),
     PRIMARY KEY (Found_Item_ID),
     UNIQUE KEY uk_item_id (Item_ID),
+    KEY idx_found_image_key (Image_Key),
+    FULLTEXT KEY ft_found_location (Found_Location),
+    FULLTEXT KEY ft_found_storage (Storage_Location),
+    FOREIGN KEY (Item_ID) REFERENCES item(Item_ID) ON DELETE CASCADE,
+    FOREIGN KEY (Image_Key) REFERENCES image_blob(Content_Key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Table: item_identifier
+-- Serial numbers, IMEIs and card numbers found in item text, stored as keyed SHA-256 hashes of
+-- their normalized form so reports sharing one are found with a primary key lookup.
+CREATE TABLE item_identifier (
+    Identifier_Hash BINARY(32) NOT NULL,
+    Item_ID INT NOT NULL,
+    Kind ENUM('Serial', 'IMEI', 'Card') NOT NULL,
+    Last_Four CHAR(4) NOT NULL,
+    PRIMARY KEY (Identifier_Hash, Item_ID),
+    KEY idx_identifier_item (Item_ID),
     FOREIGN KEY (Item_ID) REFERENCES item(Item_ID) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- Create Table: image_hash
+-- Perceptual hashes of item photos (64-bit dHash and pHash) for finding similar-looking items.
+CREATE TABLE image_hash (
+    Item_ID INT NOT NULL,
+    Image_Path VARCHAR(255) NOT NULL,
+    DHash BIGINT NOT NULL,
+    PHash BIGINT NOT NULL,
+    Computed_At TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (Item_ID),
+    FOREIGN KEY (Item_ID) REFERENCES item(Item_ID) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Table: image_rendition
+-- Downscaled copies of each uploaded photo, written once at upload time, keyed by the photo's
+-- image_path so screens can load the small copy instead of decoding the original.
+CREATE TABLE image_rendition (
+    Source_Path VARCHAR(255) NOT NULL,
+    Rendition VARCHAR(16) NOT NULL,
+    Path VARCHAR(255) NOT NULL,
+    Width INT NOT NULL,
+    Height INT NOT NULL,
+    Created_At TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (Source_Path, Rendition)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Table: match_candidate
+-- Top-K possible counterparts per report, materialized by the background MatchJob.
+CREATE TABLE match_candidate (
+    Report_ID INT NOT NULL,
+    Candidate_Report_ID INT NOT NULL,
+    Score DOUBLE NOT NULL,
+    Text_Score DOUBLE NOT NULL,
+    Category_Score DOUBLE NOT NULL,
+    Location_Score DOUBLE NOT NULL,
+    Date_Score DOUBLE NOT NULL,
+    Computed_At TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (Report_ID, Candidate_Report_ID),
+    KEY idx_match_score (Report_ID, Score),
+    FOREIGN KEY (Report_ID) REFERENCES reports(Report_ID) ON DELETE CASCADE,
+    FOREIGN KEY (Candidate_Report_ID) REFERENCES reports(Report_ID) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Table: match_job
+-- Progress of the matching job: every report up to Watermark has been matched at least once.
+-- Lease_Owner is the one client running the job; another takes over once Lease_Until passes.
+CREATE TABLE match_job (
+    Name VARCHAR(64) NOT NULL,
+    Watermark INT NOT NULL DEFAULT 0,
+    Lease_Owner VARCHAR(64) NULL,
+    Lease_Until TIMESTAMP(6) NULL,
+    Updated_At TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (Name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO match_job (Name, Watermark) VALUES ('matching', 0);
+
+-- Create Table: match_dirty
+-- Reports at or below the watermark whose matched fields changed since they were last matched.
+CREATE TABLE match_dirty (
+    Report_ID INT NOT NULL,
+    Changed_At TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (Report_ID)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Create Table: data_version
+-- Change counters that let clients revalidate cached query results with a primary key lookup.
+-- Every table a cached result reads has its own counter, split over eight slot rows: a write
+-- bumps the slot of its connection, so concurrent writers lock different rows until commit
+-- instead of queueing on one. Readers sum the slots of the tables their result depends on.
+CREATE TABLE data_version (
+    Name VARCHAR(64) NOT NULL,
+    Slot TINYINT UNSIGNED NOT NULL,
+    Version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (Name, Slot)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO data_version (Name, Slot)
+SELECT t.Name, s.Slot
+FROM (SELECT 'reports' AS Name UNION ALL SELECT 'item' UNION ALL SELECT 'lost_item'
+      UNION ALL SELECT 'found_item' UNION ALL SELECT 'user' UNION ALL SELECT 'image_hash') t
+CROSS JOIN (SELECT 0 AS Slot UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3
+            UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7) s;
+
+-- Bump the counter of the table written. Rows removed by ON DELETE CASCADE fire no triggers,
+-- so readers of a child table also depend on its parent's counter.
+CREATE TRIGGER trg_reports_ai AFTER INSERT ON reports FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'reports' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_reports_au AFTER UPDATE ON reports FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'reports' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_reports_ad AFTER DELETE ON reports FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'reports' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_item_ai AFTER INSERT ON item FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'item' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_item_au AFTER UPDATE ON item FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'item' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_item_ad AFTER DELETE ON item FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'item' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_lost_item_ai AFTER INSERT ON lost_item FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'lost_item' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_lost_item_au AFTER UPDATE ON lost_item FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'lost_item' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_lost_item_ad AFTER DELETE ON lost_item FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'lost_item' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_found_item_ai AFTER INSERT ON found_item FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'found_item' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_found_item_au AFTER UPDATE ON found_item FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'found_item' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_found_item_ad AFTER DELETE ON found_item FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'found_item' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_user_ai AFTER INSERT ON user FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'user' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_user_au AFTER UPDATE ON user FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'user' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_user_ad AFTER DELETE ON user FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'user' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_image_hash_ai AFTER INSERT ON image_hash FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'image_hash' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_image_hash_au AFTER UPDATE ON image_hash FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'image_hash' AND Slot = CONNECTION_ID() % 8;
+CREATE TRIGGER trg_image_hash_ad AFTER DELETE ON image_hash FOR EACH ROW
+    UPDATE data_version SET Version = Version + 1 WHERE Name = 'image_hash' AND Slot = CONNECTION_ID() % 8;
+
+-- Queue reports for re-matching when a matched field changes. Changed_At is refreshed so the
+-- job only clears entries that did not change again while it was working on them.
+CREATE TRIGGER trg_reports_au_match AFTER UPDATE ON reports FOR EACH ROW
+    INSERT INTO match_dirty (Report_ID) VALUES (NEW.Report_ID)
+    ON DUPLICATE KEY UPDATE Changed_At = CURRENT_TIMESTAMP(6);
+CREATE TRIGGER trg_item_au_match AFTER UPDATE ON item FOR EACH ROW
+    INSERT INTO match_dirty (Report_ID) SELECT Report_ID FROM reports WHERE Item_ID = NEW.Item_ID
+    ON DUPLICATE KEY UPDATE Changed_At = CURRENT_TIMESTAMP(6);
+CREATE TRIGGER trg_lost_item_ai_match AFTER INSERT ON lost_item FOR EACH ROW
+    INSERT INTO match_dirty (Report_ID) SELECT Report_ID FROM reports WHERE Item_ID = NEW.Item_ID
+    ON DUPLICATE KEY UPDATE Changed_At = CURRENT_TIMESTAMP(6);
+CREATE TRIGGER trg_lost_item_au_match AFTER UPDATE ON lost_item FOR EACH ROW
+    INSERT INTO match_dirty (Report_ID) SELECT Report_ID FROM reports WHERE Item_ID = NEW.Item_ID
+    ON DUPLICATE KEY UPDATE Changed_At = CURRENT_TIMESTAMP(6);
+CREATE TRIGGER trg_found_item_ai_match AFTER INSERT ON found_item FOR EACH ROW
+    INSERT INTO match_dirty (Report_ID) SELECT Report_ID FROM reports WHERE Item_ID = NEW.Item_ID
+    ON DUPLICATE KEY UPDATE Changed_At = CURRENT_TIMESTAMP(6);
+CREATE TRIGGER trg_found_item_au_match AFTER UPDATE ON found_item FOR EACH ROW
+    INSERT INTO match_dirty (Report_ID) SELECT Report_ID FROM reports WHERE Item_ID = NEW.Item_ID
+    ON DUPLICATE KEY UPDATE Changed_At = CURRENT_TIMESTAMP(6);
+
+-- Keep image_blob.Ref_Count in step with the rows using each photo. The item trigger runs before
+-- the delete because the lost_item and found_item rows go by cascade, which fires no triggers.
+-- Deletes cascading from user skip all of these; garbage collection recounts to catch those.
+CREATE TRIGGER trg_lost_item_ai_blobs AFTER INSERT ON lost_item FOR EACH ROW
+    UPDATE image_blob SET Ref_Count = Ref_Count + 1 WHERE Content_Key = NEW.Image_Key;
+CREATE TRIGGER trg_lost_item_au_blobs AFTER UPDATE ON lost_item FOR EACH ROW
+    UPDATE image_blob
+    SET Ref_Count = Ref_Count + (Content_Key <=> NEW.Image_Key) - (Content_Key <=> OLD.Image_Key)
+    WHERE Content_Key IN (OLD.Image_Key, NEW.Image_Key);
+CREATE TRIGGER trg_lost_item_ad_blobs AFTER DELETE ON lost_item FOR EACH ROW
+    UPDATE image_blob SET Ref_Count = Ref_Count - 1 WHERE Content_Key = OLD.Image_Key;
+CREATE TRIGGER trg_found_item_ai_blobs AFTER INSERT ON found_item FOR EACH ROW
+    UPDATE image_blob SET Ref_Count = Ref_Count + 1 WHERE Content_Key = NEW.Image_Key;
+CREATE TRIGGER trg_found_item_au_blobs AFTER UPDATE ON found_item FOR EACH ROW
+    UPDATE image_blob
+    SET Ref_Count = Ref_Count + (Content_Key <=> NEW.Image_Key) - (Content_Key <=> OLD.Image_Key)
+    WHERE Content_Key IN (OLD.Image_Key, NEW.Image_Key);
+CREATE TRIGGER trg_found_item_ad_blobs AFTER DELETE ON found_item FOR EACH ROW
+    UPDATE image_blob SET Ref_Count = Ref_Count - 1 WHERE Content_Key = OLD.Image_Key;
+CREATE TRIGGER trg_item_bd_blobs BEFORE DELETE ON item FOR EACH ROW
+    UPDATE image_blob SET Ref_Count = Ref_Count - 1
+    WHERE Content_Key IN (SELECT Image_Key FROM lost_item WHERE Item_ID = OLD.Item_ID
+                          UNION ALL SELECT Image_Key FROM found_item WHERE Item_ID = OLD.Item_ID);
+
+-- Identifier hashes go when the report that gave them does, so a deleted report's serials and
+-- card numbers stop matching and are not kept. Reports removed by the cascade from user fire no
+-- triggers, hence the one on user.
+CREATE TRIGGER trg_reports_ad_identifiers AFTER DELETE ON reports FOR EACH ROW
+    DELETE FROM item_identifier
+    WHERE Item_ID = OLD.Item_ID AND NOT EXISTS (SELECT 1 FROM reports WHERE Item_ID = OLD.Item_ID);
+CREATE TRIGGER trg_user_bd_identifiers BEFORE DELETE ON user FOR EACH ROW
+    DELETE ii FROM item_identifier ii JOIN reports r ON r.Item_ID = ii.Item_ID
+    WHERE r.User_ID = OLD.User_ID;
+
 -- Insert Users (1 Admin, 9 Normal Users)
 INSERT INTO user (User_ID, Name, Email, Password, Role, Contact)
 VALUES
@@ -0,0 +1,291 @@
+package com.lostfound.app;
+
+// Application context that owns the shared DataSource and the singleton DAOs and services.
+import com.lostfound.config.DBConnection;
+import com.lostfound.config.QueryExecutor;
+import com.lostfound.dao.AdminDAO;
+import com.lostfound.dao.LostItemDAO;
+import com.lostfound.dao.UserDAO;
+import com.lostfound.image.BlobStore;
+import com.lostfound.image.CachingImageStore;
+import com.lostfound.image.S3ImageStore;
+import com.lostfound.search.ReportSearch;
+import com.lostfound.service.AdminService;
+import com.lostfound.service.AsyncAdminService;
+import com.lostfound.service.AsyncFoundItemService;
+import com.lostfound.service.AsyncItemService;
+import com.lostfound.service.AsyncLostItemService;
+import com.lostfound.service.AsyncReportService;
+import com.lostfound.service.AsyncUserService;
+import com.lostfound.service.CacheStats;
+import com.lostfound.service.EntityCache;
+import com.lostfound.service.FoundItemService;
+import com.lostfound.service.IdentifierService;
+import com.lostfound.service.ImageHashService;
+import com.lostfound.service.ImageRenditionService;
+import com.lostfound.service.ImageSimilarityService;
+import com.lostfound.service.ImageStoreService;
+import com.lostfound.service.ItemService;
+import com.lostfound.service.LostItemService;
+import com.lostfound.service.MatchJob;
+import com.lostfound.service.MatchService;
+import com.lostfound.service.ReportService;
+import com.lostfound.service.ThumbnailService;
+import com.lostfound.service.UserService;
+import java.io.File;
+import java.net.URI;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+public class AppContext {
+    private static final Logger LOGGER = Logger.getLogger(AppContext.class.getName());
+    // Entity cache bounds: entries per cache, how long a row is trusted, and how long a
+    // "not found" answer is remembered.
+    private static final int ENTITY_CACHE_SIZE = 2000;
+    private static final long ENTITY_TTL_MS = 5 * 60 * 1000L;
+    private static final long ENTITY_NEGATIVE_TTL_MS = 10 * 1000L;
+    // REPORT_SEARCH=server sends report searches to MySQL's FULLTEXT indexes instead of the
+    // in-memory ReportSearch index.
+    private static final String SEARCH_BACKEND_ENV = "REPORT_SEARCH";
+    // Clients take turns at the background match job through a lease in match_job, so only one
+    // at a time rescans and rewrites match_candidate. MATCH_JOB=off keeps this client out of it.
+    private static final String MATCH_JOB_ENV = "MATCH_JOB";
+    // Memory for decoded report thumbnails; a 200px thumbnail takes about 120KB.
+    private static final long THUMBNAIL_CACHE_BYTES = 32L * 1024 * 1024;
+    // Uploaded photos, relative to the working directory like the image paths recorded for them.
+    static final File IMAGE_STORE_DIRECTORY = new File("images", "store");
+    // IMAGE_STORE=s3 keeps uploaded photos in an S3-compatible bucket instead of the directory
+    // above, which then only caches them; the IMAGE_STORE_* variables below say which bucket.
+    private static final String IMAGE_STORE_ENV = "IMAGE_STORE";
+    private static final String IMAGE_STORE_ENDPOINT_ENV = "IMAGE_STORE_ENDPOINT";
+    private static final String IMAGE_STORE_BUCKET_ENV = "IMAGE_STORE_BUCKET";
+    private static final String IMAGE_STORE_REGION_ENV = "IMAGE_STORE_REGION";
+    private static final String IMAGE_STORE_ACCESS_KEY_ENV = "IMAGE_STORE_ACCESS_KEY";
+    private static final String IMAGE_STORE_SECRET_KEY_ENV = "IMAGE_STORE_SECRET_KEY";
+    private static final String DEFAULT_IMAGE_STORE_REGION = "us-east-1";
+    // IMAGE_CACHE_MB bounds the local copies of a remote store's photos.
+    private static final String IMAGE_CACHE_MB_ENV = "IMAGE_CACHE_MB";
+    private static final long DEFAULT_IMAGE_CACHE_MB = 512;
+
+    private final DataSource dataSource;
+    private final AdminDAO adminDAO;
+    private final UserDAO userDAO;
+    private final LostItemDAO lostItemDAO;
+    private final UserService userService;
+    private final AdminService adminService;
+    private final ItemService itemService;
+    private final LostItemService lostItemService;
+    private final FoundItemService foundItemService;
+    private final ReportService reportService;
+    private final ReportSearch reportSearch;
+    private final MatchService matchService;
+    private final MatchJob matchJob;
+    private final IdentifierService identifierService;
+    private final ImageHashService imageHashService;
+    private final ImageRenditionService imageRenditionService;
+    private final ImageStoreService imageStoreService;
+    private final ThumbnailService thumbnailService;
+    private final ImageSimilarityService imageSimilarityService;
+    private final boolean serverSideSearch;
+    private final QueryExecutor queryExecutor;
+    private final AsyncUserService asyncUserService;
+    private final AsyncAdminService asyncAdminService;
+    private final AsyncItemService asyncItemService;
+    private final AsyncLostItemService asyncLostItemService;
+    private final AsyncFoundItemService asyncFoundItemService;
+    private final AsyncReportService asyncReportService;
+
+    public AppContext(DataSource dataSource) {
+        this(dataSource, QueryExecutor.createDefault());
+    }
+
+    public AppContext(DataSource dataSource, QueryExecutor queryExecutor) {
+        this.dataSource = dataSource;
+        adminDAO = new AdminDAO(dataSource);
+        userDAO = new UserDAO(dataSource, adminDAO);
+        lostItemDAO = new LostItemDAO(dataSource);
+        userService = new UserService(userDAO, newEntityCache("users"));
+        adminService = new AdminService(adminDAO, dataSource);
+        itemService = new ItemService(dataSource, newEntityCache("items"));
+        lostItemService = new LostItemService(lostItemDAO, newEntityCache("lostItems"));
+        foundItemService = new FoundItemService(dataSource, newEntityCache("foundItems"));
+        reportService = new ReportService(dataSource, userService);
+        reportSearch = new ReportSearch(reportService);
+        reportService.addChangeListener(reportSearch);
+        matchService = new MatchService(dataSource, reportService);
+        reportService.addChangeListener(matchService);
+        identifierService = new IdentifierService(dataSource);
+        reportService.addChangeListener(identifierService);
+        BlobStore blobStore = createBlobStore();
+        imageHashService = new ImageHashService(dataSource, blobStore);
+        imageRenditionService = new ImageRenditionService(dataSource, blobStore);
+        imageStoreService = new ImageStoreService(dataSource, blobStore);
+        thumbnailService = new ThumbnailService(imageRenditionService, blobStore, THUMBNAIL_CACHE_BYTES);
+        imageSimilarityService = new ImageSimilarityService(dataSource,
+                new File(ImageSimilarityService.DEFAULT_INDEX_FILE), blobStore);
+        reportService.addChangeListener(imageSimilarityService);
+        imageSimilarityService.start();
+        matchJob = new MatchJob(dataSource, matchService);
+        if (!"off".equalsIgnoreCase(System.getenv(MATCH_JOB_ENV))) {
+            matchJob.start();
+        }
+        serverSideSearch = "server".equalsIgnoreCase(System.getenv(SEARCH_BACKEND_ENV));
+        this.queryExecutor = queryExecutor;
+        asyncUserService = new AsyncUserService(userService, queryExecutor);
+        asyncAdminService = new AsyncAdminService(adminService, queryExecutor);
+        asyncItemService = new AsyncItemService(itemService, queryExecutor);
+        asyncLostItemService = new AsyncLostItemService(lostItemService, queryExecutor);
+        asyncFoundItemService = new AsyncFoundItemService(foundItemService, queryExecutor);
+        asyncReportService = new AsyncReportService(reportService, queryExecutor);
+        LOGGER.log(Level.INFO, "Application context initialized");
+    }
+
+    // Builds a context over the pooled DataSource configured in DBConnection.
+    public static AppContext createDefault() {
+        return new AppContext(DBConnection.getDataSource());
+    }
+
+    // The store for uploaded photos chosen by IMAGE_STORE: the image store directory by default,
+    // or an S3-compatible bucket read through a cache in that directory.
+    public static BlobStore createBlobStore() {
+        if (!"s3".equalsIgnoreCase(System.getenv(IMAGE_STORE_ENV))) {
+            return new BlobStore(IMAGE_STORE_DIRECTORY);
+        }
+        String region = System.getenv(IMAGE_STORE_REGION_ENV);
+        S3ImageStore remote = new S3ImageStore(URI.create(requireEnv(IMAGE_STORE_ENDPOINT_ENV)),
+                requireEnv(IMAGE_STORE_BUCKET_ENV),
+                region == null || region.isBlank() ? DEFAULT_IMAGE_STORE_REGION : region,
+                requireEnv(IMAGE_STORE_ACCESS_KEY_ENV), requireEnv(IMAGE_STORE_SECRET_KEY_ENV));
+        String cacheMb = System.getenv(IMAGE_CACHE_MB_ENV);
+        long maxBytes = (cacheMb == null || cacheMb.isBlank() ? DEFAULT_IMAGE_CACHE_MB
+                : Long.parseLong(cacheMb.trim())) * 1024 * 1024;
+        LOGGER.log(Level.INFO, "Storing photos in bucket {0} at {1}",
+                new Object[]{System.getenv(IMAGE_STORE_BUCKET_ENV), System.getenv(IMAGE_STORE_ENDPOINT_ENV)});
+        return new BlobStore(new CachingImageStore(remote, IMAGE_STORE_DIRECTORY, maxBytes), IMAGE_STORE_DIRECTORY);
+    }
+
+    private static String requireEnv(String name) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException(name + " must be set when " + IMAGE_STORE_ENV + "=s3");
+        }
+        return value;
+    }
+
+    private static <V> EntityCache<Integer, V> newEntityCache(String name) {
+        return new EntityCache<>(name, ENTITY_CACHE_SIZE, ENTITY_TTL_MS, ENTITY_NEGATIVE_TTL_MS);
+    }
+
+    public List<CacheStats> getEntityCacheStats() {
+        return List.of(userService.getCacheStats(), itemService.getCacheStats(),
+                lostItemService.getCacheStats(), foundItemService.getCacheStats());
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public UserService getUserService() {
+        return userService;
+    }
+
+    public AdminService getAdminService() {
+        return adminService;
+    }
+
+    public ItemService getItemService() {
+        return itemService;
+    }
+
+    public LostItemService getLostItemService() {
+        return lostItemService;
+    }
+
+    public FoundItemService getFoundItemService() {
+        return foundItemService;
+    }
+
+    public ReportService getReportService() {
+        return reportService;
+    }
+
+    public ReportSearch getReportSearch() {
+        return reportSearch;
+    }
+
+    public MatchService getMatchService() {
+        return matchService;
+    }
+
+    public IdentifierService getIdentifierService() {
+        return identifierService;
+    }
+
+    public ImageHashService getImageHashService() {
+        return imageHashService;
+    }
+
+    public ImageRenditionService getImageRenditionService() {
+        return imageRenditionService;
+    }
+
+    public ImageStoreService getImageStoreService() {
+        return imageStoreService;
+    }
+
+    public ThumbnailService getThumbnailService() {
+        return thumbnailService;
+    }
+
+    public ImageSimilarityService getImageSimilarityService() {
+        return imageSimilarityService;
+    }
+
+    public boolean isServerSideSearch() {
+        return serverSideSearch;
+    }
+
+    public QueryExecutor getQueryExecutor() {
+        return queryExecutor;
+    }
+
+    public AsyncUserService getAsyncUserService() {
+        return asyncUserService;
+    }
+
+    public AsyncAdminService getAsyncAdminService() {
+        return asyncAdminService;
+    }
+
+    public AsyncItemService getAsyncItemService() {
+        return asyncItemService;
+    }
+
+    public AsyncLostItemService getAsyncLostItemService() {
+        return asyncLostItemService;
+    }
+
+    public AsyncFoundItemService getAsyncFoundItemService() {
+        return asyncFoundItemService;
+    }
+
+    public AsyncReportService getAsyncReportService() {
+        return asyncReportService;
+    }
+
+    public void close() {
+        for (CacheStats stats : getEntityCacheStats()) {
+            LOGGER.log(Level.INFO, "Entity cache {0}", stats);
+        }
+        // Report listeners use the services below, so they are drained first.
+        reportService.close();
+        matchJob.close();
+        imageSimilarityService.close();
+        thumbnailService.close();
+        queryExecutor.close();
+        DBConnection.shutdown();
+        LOGGER.log(Level.INFO, "Application context closed");
+    }
+}
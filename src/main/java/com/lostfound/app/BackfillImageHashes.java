@@ -0,0 +1,27 @@
+package com.lostfound.app;
+
+// Command that computes perceptual hashes for item photos stored before hashing was added.
+import com.lostfound.config.DBConnection;
+import com.lostfound.service.ImageHashService;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class BackfillImageHashes {
+    private static final Logger LOGGER = Logger.getLogger(BackfillImageHashes.class.getName());
+
+    // Run from the directory the application runs in, since image paths are relative to it.
+    // Safe to repeat: only photos without a current hash are read.
+    public static void main(String[] args) {
+        try {
+            int stored = new ImageHashService(DBConnection.getDataSource(), AppContext.createBlobStore())
+                    .backfill();
+            LOGGER.log(Level.INFO, "Image hash backfill finished; {0} hashes stored", stored);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Image hash backfill failed", e);
+            System.exit(1);
+        } finally {
+            DBConnection.shutdown();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.lostfound.app;
+
+// Command that creates thumbnail and preview renditions for photos uploaded before the pipeline existed.
+import com.lostfound.config.DBConnection;
+import com.lostfound.service.ImageRenditionService;
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class BackfillRenditions {
+    private static final Logger LOGGER = Logger.getLogger(BackfillRenditions.class.getName());
+
+    // Usage: BackfillRenditions [directory...], defaulting to images/lost, images/found and the
+    // image store; subdirectories are included. Run from the directory the application runs in,
+    // since image paths are recorded relative to it. Safe to repeat: photos with current
+    // renditions are only re-recorded. With IMAGE_STORE=s3 the store directory holds only the
+    // cached photos, so only those are rendered; new renditions are uploaded to the bucket.
+    public static void main(String[] args) {
+        List<File> directories = new ArrayList<>();
+        for (String arg : args) {
+            directories.add(new File(arg));
+        }
+        if (directories.isEmpty()) {
+            directories.add(new File("images", "lost"));
+            directories.add(new File("images", "found"));
+            directories.add(AppContext.IMAGE_STORE_DIRECTORY);
+        }
+        try {
+            int rendered = new ImageRenditionService(DBConnection.getDataSource(), AppContext.createBlobStore())
+                    .backfill(directories);
+            LOGGER.log(Level.INFO, "Rendition backfill rendered {0} photos", rendered);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Rendition backfill failed", e);
+            System.exit(1);
+        } finally {
+            DBConnection.shutdown();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.lostfound.app;
+
+// Command that deletes stored photos no lost or found item uses any more.
+import com.lostfound.config.DBConnection;
+import com.lostfound.service.ImageStoreService;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class CollectImageGarbage {
+    private static final Logger LOGGER = Logger.getLogger(CollectImageGarbage.class.getName());
+    // A photo is uploaded before the report that uses it is saved; this leaves that window open.
+    private static final long DEFAULT_GRACE_HOURS = 24;
+
+    // Usage: CollectImageGarbage [graceHours]. Run from the directory the application runs in.
+    public static void main(String[] args) {
+        long graceHours = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_GRACE_HOURS;
+        try {
+            ImageStoreService service = new ImageStoreService(DBConnection.getDataSource(),
+                    AppContext.createBlobStore());
+            int deleted = service.collectGarbage(graceHours * 60 * 60 * 1000);
+            LOGGER.log(Level.INFO, "Deleted {0} unused photos", deleted);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Image garbage collection failed", e);
+            System.exit(1);
+        } finally {
+            DBConnection.shutdown();
+        }
+    }
+}
@@ -11,9 +11,11 @@ public class LostandFoundSystem {
 
     // Launches the application by displaying the LoginUI.
     public static void main(String[] args) {
+        AppContext context = AppContext.createDefault();
+        Runtime.getRuntime().addShutdownHook(new Thread(context::close, "app-context-shutdown"));
         javax.swing.SwingUtilities.invokeLater(() -> {
             try {
-                new LoginUI().setVisible(true);
+                new LoginUI(context).setVisible(true);
             } catch (Exception e) {
                 LOGGER.log(Level.SEVERE, "Failed to start application", e);
             }
@@ -0,0 +1,163 @@
+package com.lostfound.bench;
+
+// Measures heap use and time of full versus subsampled decodes of large photos scaled for display.
+import com.lostfound.image.ImageDecoder;
+import com.lostfound.image.ImagePipeline;
+import com.lostfound.image.Rendition;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.imageio.ImageIO;
+
+public class ImageDecodeBench {
+    private static final int WIDTH = 4000;
+    private static final int HEIGHT = 3000;
+    private static final int ROUNDS = 3;
+
+    @FunctionalInterface
+    private interface Decode {
+        BufferedImage run(File file, int maxSize) throws IOException;
+    }
+
+    // Usage: ImageDecodeBench [photo...]. Without arguments a 4000x3000 synthetic JPEG is used.
+    // Run with a small heap (e.g. -Xmx512m) and -XX:+UseSerialGC for steadier peak readings.
+    public static void main(String[] args) throws IOException {
+        List<File> photos = new ArrayList<>();
+        for (String arg : args) {
+            photos.add(new File(arg));
+        }
+        if (photos.isEmpty()) {
+            File photo = File.createTempFile("decode-bench", ".jpg");
+            photo.deleteOnExit();
+            ImageIO.write(render(new Random(42)), "jpg", photo);
+            photos.add(photo);
+        }
+        for (File photo : photos) {
+            System.out.printf("%s (%d KB)%n", photo.getName(), photo.length() / 1024);
+            for (Rendition rendition : Rendition.ALL) {
+                int size = rendition.getMaxSize();
+                BufferedImage full = measure("full decode", rendition, photo,
+                        (file, maxSize) -> ImageIO.read(file));
+                BufferedImage subsampled = measure("subsampled", rendition, photo, ImageDecoder::decodeToFit);
+                System.out.printf("    %-7s mean pixel difference after fit: %.2f / 255%n",
+                        rendition.getName(), meanDifference(ImagePipeline.fit(full, size),
+                                ImagePipeline.fit(subsampled, size)));
+            }
+        }
+    }
+
+    // Reports the best of a few rounds: time, decoded raster size and heap peak above the
+    // post-GC baseline for decoding the photo and fitting it to the rendition.
+    private static BufferedImage measure(String label, Rendition rendition, File photo, Decode decode)
+            throws IOException {
+        long bestNanos = Long.MAX_VALUE;
+        long bestPeak = Long.MAX_VALUE;
+        BufferedImage decoded = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            decoded = null;
+            long baseline = settledHeap();
+            resetPeaks();
+            long t0 = System.nanoTime();
+            decoded = decode.run(photo, rendition.getMaxSize());
+            ImagePipeline.fit(decoded, rendition.getMaxSize());
+            bestNanos = Math.min(bestNanos, System.nanoTime() - t0);
+            bestPeak = Math.min(bestPeak, peakHeap() - baseline);
+        }
+        System.out.printf("  %-7s %-12s decoded %4dx%-4d %7.1f MB raster  peak heap +%6.1f MB  %6.0f ms%n",
+                rendition.getName(), label, decoded.getWidth(), decoded.getHeight(),
+                rasterBytes(decoded) / 1048576.0, bestPeak / 1048576.0, bestNanos / 1e6);
+        return decoded;
+    }
+
+    private static long settledHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        long used = 0;
+        for (MemoryPoolMXBean pool : heapPools()) {
+            used += pool.getUsage().getUsed();
+        }
+        return used;
+    }
+
+    private static void resetPeaks() {
+        for (MemoryPoolMXBean pool : heapPools()) {
+            pool.resetPeakUsage();
+        }
+    }
+
+    // Sum of the per-pool peaks; pools peak at different moments, so this is an upper bound.
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools()) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+
+    private static long rasterBytes(BufferedImage image) {
+        int bytesPerPixel = image.getColorModel().getPixelSize() / 8;
+        return (long) image.getWidth() * image.getHeight() * Math.max(1, bytesPerPixel);
+    }
+
+    private static double meanDifference(BufferedImage a, BufferedImage b) {
+        int width = Math.min(a.getWidth(), b.getWidth());
+        int height = Math.min(a.getHeight(), b.getHeight());
+        long total = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int p = a.getRGB(x, y);
+                int q = b.getRGB(x, y);
+                total += Math.abs((p >> 16 & 0xFF) - (q >> 16 & 0xFF)) + Math.abs((p >> 8 & 0xFF) - (q >> 8 & 0xFF))
+                        + Math.abs((p & 0xFF) - (q & 0xFF));
+            }
+        }
+        return total / (3.0 * width * height);
+    }
+
+    // A synthetic photo scaled up to camera resolution, with sensor-like noise so the JPEG is
+    // not trivially compressible.
+    private static BufferedImage render(Random random) {
+        BufferedImage photo = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = photo.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(ImageHashBench.render(random), 0, 0, WIDTH, HEIGHT, null);
+        } finally {
+            g.dispose();
+        }
+        int[] row = new int[WIDTH];
+        for (int y = 0; y < HEIGHT; y++) {
+            photo.getRGB(0, y, WIDTH, 1, row, 0, WIDTH);
+            for (int x = 0; x < WIDTH; x++) {
+                int n = random.nextInt(17) - 8;
+                row[x] = clamp((row[x] >> 16 & 0xFF) + n) << 16 | clamp((row[x] >> 8 & 0xFF) + n) << 8
+                        | clamp((row[x] & 0xFF) + n);
+            }
+            photo.setRGB(0, y, WIDTH, 1, row, 0, WIDTH);
+        }
+        return photo;
+    }
+
+    private static int clamp(int channel) {
+        return Math.max(0, Math.min(255, channel));
+    }
+}
@@ -0,0 +1,224 @@
+package com.lostfound.bench;
+
+// Measures perceptual hash robustness on synthetic photos and Hamming lookups over many hashes.
+import com.lostfound.image.HammingIndex;
+import com.lostfound.image.PerceptualHash;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import javax.imageio.ImageIO;
+
+public class ImageHashBench {
+    private static final int WIDTH = 1024;
+    private static final int HEIGHT = 768;
+    private static final int MAX_DISTANCE = 10;
+    static final String[] VARIANTS = {"half size", "jpeg", "brighter", "cropped 5%", "noise"};
+
+    // Usage: ImageHashBench [photos] [indexedHashes] [lookups]
+    public static void main(String[] args) throws IOException {
+        int photos = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int indexedHashes = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int lookups = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        Random random = new Random(42);
+
+        // Robustness: distance from each photo to edited copies of itself, and to other photos.
+        long[] dHashes = new long[photos];
+        long[] pHashes = new long[photos];
+        int[][] pVariant = new int[VARIANTS.length][photos];
+        int[][] dVariant = new int[VARIANTS.length][photos];
+        long hashNanos = 0;
+        for (int i = 0; i < photos; i++) {
+            BufferedImage photo = render(random);
+            long t0 = System.nanoTime();
+            BufferedImage prepared = PerceptualHash.prepare(photo);
+            dHashes[i] = PerceptualHash.dHash(prepared);
+            pHashes[i] = PerceptualHash.pHash(prepared);
+            hashNanos += System.nanoTime() - t0;
+            for (int v = 0; v < VARIANTS.length; v++) {
+                BufferedImage variant = PerceptualHash.prepare(variant(photo, v, random));
+                pVariant[v][i] = PerceptualHash.distance(pHashes[i], PerceptualHash.pHash(variant));
+                dVariant[v][i] = PerceptualHash.distance(dHashes[i], PerceptualHash.dHash(variant));
+            }
+        }
+        System.out.printf("Hashed %d %dx%d photos: %.2f ms each for dHash + pHash%n",
+                photos, WIDTH, HEIGHT, hashNanos / 1e6 / photos);
+        for (int v = 0; v < VARIANTS.length; v++) {
+            System.out.printf("  %-11s pHash mean=%.1f max=%d   dHash mean=%.1f max=%d%n", VARIANTS[v],
+                    mean(pVariant[v]), max(pVariant[v]), mean(dVariant[v]), max(dVariant[v]));
+        }
+        int[] pOther = new int[photos * (photos - 1) / 2];
+        int[] dOther = new int[pOther.length];
+        int pairs = 0;
+        for (int i = 0; i < photos; i++) {
+            for (int j = i + 1; j < photos; j++) {
+                pOther[pairs] = PerceptualHash.distance(pHashes[i], pHashes[j]);
+                dOther[pairs++] = PerceptualHash.distance(dHashes[i], dHashes[j]);
+            }
+        }
+        Arrays.sort(pOther);
+        Arrays.sort(dOther);
+        System.out.printf("  %-11s pHash mean=%.1f min=%d   dHash mean=%.1f min=%d  (%d pairs, %d pHash pairs <= %d)%n",
+                "unrelated", mean(pOther), pOther[0], mean(dOther), dOther[0], pairs,
+                countAtMost(pOther, MAX_DISTANCE), MAX_DISTANCE);
+
+        // Lookups: the photo hashes plus near copies of them, padded out with random hashes.
+        long[] hashes = new long[indexedHashes];
+        for (int i = 0; i < indexedHashes; i++) {
+            hashes[i] = i < photos * 4 ? flipBits(pHashes[i % photos], random.nextInt(MAX_DISTANCE), random)
+                    : random.nextLong();
+        }
+        HammingIndex index = new HammingIndex();
+        long start = System.nanoTime();
+        for (int i = 0; i < indexedHashes; i++) {
+            index.add(hashes[i], i);
+        }
+        System.out.printf("Built multi-index hash table over %d hashes in %d ms%n",
+                index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        for (int round = 0; round < 3; round++) {
+            long[] indexNanos = new long[lookups];
+            long[] scanNanos = new long[lookups];
+            long indexHits = 0;
+            long scanHits = 0;
+            for (int i = 0; i < lookups; i++) {
+                long query = flipBits(pHashes[random.nextInt(photos)], random.nextInt(4), random);
+                long[] found = new long[1];
+                long t0 = System.nanoTime();
+                index.search(query, MAX_DISTANCE, (id, distance) -> found[0]++);
+                indexNanos[i] = System.nanoTime() - t0;
+                indexHits += found[0];
+                t0 = System.nanoTime();
+                for (long hash : hashes) {
+                    if (PerceptualHash.distance(query, hash) <= MAX_DISTANCE) {
+                        scanHits++;
+                    }
+                }
+                scanNanos[i] = System.nanoTime() - t0;
+            }
+            Arrays.sort(indexNanos);
+            Arrays.sort(scanNanos);
+            System.out.printf("Round %d  radius %d: multi-index p50=%.2fms p95=%.2fms, "
+                            + "linear scan p50=%.2fms p95=%.2fms, %.1f hits each (scan %.1f)%n", round + 1, MAX_DISTANCE,
+                    indexNanos[lookups / 2] / 1e6, indexNanos[(int) (lookups * 0.95)] / 1e6,
+                    scanNanos[lookups / 2] / 1e6, scanNanos[(int) (lookups * 0.95)] / 1e6,
+                    (double) indexHits / lookups, (double) scanHits / lookups);
+        }
+    }
+
+    // A stand-in for a photo of an object: a gradient backdrop with a few filled shapes.
+    static BufferedImage render(Random random) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setPaint(new GradientPaint(0, 0, randomColor(random), WIDTH, HEIGHT, randomColor(random)));
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+            int shapes = 3 + random.nextInt(6);
+            for (int s = 0; s < shapes; s++) {
+                g.setColor(randomColor(random));
+                int w = 80 + random.nextInt(WIDTH / 2);
+                int h = 80 + random.nextInt(HEIGHT / 2);
+                int x = random.nextInt(WIDTH - w);
+                int y = random.nextInt(HEIGHT - h);
+                if (random.nextBoolean()) {
+                    g.fillOval(x, y, w, h);
+                } else {
+                    g.fillRoundRect(x, y, w, h, 30, 30);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    static BufferedImage variant(BufferedImage photo, int kind, Random random) throws IOException {
+        switch (kind) {
+            case 0:
+                return draw(photo, WIDTH / 2, HEIGHT / 2, 0, 0, WIDTH, HEIGHT);
+            case 1: {
+                ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+                ImageIO.write(photo, "jpg", jpeg);
+                return ImageIO.read(new ByteArrayInputStream(jpeg.toByteArray()));
+            }
+            case 2: {
+                BufferedImage brighter = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+                int[] rgb = photo.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+                for (int i = 0; i < rgb.length; i++) {
+                    rgb[i] = brighten(rgb[i] >> 16) << 16 | brighten(rgb[i] >> 8) << 8 | brighten(rgb[i]);
+                }
+                brighter.setRGB(0, 0, WIDTH, HEIGHT, rgb, 0, WIDTH);
+                return brighter;
+            }
+            case 3:
+                return draw(photo, WIDTH * 9 / 10, HEIGHT * 9 / 10, WIDTH / 20, HEIGHT / 20,
+                        WIDTH * 19 / 20, HEIGHT * 19 / 20);
+            default: {
+                BufferedImage noisy = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+                int[] rgb = photo.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+                for (int i = 0; i < rgb.length; i++) {
+                    int n = (int) (random.nextGaussian() * 12);
+                    rgb[i] = clamp((rgb[i] >> 16 & 0xFF) + n) << 16 | clamp((rgb[i] >> 8 & 0xFF) + n) << 8
+                            | clamp((rgb[i] & 0xFF) + n);
+                }
+                noisy.setRGB(0, 0, WIDTH, HEIGHT, rgb, 0, WIDTH);
+                return noisy;
+            }
+        }
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, int x1, int y1, int x2, int y2) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, width, height, x1, y1, x2, y2, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static int brighten(int channel) {
+        return clamp((int) ((channel & 0xFF) * 1.2));
+    }
+
+    private static int clamp(int channel) {
+        return Math.max(0, Math.min(255, channel));
+    }
+
+    private static Color randomColor(Random random) {
+        return new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256));
+    }
+
+    private static long flipBits(long hash, int bits, Random random) {
+        long flipped = hash;
+        for (int i = 0; i < bits; i++) {
+            flipped ^= 1L << random.nextInt(64);
+        }
+        return flipped;
+    }
+
+    private static double mean(int[] values) {
+        return Arrays.stream(values).average().orElse(0);
+    }
+
+    private static int max(int[] values) {
+        return Arrays.stream(values).max().orElse(0);
+    }
+
+    private static int countAtMost(int[] sorted, int limit) {
+        int count = 0;
+        while (count < sorted.length && sorted[count] <= limit) {
+            count++;
+        }
+        return count;
+    }
+}
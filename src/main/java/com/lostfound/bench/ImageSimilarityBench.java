@@ -0,0 +1,209 @@
+package com.lostfound.bench;
+
+// Measures image feature extraction and HNSW top-K recall and latency against exact search.
+import com.lostfound.image.HnswIndex;
+import com.lostfound.image.ImageFeatures;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class ImageSimilarityBench {
+    private static final int TOP_K = 10;
+    private static final int[] EF_VALUES = {10, 20, 40, 80, 160};
+    // Spread of the synthetic vectors around the photo descriptors they are drawn from.
+    private static final double NOISE = 0.04;
+
+    // Usage: ImageSimilarityBench [photos] [vectors] [queries]
+    public static void main(String[] args) throws IOException {
+        int photos = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int vectorCount = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        Random random = new Random(42);
+
+        // Descriptors: does an edited copy of a photo find the original among all the photos?
+        float[][] features = new float[photos][];
+        BufferedImage[] rendered = new BufferedImage[photos];
+        long extractNanos = 0;
+        for (int i = 0; i < photos; i++) {
+            rendered[i] = ImageHashBench.render(random);
+            long t0 = System.nanoTime();
+            features[i] = ImageFeatures.extract(rendered[i]);
+            extractNanos += System.nanoTime() - t0;
+        }
+        System.out.printf("Extracted %d-dimension features from %d photos: %.2f ms each%n",
+                ImageFeatures.DIMENSIONS, photos, extractNanos / 1e6 / photos);
+        for (int v = 0; v < ImageHashBench.VARIANTS.length; v++) {
+            int top1 = 0;
+            double similarity = 0;
+            for (int i = 0; i < photos; i++) {
+                float[] edited = ImageFeatures.extract(ImageHashBench.variant(rendered[i], v, random));
+                similarity += ImageFeatures.similarity(edited, features[i]);
+                if (exactTop(features, edited, 1)[0] == i) {
+                    top1++;
+                }
+            }
+            System.out.printf("  %-11s original ranked first for %d/%d, mean similarity %.3f%n",
+                    ImageHashBench.VARIANTS[v], top1, photos, similarity / photos);
+        }
+
+        float[] unrelated = new float[photos * (photos - 1) / 2];
+        int pairs = 0;
+        for (int i = 0; i < photos; i++) {
+            for (int j = i + 1; j < photos; j++) {
+                unrelated[pairs++] = ImageFeatures.similarity(features[i], features[j]);
+            }
+        }
+        Arrays.sort(unrelated);
+        System.out.printf("  %-11s mean similarity %.3f, 99th percentile %.3f, max %.3f%n", "unrelated",
+                mean(unrelated), unrelated[(int) (pairs * 0.99)], unrelated[pairs - 1]);
+
+        // Index: vectors scattered around the photo descriptors, so there are real clusters.
+        float[][] vectors = new float[vectorCount][];
+        for (int i = 0; i < vectorCount; i++) {
+            vectors[i] = perturb(features[random.nextInt(photos)], random);
+        }
+        HnswIndex index = new HnswIndex(ImageFeatures.DIMENSIONS, 16, 100, new Random(7));
+        long start = System.nanoTime();
+        for (int i = 0; i < vectorCount; i++) {
+            index.add(i, vectors[i]);
+        }
+        System.out.printf("Built HNSW over %d vectors in %d ms%n", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        float[][] queryVectors = new float[queries][];
+        int[][] truth = new int[queries][];
+        long exactNanos = 0;
+        for (int q = 0; q < queries; q++) {
+            queryVectors[q] = perturb(features[random.nextInt(photos)], random);
+            long t0 = System.nanoTime();
+            truth[q] = exactTop(vectors, queryVectors[q], TOP_K);
+            exactNanos += System.nanoTime() - t0;
+        }
+        System.out.printf("Exact top-%d: %.2f ms per query%n", TOP_K, exactNanos / 1e6 / queries);
+        for (int ef : EF_VALUES) {
+            measure(index, queryVectors, truth, ef, "");
+        }
+
+        // A fifth of the vectors removed: results skip them but the graph still routes through.
+        Set<Integer> removed = new HashSet<>();
+        for (int i = 0; i < vectorCount / 5; i++) {
+            int id = random.nextInt(vectorCount);
+            if (removed.add(id)) {
+                index.remove(id);
+            }
+        }
+        float[][] remaining = new float[vectorCount][];
+        for (int i = 0; i < vectorCount; i++) {
+            remaining[i] = removed.contains(i) ? null : vectors[i];
+        }
+        for (int q = 0; q < queries; q++) {
+            truth[q] = exactTop(remaining, queryVectors[q], TOP_K);
+        }
+        measure(index, queryVectors, truth, 40, String.format(" after removing %d", removed.size()));
+        start = System.nanoTime();
+        HnswIndex compacted = index.compacted();
+        System.out.printf("Compacted to %d vectors in %d ms%n", compacted.size(), (System.nanoTime() - start) / 1_000_000);
+        measure(compacted, queryVectors, truth, 40, " compacted");
+
+        File file = File.createTempFile("hnsw", ".idx");
+        file.deleteOnExit();
+        start = System.nanoTime();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            compacted.write(out);
+        }
+        long written = System.nanoTime() - start;
+        start = System.nanoTime();
+        HnswIndex loaded;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            loaded = HnswIndex.read(in);
+        }
+        System.out.printf("Saved %.1f MB in %d ms, loaded in %d ms%n", file.length() / 1e6, written / 1_000_000,
+                (System.nanoTime() - start) / 1_000_000);
+        measure(loaded, queryVectors, truth, 40, " reloaded");
+    }
+
+    private static void measure(HnswIndex index, float[][] queries, int[][] truth, int ef, String label) {
+        for (int round = 0; round < 2; round++) {
+            long[] nanos = new long[queries.length];
+            int found = 0;
+            for (int q = 0; q < queries.length; q++) {
+                long t0 = System.nanoTime();
+                List<HnswIndex.Result> results = index.search(queries[q], TOP_K, ef);
+                nanos[q] = System.nanoTime() - t0;
+                Set<Integer> expected = new HashSet<>();
+                for (int id : truth[q]) {
+                    expected.add(id);
+                }
+                for (HnswIndex.Result result : results) {
+                    if (expected.contains(result.getId())) {
+                        found++;
+                    }
+                }
+            }
+            // The first round warms up the JIT.
+            if (round == 1) {
+                Arrays.sort(nanos);
+                System.out.printf("ef=%-3d%s recall@%d=%.3f p50=%.3fms p95=%.3fms%n", ef, label, TOP_K,
+                        (double) found / (queries.length * TOP_K), nanos[queries.length / 2] / 1e6,
+                        nanos[(int) (queries.length * 0.95)] / 1e6);
+            }
+        }
+    }
+
+    // Positions of the k vectors most similar to query; null entries are skipped.
+    private static int[] exactTop(float[][] vectors, float[] query, int k) {
+        int[] best = new int[k];
+        float[] bestSimilarity = new float[k];
+        Arrays.fill(best, -1);
+        Arrays.fill(bestSimilarity, Float.NEGATIVE_INFINITY);
+        for (int i = 0; i < vectors.length; i++) {
+            if (vectors[i] == null) {
+                continue;
+            }
+            float similarity = ImageFeatures.similarity(vectors[i], query);
+            if (similarity <= bestSimilarity[k - 1]) {
+                continue;
+            }
+            int j = k - 1;
+            while (j > 0 && bestSimilarity[j - 1] < similarity) {
+                best[j] = best[j - 1];
+                bestSimilarity[j] = bestSimilarity[j - 1];
+                j--;
+            }
+            best[j] = i;
+            bestSimilarity[j] = similarity;
+        }
+        return best;
+    }
+
+    private static double mean(float[] values) {
+        double sum = 0;
+        for (float value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static float[] perturb(float[] base, Random random) {
+        float[] vector = new float[base.length];
+        double norm = 0;
+        for (int d = 0; d < base.length; d++) {
+            vector[d] = (float) Math.max(0, base[d] + random.nextGaussian() * NOISE);
+            norm += vector[d] * vector[d];
+        }
+        for (int d = 0; d < base.length; d++) {
+            vector[d] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
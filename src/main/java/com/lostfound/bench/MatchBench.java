@@ -0,0 +1,55 @@
+package com.lostfound.bench;
+
+// Measures top-K match lookups over a large synthetic set of lost and found reports.
+import com.lostfound.match.MatchIndex;
+import com.lostfound.model.MatchCandidate;
+import com.lostfound.model.ReportDetails;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class MatchBench {
+    private static final int TOP_K = 10;
+
+    // Usage: MatchBench [reportCount] [lookups]
+    public static void main(String[] args) {
+        int reportCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        Random random = new Random(42);
+        List<ReportDetails> reports = SearchLatencyBench.generate(reportCount, random);
+
+        MatchIndex index = new MatchIndex();
+        long start = System.nanoTime();
+        for (ReportDetails report : reports) {
+            index.add(report);
+        }
+        System.out.printf("Indexed %d reports in %d ms%n", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        for (int round = 0; round < 3; round++) {
+            long[] nanos = new long[lookups];
+            long suggested = 0;
+            for (int i = 0; i < lookups; i++) {
+                int reportId = 1 + random.nextInt(reportCount);
+                long t0 = System.nanoTime();
+                suggested += index.topMatches(reportId, TOP_K).size();
+                nanos[i] = System.nanoTime() - t0;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("Round %d  top-%d lookups: p50=%.2fms p95=%.2fms max=%.2fms, %.1f suggestions each%n",
+                    round + 1, TOP_K, nanos[lookups / 2] / 1e6, nanos[(int) (lookups * 0.95)] / 1e6,
+                    nanos[lookups - 1] / 1e6, (double) suggested / lookups);
+        }
+
+        ReportDetails sample = reports.get(0);
+        System.out.printf("Report %d (%s, %s, %s):%n", sample.getReportId(), sample.getStatus(),
+                sample.getItemName(), sample.getLocation());
+        List<String> lines = new ArrayList<>();
+        for (MatchCandidate match : index.topMatches(sample.getReportId(), 3)) {
+            ReportDetails candidate = index.get(match.getCandidateId());
+            lines.add(String.format("  %.3f  #%d %s, %s, %s", match.getScore(), candidate.getReportId(),
+                    candidate.getItemName(), candidate.getDescription(), candidate.getLocation()));
+        }
+        lines.forEach(System.out::println);
+    }
+}
@@ -0,0 +1,99 @@
+package com.lostfound.bench;
+
+// Measures per-keystroke report search latency over a synthetic index, with and without reuse.
+import com.lostfound.model.ReportDetails;
+import com.lostfound.search.ReportIndex;
+import com.lostfound.search.ReportSearch;
+import com.lostfound.search.SearchQuery;
+import com.lostfound.service.ReportService;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class SearchLatencyBench {
+    private static final String[] NAMES = {"wallet", "phone", "keys", "umbrella", "backpack", "laptop",
+            "charger", "headphones", "watch", "glasses", "jacket", "bottle", "notebook", "calculator",
+            "passport", "bracelet", "earrings", "scarf", "gloves", "camera"};
+    private static final String[] ADJECTIVES = {"black", "blue", "red", "leather", "silver", "small",
+            "large", "brown", "green", "white", "wireless", "gold", "striped", "old", "new"};
+    private static final String[] PLACES = {"library", "cafeteria", "gym", "parking lot", "lecture hall",
+            "bus stop", "main gate", "student center", "lab", "dormitory", "auditorium", "field"};
+    private static final String[] CATEGORIES = {"Electronics", "Accessories", "Clothing", "Documents",
+            "Bags", "Other"};
+    private static final String[] QUERIES = {"black leather wallet", "wireless headphones library",
+            "silver watch type:lost", "blue umbrella near:bus"};
+
+    // Usage: SearchLatencyBench [reportCount] [rounds]
+    public static void main(String[] args) throws Exception {
+        int reportCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        List<ReportDetails> reports = generate(reportCount, new Random(42));
+
+        ReportIndex index = new ReportIndex();
+        long start = System.nanoTime();
+        for (ReportDetails report : reports) {
+            index.add(report);
+        }
+        System.out.printf("Indexed %d reports, %d terms in %d ms%n",
+                index.size(), index.getTermCount(), (System.nanoTime() - start) / 1_000_000);
+
+        // Served from memory, so ReportSearch syncs against the generated list only.
+        ReportService source = new ReportService(null, null) {
+            @Override
+            public List<ReportDetails> getAllReportsWithDetails() {
+                return reports;
+            }
+        };
+        ReportSearch search = new ReportSearch(source);
+        search.search("", 1);
+
+        for (int round = 0; round < rounds; round++) {
+            List<Long> scratch = new ArrayList<>();
+            List<Long> incremental = new ArrayList<>();
+            for (String query : QUERIES) {
+                for (int end = 1; end <= query.length(); end++) {
+                    String typed = query.substring(0, end);
+                    long t0 = System.nanoTime();
+                    index.search(SearchQuery.parse(typed), 200);
+                    scratch.add(System.nanoTime() - t0);
+                    long t1 = System.nanoTime();
+                    search.search(typed, 200);
+                    incremental.add(System.nanoTime() - t1);
+                }
+            }
+            System.out.printf("Round %d  from scratch: %s  with prefix reuse: %s%n",
+                    round + 1, summary(scratch), summary(incremental));
+        }
+    }
+
+    // Also used by MatchBench.
+    static List<ReportDetails> generate(int count, Random random) {
+        List<ReportDetails> reports = new ArrayList<>(count);
+        long now = System.currentTimeMillis();
+        for (int id = 1; id <= count; id++) {
+            String name = pick(ADJECTIVES, random) + " " + pick(NAMES, random);
+            String description = pick(ADJECTIVES, random) + " " + pick(NAMES, random) + " with "
+                    + pick(ADJECTIVES, random) + " strap, serial " + Integer.toHexString(random.nextInt());
+            boolean lost = random.nextBoolean();
+            reports.add(new ReportDetails(id, name, "User " + random.nextInt(5000), "555-0100",
+                    new Timestamp(now - random.nextInt(365) * 86_400_000L), lost ? "Lost" : "Found",
+                    pick(PLACES, random), description, pick(CATEGORIES, random),
+                    lost ? null : pick(PLACES, random) + " desk"));
+        }
+        return reports;
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String summary(List<Long> nanos) {
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return String.format("p50=%.1fms p95=%.1fms max=%.1fms",
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.95)] / 1e6,
+                sorted[sorted.length - 1] / 1e6);
+    }
+}
@@ -0,0 +1,76 @@
+package com.lostfound.config;
+
+// Circuit breaker for one database endpoint with exponential, jittered retry delays.
+import java.util.concurrent.ThreadLocalRandom;
+
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    // Number of times the breaker has re-opened without an intervening success; drives the backoff.
+    private int openCount;
+    private long retryAt;
+
+    public CircuitBreaker(int failureThreshold, long baseDelayMillis, long maxDelayMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseDelayMillis = Math.max(1L, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+    }
+
+    // True if a caller may try the endpoint now. Once the retry delay has passed, exactly one
+    // caller is let through as a half-open trial; everyone else keeps failing fast.
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() >= retryAt) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        openCount = 0;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getRetryAt() {
+        return retryAt;
+    }
+
+    // Delay doubles with every re-open up to the cap; "equal jitter" keeps at least half of it
+    // so a flapping endpoint is not hammered, while spreading out clients that failed together.
+    private void open() {
+        long delay = maxDelayMillis;
+        if (openCount < 30) {
+            delay = Math.min(maxDelayMillis, baseDelayMillis << openCount);
+        }
+        long half = delay / 2;
+        long jittered = half + ThreadLocalRandom.current().nextLong(half + 1);
+        openCount++;
+        state = State.OPEN;
+        retryAt = System.currentTimeMillis() + jittered;
+    }
+}
@@ -0,0 +1,412 @@
+package com.lostfound.config;
+
+// Bounded JDBC connection pool that keeps physical MySQL connections warm between calls.
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+public class ConnectionPool implements DataSource, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long acquireTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    // Idle connections, most recently returned first so the warmest connection is reused.
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    // One permit per connection that may be checked out; bounds the pool size.
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private int totalConnections;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String user, String password, PoolSettings settings) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = settings.getMaxSize();
+        this.minIdle = settings.getMinIdle();
+        this.acquireTimeoutMillis = settings.getAcquireTimeoutMillis();
+        this.validationIntervalMillis = settings.getValidationIntervalMillis();
+        this.idleTimeoutMillis = settings.getIdleTimeoutMillis();
+        this.statementCacheSize = settings.getStatementCacheSize();
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000L, validationIntervalMillis);
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, 0L, period, TimeUnit.MILLISECONDS);
+        LOGGER.log(Level.INFO, "Connection pool created for {0} (maxSize={1}, minIdle={2}, statementCacheSize={3})",
+                new Object[]{url, maxSize, minIdle, statementCacheSize});
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new PoolExhaustedException("Timed out after " + acquireTimeoutMillis
+                        + " ms waiting for a connection to " + url + " (maxSize=" + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = createPhysical();
+            }
+            return pooled.checkout();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use the configured credentials");
+    }
+
+    public synchronized int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public synchronized int getIdleConnections() {
+        return idle.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveConnections() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (this) {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                discard(pooled);
+            }
+        }
+        LOGGER.log(Level.INFO, "Connection pool for {0} closed", url);
+    }
+
+    // Pops idle connections until one passes validation; connections idle for less than the
+    // validation interval are trusted without a round trip.
+    private PooledConnection takeIdle() {
+        while (true) {
+            PooledConnection pooled;
+            synchronized (this) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) {
+                return null;
+            }
+            long idleFor = System.currentTimeMillis() - pooled.lastReturned;
+            if (idleFor < validationIntervalMillis || pooled.isValid()) {
+                return pooled;
+            }
+            LOGGER.log(Level.INFO, "Discarding stale pooled connection to {0}", url);
+            discard(pooled);
+        }
+    }
+
+    private PooledConnection createPhysical() throws SQLException {
+        synchronized (this) {
+            totalConnections++;
+        }
+        try {
+            Connection physical = DriverManager.getConnection(url, user, password);
+            LOGGER.log(Level.FINE, "Opened physical connection to {0}", url);
+            return new PooledConnection(physical);
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                totalConnections--;
+            }
+            throw e;
+        }
+    }
+
+    private void release(PooledConnection pooled, boolean reusable) {
+        try {
+            if (reusable && !closed) {
+                pooled.lastReturned = System.currentTimeMillis();
+                synchronized (this) {
+                    idle.addFirst(pooled);
+                }
+            } else {
+                discard(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        synchronized (this) {
+            totalConnections--;
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing physical connection", e);
+        }
+    }
+
+    // Validates idle connections that have sat unused, trims those past the idle timeout
+    // beyond minIdle, then tops the pool back up to minIdle.
+    private void houseKeep() {
+        try {
+            long now = System.currentTimeMillis();
+            List<PooledConnection> candidates;
+            synchronized (this) {
+                candidates = new ArrayList<>(idle);
+            }
+            for (PooledConnection pooled : candidates) {
+                if (now - pooled.lastReturned < validationIntervalMillis || !permits.tryAcquire()) {
+                    continue;
+                }
+                boolean expired;
+                synchronized (this) {
+                    if (!idle.remove(pooled)) {
+                        permits.release();
+                        continue;
+                    }
+                    expired = idle.size() >= minIdle && now - pooled.lastReturned >= idleTimeoutMillis;
+                }
+                if (expired) {
+                    LOGGER.log(Level.FINE, "Closing idle connection to {0}", url);
+                    release(pooled, false);
+                } else if (pooled.isValid()) {
+                    release(pooled, true);
+                } else {
+                    LOGGER.log(Level.INFO, "Evicting broken idle connection to {0}", url);
+                    release(pooled, false);
+                }
+            }
+            while (!closed && needsWarmConnection() && permits.tryAcquire()) {
+                PooledConnection pooled;
+                try {
+                    pooled = createPhysical();
+                } catch (SQLException e) {
+                    permits.release();
+                    LOGGER.log(Level.FINE, "Could not pre-open pooled connection: {0}", e.getMessage());
+                    break;
+                }
+                release(pooled, true);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Connection pool housekeeping failed", e);
+        }
+    }
+
+    private synchronized boolean needsWarmConnection() {
+        return idle.size() < minIdle && totalConnections < maxSize;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return Logger.getLogger("com.lostfound.config");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    // Thrown when every connection is checked out for longer than the acquire timeout. The
+    // endpoint itself is healthy, so failover logic must not treat this as an outage.
+    public static class PoolExhaustedException extends SQLTimeoutException {
+        private static final long serialVersionUID = 1L;
+
+        public PoolExhaustedException(String message) {
+            super(message);
+        }
+    }
+
+    // A physical connection owned by the pool. Each checkout hands out a fresh proxy so a
+    // caller that closes twice, or keeps using a closed handle, cannot affect the next borrower.
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private volatile long lastReturned = System.currentTimeMillis();
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = new StatementCache(physical, statementCacheSize,
+                    statementCacheHits, statementCacheMisses);
+        }
+
+        private boolean isValid() {
+            try {
+                return physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private Connection checkout() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean handleClosed;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    closeHandle();
+                    return null;
+                case "isClosed":
+                    return handleClosed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + url + "]";
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (handleClosed) {
+                throw new SQLException("Connection is closed");
+            }
+            Object result;
+            if (statementCacheSize > 0 && StatementCache.isCacheable(method, args)) {
+                result = pooled.statementCache.prepare((Connection) proxy, args);
+            } else {
+                try {
+                    result = method.invoke(pooled.physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+            if (result instanceof Statement) {
+                QueryScope.register((Statement) result);
+            }
+            return result;
+        }
+
+        // Restores session state a caller may have changed before the connection is reused.
+        private void closeHandle() {
+            if (handleClosed) {
+                return;
+            }
+            handleClosed = true;
+            boolean reusable = true;
+            try {
+                if (pooled.physical.isClosed()) {
+                    reusable = false;
+                } else {
+                    pooled.statementCache.reclaimAll();
+                    if (!pooled.physical.getAutoCommit()) {
+                        pooled.physical.rollback();
+                        pooled.physical.setAutoCommit(true);
+                    }
+                    if (pooled.physical.isReadOnly()) {
+                        pooled.physical.setReadOnly(false);
+                    }
+                    pooled.physical.clearWarnings();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Failed to reset pooled connection, discarding it", e);
+                reusable = false;
+            }
+            release(pooled, reusable);
+        }
+    }
+}
@@ -2,10 +2,15 @@ package com.lostfound.config;
 
 // Provides database connection for the Lost and Found System.
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
 
 public class DBConnection {
+    private static final Logger LOGGER = Logger.getLogger(DBConnection.class.getName());
     // Database URL for MySQL connection (replace with your MySQL connection link).
     private static final String URL = "jdbc:mysql://localhost:3306/lostfounddb";
     // Database username (replace with your MySQL username).
@@ -13,31 +18,140 @@ public class DBConnection {
     // Database password (replace with your MySQL password).
     private static final String PASSWORD = "abroot@mysql#123";
 
-    // Establishes and returns a connection to the MySQL database.
-    // This method will first check for environment variables DB_URL, DB_USER and DB_PASS
+    // Pool defaults; each can be overridden with the environment variable of the same name.
+    private static final int DB_POOL_MAX_SIZE = 10;
+    private static final int DB_POOL_MIN_IDLE = 2;
+    private static final long DB_POOL_ACQUIRE_TIMEOUT_MS = 5000L;
+    private static final long DB_POOL_VALIDATION_INTERVAL_MS = 30000L;
+    private static final long DB_POOL_IDLE_TIMEOUT_MS = 600000L;
+    private static final int DB_STATEMENT_CACHE_SIZE = 50;
+    // How long a session keeps reading from the primary after it writes.
+    private static final long DB_PRIMARY_STICKY_MS = 5000L;
+    // Failover defaults: a short connect timeout, how many failed connects open an endpoint's
+    // circuit, the backoff range before it is retried, and how often the health probe runs.
+    private static final long DB_CONNECT_TIMEOUT_MS = 3000L;
+    private static final int DB_FAILURE_THRESHOLD = 2;
+    private static final long DB_RETRY_BASE_MS = 1000L;
+    private static final long DB_RETRY_MAX_MS = 60000L;
+    private static final long DB_HEALTH_PROBE_MS = 2000L;
+
+    private static RoutingDataSource dataSource;
+
+    // Returns a connection borrowed from the shared pool. Closing it hands it back to the pool
+    // instead of tearing down the socket, so callers keep using try-with-resources as before.
+    // Connection settings are read from the environment variables DB_URL, DB_USER and DB_PASS
     // and fall back to the constants above if they are not set. This avoids the need
     // to edit source when running locally — simply set environment variables in your shell.
-    public static Connection getConnection() {
-        String url = System.getenv("DB_URL");
-        String user = System.getenv("DB_USER");
-        String pass = System.getenv("DB_PASS");
+    // Throws instead of returning null when no database endpoint can be reached.
+    public static Connection getConnection() throws SQLException {
+        return getDataSource().getConnection();
+    }
+
+    // Shared DataSource for the application. Writes go to DB_URL, failing over in order to the
+    // comma-separated DB_STANDBY_URLS. Read-only calls are spread over DB_REPLICA_URLS when set,
+    // and fall back to the primary otherwise.
+    public static synchronized DataSource getDataSource() {
+        if (dataSource == null) {
+            try {
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                LOGGER.log(Level.SEVERE, "MySQL JDBC driver not found on the classpath", e);
+            }
+            PoolSettings settings = poolSettings();
+            List<ConnectionPool> primaryPools = new ArrayList<>();
+            primaryPools.add(createPool(env("DB_URL", URL), settings));
+            for (String standbyUrl : envList("DB_STANDBY_URLS")) {
+                primaryPools.add(createPool(standbyUrl, settings));
+            }
+            DataSource primary = createFailover(primaryPools);
+            List<DataSource> replicas = new ArrayList<>();
+            for (String replicaUrl : envList("DB_REPLICA_URLS")) {
+                replicas.add(createFailover(List.of(createPool(replicaUrl, settings))));
+            }
+            dataSource = new RoutingDataSource(primary, replicas,
+                    envLong("DB_PRIMARY_STICKY_MS", DB_PRIMARY_STICKY_MS));
+        }
+        return dataSource;
+    }
+
+    private static FailoverDataSource createFailover(List<ConnectionPool> pools) {
+        return new FailoverDataSource(pools,
+                envInt("DB_FAILURE_THRESHOLD", DB_FAILURE_THRESHOLD),
+                envLong("DB_RETRY_BASE_MS", DB_RETRY_BASE_MS),
+                envLong("DB_RETRY_MAX_MS", DB_RETRY_MAX_MS),
+                envLong("DB_HEALTH_PROBE_MS", DB_HEALTH_PROBE_MS));
+    }
+
+    private static ConnectionPool createPool(String url, PoolSettings settings) {
+        String withDefaults = withParameter(url, "useServerPrepStmts", "true");
+        withDefaults = withParameter(withDefaults, "connectTimeout",
+                String.valueOf(envLong("DB_CONNECT_TIMEOUT_MS", DB_CONNECT_TIMEOUT_MS)));
+        return new ConnectionPool(
+                withDefaults,
+                env("DB_USER", USER),
+                System.getenv("DB_PASS") != null ? System.getenv("DB_PASS") : PASSWORD,
+                settings);
+    }
+
+    static PoolSettings poolSettings() {
+        return new PoolSettings(
+                envInt("DB_POOL_MAX_SIZE", DB_POOL_MAX_SIZE),
+                envInt("DB_POOL_MIN_IDLE", DB_POOL_MIN_IDLE),
+                envLong("DB_POOL_ACQUIRE_TIMEOUT_MS", DB_POOL_ACQUIRE_TIMEOUT_MS),
+                envLong("DB_POOL_VALIDATION_INTERVAL_MS", DB_POOL_VALIDATION_INTERVAL_MS),
+                envLong("DB_POOL_IDLE_TIMEOUT_MS", DB_POOL_IDLE_TIMEOUT_MS),
+                envInt("DB_STATEMENT_CACHE_SIZE", DB_STATEMENT_CACHE_SIZE));
+    }
 
-        if (url == null || url.isBlank()) {
-            url = URL;
+    // Adds a Connector/J URL parameter unless the configured URL already sets it. Server-side
+    // prepared statements let the pooled statement cache keep each query parsed once per
+    // connection; Connector/J otherwise emulates them and the server re-parses every query.
+    static String withParameter(String url, String name, String value) {
+        if (url.contains(name + "=")) {
+            return url;
         }
-        if (user == null || user.isBlank()) {
-            user = USER;
+        return url + (url.contains("?") ? "&" : "?") + name + "=" + value;
+    }
+
+    public static synchronized void shutdown() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
         }
-        if (pass == null) {
-            pass = PASSWORD;
+    }
+
+    static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    static List<String> envList(String name) {
+        List<String> values = new ArrayList<>();
+        String value = System.getenv(name);
+        if (value != null) {
+            for (String part : value.split(",")) {
+                if (!part.isBlank()) {
+                    values.add(part.trim());
+                }
+            }
         }
+        return values;
+    }
 
+    static int envInt(String name, int defaultValue) {
+        return (int) envLong(name, defaultValue);
+    }
+
+    static long envLong(String name, long defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return DriverManager.getConnection(url, user, pass);
-        } catch (ClassNotFoundException | SQLException e) {
-            e.printStackTrace();
-            return null;
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Ignoring invalid value for {0}: {1}", new Object[]{name, value});
+            return defaultValue;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,200 @@
+package com.lostfound.config;
+
+// DataSource over an ordered list of database endpoints that fails over to the next healthy one.
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+public class FailoverDataSource implements DataSource, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(FailoverDataSource.class.getName());
+    private static final int PROBE_VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final List<Endpoint> endpoints;
+    private final ScheduledExecutorService prober;
+    private volatile Endpoint active;
+
+    // Endpoints are tried in list order, so the first one is the preferred primary and the rest
+    // are standbys. With a positive probe interval a background thread owns the half-open trials,
+    // so callers never wait on a connect timeout for an endpoint that is known to be down.
+    public FailoverDataSource(List<ConnectionPool> pools, int failureThreshold, long baseBackoffMillis,
+                              long maxBackoffMillis, long probeIntervalMillis) {
+        if (pools.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        List<Endpoint> list = new ArrayList<>();
+        for (ConnectionPool pool : pools) {
+            list.add(new Endpoint(pool, new CircuitBreaker(failureThreshold, baseBackoffMillis, maxBackoffMillis)));
+        }
+        this.endpoints = List.copyOf(list);
+        this.active = endpoints.get(0);
+        if (probeIntervalMillis > 0) {
+            prober = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "db-health-probe");
+                thread.setDaemon(true);
+                return thread;
+            });
+            prober.scheduleWithFixedDelay(this::probe, probeIntervalMillis, probeIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            prober = null;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        SQLException failure = null;
+        for (Endpoint endpoint : endpoints) {
+            if (!mayTry(endpoint)) {
+                continue;
+            }
+            try {
+                Connection connection = endpoint.pool.getConnection();
+                endpoint.breaker.recordSuccess();
+                switchTo(endpoint);
+                return connection;
+            } catch (ConnectionPool.PoolExhaustedException e) {
+                throw e;
+            } catch (SQLException e) {
+                endpoint.breaker.recordFailure();
+                LOGGER.log(Level.WARNING, "Database endpoint {0} failed: {1}",
+                        new Object[]{endpoint.pool.getUrl(), e.getMessage()});
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        throw new SQLNonTransientConnectionException(
+                "No database endpoint is available (" + describeEndpoints() + ")", "08001", failure);
+    }
+
+    public String getActiveUrl() {
+        return active.pool.getUrl();
+    }
+
+    public List<String> describeEndpointStates() {
+        List<String> states = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            states.add(endpoint.pool.getUrl() + "=" + endpoint.breaker.getState());
+        }
+        return states;
+    }
+
+    private boolean mayTry(Endpoint endpoint) {
+        if (prober == null) {
+            return endpoint.breaker.allowRequest();
+        }
+        return endpoint.breaker.getState() == CircuitBreaker.State.CLOSED;
+    }
+
+    private void switchTo(Endpoint endpoint) {
+        Endpoint previous = active;
+        if (previous != endpoint) {
+            active = endpoint;
+            LOGGER.log(Level.WARNING, "Database failover: now using {0} (was {1})",
+                    new Object[]{endpoint.pool.getUrl(), previous.pool.getUrl()});
+        }
+    }
+
+    // Retries open endpoints once their backoff has elapsed. A successful probe closes the
+    // breaker, so traffic returns to a recovered primary ahead of the standbys.
+    private void probe() {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.breaker.getState() == CircuitBreaker.State.CLOSED || !endpoint.breaker.allowRequest()) {
+                continue;
+            }
+            try (Connection connection = endpoint.pool.getConnection()) {
+                if (!connection.isValid(PROBE_VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Connection failed validation");
+                }
+                endpoint.breaker.recordSuccess();
+                LOGGER.log(Level.INFO, "Database endpoint {0} is healthy again", endpoint.pool.getUrl());
+            } catch (ConnectionPool.PoolExhaustedException e) {
+                endpoint.breaker.recordSuccess();
+            } catch (SQLException e) {
+                endpoint.breaker.recordFailure();
+                LOGGER.log(Level.FINE, "Health probe for {0} failed: {1}",
+                        new Object[]{endpoint.pool.getUrl(), e.getMessage()});
+            } catch (RuntimeException e) {
+                endpoint.breaker.recordFailure();
+                LOGGER.log(Level.WARNING, "Health probe for " + endpoint.pool.getUrl() + " failed", e);
+            }
+        }
+    }
+
+    private String describeEndpoints() {
+        return String.join(", ", describeEndpointStates());
+    }
+
+    @Override
+    public void close() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+        for (Endpoint endpoint : endpoints) {
+            endpoint.pool.close();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Failover connections use the configured credentials");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return Logger.getLogger("com.lostfound.config");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return active.pool.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this) || iface.isInstance(active.pool);
+    }
+
+    private static final class Endpoint {
+        private final ConnectionPool pool;
+        private final CircuitBreaker breaker;
+
+        private Endpoint(ConnectionPool pool, CircuitBreaker breaker) {
+            this.pool = pool;
+            this.breaker = breaker;
+        }
+    }
+}
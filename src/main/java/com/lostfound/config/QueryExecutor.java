@@ -0,0 +1,89 @@
+package com.lostfound.config;
+
+// Runs blocking database work off the calling thread and exposes it as CompletableFutures.
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class QueryExecutor implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(QueryExecutor.class.getName());
+
+    private final ExecutorService executor;
+
+    // Uses a virtual thread per task when the runtime has them (Java 21+). On older runtimes it
+    // falls back to a fixed set of daemon threads; the connection pool bounds concurrency anyway,
+    // so more threads than pooled connections would only queue on the pool.
+    public QueryExecutor(int fallbackThreads) {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual != null) {
+            executor = virtual;
+            LOGGER.log(Level.INFO, "Running database calls on virtual threads");
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            int threads = Math.max(1, fallbackThreads);
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        Thread thread = new Thread(r, "db-async-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+            LOGGER.log(Level.INFO, "Running database calls on {0} platform threads", threads);
+        }
+    }
+
+    // Sized from DB_ASYNC_THREADS, defaulting to the connection pool size.
+    public static QueryExecutor createDefault() {
+        return new QueryExecutor(DBConnection.envInt("DB_ASYNC_THREADS", DBConnection.poolSettings().getMaxSize()));
+    }
+
+    // Runs the call asynchronously. Cancelling the returned future cancels the statements the
+    // call is executing and interrupts a call still waiting for a pooled connection. Futures
+    // derived with thenApply and friends do not propagate cancellation back to this one.
+    public <T> CompletableFuture<T> submit(Callable<T> call) {
+        QueryScope scope = new QueryScope();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            scope.enter();
+            try {
+                future.complete(call.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                scope.exit();
+            }
+        });
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                scope.cancel();
+                task.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
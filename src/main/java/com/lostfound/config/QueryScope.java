@@ -0,0 +1,73 @@
+package com.lostfound.config;
+
+// Tracks the statements a unit of work creates so the work can be cancelled mid-query.
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class QueryScope {
+    private static final Logger LOGGER = Logger.getLogger(QueryScope.class.getName());
+    // SQLSTATE MySQL reports for a statement interrupted by KILL QUERY.
+    private static final String QUERY_CANCELLED_STATE = "70100";
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    // Makes this scope current for the calling thread until exit() is called. Statements created
+    // through pooled connections on that thread are registered with it.
+    public void enter() {
+        CURRENT.set(this);
+    }
+
+    public void exit() {
+        CURRENT.remove();
+        statements.clear();
+    }
+
+    // Cancels every statement registered so far and refuses new ones. Statement.cancel() is
+    // safe to call from another thread; Connector/J sends KILL QUERY on a side connection.
+    public void cancel() {
+        cancelled = true;
+        List<Statement> running = new ArrayList<>(statements);
+        for (Statement statement : running) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Could not cancel statement: {0}", e.getMessage());
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Lets CPU-bound work on a query executor thread notice that its caller gave up.
+    public static boolean isCurrentCancelled() {
+        QueryScope scope = CURRENT.get();
+        return scope != null && scope.cancelled;
+    }
+
+    // Called by the pool for every statement it hands out.
+    static void register(Statement statement) throws SQLException {
+        QueryScope scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        if (scope.cancelled) {
+            statement.close();
+            throw new SQLException("Query was cancelled", QUERY_CANCELLED_STATE);
+        }
+        scope.statements.add(statement);
+        // cancel() may have run between the check above and the add.
+        if (scope.cancelled) {
+            statement.cancel();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.lostfound.config;
+
+// DataSource that sends writes to the primary and spreads read-only work over replicas.
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+public class RoutingDataSource implements DataSource, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(RoutingDataSource.class.getName());
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long stickyWindowMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // Reads stay on the primary until this time so a session sees its own writes even while
+    // the replicas are still catching up.
+    private volatile long primaryUntil;
+
+    public RoutingDataSource(DataSource primary, List<DataSource> replicas, long stickyWindowMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.stickyWindowMillis = stickyWindowMillis;
+        LOGGER.log(Level.INFO, "Routing reads over {0} replica(s), primary stickiness {1} ms",
+                new Object[]{this.replicas.size(), stickyWindowMillis});
+    }
+
+    // Borrows a connection for read-only work. Plain DataSources are used as they are, so DAOs
+    // and services can call this without knowing whether routing is configured.
+    public static Connection readConnection(DataSource dataSource) throws SQLException {
+        if (dataSource instanceof RoutingDataSource) {
+            return ((RoutingDataSource) dataSource).getReadConnection();
+        }
+        return dataSource.getConnection();
+    }
+
+    // As pinToPrimary() on a routed DataSource; does nothing for a plain one.
+    public static void pinToPrimary(DataSource dataSource) {
+        if (dataSource instanceof RoutingDataSource) {
+            ((RoutingDataSource) dataSource).pinToPrimary();
+        }
+    }
+
+    // Primary connection, for writes and for reads that must not lag. Checking one out does not
+    // pin reads: background work uses the primary all the time, and would keep every read off
+    // the replicas. Services pin after a user's write commits instead.
+    @Override
+    public Connection getConnection() throws SQLException {
+        return primary.getConnection();
+    }
+
+    public Connection getReadConnection() throws SQLException {
+        if (replicas.isEmpty() || System.currentTimeMillis() < primaryUntil) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            DataSource replica = replicas.get((start + i) % replicas.size());
+            try {
+                Connection connection = replica.getConnection();
+                try {
+                    connection.setReadOnly(true);
+                } catch (SQLException e) {
+                    // Hand the connection back before moving on, or the replica's pool loses it.
+                    try {
+                        connection.close();
+                    } catch (SQLException closeError) {
+                        e.addSuppressed(closeError);
+                    }
+                    throw e;
+                }
+                return connection;
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Replica unavailable, trying next: {0}", e.getMessage());
+            }
+        }
+        LOGGER.log(Level.WARNING, "No replica available, reading from primary");
+        return primary.getConnection();
+    }
+
+    // Keeps this session's reads on the primary for the sticky window, so the user sees a write
+    // that has just committed. Call after the commit.
+    public void pinToPrimary() {
+        if (stickyWindowMillis > 0) {
+            primaryUntil = System.currentTimeMillis() + stickyWindowMillis;
+        }
+    }
+
+    public boolean isPinnedToPrimary() {
+        return System.currentTimeMillis() < primaryUntil;
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(primary);
+        for (DataSource replica : replicas) {
+            closeQuietly(replica);
+        }
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) dataSource).close();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error closing data source", e);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Routed connections use the configured credentials");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return Logger.getLogger("com.lostfound.config");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,205 @@
+package com.lostfound.config;
+
+// LRU cache of prepared statements for one physical connection, keyed by SQL text.
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+class StatementCache {
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    private final Connection physical;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final Map<String, CachedStatement> statements;
+
+    StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= StatementCache.this.maxSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    // Returns true for the prepareStatement overloads whose result depends only on the SQL text
+    // and, optionally, the auto-generated-keys flag.
+    static boolean isCacheable(Method method, Object[] args) {
+        if (!"prepareStatement".equals(method.getName()) || args == null) {
+            return false;
+        }
+        Class<?>[] types = method.getParameterTypes();
+        return types.length == 1 || (types.length == 2 && types[1] == int.class);
+    }
+
+    synchronized PreparedStatement prepare(Connection owner, Object[] args) throws SQLException {
+        String sql = (String) args[0];
+        int generatedKeys = args.length > 1 ? (Integer) args[1] : -1;
+        String key = generatedKeys + ":" + sql;
+
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.handOut(owner);
+        }
+        misses.incrementAndGet();
+        PreparedStatement statement = generatedKeys < 0
+                ? physical.prepareStatement(sql)
+                : physical.prepareStatement(sql, generatedKeys);
+        if (cached != null || maxSize == 0) {
+            // The same SQL is already open on this connection; hand out a plain statement.
+            return statement;
+        }
+        cached = new CachedStatement(statement);
+        cached.inUse = true;
+        statements.put(key, cached);
+        return cached.handOut(owner);
+    }
+
+    // Reclaims statements the borrower never closed before returning the connection.
+    void reclaimAll() {
+        List<CachedStatement> leaked = new ArrayList<>();
+        synchronized (this) {
+            for (CachedStatement cached : statements.values()) {
+                if (cached.inUse) {
+                    leaked.add(cached);
+                }
+            }
+        }
+        for (CachedStatement cached : leaked) {
+            Handle handle = cached.current;
+            if (handle != null && !handle.closed) {
+                handle.closed = true;
+                cached.giveBack();
+            }
+        }
+    }
+
+    private final class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+        private volatile Handle current;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement handOut(Connection owner) {
+            current = new Handle(this, owner);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    current);
+        }
+
+        // Called with the cache lock held.
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closePhysical();
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Error closing cached statement", e);
+            }
+        }
+
+        private void giveBack() {
+            synchronized (StatementCache.this) {
+                inUse = false;
+                if (evicted) {
+                    closePhysical();
+                    return;
+                }
+            }
+            try {
+                statement.clearParameters();
+                statement.clearWarnings();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Dropping cached statement that could not be reset", e);
+                synchronized (StatementCache.this) {
+                    Iterator<CachedStatement> it = statements.values().iterator();
+                    while (it.hasNext()) {
+                        if (it.next() == this) {
+                            it.remove();
+                            break;
+                        }
+                    }
+                    evict();
+                }
+            }
+        }
+    }
+
+    // Per-checkout view of a cached statement; close() returns it to the cache instead of
+    // closing the server-side statement.
+    private static final class Handle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private volatile boolean closed;
+
+        private Handle(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        cached.giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.statement + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.lostfound.dao;
 
 // Data Access Object for managing admin records in the database.
-import com.lostfound.config.DBConnection;
+import com.lostfound.config.RoutingDataSource;
 import com.lostfound.model.Admin;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -11,9 +11,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.sql.DataSource;
 
 public class AdminDAO {
     private static final Logger LOGGER = Logger.getLogger(AdminDAO.class.getName());
+    private final DataSource dataSource;
+
+    public AdminDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
 
     public boolean addAdmin(Admin admin) throws SQLException {
         LOGGER.log(Level.INFO, "Adding admin for userId: {0}", admin.getUserId());
@@ -21,7 +27,7 @@ public class AdminDAO {
         String adminCheckQuery = "SELECT User_ID FROM admin WHERE User_ID = ?";
         String insertQuery = "INSERT INTO admin (User_ID, Admin_Role) VALUES (?, ?)";
 
-        try (Connection connection = DBConnection.getConnection()) {
+        try (Connection connection = dataSource.getConnection()) {
             try (PreparedStatement userCheckStmt = connection.prepareStatement(userCheckQuery)) {
                 userCheckStmt.setInt(1, admin.getUserId());
                 try (ResultSet rs = userCheckStmt.executeQuery()) {
@@ -58,7 +64,7 @@ public class AdminDAO {
         LOGGER.log(Level.INFO, "Fetching admin with adminId: {0}", adminId);
         String query = "SELECT Admin_ID, User_ID, Admin_Role FROM admin WHERE Admin_ID = ?";
 
-        try (Connection connection = DBConnection.getConnection();
+        try (Connection connection = RoutingDataSource.readConnection(dataSource);
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, adminId);
             try (ResultSet resultSet = statement.executeQuery()) {
@@ -85,7 +91,7 @@ public class AdminDAO {
         List<Admin> admins = new ArrayList<>();
         String query = "SELECT Admin_ID, User_ID, Admin_Role FROM admin";
 
-        try (Connection connection = DBConnection.getConnection();
+        try (Connection connection = RoutingDataSource.readConnection(dataSource);
              PreparedStatement statement = connection.prepareStatement(query);
              ResultSet resultSet = statement.executeQuery()) {
             while (resultSet.next()) {
@@ -107,7 +113,7 @@ public class AdminDAO {
         LOGGER.log(Level.INFO, "Updating admin with adminId: {0}", admin.getAdminId());
         String query = "UPDATE admin SET User_ID = ?, Admin_Role = ? WHERE Admin_ID = ?";
 
-        try (Connection connection = DBConnection.getConnection();
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, admin.getUserId());
             statement.setString(2, admin.getAdminRole() != null ? admin.getAdminRole() : "Moderator");
@@ -126,7 +132,7 @@ public class AdminDAO {
         LOGGER.log(Level.INFO, "Deleting admin with adminId: {0}", adminId);
         String query = "DELETE FROM admin WHERE Admin_ID = ?";
 
-        try (Connection connection = DBConnection.getConnection();
+        try (Connection connection = dataSource.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, adminId);
             int rowsAffected = statement.executeUpdate();
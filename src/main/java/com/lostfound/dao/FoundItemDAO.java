@@ -1,24 +1,25 @@
 package com.lostfound.dao;
 
 // Data Access Object for managing found item records in the database.
+import com.lostfound.config.RoutingDataSource;
 import com.lostfound.model.FoundItem;
-import com.lostfound.config.DBConnection;
 import java.sql.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.sql.DataSource;
 
 public class FoundItemDAO {
     private static final Logger LOGGER = Logger.getLogger(FoundItemDAO.class.getName());
 
-    public FoundItemDAO() throws SQLException {
-        try (Connection conn = DBConnection.getConnection()) {
-            LOGGER.log(Level.INFO, "FoundItemDAO initialized successfully");
-        }
+    private final DataSource dataSource;
+
+    public FoundItemDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
     }
 
     public FoundItem getFoundItemById(int itemId) throws SQLException {
-        String sql = "SELECT Item_ID, Found_Location, Found_Date, Storage_Location, Additional_Details, Image_Path FROM found_item WHERE Item_ID = ?";
-        try (Connection conn = DBConnection.getConnection();
+        String sql = "SELECT Item_ID, Found_Location, Found_Date, Storage_Location, Additional_Details, Image_Path, Image_Key FROM found_item WHERE Item_ID = ?";
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, itemId);
@@ -30,7 +31,8 @@ public class FoundItemDAO {
                             rs.getDate("Found_Date"),
                             rs.getString("Storage_Location"),
                             rs.getString("Additional_Details"),
-                            rs.getString("Image_Path")
+                            rs.getString("Image_Path"),
+                            rs.getString("Image_Key")
                     );
                     LOGGER.log(Level.INFO, "Retrieved found item ID: {0}", itemId);
                     return foundItem;
@@ -0,0 +1,55 @@
+package com.lostfound.dao;
+
+// Splits ID lists into bounded "IN (...)" chunks for multi-get queries.
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+public final class InClause {
+    // Keeps each statement well below max_allowed_packet and the optimizer's range limits.
+    public static final int MAX_CHUNK_SIZE = 512;
+
+    private InClause() {
+    }
+
+    // Distinct, non-null IDs in encounter order, split into chunks of at most MAX_CHUNK_SIZE.
+    public static List<List<Integer>> chunks(Collection<Integer> ids) {
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(id -> id == null);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_CHUNK_SIZE) {
+            chunks.add(distinct.subList(from, Math.min(distinct.size(), from + MAX_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    // "?, ?, ..." padded up to the next power of two, so a handful of SQL strings cover every
+    // chunk size and stay in the pooled statement cache. Pair with bind().
+    public static String placeholders(int count) {
+        int padded = paddedSize(count);
+        StringBuilder sql = new StringBuilder(padded * 3);
+        for (int i = 0; i < padded; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.toString();
+    }
+
+    // Binds the chunk starting at parameter index first; the padding repeats the last ID, which
+    // does not change the result of an IN predicate.
+    public static void bind(PreparedStatement stmt, int first, List<Integer> chunk) throws SQLException {
+        int padded = paddedSize(chunk.size());
+        for (int i = 0; i < padded; i++) {
+            stmt.setInt(first + i, chunk.get(Math.min(i, chunk.size() - 1)));
+        }
+    }
+
+    private static int paddedSize(int count) {
+        if (count <= 1) {
+            return 1;
+        }
+        return Math.min(MAX_CHUNK_SIZE, Integer.highestOneBit(count - 1) << 1);
+    }
+}
@@ -1,24 +1,25 @@
 package com.lostfound.dao;
 
 // Data Access Object for managing item records in the database.
+import com.lostfound.config.RoutingDataSource;
 import com.lostfound.model.Item;
-import com.lostfound.config.DBConnection;
 import java.sql.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.sql.DataSource;
 
 public class ItemDAO {
     private static final Logger LOGGER = Logger.getLogger(ItemDAO.class.getName());
 
-    public ItemDAO() throws SQLException {
-        try (Connection conn = DBConnection.getConnection()) {
-            LOGGER.log(Level.INFO, "ItemDAO initialized successfully");
-        }
+    private final DataSource dataSource;
+
+    public ItemDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
     }
 
     public Item getItemById(int itemId) throws SQLException {
         String sql = "SELECT Item_ID, Name, Description, Category, User_ID, Status, Date FROM item WHERE Item_ID = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, itemId);
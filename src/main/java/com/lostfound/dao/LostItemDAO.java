@@ -1,36 +1,34 @@
 package com.lostfound.dao;
 
 // Data Access Object for managing lost item records in the database.
+import com.lostfound.config.RoutingDataSource;
 import com.lostfound.model.LostItem;
-import com.lostfound.config.DBConnection;
 import java.sql.*;
 import java.util.logging.Logger;
 import java.util.logging.Level;
+import javax.sql.DataSource;
 
 public class LostItemDAO {
     private static final Logger LOGGER = Logger.getLogger(LostItemDAO.class.getName());
 
-    public LostItemDAO() throws SQLException {
-        LOGGER.log(Level.INFO, "Initializing LostItemDAO");
-        try (Connection conn = DBConnection.getConnection()) {
-            LOGGER.log(Level.INFO, "Database connection established successfully");
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Failed to establish database connection", e);
-            throw e;
-        }
+    private final DataSource dataSource;
+
+    public LostItemDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
     }
 
     public boolean createLostItem(LostItem lostItem) throws SQLException {
         LOGGER.log(Level.INFO, "Inserting lost item for itemId: {0}", lostItem.getItemId());
-        String sql = "INSERT INTO lost_item (Item_ID, Last_Seen_Location, Last_Seen_Date, Additional_Details, Image_Path) " +
-                "VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DBConnection.getConnection();
+        String sql = "INSERT INTO lost_item (Item_ID, Last_Seen_Location, Last_Seen_Date, Additional_Details, Image_Path, " +
+                "Image_Key) VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, lostItem.getItemId());
             stmt.setString(2, lostItem.getLastSeenLocation());
             stmt.setDate(3, lostItem.getLastSeenDate());
             stmt.setString(4, lostItem.getAdditionalDetails());
             stmt.setString(5, lostItem.getImagePath());
+            stmt.setString(6, lostItem.getImageKey());
             int rowsAffected = stmt.executeUpdate();
             LOGGER.log(Level.INFO, "Rows affected: {0} for itemId: {1}", new Object[]{rowsAffected, lostItem.getItemId()});
             return rowsAffected > 0;
@@ -43,7 +41,7 @@ public class LostItemDAO {
     public LostItem getLostItemById(int itemId) throws SQLException {
         LOGGER.log(Level.INFO, "Fetching lost item for itemId: {0}", itemId);
         String sql = "SELECT * FROM lost_item WHERE Item_ID = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, itemId);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -53,7 +51,8 @@ public class LostItemDAO {
                             rs.getString("Last_Seen_Location"),
                             rs.getDate("Last_Seen_Date"),
                             rs.getString("Additional_Details"),
-                            rs.getString("Image_Path")
+                            rs.getString("Image_Path"),
+                            rs.getString("Image_Key")
                     );
                 }
             }
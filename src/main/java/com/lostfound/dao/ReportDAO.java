@@ -1,26 +1,27 @@
 package com.lostfound.dao;
 
 // Data Access Object for managing report records in the database.
-import com.lostfound.config.DBConnection;
+import com.lostfound.config.RoutingDataSource;
 import com.lostfound.model.Report;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.sql.DataSource;
 
 public class ReportDAO {
     private static final Logger LOGGER = Logger.getLogger(ReportDAO.class.getName());
 
-    public ReportDAO() throws SQLException {
-        try (Connection conn = DBConnection.getConnection()) {
-            LOGGER.log(Level.INFO, "ReportDAO initialized successfully");
-        }
+    private final DataSource dataSource;
+
+    public ReportDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
     }
 
     public boolean createReport(Report report) throws SQLException {
         String sql = "INSERT INTO report (User_ID, Item_ID, Report_Type, Report_Date) VALUES (?, ?, ?, ?)";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setInt(1, report.getUserId());
@@ -48,7 +49,7 @@ public class ReportDAO {
 
     public Report getReportById(int reportId) throws SQLException {
         String sql = "SELECT Report_ID, User_ID, Item_ID, Report_Type, Report_Date FROM report WHERE Report_ID = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, reportId);
@@ -77,7 +78,7 @@ public class ReportDAO {
         List<Report> reports = new ArrayList<>();
         String sql = "SELECT Report_ID, User_ID, Item_ID, Report_Type, Report_Date FROM report";
 
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -102,7 +103,7 @@ public class ReportDAO {
         List<Report> reports = new ArrayList<>();
         String sql = "SELECT Report_ID, User_ID, Item_ID, Report_Type, Report_Date FROM report WHERE User_ID = ?";
 
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
@@ -128,7 +129,7 @@ public class ReportDAO {
 
     public boolean updateReport(Report report) throws SQLException {
         String sql = "UPDATE report SET User_ID = ?, Item_ID = ?, Report_Type = ?, Report_Date = ? WHERE Report_ID = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, report.getUserId());
@@ -153,7 +154,7 @@ public class ReportDAO {
 
     public boolean deleteReport(int reportId) throws SQLException {
         String sql = "DELETE FROM report WHERE Report_ID = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, reportId);
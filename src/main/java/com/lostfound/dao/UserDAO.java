@@ -1,7 +1,7 @@
 package com.lostfound.dao;
 
 // Data Access Object for managing user records in the database.
-import com.lostfound.config.DBConnection;
+import com.lostfound.config.RoutingDataSource;
 import com.lostfound.model.Admin;
 import com.lostfound.model.User;
 import java.sql.Connection;
@@ -10,18 +10,28 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.sql.DataSource;
 
 public class UserDAO {
 
     private static final Logger LOGGER = Logger.getLogger(UserDAO.class.getName());
-    private AdminDAO adminDAO = new AdminDAO();
+    private final DataSource dataSource;
+    private final AdminDAO adminDAO;
+
+    public UserDAO(DataSource dataSource, AdminDAO adminDAO) {
+        this.dataSource = dataSource;
+        this.adminDAO = adminDAO;
+    }
 
     public User authenticate(String email, String password) throws SQLException {
         String query = "SELECT User_ID, Name, Email, Password, Role, Contact FROM user WHERE Email = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, email);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -51,7 +61,7 @@ public class UserDAO {
 
     public User getUserById(int userId) throws SQLException {
         String query = "SELECT User_ID, Name, Email, Password, Role, Contact FROM user WHERE User_ID = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, userId);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -76,10 +86,46 @@ public class UserDAO {
         }
     }
 
+    // Multi-get keyed by user ID; IDs with no user are absent from the map.
+    public Map<Integer, User> getUsersByIds(Collection<Integer> userIds) throws SQLException {
+        Map<Integer, User> users = new HashMap<>();
+        List<List<Integer>> chunks = InClause.chunks(userIds);
+        if (chunks.isEmpty()) {
+            return users;
+        }
+        try (Connection conn = RoutingDataSource.readConnection(dataSource)) {
+            for (List<Integer> chunk : chunks) {
+                String query = "SELECT User_ID, Name, Email, Password, Role, Contact FROM user WHERE User_ID IN ("
+                        + InClause.placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    InClause.bind(stmt, 1, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            User user = new User(
+                                    rs.getInt("User_ID"),
+                                    rs.getString("Name"),
+                                    rs.getString("Email"),
+                                    rs.getString("Password"),
+                                    rs.getString("Role"),
+                                    rs.getString("Contact")
+                            );
+                            users.put(user.getUserId(), user);
+                        }
+                    }
+                }
+            }
+            LOGGER.log(Level.INFO, "Fetched {0} users in {1} queries", new Object[]{users.size(), chunks.size()});
+            return users;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error fetching users by IDs", e);
+            throw e;
+        }
+    }
+
     public List<User> getAllUsers() throws SQLException {
         List<User> users = new ArrayList<>();
         String query = "SELECT User_ID, Name, Email, Password, Role, Contact FROM user";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
              PreparedStatement stmt = conn.prepareStatement(query);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
@@ -102,7 +148,7 @@ public class UserDAO {
 
     public boolean updateUser(User user) throws SQLException {
         String query = "UPDATE user SET Name = ?, Email = ?, Password = ?, Role = ?, Contact = ? WHERE User_ID = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, user.getName());
             stmt.setString(2, user.getEmail());
@@ -122,7 +168,7 @@ public class UserDAO {
 
     public boolean deleteUser(int userId) throws SQLException {
         String query = "DELETE FROM user WHERE User_ID = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, userId);
             int rowsAffected = stmt.executeUpdate();
@@ -139,7 +185,7 @@ public class UserDAO {
         String userQuery = "INSERT INTO user (Name, Email, Password, Role, Contact) VALUES (?, ?, ?, ?, ?)";
         Connection conn = null;
         try {
-            conn = DBConnection.getConnection();
+            conn = dataSource.getConnection();
             conn.setAutoCommit(false);
             try (PreparedStatement userStmt = conn.prepareStatement(userQuery, Statement.RETURN_GENERATED_KEYS)) {
                 userStmt.setString(1, name);
@@ -191,7 +237,7 @@ public class UserDAO {
         String userQuery = "UPDATE user SET Role = ? WHERE User_ID = ?";
         Connection conn = null;
         try {
-            conn = DBConnection.getConnection();
+            conn = dataSource.getConnection();
             conn.setAutoCommit(false);
 
             // This just updates the user's role in the 'user' table.
@@ -230,7 +276,7 @@ public class UserDAO {
 
     public User findByEmail(String email) throws SQLException {
         String query = "SELECT User_ID, Name, Email, Password, Role, Contact FROM user WHERE Email = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, email);
             try (ResultSet rs = stmt.executeQuery()) {
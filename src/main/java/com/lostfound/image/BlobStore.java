@@ -0,0 +1,176 @@
+package com.lostfound.image;
+
+// Content-addressed photo store: each distinct photo is kept once, named by the SHA-256 of its bytes.
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+public class BlobStore implements ImageLocator {
+    private static final Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{64}");
+    // Uploads are written here first; on the same file system as the blobs, so publishing to a
+    // FileSystemImageStore at the same root is a rename.
+    public static final String STAGING_DIRECTORY = "staging";
+
+    private final ImageStore store;
+    // Image paths of stored photos start with this directory whichever store holds the bytes,
+    // so recorded paths do not change when the store does.
+    private final File root;
+
+    public BlobStore(File root) {
+        this(new FileSystemImageStore(root), root);
+    }
+
+    public BlobStore(ImageStore store, File root) {
+        this.store = store;
+        this.root = root;
+    }
+
+    // Copies the stream to a staging file, hashing it on the way through, so the upload is read
+    // once. Nothing is visible under the content key until publish.
+    public StagedBlob stage(InputStream in) throws IOException {
+        File staging = new File(root, STAGING_DIRECTORY);
+        if (!staging.isDirectory() && !staging.mkdirs()) {
+            throw new IOException("Failed to create staging directory: " + staging);
+        }
+        File temporary = Files.createTempFile(staging.toPath(), "upload", ".part").toFile();
+        try {
+            MessageDigest digest = newDigest();
+            long size;
+            try (DigestInputStream hashing = new DigestInputStream(in, digest)) {
+                size = Files.copy(hashing, temporary.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new StagedBlob(HexFormat.of().formatHex(digest.digest()), size, temporary);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary.toPath());
+            throw e;
+        }
+    }
+
+    // Puts the staged upload under its content key unless that content is already stored. Safe
+    // to race: identical uploads have identical bytes, so whichever put lands last is correct,
+    // and a reader never sees a partly written blob. Returns true when this call stored it.
+    public boolean publish(StagedBlob blob) throws IOException {
+        try {
+            String name = keyName(blob.getContentKey());
+            if (store.exists(name)) {
+                return false;
+            }
+            store.put(name, blob.getFile());
+            return true;
+        } finally {
+            discard(blob);
+        }
+    }
+
+    // Puts a file written under the root, such as a rendition, into the store at its image path.
+    // Returns false, storing nothing, for a file outside the root.
+    public boolean publishFile(File file) throws IOException {
+        String name = pathName(file.getPath());
+        if (name == null) {
+            return false;
+        }
+        store.put(name, file);
+        return true;
+    }
+
+    // Deletes the staging file of an upload that is not going to be published.
+    public void discard(StagedBlob blob) throws IOException {
+        Files.deleteIfExists(blob.getFile().toPath());
+    }
+
+    // Image path of the blob with this key: two levels of two hex digits, so no directory holds
+    // more than 256 entries until the store passes about 16 million photos.
+    public File file(String contentKey) {
+        return new File(root, keyName(contentKey).replace('/', File.separatorChar));
+    }
+
+    // Removes the blob and its renditions. Returns false when it was not there.
+    public boolean delete(String contentKey) throws IOException {
+        File file = file(contentKey);
+        for (Rendition rendition : Rendition.ALL) {
+            store.delete(pathName(ImagePipeline.renditionFile(file, rendition).getPath()));
+        }
+        return store.delete(keyName(contentKey));
+    }
+
+    // A local copy of the photo or rendition at imagePath, fetched from the store when it keeps
+    // none; paths outside the store, from before it existed, are plain files.
+    @Override
+    public File locate(String imagePath) throws IOException {
+        String name = pathName(imagePath);
+        if (name == null) {
+            return new File(imagePath);
+        }
+        File local = store.localFile(name);
+        if (local == null) {
+            throw new IOException("No local copy of " + imagePath);
+        }
+        return local;
+    }
+
+    // Reads the range straight from the store, so a remote store sends only those bytes.
+    @Override
+    public InputStream openRange(String imagePath, long offset, long length) throws IOException {
+        String name = pathName(imagePath);
+        if (name == null) {
+            return FileSystemImageStore.openRange(new File(imagePath), offset, length);
+        }
+        return store.openRange(name, offset, length);
+    }
+
+    private static String keyName(String contentKey) {
+        if (!CONTENT_KEY.matcher(contentKey).matches()) {
+            throw new IllegalArgumentException("Not a content key: " + contentKey);
+        }
+        return contentKey.substring(0, 2) + "/" + contentKey.substring(2, 4) + "/" + contentKey;
+    }
+
+    // Store name of an image path under the root, or null for a path outside it.
+    private String pathName(String imagePath) {
+        String prefix = root.getPath() + File.separator;
+        if (!imagePath.startsWith(prefix)) {
+            return null;
+        }
+        return imagePath.substring(prefix.length()).replace(File.separatorChar, '/');
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // An upload copied into the store's staging area and hashed, not yet under its content key.
+    public static final class StagedBlob {
+        private final String contentKey;
+        private final long size;
+        private final File file;
+
+        private StagedBlob(String contentKey, long size, File file) {
+            this.contentKey = contentKey;
+            this.size = size;
+            this.file = file;
+        }
+
+        public String getContentKey() {
+            return contentKey;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        File getFile() {
+            return file;
+        }
+    }
+}
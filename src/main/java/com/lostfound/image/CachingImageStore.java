@@ -0,0 +1,194 @@
+package com.lostfound.image;
+
+// Read-through disk cache in front of a remote ImageStore, evicting least recently used files past a size bound.
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class CachingImageStore implements ImageStore {
+    private static final Logger LOGGER = Logger.getLogger(CachingImageStore.class.getName());
+    private static final String DOWNLOAD_SUFFIX = ".download";
+
+    private final ImageStore remote;
+    // Laid out like a FileSystemImageStore, so a cached object sits at the same path it would
+    // have on a shared directory and recorded image paths stay valid for both.
+    private final FileSystemImageStore cache;
+    private final File root;
+    private final long maxBytes;
+    // Cached names and sizes in access order; rebuilt from the directory at startup, oldest
+    // modification first, since access times are not kept across runs.
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CachingImageStore(ImageStore remote, File root, long maxBytes) {
+        this.remote = remote;
+        this.cache = new FileSystemImageStore(root);
+        this.root = root;
+        this.maxBytes = maxBytes;
+        List<File> files = new ArrayList<>();
+        collectCached(root, files);
+        files.sort((a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        String prefix = root.getPath() + File.separator;
+        for (File file : files) {
+            String name = file.getPath().substring(prefix.length()).replace(File.separatorChar, '/');
+            entries.put(name, file.length());
+            bytes += file.length();
+        }
+        LOGGER.log(Level.INFO, "Image cache holds {0} files, {1} KB", new Object[]{entries.size(), bytes / 1024});
+    }
+
+    @Override
+    public boolean exists(String name) throws IOException {
+        return cache.exists(name) || remote.exists(name);
+    }
+
+    // Uploads, then keeps the source as the cached copy, since whoever uploads a photo is
+    // about to show it.
+    @Override
+    public void put(String name, File source) throws IOException {
+        remote.put(name, source);
+        if (source.isFile()) {
+            cache.put(name, source);
+            record(name, cache.file(name).length());
+        }
+    }
+
+    @Override
+    public InputStream open(String name) throws IOException {
+        return Files.newInputStream(localFile(name).toPath());
+    }
+
+    // Serves a cached object from disk; otherwise asks the remote store for just the range
+    // instead of downloading the whole object.
+    @Override
+    public InputStream openRange(String name, long offset, long length) throws IOException {
+        if (cache.exists(name)) {
+            touch(name);
+            return cache.openRange(name, offset, length);
+        }
+        return remote.openRange(name, offset, length);
+    }
+
+    @Override
+    public boolean delete(String name) throws IOException {
+        boolean deleted = remote.delete(name);
+        cache.delete(name);
+        synchronized (this) {
+            Long size = entries.remove(name);
+            if (size != null) {
+                bytes -= size;
+            }
+        }
+        return deleted;
+    }
+
+    // Downloads beside the target and renames, so concurrent readers only ever see whole files.
+    // Two threads fetching the same object may both download it; the second rename wins.
+    @Override
+    public File localFile(String name) throws IOException {
+        File file = cache.file(name);
+        if (file.isFile()) {
+            touch(name);
+            return file;
+        }
+        synchronized (this) {
+            misses++;
+        }
+        File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create cache directory: " + directory);
+        }
+        File temporary = File.createTempFile("fetch", DOWNLOAD_SUFFIX, directory);
+        try {
+            try (InputStream in = remote.open(name)) {
+                Files.copy(in, temporary.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary.toPath());
+        }
+        record(name, file.length());
+        return file;
+    }
+
+    public synchronized String getStats() {
+        long requests = hits + misses;
+        return String.format("image cache: files=%d disk=%dKB/%dKB hits=%d misses=%d hitRatio=%.2f evictions=%d",
+                entries.size(), bytes / 1024, maxBytes / 1024, hits, misses,
+                requests == 0 ? 0.0 : (double) hits / requests, evictions);
+    }
+
+    private synchronized void touch(String name) {
+        hits++;
+        if (entries.get(name) == null) {
+            File file = cache.file(name);
+            entries.put(name, file.length());
+            bytes += file.length();
+        }
+    }
+
+    // Adds the file and evicts least recently used ones until the cache fits again, never the
+    // file just added. Deleting a file another thread is reading is fine on POSIX systems;
+    // elsewhere the delete fails and the file is forgotten but left for a later run.
+    private void record(String name, long size) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Long previous = entries.put(name, size);
+            bytes += size - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                if (eldest.getKey().equals(name)) {
+                    continue;
+                }
+                bytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                it.remove();
+                evictions++;
+            }
+        }
+        for (String old : evicted) {
+            try {
+                cache.delete(old);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not evict {0} from the image cache: {1}",
+                        new Object[]{old, e.getMessage()});
+            }
+        }
+    }
+
+    // Cached objects under the root, leaving out the blob store's staging area, interrupted
+    // downloads and dotfiles.
+    private void collectCached(File directory, List<File> files) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            String name = child.getName();
+            if (name.startsWith(".") || name.endsWith(DOWNLOAD_SUFFIX)) {
+                continue;
+            }
+            if (child.isDirectory()) {
+                if (!(directory.equals(root) && name.equals(BlobStore.STAGING_DIRECTORY))) {
+                    collectCached(child, files);
+                }
+            } else if (child.isFile()) {
+                files.add(child);
+            }
+        }
+    }
+}
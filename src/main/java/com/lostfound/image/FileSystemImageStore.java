@@ -0,0 +1,149 @@
+package com.lostfound.image;
+
+// ImageStore on a local or network-mounted directory; an object's name is its path below the root.
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+public class FileSystemImageStore implements ImageStore {
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*(/[A-Za-z0-9_-][A-Za-z0-9._-]*)*");
+
+    private final File root;
+
+    public FileSystemImageStore(File root) {
+        this.root = root;
+    }
+
+    @Override
+    public boolean exists(String name) {
+        return file(name).isFile();
+    }
+
+    // Moves the source into place when it is on the same file system, which it is for uploads
+    // staged under the root; otherwise copies it beside the target first and renames.
+    @Override
+    public void put(String name, File source) throws IOException {
+        File target = file(name);
+        if (target.getAbsoluteFile().equals(source.getAbsoluteFile())) {
+            return;
+        }
+        File directory = target.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create image directory: " + directory);
+        }
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            File temporary = File.createTempFile("put", ".tmp", directory);
+            try {
+                Files.copy(source.toPath(), temporary.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary.toPath());
+            }
+        }
+    }
+
+    @Override
+    public InputStream open(String name) throws IOException {
+        try {
+            return Files.newInputStream(file(name).toPath());
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(name);
+        }
+    }
+
+    @Override
+    public InputStream openRange(String name, long offset, long length) throws IOException {
+        return openRange(file(name), offset, length);
+    }
+
+    @Override
+    public boolean delete(String name) throws IOException {
+        return Files.deleteIfExists(file(name).toPath());
+    }
+
+    @Override
+    public File localFile(String name) {
+        return file(name);
+    }
+
+    public File file(String name) {
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Not an image store name: " + name);
+        }
+        return new File(root, name.replace('/', File.separatorChar));
+    }
+
+    static InputStream openRange(File file, long offset, long length) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(file.getPath());
+        }
+        try {
+            channel.position(offset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new LimitedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    // Ends the stream after a fixed number of bytes.
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        private LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+    }
+}
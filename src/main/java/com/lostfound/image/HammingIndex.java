@@ -0,0 +1,110 @@
+package com.lostfound.image;
+
+// Multi-index hash table over 64-bit hashes, for "everything within d bits of h" queries.
+import java.util.Arrays;
+
+public class HammingIndex {
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(int id, int distance);
+    }
+
+    // Each hash is split into four 16-bit chunks with a table per chunk. Two hashes within d bits
+    // of each other agree to within d / 4 bits on at least one chunk, so a query only looks at the
+    // buckets of chunk values that close to its own.
+    private static final int CHUNKS = 4;
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+    // Past this many bits per chunk the probes cost more than comparing every hash.
+    private static final int MAX_CHUNK_DISTANCE = 3;
+
+    private long[] hashes = new long[16];
+    private int[] ids = new int[16];
+    private int size;
+    // buckets[chunk][value] holds positions in hashes; bucketSizes has their lengths.
+    private final int[][][] buckets = new int[CHUNKS][1 << CHUNK_BITS][];
+    private final int[][] bucketSizes = new int[CHUNKS][1 << CHUNK_BITS];
+
+    public void add(long hash, int id) {
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        hashes[size] = hash;
+        ids[size] = id;
+        for (int c = 0; c < CHUNKS; c++) {
+            int value = chunk(hash, c);
+            int[] bucket = buckets[c][value];
+            int count = bucketSizes[c][value];
+            if (bucket == null) {
+                bucket = new int[2];
+            } else if (count == bucket.length) {
+                bucket = Arrays.copyOf(bucket, count * 2);
+            }
+            bucket[count] = size;
+            buckets[c][value] = bucket;
+            bucketSizes[c][value] = count + 1;
+        }
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Visits every ID whose hash is within maxDistance bits of hash, each once.
+    public void search(long hash, int maxDistance, Visitor visitor) {
+        int chunkDistance = maxDistance / CHUNKS;
+        if (chunkDistance > MAX_CHUNK_DISTANCE) {
+            for (int i = 0; i < size; i++) {
+                int distance = PerceptualHash.distance(hash, hashes[i]);
+                if (distance <= maxDistance) {
+                    visitor.accept(ids[i], distance);
+                }
+            }
+            return;
+        }
+        for (int c = 0; c < CHUNKS; c++) {
+            probe(hash, maxDistance, chunkDistance, c, chunk(hash, c), 0, chunkDistance, visitor);
+        }
+    }
+
+    // Visits the buckets of chunk c whose value differs from value only in bits at or above
+    // fromBit, with at most flips more bits changed.
+    private void probe(long hash, int maxDistance, int chunkDistance, int c, int value, int fromBit, int flips,
+                       Visitor visitor) {
+        visitBucket(hash, maxDistance, chunkDistance, c, value, visitor);
+        if (flips == 0) {
+            return;
+        }
+        for (int bit = fromBit; bit < CHUNK_BITS; bit++) {
+            probe(hash, maxDistance, chunkDistance, c, value ^ (1 << bit), bit + 1, flips - 1, visitor);
+        }
+    }
+
+    private void visitBucket(long hash, int maxDistance, int chunkDistance, int c, int value, Visitor visitor) {
+        int[] bucket = buckets[c][value];
+        int count = bucketSizes[c][value];
+        for (int i = 0; i < count; i++) {
+            long candidate = hashes[bucket[i]];
+            int distance = PerceptualHash.distance(hash, candidate);
+            if (distance <= maxDistance && !foundInEarlierChunk(hash, candidate, chunkDistance, c)) {
+                visitor.accept(ids[bucket[i]], distance);
+            }
+        }
+    }
+
+    // A hash close enough on an earlier chunk was already visited from that chunk's table.
+    private static boolean foundInEarlierChunk(long hash, long candidate, int chunkDistance, int c) {
+        for (int earlier = 0; earlier < c; earlier++) {
+            if (Integer.bitCount(chunk(hash, earlier) ^ chunk(candidate, earlier)) <= chunkDistance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int chunk(long hash, int c) {
+        return (int) (hash >>> (c * CHUNK_BITS)) & CHUNK_MASK;
+    }
+}
@@ -0,0 +1,542 @@
+package com.lostfound.image;
+
+// HNSW graph over unit-length vectors, for approximate top-K lookups by cosine similarity.
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class HnswIndex {
+    private static final int FORMAT_VERSION = 1;
+    // Links per node on the upper levels; level 0 allows twice as many.
+    private static final int DEFAULT_LINKS = 16;
+    private static final int DEFAULT_EF_CONSTRUCTION = 100;
+
+    public static final class Result {
+        private final int id;
+        private final float similarity;
+
+        private Result(int id, float similarity) {
+            this.id = id;
+            this.similarity = similarity;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        // Dot product with the query, 1 for the same vector.
+        public float getSimilarity() {
+            return similarity;
+        }
+    }
+
+    private final int dimensions;
+    private final int links;
+    private final int efConstruction;
+    private final double levelFactor;
+    private final Random random;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Visited> visited = ThreadLocal.withInitial(Visited::new);
+
+    // Nodes are numbered in insertion order. A removed node stays in the graph as a waypoint
+    // and is only left out of results, so removal never breaks the paths through it.
+    private int nodeCount;
+    private float[] vectors;
+    private int[] ids;
+    // neighbours[node][level] holds the count followed by the linked nodes.
+    private int[][][] neighbours;
+    private final BitSet removed = new BitSet();
+    private final Map<Integer, Integer> liveNodes = new HashMap<>();
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    public HnswIndex(int dimensions) {
+        this(dimensions, DEFAULT_LINKS, DEFAULT_EF_CONSTRUCTION, new Random());
+    }
+
+    // Larger efConstruction builds a better graph more slowly.
+    public HnswIndex(int dimensions, int links, int efConstruction, Random random) {
+        this.dimensions = dimensions;
+        this.links = links;
+        this.efConstruction = efConstruction;
+        this.levelFactor = 1 / Math.log(links);
+        this.random = random;
+        this.vectors = new float[16 * dimensions];
+        this.ids = new int[16];
+        this.neighbours = new int[16][][];
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    // Adds the vector under id, replacing any vector already stored for it.
+    public void add(int id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = liveNodes.get(id);
+            if (previous != null) {
+                removed.set(previous);
+            }
+            int node = allocate(id, vector);
+            liveNodes.put(id, node);
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelFactor);
+            neighbours[node] = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                neighbours[node][l] = new int[1 + maxLinks(l)];
+            }
+            if (entryPoint < 0) {
+                entryPoint = node;
+                topLevel = level;
+                return;
+            }
+            int current = descend(vector, entryPoint, topLevel, level);
+            for (int l = Math.min(level, topLevel); l >= 0; l--) {
+                NodeHeap found = searchLayer(vector, current, efConstruction, l);
+                int[] nearest = found.drainAscending();
+                int[] selected = selectNeighbours(vector, 0, nearest, links);
+                for (int neighbour : selected) {
+                    link(node, neighbour, l);
+                    link(neighbour, node, l);
+                }
+                current = nearest[0];
+            }
+            if (level > topLevel) {
+                topLevel = level;
+                entryPoint = node;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns whether id was present.
+    public boolean remove(int id) {
+        lock.writeLock().lock();
+        try {
+            Integer node = liveNodes.remove(id);
+            if (node == null) {
+                return false;
+            }
+            removed.set(node);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public float[] get(int id) {
+        lock.readLock().lock();
+        try {
+            Integer node = liveNodes.get(id);
+            return node == null ? null : Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Integer> getIds() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(liveNodes.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveNodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Share of the graph taken up by removed nodes; see compacted.
+    public double getRemovedShare() {
+        lock.readLock().lock();
+        try {
+            return nodeCount == 0 ? 0 : (double) (nodeCount - liveNodes.size()) / nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The k stored vectors most similar to query, best first. ef is how many candidates the
+    // bottom level keeps; larger is slower and finds more of the true top k.
+    public List<Result> search(float[] query, int k, int ef) {
+        lock.readLock().lock();
+        try {
+            List<Result> results = new ArrayList<>();
+            if (entryPoint < 0) {
+                return results;
+            }
+            int current = descend(query, entryPoint, topLevel, 0);
+            // Removed nodes take up candidate slots, so the search widens by their share.
+            int width = Math.max(ef, k) + (int) (Math.max(ef, k) * getRemovedShare());
+            int[] nearest = searchLayer(query, current, width, 0).drainAscending();
+            for (int i = 0; i < nearest.length && results.size() < k; i++) {
+                if (!removed.get(nearest[i])) {
+                    results.add(new Result(ids[nearest[i]], 1 - distance(query, nearest[i])));
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A rebuilt copy holding only the live vectors. Removed nodes still cost memory and search
+    // time, so callers rebuild once they make up a good part of the graph.
+    public HnswIndex compacted() {
+        lock.readLock().lock();
+        try {
+            HnswIndex copy = new HnswIndex(dimensions, links, efConstruction, random);
+            for (int node = 0; node < nodeCount; node++) {
+                if (!removed.get(node)) {
+                    copy.add(ids[node], Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions));
+                }
+            }
+            return copy;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(dimensions);
+            out.writeInt(links);
+            out.writeInt(efConstruction);
+            out.writeInt(nodeCount);
+            out.writeInt(entryPoint);
+            out.writeInt(topLevel);
+            for (int node = 0; node < nodeCount; node++) {
+                out.writeInt(ids[node]);
+                out.writeBoolean(removed.get(node));
+                for (int d = 0; d < dimensions; d++) {
+                    out.writeFloat(vectors[node * dimensions + d]);
+                }
+                out.writeByte(neighbours[node].length);
+                for (int[] level : neighbours[node]) {
+                    out.writeShort(level[0]);
+                    for (int i = 1; i <= level[0]; i++) {
+                        out.writeInt(level[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static HnswIndex read(DataInputStream in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported HNSW index format " + version);
+        }
+        HnswIndex index = new HnswIndex(in.readInt(), in.readInt(), in.readInt(), new Random());
+        int nodeCount = in.readInt();
+        index.entryPoint = in.readInt();
+        index.topLevel = in.readInt();
+        for (int node = 0; node < nodeCount; node++) {
+            int id = in.readInt();
+            boolean removed = in.readBoolean();
+            float[] vector = new float[index.dimensions];
+            for (int d = 0; d < vector.length; d++) {
+                vector[d] = in.readFloat();
+            }
+            index.allocate(id, vector);
+            if (removed) {
+                index.removed.set(node);
+            } else {
+                index.liveNodes.put(id, node);
+            }
+            int levels = in.readByte();
+            index.neighbours[node] = new int[levels][];
+            for (int l = 0; l < levels; l++) {
+                int[] level = new int[1 + index.maxLinks(l)];
+                level[0] = in.readShort();
+                for (int i = 1; i <= level[0]; i++) {
+                    level[i] = in.readInt();
+                }
+                index.neighbours[node][l] = level;
+            }
+        }
+        return index;
+    }
+
+    private int allocate(int id, float[] vector) {
+        if (nodeCount == ids.length) {
+            int capacity = nodeCount * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            vectors = Arrays.copyOf(vectors, capacity * dimensions);
+            neighbours = Arrays.copyOf(neighbours, capacity);
+        }
+        ids[nodeCount] = id;
+        System.arraycopy(vector, 0, vectors, nodeCount * dimensions, dimensions);
+        return nodeCount++;
+    }
+
+    private int maxLinks(int level) {
+        return level == 0 ? links * 2 : links;
+    }
+
+    // Greedy walk from the entry point down to just above level stopAbove, one hop at a time
+    // towards the query, returning where it ends.
+    private int descend(float[] query, int start, int fromLevel, int stopAbove) {
+        int current = start;
+        float currentDistance = distance(query, current);
+        for (int l = fromLevel; l > stopAbove; l--) {
+            boolean moved = true;
+            while (moved) {
+                moved = false;
+                int[] level = neighbours[current][l];
+                for (int i = 1; i <= level[0]; i++) {
+                    float d = distance(query, level[i]);
+                    if (d < currentDistance) {
+                        currentDistance = d;
+                        current = level[i];
+                        moved = true;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    // Best-first search of one level, keeping the ef closest nodes seen.
+    private NodeHeap searchLayer(float[] query, int start, int ef, int level) {
+        Visited seen = visited.get();
+        seen.reset(nodeCount);
+        NodeHeap candidates = new NodeHeap(false);
+        NodeHeap nearest = new NodeHeap(true);
+        float startDistance = distance(query, start);
+        seen.add(start);
+        candidates.push(startDistance, start);
+        nearest.push(startDistance, start);
+        while (candidates.size() > 0) {
+            float candidateDistance = candidates.topKey();
+            if (nearest.size() >= ef && candidateDistance > nearest.topKey()) {
+                break;
+            }
+            int candidate = candidates.pop();
+            if (level >= neighbours[candidate].length) {
+                continue;
+            }
+            int[] links = neighbours[candidate][level];
+            for (int i = 1; i <= links[0]; i++) {
+                int next = links[i];
+                if (!seen.add(next)) {
+                    continue;
+                }
+                float d = distance(query, next);
+                if (nearest.size() < ef || d < nearest.topKey()) {
+                    candidates.push(d, next);
+                    nearest.push(d, next);
+                    if (nearest.size() > ef) {
+                        nearest.pop();
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    // The HNSW neighbour heuristic: walking candidates from nearest, keep one only if it is
+    // closer to the base than to every neighbour kept so far. Links then point in different
+    // directions instead of all into the nearest cluster, which keeps the graph navigable.
+    private int[] selectNeighbours(float[] base, int baseOffset, int[] candidates, int max) {
+        int[] selected = new int[Math.min(max, candidates.length)];
+        int count = 0;
+        for (int i = 0; i < candidates.length && count < selected.length; i++) {
+            int candidate = candidates[i];
+            float toBase = distance(base, baseOffset, candidate);
+            boolean diverse = true;
+            for (int s = 0; s < count; s++) {
+                if (distance(candidate, selected[s]) < toBase) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate;
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    // Links from to target on level, re-selecting from's links when the list is full.
+    private void link(int from, int target, int level) {
+        int[] list = neighbours[from][level];
+        int count = list[0];
+        for (int i = 1; i <= count; i++) {
+            if (list[i] == target) {
+                return;
+            }
+        }
+        if (count < list.length - 1) {
+            list[count + 1] = target;
+            list[0] = count + 1;
+            return;
+        }
+        NodeHeap byDistance = new NodeHeap(true);
+        for (int i = 1; i <= count; i++) {
+            byDistance.push(distance(from, list[i]), list[i]);
+        }
+        byDistance.push(distance(from, target), target);
+        int[] kept = selectNeighbours(vectors, from * dimensions, byDistance.drainAscending(), list.length - 1);
+        System.arraycopy(kept, 0, list, 1, kept.length);
+        list[0] = kept.length;
+    }
+
+    private float distance(float[] query, int node) {
+        return distance(query, 0, node);
+    }
+
+    private float distance(int a, int b) {
+        return distance(vectors, a * dimensions, b);
+    }
+
+    // Cosine distance of unit vectors; four accumulators let the loop pipeline.
+    private float distance(float[] query, int queryOffset, int node) {
+        float[] stored = vectors;
+        int offset = node * dimensions;
+        float s0 = 0;
+        float s1 = 0;
+        float s2 = 0;
+        float s3 = 0;
+        int d = 0;
+        for (; d + 3 < dimensions; d += 4) {
+            s0 += query[queryOffset + d] * stored[offset + d];
+            s1 += query[queryOffset + d + 1] * stored[offset + d + 1];
+            s2 += query[queryOffset + d + 2] * stored[offset + d + 2];
+            s3 += query[queryOffset + d + 3] * stored[offset + d + 3];
+        }
+        for (; d < dimensions; d++) {
+            s0 += query[queryOffset + d] * stored[offset + d];
+        }
+        return 1 - (s0 + s1 + s2 + s3);
+    }
+
+    // Binary heap of (distance, node) pairs without boxing; a max-heap when max is set.
+    private static final class NodeHeap {
+        private final boolean max;
+        private float[] keys = new float[32];
+        private int[] nodes = new int[32];
+        private int size;
+
+        private NodeHeap(boolean max) {
+            this.max = max;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private float topKey() {
+            return keys[0];
+        }
+
+        private void push(float key, int node) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!before(key, keys[parent])) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                nodes[i] = nodes[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+
+        private int pop() {
+            int top = nodes[0];
+            size--;
+            float key = keys[size];
+            int node = nodes[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(keys[child + 1], keys[child])) {
+                    child++;
+                }
+                if (!before(keys[child], key)) {
+                    break;
+                }
+                keys[i] = keys[child];
+                nodes[i] = nodes[child];
+                i = child;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+            return top;
+        }
+
+        private boolean before(float a, float b) {
+            return max ? a > b : a < b;
+        }
+
+        // Empties a max-heap into an array ordered nearest first.
+        private int[] drainAscending() {
+            int[] ordered = new int[size];
+            for (int i = ordered.length - 1; i >= 0; i--) {
+                ordered[i] = pop();
+            }
+            return ordered;
+        }
+    }
+
+    // Marks nodes seen by the current search; bumping the generation clears it in O(1).
+    private static final class Visited {
+        private int[] marks = new int[0];
+        private int generation;
+
+        private void reset(int capacity) {
+            if (marks.length < capacity) {
+                marks = new int[Math.max(capacity, marks.length * 2)];
+                generation = 0;
+            }
+            generation++;
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        // False when node was already seen.
+        private boolean add(int node) {
+            if (marks[node] == generation) {
+                return false;
+            }
+            marks[node] = generation;
+            return true;
+        }
+    }
+}
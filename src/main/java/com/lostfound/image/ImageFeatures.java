@@ -0,0 +1,112 @@
+package com.lostfound.image;
+
+// Fixed-length descriptors of a photo's colours and shapes, compared by cosine similarity.
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+public final class ImageFeatures {
+    // HSV colour histogram: 8 hues x 3 saturations x 3 values.
+    private static final int HUE_BINS = 8;
+    private static final int SATURATION_BINS = 3;
+    private static final int VALUE_BINS = 3;
+    private static final int COLOUR_DIMENSIONS = HUE_BINS * SATURATION_BINS * VALUE_BINS;
+    // Histograms of gradient orientations over a 4x4 grid of cells, 9 bins over 0-180 degrees.
+    private static final int GRID = 4;
+    private static final int ORIENTATION_BINS = 9;
+    private static final int SHAPE_DIMENSIONS = GRID * GRID * ORIENTATION_BINS;
+    private static final int WORKING_SIZE = 64;
+    // Share of the similarity that comes from colour; the rest comes from shape.
+    private static final double COLOUR_WEIGHT = 0.5;
+
+    public static final int DIMENSIONS = COLOUR_DIMENSIONS + SHAPE_DIMENSIONS;
+
+    private ImageFeatures() {
+    }
+
+    // A unit-length vector, so the dot product of two is their similarity: 1 for identical
+    // photos, near 0 for unrelated ones. Works on a 64x64 copy, so photos of any size and aspect
+    // ratio compare.
+    public static float[] extract(BufferedImage image) {
+        BufferedImage small = ImageScaler.scale(image, WORKING_SIZE, WORKING_SIZE);
+        int[] rgb = small.getRGB(0, 0, WORKING_SIZE, WORKING_SIZE, null, 0, WORKING_SIZE);
+        float[] features = new float[DIMENSIONS];
+        colourHistogram(rgb, features);
+        shapeHistogram(rgb, features);
+        return features;
+    }
+
+    // Dot product of two vectors from extract.
+    public static float similarity(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    // Square roots of the bin shares are unit length already, and compare like the Hellinger
+    // distance, which keeps one dominant colour from swamping the rest.
+    private static void colourHistogram(int[] rgb, float[] features) {
+        float[] hsv = new float[3];
+        double[] bins = new double[COLOUR_DIMENSIONS];
+        for (int pixel : rgb) {
+            Color.RGBtoHSB((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF, hsv);
+            int hue = Math.min(HUE_BINS - 1, (int) (hsv[0] * HUE_BINS));
+            int saturation = Math.min(SATURATION_BINS - 1, (int) (hsv[1] * SATURATION_BINS));
+            int value = Math.min(VALUE_BINS - 1, (int) (hsv[2] * VALUE_BINS));
+            bins[(hue * SATURATION_BINS + saturation) * VALUE_BINS + value]++;
+        }
+        double weight = Math.sqrt(COLOUR_WEIGHT);
+        for (int i = 0; i < COLOUR_DIMENSIONS; i++) {
+            features[i] = (float) (weight * Math.sqrt(bins[i] / rgb.length));
+        }
+    }
+
+    // HOG-style: gradient magnitude summed by orientation per cell, each cell normalized so
+    // lighting and contrast matter less than where the edges run.
+    private static void shapeHistogram(int[] rgb, float[] features) {
+        int size = WORKING_SIZE;
+        float[] gray = new float[rgb.length];
+        for (int i = 0; i < rgb.length; i++) {
+            gray[i] = ((rgb[i] >> 16) & 0xFF) * 0.299f + ((rgb[i] >> 8) & 0xFF) * 0.587f + (rgb[i] & 0xFF) * 0.114f;
+        }
+        double[] bins = new double[SHAPE_DIMENSIONS];
+        int cellSize = size / GRID;
+        for (int y = 1; y < size - 1; y++) {
+            for (int x = 1; x < size - 1; x++) {
+                double dx = gray[y * size + x + 1] - gray[y * size + x - 1];
+                double dy = gray[(y + 1) * size + x] - gray[(y - 1) * size + x];
+                double magnitude = Math.sqrt(dx * dx + dy * dy);
+                if (magnitude == 0) {
+                    continue;
+                }
+                double angle = Math.atan2(dy, dx);
+                if (angle < 0) {
+                    angle += Math.PI;
+                }
+                int orientation = Math.min(ORIENTATION_BINS - 1, (int) (angle / Math.PI * ORIENTATION_BINS));
+                int cell = (y / cellSize) * GRID + x / cellSize;
+                bins[cell * ORIENTATION_BINS + orientation] += magnitude;
+            }
+        }
+        for (int cell = 0; cell < GRID * GRID; cell++) {
+            double norm = 0;
+            for (int b = 0; b < ORIENTATION_BINS; b++) {
+                norm += bins[cell * ORIENTATION_BINS + b] * bins[cell * ORIENTATION_BINS + b];
+            }
+            norm = Math.sqrt(norm) + 1e-6;
+            for (int b = 0; b < ORIENTATION_BINS; b++) {
+                bins[cell * ORIENTATION_BINS + b] /= norm;
+            }
+        }
+        double total = 0;
+        for (double bin : bins) {
+            total += bin * bin;
+        }
+        // A flat image has no edges; its shape half stays zero.
+        double scale = total == 0 ? 0 : Math.sqrt((1 - COLOUR_WEIGHT) / total);
+        for (int i = 0; i < SHAPE_DIMENSIONS; i++) {
+            features[COLOUR_DIMENSIONS + i] = (float) (bins[i] * scale);
+        }
+    }
+}
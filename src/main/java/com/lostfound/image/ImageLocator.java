@@ -0,0 +1,20 @@
+package com.lostfound.image;
+
+// Resolves a recorded image_path to a readable local file.
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+@FunctionalInterface
+public interface ImageLocator {
+    // Treats image paths as paths on this machine, as they were before the image store.
+    ImageLocator LOCAL_FILES = File::new;
+
+    File locate(String imagePath) throws IOException;
+
+    // Up to length bytes of the image starting at offset, without fetching the rest of it.
+    // Throws FileNotFoundException when there is no such image.
+    default InputStream openRange(String imagePath, long offset, long length) throws IOException {
+        return FileSystemImageStore.openRange(locate(imagePath), offset, length);
+    }
+}
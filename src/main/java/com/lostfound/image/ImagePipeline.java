@@ -0,0 +1,139 @@
+package com.lostfound.image;
+
+// Decodes an uploaded photo once and writes each rendition of it as a JPEG next to the original.
+import com.lostfound.model.ImageRendition;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+public final class ImagePipeline {
+    // Renditions of images/lost/x.jpg go in images/lost/renditions/.
+    public static final String RENDITION_DIRECTORY = "renditions";
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private ImagePipeline() {
+    }
+
+    // Where the rendition of a photo is written.
+    public static File renditionFile(File source, Rendition rendition) {
+        String name = source.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        File directory = new File(source.getParentFile(), RENDITION_DIRECTORY);
+        return new File(directory, base + "." + rendition.getName() + ".jpg");
+    }
+
+    // Writes every rendition of the photo, overwriting earlier ones, and returns them largest
+    // first. The original is decoded once, subsampled to what the largest rendition needs, and
+    // each rendition is scaled from the previous one.
+    public static List<ImageRendition> process(File source) throws IOException {
+        BufferedImage original = ImageDecoder.decodeToFit(source, Rendition.ALL.get(0).getMaxSize());
+        List<ImageRendition> renditions = new ArrayList<>();
+        BufferedImage current = flatten(original);
+        for (Rendition rendition : Rendition.ALL) {
+            current = fit(current, rendition.getMaxSize());
+            File target = renditionFile(source, rendition);
+            File directory = target.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Failed to create rendition directory: " + directory);
+            }
+            writeJpeg(current, target);
+            renditions.add(new ImageRendition(source.getPath(), rendition.getName(), target.getPath(),
+                    current.getWidth(), current.getHeight()));
+        }
+        return renditions;
+    }
+
+    // The renditions already written for the photo, or null when any is missing or older than
+    // the photo. Only the rendition headers are read.
+    public static List<ImageRendition> existingRenditions(File source) throws IOException {
+        List<ImageRendition> renditions = new ArrayList<>();
+        for (Rendition rendition : Rendition.ALL) {
+            File file = renditionFile(source, rendition);
+            if (!file.isFile() || file.lastModified() < source.lastModified()) {
+                return null;
+            }
+            try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+                Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+                if (readers == null || !readers.hasNext()) {
+                    return null;
+                }
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(in);
+                    renditions.add(new ImageRendition(source.getPath(), rendition.getName(), file.getPath(),
+                            reader.getWidth(0), reader.getHeight(0)));
+                } finally {
+                    reader.dispose();
+                }
+            }
+        }
+        return renditions;
+    }
+
+    // The image scaled down so its longer side is at most maxSize.
+    public static BufferedImage fit(BufferedImage image, int maxSize) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (width <= maxSize && height <= maxSize) {
+            return image;
+        }
+        double scale = Math.min((double) maxSize / width, (double) maxSize / height);
+        return ImageScaler.scale(image, Math.max(1, (int) Math.round(width * scale)),
+                Math.max(1, (int) Math.round(height * scale)));
+    }
+
+    // JPEG has no alpha channel or palette, so transparent PNGs are laid on white and
+    // palette images are expanded.
+    private static BufferedImage flatten(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha() && !(image.getColorModel() instanceof IndexColorModel)) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    private static void writeJpeg(BufferedImage image, File target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG encoder available");
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        // Written beside the target and renamed, so a viewer never reads half a file.
+        File temporary = new File(target.getParentFile(), target.getName() + ".tmp");
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(temporary)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+}
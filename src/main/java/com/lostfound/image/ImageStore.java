@@ -0,0 +1,28 @@
+package com.lostfound.image;
+
+// Where photo files live, addressed by slash-separated names such as "ab/cd/<content key>".
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImageStore {
+    boolean exists(String name) throws IOException;
+
+    // Stores the file's bytes under the name, replacing what is there. Readers see the old object
+    // or the new one, never part of either. The source may be moved into the store rather than
+    // copied, so callers must not use it afterwards.
+    void put(String name, File source) throws IOException;
+
+    // Throws FileNotFoundException when there is no such object.
+    InputStream open(String name) throws IOException;
+
+    // Up to length bytes starting at offset; ends early at the end of the object.
+    InputStream openRange(String name, long offset, long length) throws IOException;
+
+    // Returns false when there was no such object.
+    boolean delete(String name) throws IOException;
+
+    // A local file with the object's bytes, downloaded first if the store is remote, or null
+    // when this store keeps no local copies.
+    File localFile(String name) throws IOException;
+}
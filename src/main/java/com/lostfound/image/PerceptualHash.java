@@ -0,0 +1,108 @@
+package com.lostfound.image;
+
+// 64-bit perceptual hashes of images: similar-looking photos get hashes a small Hamming distance apart.
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+public final class PerceptualHash {
+    private static final int DHASH_WIDTH = 9;
+    private static final int DHASH_HEIGHT = 8;
+    // pHash keeps the 8x8 lowest frequencies of a 32x32 DCT.
+    private static final int PHASH_SIZE = 32;
+    private static final int PHASH_FREQUENCIES = 8;
+    private static final int PREPARED_SIZE = 64;
+    private static final double[][] DCT_COSINES = new double[PHASH_FREQUENCIES][PHASH_SIZE];
+
+    static {
+        for (int u = 0; u < PHASH_FREQUENCIES; u++) {
+            for (int x = 0; x < PHASH_SIZE; x++) {
+                DCT_COSINES[u][x] = Math.cos((2 * x + 1) * u * Math.PI / (2.0 * PHASH_SIZE));
+            }
+        }
+    }
+
+    private PerceptualHash() {
+    }
+
+    // Difference hash: one bit per horizontally adjacent pixel pair of a 9x8 grayscale
+    // thumbnail, set where brightness falls from left to right. Cheap, and robust to scaling and
+    // to brightness and contrast changes.
+    public static long dHash(BufferedImage image) {
+        int[] gray = grayscale(image, DHASH_WIDTH, DHASH_HEIGHT);
+        long hash = 0;
+        for (int y = 0; y < DHASH_HEIGHT; y++) {
+            for (int x = 0; x < DHASH_WIDTH - 1; x++) {
+                hash <<= 1;
+                if (gray[y * DHASH_WIDTH + x] > gray[y * DHASH_WIDTH + x + 1]) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    // DCT hash: one bit per low-frequency coefficient of a 32x32 grayscale thumbnail, set where
+    // it is above the median. Slower than dHash but more tolerant of recompression, noise and
+    // small edits.
+    public static long pHash(BufferedImage image) {
+        int[] gray = grayscale(image, PHASH_SIZE, PHASH_SIZE);
+        // The 2-D DCT is separable: transform the rows, then the columns, keeping 8 frequencies.
+        double[][] rows = new double[PHASH_SIZE][PHASH_FREQUENCIES];
+        for (int y = 0; y < PHASH_SIZE; y++) {
+            for (int u = 0; u < PHASH_FREQUENCIES; u++) {
+                double sum = 0;
+                for (int x = 0; x < PHASH_SIZE; x++) {
+                    sum += gray[y * PHASH_SIZE + x] * DCT_COSINES[u][x];
+                }
+                rows[y][u] = sum;
+            }
+        }
+        double[] coefficients = new double[PHASH_FREQUENCIES * PHASH_FREQUENCIES];
+        for (int v = 0; v < PHASH_FREQUENCIES; v++) {
+            for (int u = 0; u < PHASH_FREQUENCIES; u++) {
+                double sum = 0;
+                for (int y = 0; y < PHASH_SIZE; y++) {
+                    sum += rows[y][u] * DCT_COSINES[v][y];
+                }
+                coefficients[v * PHASH_FREQUENCIES + u] = sum;
+            }
+        }
+        // The DC term is the average brightness and says nothing about content.
+        double[] ac = new double[coefficients.length - 1];
+        System.arraycopy(coefficients, 1, ac, 0, ac.length);
+        Arrays.sort(ac);
+        double median = (ac[ac.length / 2 - 1] + ac[ac.length / 2]) / 2;
+        long hash = 0;
+        for (double coefficient : coefficients) {
+            hash <<= 1;
+            if (coefficient > median) {
+                hash |= 1;
+            }
+        }
+        return hash;
+    }
+
+    // Halves the image down to 64-127 pixels on its shorter side, so dHash and pHash of the same
+    // photo can share the expensive part of the scaling.
+    public static BufferedImage prepare(BufferedImage image) {
+        return ImageScaler.reduce(image, PREPARED_SIZE);
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    // Luma of the image scaled to width x height, 0-255.
+    private static int[] grayscale(BufferedImage image, int width, int height) {
+        BufferedImage small = ImageScaler.scale(image, width, height);
+        int[] rgb = small.getRGB(0, 0, width, height, null, 0, width);
+        int[] gray = new int[rgb.length];
+        for (int i = 0; i < rgb.length; i++) {
+            int r = (rgb[i] >> 16) & 0xFF;
+            int gr = (rgb[i] >> 8) & 0xFF;
+            int b = rgb[i] & 0xFF;
+            gray[i] = (r * 299 + gr * 587 + b * 114) / 1000;
+        }
+        return gray;
+    }
+}
@@ -0,0 +1,39 @@
+package com.lostfound.image;
+
+// A downscaled copy of an uploaded photo made once at upload time, for screens that never need the original.
+import java.util.List;
+
+public final class Rendition {
+    // Report details; fits the 200x200 image slot in ReportUI.
+    public static final Rendition THUMBNAIL = new Rendition("thumb", 200);
+    // Large enough for a full-window view of the photo.
+    public static final Rendition PREVIEW = new Rendition("preview", 800);
+    // Largest first, so each rendition can be scaled from the one before it.
+    public static final List<Rendition> ALL = List.of(PREVIEW, THUMBNAIL);
+
+    private final String name;
+    private final int maxSize;
+
+    private Rendition(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Longest side in pixels; the aspect ratio is kept and photos are never enlarged.
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public static Rendition byName(String name) {
+        for (Rendition rendition : ALL) {
+            if (rendition.name.equals(name)) {
+                return rendition;
+            }
+        }
+        return null;
+    }
+}
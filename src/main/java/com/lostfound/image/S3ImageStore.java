@@ -0,0 +1,201 @@
+package com.lostfound.image;
+
+// ImageStore in an S3-compatible bucket (AWS S3, MinIO, ...), addressed path-style as endpoint/bucket/name.
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class S3ImageStore implements ImageStore {
+    private static final Logger LOGGER = Logger.getLogger(S3ImageStore.class.getName());
+    // Files up to this size go up in one PUT; larger ones in parts of this size, read one at a
+    // time so an upload never holds more than one part in memory. S3 requires at least 5MB.
+    private static final int PART_SIZE = 8 * 1024 * 1024;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+
+    private final HttpClient client;
+    private final URI endpoint;
+    private final String bucket;
+    private final S3Signer signer;
+
+    // endpoint is the service root, e.g. https://s3.eu-west-1.amazonaws.com or http://localhost:9000.
+    public S3ImageStore(URI endpoint, String bucket, String region, String accessKey, String secretKey) {
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(TIMEOUT).build();
+        this.endpoint = endpoint;
+        this.bucket = bucket;
+        this.signer = new S3Signer(accessKey, secretKey, region);
+    }
+
+    @Override
+    public boolean exists(String name) throws IOException {
+        HttpResponse<Void> response = send("HEAD", name, null, Map.of(), null, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        check(response, "HEAD", name);
+        return true;
+    }
+
+    @Override
+    public void put(String name, File source) throws IOException {
+        long size = source.length();
+        if (size <= PART_SIZE) {
+            byte[] body = Files.readAllBytes(source.toPath());
+            check(send("PUT", name, null, Map.of(), body, HttpResponse.BodyHandlers.ofString()), "PUT", name);
+            return;
+        }
+        putMultipart(name, source, size);
+    }
+
+    @Override
+    public InputStream open(String name) throws IOException {
+        return get(name, Map.of(), 200);
+    }
+
+    @Override
+    public InputStream openRange(String name, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        return get(name, Map.of("Range", "bytes=" + offset + "-" + (offset + length - 1)), 206);
+    }
+
+    @Override
+    public boolean delete(String name) throws IOException {
+        // S3 answers 204 whether or not the object existed, so ask first.
+        boolean existed = exists(name);
+        check(send("DELETE", name, null, Map.of(), null, HttpResponse.BodyHandlers.ofString()), "DELETE", name);
+        return existed;
+    }
+
+    @Override
+    public File localFile(String name) {
+        return null;
+    }
+
+    // Initiates an upload, sends the parts in order and completes it; any failure aborts the
+    // upload so the bucket is not left holding orphaned parts.
+    private void putMultipart(String name, File source, long size) throws IOException {
+        HttpResponse<String> initiated = send("POST", name, "uploads=", Map.of(), new byte[0],
+                HttpResponse.BodyHandlers.ofString());
+        check(initiated, "initiate multipart upload of", name);
+        Matcher matcher = UPLOAD_ID.matcher(initiated.body());
+        if (!matcher.find()) {
+            throw new IOException("No UploadId in multipart upload response for " + name);
+        }
+        String uploadId = matcher.group(1);
+        String uploadQuery = "uploadId=" + S3Signer.encode(uploadId, false);
+        try {
+            List<String> etags = new ArrayList<>();
+            byte[] part = new byte[PART_SIZE];
+            try (InputStream in = Files.newInputStream(source.toPath())) {
+                int partNumber = 1;
+                for (long sent = 0; sent < size; partNumber++) {
+                    int length = in.readNBytes(part, 0, PART_SIZE);
+                    if (length == 0) {
+                        break;
+                    }
+                    HttpResponse<String> uploaded = send("PUT", name, "partNumber=" + partNumber + "&" + uploadQuery,
+                            Map.of(), part, length, HttpResponse.BodyHandlers.ofString());
+                    check(uploaded, "upload part " + partNumber + " of", name);
+                    etags.add(uploaded.headers().firstValue("ETag")
+                            .orElseThrow(() -> new IOException("No ETag for a part of " + name)));
+                    sent += length;
+                }
+            }
+            StringBuilder complete = new StringBuilder("<CompleteMultipartUpload>");
+            for (int i = 0; i < etags.size(); i++) {
+                complete.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                        .append(etags.get(i)).append("</ETag></Part>");
+            }
+            complete.append("</CompleteMultipartUpload>");
+            HttpResponse<String> completed = send("POST", name, uploadQuery, Map.of(),
+                    complete.toString().getBytes(StandardCharsets.UTF_8), HttpResponse.BodyHandlers.ofString());
+            // A completion can fail after a 200 status; the error is then in the body.
+            if (completed.body().contains("<Error>")) {
+                throw new IOException("Completing multipart upload of " + name + " failed: " + completed.body());
+            }
+            check(completed, "complete multipart upload of", name);
+            LOGGER.log(Level.FINE, "Uploaded {0} in {1} parts", new Object[]{name, etags.size()});
+        } catch (IOException | RuntimeException e) {
+            try {
+                send("DELETE", name, uploadQuery, Map.of(), null, HttpResponse.BodyHandlers.discarding());
+            } catch (IOException abortError) {
+                e.addSuppressed(abortError);
+            }
+            throw e;
+        }
+    }
+
+    private InputStream get(String name, Map<String, String> headers, int expectedStatus) throws IOException {
+        HttpResponse<InputStream> response = send("GET", name, null, headers, null,
+                HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() == expectedStatus) {
+            return response.body();
+        }
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 404) {
+                throw new FileNotFoundException(name);
+            }
+            // 416: the range starts past the end of the object.
+            if (response.statusCode() == 416) {
+                return InputStream.nullInputStream();
+            }
+            throw new IOException("GET " + name + " failed with HTTP " + response.statusCode() + ": "
+                    + new String(body.readNBytes(512), StandardCharsets.UTF_8));
+        }
+    }
+
+    private <T> HttpResponse<T> send(String method, String name, String query, Map<String, String> headers,
+                                     byte[] body, HttpResponse.BodyHandler<T> handler) throws IOException {
+        return send(method, name, query, headers, body, body == null ? 0 : body.length, handler);
+    }
+
+    private <T> HttpResponse<T> send(String method, String name, String query, Map<String, String> headers,
+                                     byte[] body, int length, HttpResponse.BodyHandler<T> handler)
+            throws IOException {
+        String base = endpoint.toString().endsWith("/") ? endpoint.toString() : endpoint + "/";
+        URI uri = URI.create(base + S3Signer.encode(bucket, false) + "/" + S3Signer.encode(name, true)
+                + (query == null ? "" : "?" + query));
+        String payloadHash = body == null ? S3Signer.EMPTY_PAYLOAD_HASH : S3Signer.sha256Hex(body, 0, length);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(TIMEOUT)
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body, 0, length));
+        Map<String, String> all = new HashMap<>(headers);
+        all.putAll(signer.sign(method, uri, headers, payloadHash, Instant.now()));
+        all.forEach(request::header);
+        try {
+            return client.send(request.build(), handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(method + " " + name + " was interrupted");
+        }
+    }
+
+    private static void check(HttpResponse<?> response, String action, String name) throws IOException {
+        int status = response.statusCode();
+        if (status / 100 != 2) {
+            Object body = response.body();
+            throw new IOException(action + " " + name + " failed with HTTP " + status
+                    + (body instanceof String ? ": " + body : ""));
+        }
+    }
+}
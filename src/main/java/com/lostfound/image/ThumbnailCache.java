@@ -0,0 +1,71 @@
+package com.lostfound.image;
+
+// Decoded thumbnails kept in memory by image path, bounded by the bytes their pixels take.
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ThumbnailCache {
+    private final long maxBytes;
+    // Access order, so iteration starts at the least recently used thumbnail.
+    private final LinkedHashMap<String, BufferedImage> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ThumbnailCache(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    // The cached thumbnail, or null on a miss.
+    public synchronized BufferedImage get(String imagePath) {
+        BufferedImage image = entries.get(imagePath);
+        if (image == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return image;
+    }
+
+    // Evicts least recently used thumbnails until the new one fits. A thumbnail larger than
+    // the whole cache is not kept.
+    public synchronized void put(String imagePath, BufferedImage image) {
+        long size = sizeOf(image);
+        BufferedImage previous = entries.remove(imagePath);
+        if (previous != null) {
+            bytes -= sizeOf(previous);
+        }
+        if (size > maxBytes) {
+            return;
+        }
+        Iterator<BufferedImage> it = entries.values().iterator();
+        while (bytes + size > maxBytes && it.hasNext()) {
+            bytes -= sizeOf(it.next());
+            it.remove();
+            evictions++;
+        }
+        entries.put(imagePath, image);
+        bytes += size;
+    }
+
+    public synchronized void invalidate(String imagePath) {
+        BufferedImage image = entries.remove(imagePath);
+        if (image != null) {
+            bytes -= sizeOf(image);
+        }
+    }
+
+    public synchronized ThumbnailCacheStats getStats() {
+        return new ThumbnailCacheStats(entries.size(), bytes, maxBytes, hits, misses, evictions);
+    }
+
+    // Bytes held by the image's pixel data; the object headers around it are negligible.
+    static long sizeOf(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+}
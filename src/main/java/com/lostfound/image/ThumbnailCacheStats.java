@@ -0,0 +1,56 @@
+package com.lostfound.image;
+
+// Point-in-time counters for the ThumbnailCache.
+public class ThumbnailCacheStats {
+    private final int size;
+    private final long bytes;
+    private final long maxBytes;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public ThumbnailCacheStats(int size, long bytes, long maxBytes, long hits, long misses, long evictions) {
+        this.size = size;
+        this.bytes = bytes;
+        this.maxBytes = maxBytes;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // Bytes of decoded pixels currently held.
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("thumbnails: size=%d memory=%dKB/%dKB hits=%d misses=%d hitRatio=%.2f evictions=%d",
+                size, bytes / 1024, maxBytes / 1024, hits, misses, getHitRatio(), evictions);
+    }
+}
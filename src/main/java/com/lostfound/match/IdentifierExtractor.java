@@ -0,0 +1,178 @@
+package com.lostfound.match;
+
+// Pulls serial numbers, IMEIs and card numbers out of free text and normalizes them for lookup.
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public final class IdentifierExtractor {
+    public static final String SERIAL = "Serial";
+    public static final String IMEI = "IMEI";
+    public static final String CARD = "Card";
+
+    private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[\\s,;:=()\\[\\]{}\"']+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^A-Z0-9]");
+    private static final Pattern DATE = Pattern.compile("\\d{4}[-/.]\\d{1,2}[-/.]\\d{1,2}|\\d{1,2}[-/.]\\d{1,2}[-/.]\\d{2,4}");
+    // Words that introduce an identifier: "S/N: AB12C", "IMEI 3520...", "ID no. 12345".
+    private static final Set<String> LABELS = Set.of("SERIAL", "SN", "S/N", "IMEI", "ID", "NO", "NUMBER",
+            "CARD", "TAG", "#");
+    // An unlabelled token needs this many characters and digits to pass for an identifier, which
+    // keeps out model names such as "iPhone13" or "SM-G991".
+    private static final int MIN_UNLABELLED_LENGTH = 8;
+    private static final int MIN_UNLABELLED_DIGITS = 4;
+    private static final int MIN_LABELLED_LENGTH = 5;
+    private static final int MAX_LENGTH = 24;
+    // Card numbers and IMEIs are often written in digit groups: "4111 1111 1111 1111".
+    private static final int MIN_GROUPED_DIGITS = 13;
+    private static final int MAX_GROUPED_DIGITS = 19;
+    private static final int IMEI_DIGITS = 15;
+
+    private IdentifierExtractor() {
+    }
+
+    public static final class Identifier {
+        private final String kind;
+        private final String value;
+
+        private Identifier(String kind, String value) {
+            this.kind = kind;
+            this.value = value;
+        }
+
+        // SERIAL, IMEI or CARD.
+        public String getKind() {
+            return kind;
+        }
+
+        // Upper case, letters and digits only: "sn: ab-12 3" and "AB123" both become "AB123".
+        public String getValue() {
+            return value;
+        }
+
+        public String getLastFour() {
+            return value.substring(Math.max(0, value.length() - 4));
+        }
+    }
+
+    // Distinct identifiers in the order they appear. Null or blank text yields none.
+    public static List<Identifier> extract(String text) {
+        Map<String, Identifier> found = new LinkedHashMap<>();
+        if (text == null || text.isBlank()) {
+            return new ArrayList<>();
+        }
+        String[] tokens = TOKEN_SEPARATORS.split(text.toUpperCase(Locale.ROOT).trim());
+        boolean labelled = false;
+        for (int i = 0; i < tokens.length; i++) {
+            String token = stripLabelPunctuation(tokens[i]);
+            if (LABELS.contains(token)) {
+                labelled = true;
+                continue;
+            }
+            int groupEnd = digitGroupEnd(tokens, i);
+            if (groupEnd > i) {
+                StringBuilder digits = new StringBuilder();
+                for (int j = i; j <= groupEnd; j++) {
+                    digits.append(NON_ALPHANUMERIC.matcher(tokens[j]).replaceAll(""));
+                }
+                add(found, classifyDigits(digits.toString()), digits.toString());
+                i = groupEnd;
+                labelled = false;
+                continue;
+            }
+            String value = NON_ALPHANUMERIC.matcher(token).replaceAll("");
+            if (!DATE.matcher(token).matches() && looksLikeIdentifier(value, labelled)) {
+                add(found, isDigits(value) ? classifyDigits(value) : SERIAL, value);
+            }
+            labelled = false;
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    private static void add(Map<String, Identifier> found, String kind, String value) {
+        found.putIfAbsent(value, new Identifier(kind, value));
+    }
+
+    private static boolean looksLikeIdentifier(String value, boolean labelled) {
+        if (value.length() > MAX_LENGTH) {
+            return false;
+        }
+        int digits = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isDigit(value.charAt(i))) {
+                digits++;
+            }
+        }
+        if (labelled) {
+            return value.length() >= MIN_LABELLED_LENGTH && digits > 0;
+        }
+        return value.length() >= MIN_UNLABELLED_LENGTH && digits >= MIN_UNLABELLED_DIGITS;
+    }
+
+    // Index of the last token of a run of two or more all-digit tokens starting at start that
+    // add up to a card or IMEI length, or start itself when there is no such run.
+    private static int digitGroupEnd(String[] tokens, int start) {
+        int digits = 0;
+        int end = start;
+        for (int j = start; j < tokens.length && isDigits(tokens[j].replace("-", "")); j++) {
+            digits += tokens[j].replace("-", "").length();
+            if (digits > MAX_GROUPED_DIGITS) {
+                break;
+            }
+            if (j > start && digits >= MIN_GROUPED_DIGITS) {
+                end = j;
+            }
+        }
+        return end;
+    }
+
+    private static String classifyDigits(String digits) {
+        if (digits.length() < MIN_GROUPED_DIGITS || digits.length() > MAX_GROUPED_DIGITS || !passesLuhn(digits)) {
+            return SERIAL;
+        }
+        return digits.length() == IMEI_DIGITS ? IMEI : CARD;
+    }
+
+    // The check digit scheme shared by IMEIs and payment card numbers.
+    private static boolean passesLuhn(String digits) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    private static boolean isDigits(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // "SN:" and "no." count as labels; "S/N" keeps its slash.
+    private static String stripLabelPunctuation(String token) {
+        String stripped = token;
+        while (!stripped.isEmpty() && ":.#=".indexOf(stripped.charAt(stripped.length() - 1)) >= 0
+                && !"#".equals(stripped)) {
+            stripped = stripped.substring(0, stripped.length() - 1);
+        }
+        return stripped;
+    }
+}
@@ -0,0 +1,428 @@
+package com.lostfound.match;
+
+// Blocked index of lost and found reports that scores candidate pairs for reuniting items.
+import com.lostfound.model.MatchCandidate;
+import com.lostfound.model.ReportDetails;
+import com.lostfound.search.Tokenizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class MatchIndex {
+    private static final int LOST = 0;
+    private static final int FOUND = 1;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    // Reports are blocked by type, category and week, so a lookup only scores the reports of the
+    // other type in the same category within the date window below.
+    private static final long BUCKET_MS = 7 * DAY_MS;
+    // A found report is a candidate from this long before the lost report to this long after it;
+    // items are often handed in before their owner reports them missing.
+    private static final long FOUND_BEFORE_LOST_MS = 30 * DAY_MS;
+    private static final long FOUND_AFTER_LOST_MS = 90 * DAY_MS;
+    // Date proximity falls to about a third for every this many days between the reports.
+    private static final double DATE_DECAY_DAYS = 14.0;
+    // Component weights; they sum to 1 so a match score stays between 0 and 1.
+    private static final double TEXT_WEIGHT = 0.5;
+    private static final double CATEGORY_WEIGHT = 0.15;
+    private static final double LOCATION_WEIGHT = 0.2;
+    private static final double DATE_WEIGHT = 0.15;
+    // Share of the text score taken by the item names; the rest compares name and description.
+    private static final double NAME_SHARE = 0.6;
+    // Term weights are recomputed once the report count has drifted this far since the last time.
+    private static final double IDF_REFRESH_DRIFT = 0.05;
+    // Category ID of reports without one. They are compared with every category.
+    private static final int UNCATEGORISED = 0;
+
+    // Worst first, for the top-K heap: lower score, then lower (older) candidate ID.
+    private static final Comparator<MatchCandidate> WORST_FIRST = Comparator
+            .comparingDouble(MatchCandidate::getScore)
+            .thenComparingInt(MatchCandidate::getCandidateId);
+
+    // Terms and categories are interned to ints so entries hold sorted int arrays, compared by merge.
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private int[] documentFrequency = new int[64];
+    private float[] idf = new float[64];
+    private int idfReportCount;
+    private final Map<String, Integer> categoryIds = new HashMap<>(Map.of("", UNCATEGORISED));
+    // Indexed reports by report ID, as in ReportIndex.
+    private Entry[] entries = new Entry[16];
+    private int count;
+    private final Map<Long, Block> blocks = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Adds the report, replacing any earlier version with the same ID. Reports that are neither
+    // lost nor found are not matched.
+    public void add(ReportDetails report) {
+        int side = sideOf(report);
+        if (side < 0) {
+            remove(report.getReportId());
+            return;
+        }
+        List<String> nameTerms = Tokenizer.tokenize(report.getItemName());
+        List<String> textTerms = new ArrayList<>(nameTerms);
+        textTerms.addAll(Tokenizer.tokenize(report.getDescription()));
+        List<String> locationTerms = Tokenizer.tokenize(report.getLocation());
+        String category = String.join(" ", Tokenizer.tokenize(report.getCategory()));
+        lock.writeLock().lock();
+        try {
+            removeLocked(report.getReportId());
+            int[] text = termIds(textTerms);
+            for (int term : text) {
+                documentFrequency[term]++;
+            }
+            Entry entry = new Entry(report, side, categoryIds.computeIfAbsent(category, k -> categoryIds.size()),
+                    termIds(nameTerms), text, termIds(locationTerms));
+            int reportId = report.getReportId();
+            if (reportId >= entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(reportId + 1, entries.length * 2));
+            }
+            entries[reportId] = entry;
+            count++;
+            blocks.computeIfAbsent(blockKey(side, entry.category, bucketOf(entry.date)), k -> new Block())
+                    .add(entry);
+            refreshIdf(text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(int reportId) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(reportId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ReportDetails get(int reportId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entry(reportId);
+            return entry != null ? entry.report : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Integer> getReportIds() {
+        lock.readLock().lock();
+        try {
+            Set<Integer> ids = new HashSet<>();
+            for (Entry entry : entries) {
+                if (entry != null) {
+                    ids.add(entry.reportId());
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The best limit reports of the other type for an indexed report, best first. Only reports
+    // sharing at least one name or description term are suggested.
+    public List<MatchCandidate> topMatches(int reportId, int limit) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entry(reportId);
+            if (entry == null || limit <= 0) {
+                return List.of();
+            }
+            return topMatchesLocked(entry, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // True when the two versions of a report would be indexed and scored the same way.
+    public static boolean sameMatchFields(ReportDetails a, ReportDetails b) {
+        return a.getReportId() == b.getReportId()
+                && Objects.equals(a.getItemName(), b.getItemName())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && Objects.equals(a.getCategory(), b.getCategory())
+                && Objects.equals(a.getLocation(), b.getLocation())
+                && Objects.equals(a.getStatus(), b.getStatus())
+                && dateOf(a) == dateOf(b);
+    }
+
+    // Caller holds the read lock.
+    private List<MatchCandidate> topMatchesLocked(Entry entry, int limit) {
+        int side = entry.side == LOST ? FOUND : LOST;
+        long from = entry.side == LOST ? entry.date - FOUND_BEFORE_LOST_MS : entry.date - FOUND_AFTER_LOST_MS;
+        long to = entry.side == LOST ? entry.date + FOUND_AFTER_LOST_MS : entry.date + FOUND_BEFORE_LOST_MS;
+        double nameNorm = norm(entry.nameTerms);
+        double textNorm = norm(entry.textTerms);
+        PriorityQueue<MatchCandidate> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        for (int category : blockingCategories(entry)) {
+            for (long bucket = bucketOf(from); bucket <= bucketOf(to); bucket++) {
+                Block block = blocks.get(blockKey(side, category, bucket));
+                if (block == null) {
+                    continue;
+                }
+                for (int i = 0; i < block.size; i++) {
+                    Entry candidate = block.entries[i];
+                    if (candidate.date < from || candidate.date > to) {
+                        continue;
+                    }
+                    double textScore = textScore(entry, nameNorm, textNorm, candidate);
+                    if (textScore == 0) {
+                        continue;
+                    }
+                    double categoryScore = entry.category != UNCATEGORISED && entry.category == candidate.category
+                            ? 1.0 : 0.0;
+                    double locationScore = jaccard(entry.locationTerms, candidate.locationTerms);
+                    double dateScore = Math.exp(-Math.abs(candidate.date - entry.date) / (DATE_DECAY_DAYS * DAY_MS));
+                    double score = TEXT_WEIGHT * textScore + CATEGORY_WEIGHT * categoryScore
+                            + LOCATION_WEIGHT * locationScore + DATE_WEIGHT * dateScore;
+                    if (top.size() == limit && (score < top.peek().getScore()
+                            || (score == top.peek().getScore() && candidate.reportId() < top.peek().getCandidateId()))) {
+                        continue;
+                    }
+                    top.add(new MatchCandidate(entry.reportId(), candidate.reportId(), score, textScore,
+                            categoryScore, locationScore, dateScore));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+        }
+        List<MatchCandidate> results = new ArrayList<>(top);
+        results.sort(WORST_FIRST.reversed());
+        return results;
+    }
+
+    // Categorised reports are compared within their category and with uncategorised reports;
+    // an uncategorised report is compared with every category, still within the date window.
+    private int[] blockingCategories(Entry entry) {
+        if (entry.category != UNCATEGORISED) {
+            return new int[]{entry.category, UNCATEGORISED};
+        }
+        int[] all = new int[categoryIds.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    // IDF-weighted cosine similarity of the item names, blended with that of names and descriptions.
+    private double textScore(Entry entry, double nameNorm, double textNorm, Entry candidate) {
+        double textShared = sharedWeight(entry.textTerms, candidate.textTerms);
+        if (textShared == 0) {
+            return 0;
+        }
+        double nameShared = sharedWeight(entry.nameTerms, candidate.nameTerms);
+        double nameScore = nameShared == 0 ? 0 : nameShared / (nameNorm * norm(candidate.nameTerms));
+        return NAME_SHARE * nameScore + (1 - NAME_SHARE) * textShared / (textNorm * norm(candidate.textTerms));
+    }
+
+    // Sum of squared term weights over the terms both sorted arrays contain.
+    private double sharedWeight(int[] a, int[] b) {
+        double shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                shared += (double) idf[a[i]] * idf[a[i]];
+                i++;
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    private double norm(int[] terms) {
+        double sum = 0;
+        for (int term : terms) {
+            sum += (double) idf[term] * idf[term];
+        }
+        return Math.sqrt(sum);
+    }
+
+    private static double jaccard(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                shared++;
+                i++;
+                j++;
+            }
+        }
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    // Caller holds the write lock. Gives new terms a weight straight away and recomputes every
+    // weight only after the report count has drifted, so indexing stays linear overall.
+    private void refreshIdf(int[] addedTerms) {
+        if (Math.abs(count - idfReportCount) > idfReportCount * IDF_REFRESH_DRIFT) {
+            for (int term = 0; term < termIds.size(); term++) {
+                idf[term] = idfOf(documentFrequency[term]);
+            }
+            idfReportCount = count;
+            return;
+        }
+        for (int term : addedTerms) {
+            if (idf[term] == 0) {
+                idf[term] = idfOf(documentFrequency[term]);
+            }
+        }
+    }
+
+    private float idfOf(int frequency) {
+        return (float) Math.log(1 + (count - frequency + 0.5) / (frequency + 0.5));
+    }
+
+    // Caller holds the write lock. Interns the terms and returns their distinct IDs, sorted.
+    private int[] termIds(List<String> terms) {
+        int[] ids = new int[terms.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Integer id = termIds.get(terms.get(i));
+            if (id == null) {
+                id = termIds.size();
+                termIds.put(terms.get(i), id);
+                if (id == idf.length) {
+                    idf = Arrays.copyOf(idf, id * 2);
+                    documentFrequency = Arrays.copyOf(documentFrequency, id * 2);
+                }
+            }
+            ids[i] = id;
+        }
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return distinct == ids.length ? ids : Arrays.copyOf(ids, distinct);
+    }
+
+    private Entry entry(int reportId) {
+        return reportId >= 0 && reportId < entries.length ? entries[reportId] : null;
+    }
+
+    // Terms stay in the dictionary once seen; only their document frequency drops.
+    private boolean removeLocked(int reportId) {
+        Entry entry = entry(reportId);
+        if (entry == null) {
+            return false;
+        }
+        entries[reportId] = null;
+        count--;
+        for (int term : entry.textTerms) {
+            documentFrequency[term]--;
+        }
+        long key = blockKey(entry.side, entry.category, bucketOf(entry.date));
+        Block block = blocks.get(key);
+        block.remove(entry);
+        if (block.size == 0) {
+            blocks.remove(key);
+        }
+        return true;
+    }
+
+    private static int sideOf(ReportDetails report) {
+        String status = report.getStatus() == null ? "" : report.getStatus().toLowerCase(Locale.ROOT);
+        switch (status) {
+            case "lost":
+                return LOST;
+            case "found":
+                return FOUND;
+            default:
+                return -1;
+        }
+    }
+
+    private static long dateOf(ReportDetails report) {
+        return report.getReportDate() == null ? 0L : report.getReportDate().getTime();
+    }
+
+    private static long bucketOf(long date) {
+        return Math.floorDiv(date, BUCKET_MS);
+    }
+
+    private static long blockKey(int side, int category, long bucket) {
+        return ((long) side << 62) | ((long) category << 32) | (bucket & 0xFFFFFFFFL);
+    }
+
+    private static final class Entry {
+        private final ReportDetails report;
+        private final int side;
+        private final int category;
+        private final long date;
+        private final int[] nameTerms;
+        // Name and description terms together.
+        private final int[] textTerms;
+        private final int[] locationTerms;
+        // Position in its block, for constant-time removal.
+        private int slot;
+
+        private Entry(ReportDetails report, int side, int category, int[] nameTerms, int[] textTerms,
+                      int[] locationTerms) {
+            this.report = report;
+            this.side = side;
+            this.category = category;
+            this.date = dateOf(report);
+            this.nameTerms = nameTerms;
+            this.textTerms = textTerms;
+            this.locationTerms = locationTerms;
+        }
+
+        private int reportId() {
+            return report.getReportId();
+        }
+    }
+
+    // Unordered entries of one type, category and week.
+    private static final class Block {
+        private Entry[] entries = new Entry[4];
+        private int size;
+
+        private void add(Entry entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entry.slot = size;
+            entries[size++] = entry;
+        }
+
+        private void remove(Entry entry) {
+            Entry last = entries[--size];
+            entries[entry.slot] = last;
+            last.slot = entry.slot;
+            entries[size] = null;
+        }
+    }
+}
@@ -10,14 +10,21 @@ public class FoundItem {
     private String storageLocation;
     private String additionalDetails;
     private String imagePath;
+    private String imageKey;
 
     public FoundItem(int itemId, String foundLocation, Date foundDate, String storageLocation, String additionalDetails, String imagePath) {
+        this(itemId, foundLocation, foundDate, storageLocation, additionalDetails, imagePath, null);
+    }
+
+    public FoundItem(int itemId, String foundLocation, Date foundDate, String storageLocation, String additionalDetails,
+                     String imagePath, String imageKey) {
         this.itemId = itemId;
         this.foundLocation = foundLocation;
         this.foundDate = foundDate;
         this.storageLocation = storageLocation;
         this.additionalDetails = additionalDetails;
         this.imagePath = imagePath;
+        this.imageKey = imageKey;
     }
 
     public int getItemId() {
@@ -43,4 +50,9 @@ public class FoundItem {
     public String getImagePath() {
         return imagePath;
     }
+
+    // Content key of the photo in the image store; null for photos stored before it existed.
+    public String getImageKey() {
+        return imageKey;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.lostfound.model;
+
+// Model class for a report of the other type whose item carries the same identifier.
+public class IdentifierMatch {
+    private int reportId;
+    private int candidateId;
+    private String kind;
+    private String lastFour;
+
+    public IdentifierMatch(int reportId, int candidateId, String kind, String lastFour) {
+        this.reportId = reportId;
+        this.candidateId = candidateId;
+        this.kind = kind;
+        this.lastFour = lastFour;
+    }
+
+    public int getReportId() {
+        return reportId;
+    }
+
+    public int getCandidateId() {
+        return candidateId;
+    }
+
+    // "Serial", "IMEI" or "Card".
+    public String getKind() {
+        return kind;
+    }
+
+    // Last four characters of the shared identifier, for display; the rest is only stored hashed.
+    public String getLastFour() {
+        return lastFour;
+    }
+}
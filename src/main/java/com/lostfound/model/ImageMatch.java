@@ -0,0 +1,33 @@
+package com.lostfound.model;
+
+// Model class for a report of the other type whose item photo looks like this report's.
+public class ImageMatch {
+    private int reportId;
+    private int candidateId;
+    private int pHashDistance;
+    private int dHashDistance;
+
+    public ImageMatch(int reportId, int candidateId, int pHashDistance, int dHashDistance) {
+        this.reportId = reportId;
+        this.candidateId = candidateId;
+        this.pHashDistance = pHashDistance;
+        this.dHashDistance = dHashDistance;
+    }
+
+    public int getReportId() {
+        return reportId;
+    }
+
+    public int getCandidateId() {
+        return candidateId;
+    }
+
+    // Differing bits out of 64; 0 is a near-identical photo.
+    public int getPHashDistance() {
+        return pHashDistance;
+    }
+
+    public int getDHashDistance() {
+        return dHashDistance;
+    }
+}
@@ -0,0 +1,40 @@
+package com.lostfound.model;
+
+// Model class for a stored rendition of an uploaded photo.
+public class ImageRendition {
+    private String sourcePath;
+    private String rendition;
+    private String path;
+    private int width;
+    private int height;
+
+    public ImageRendition(String sourcePath, String rendition, String path, int width, int height) {
+        this.sourcePath = sourcePath;
+        this.rendition = rendition;
+        this.path = path;
+        this.width = width;
+        this.height = height;
+    }
+
+    // The image_path of the original photo.
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
+    // "thumb" or "preview".
+    public String getRendition() {
+        return rendition;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
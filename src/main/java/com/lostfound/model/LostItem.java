@@ -9,13 +9,20 @@ public class LostItem {
     private Date lastSeenDate;
     private String additionalDetails;
     private String imagePath;
+    private String imageKey;
 
     public LostItem(int itemId, String lastSeenLocation, Date lastSeenDate, String additionalDetails, String imagePath) {
+        this(itemId, lastSeenLocation, lastSeenDate, additionalDetails, imagePath, null);
+    }
+
+    public LostItem(int itemId, String lastSeenLocation, Date lastSeenDate, String additionalDetails, String imagePath,
+                    String imageKey) {
         this.itemId = itemId;
         this.lastSeenLocation = lastSeenLocation;
         this.lastSeenDate = lastSeenDate;
         this.additionalDetails = additionalDetails;
         this.imagePath = imagePath;
+        this.imageKey = imageKey;
     }
 
     public int getItemId() {
@@ -37,4 +44,9 @@ public class LostItem {
     public String getImagePath() {
         return imagePath;
     }
+
+    // Content key of the photo in the image store; null for photos stored before it existed.
+    public String getImageKey() {
+        return imageKey;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.lostfound.model;
+
+// Model class for a scored pairing of a report with a possible counterpart of the other type.
+public class MatchCandidate {
+    private int reportId;
+    private int candidateId;
+    private double score;
+    private double textScore;
+    private double categoryScore;
+    private double locationScore;
+    private double dateScore;
+
+    public MatchCandidate(int reportId, int candidateId, double score, double textScore,
+                          double categoryScore, double locationScore, double dateScore) {
+        this.reportId = reportId;
+        this.candidateId = candidateId;
+        this.score = score;
+        this.textScore = textScore;
+        this.categoryScore = categoryScore;
+        this.locationScore = locationScore;
+        this.dateScore = dateScore;
+    }
+
+    // The report matches were requested for.
+    public int getReportId() {
+        return reportId;
+    }
+
+    // The suggested lost or found report.
+    public int getCandidateId() {
+        return candidateId;
+    }
+
+    // Weighted sum of the component scores, from 0 to 1.
+    public double getScore() {
+        return score;
+    }
+
+    public double getTextScore() {
+        return textScore;
+    }
+
+    public double getCategoryScore() {
+        return categoryScore;
+    }
+
+    public double getLocationScore() {
+        return locationScore;
+    }
+
+    public double getDateScore() {
+        return dateScore;
+    }
+}
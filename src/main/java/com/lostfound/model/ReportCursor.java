@@ -0,0 +1,29 @@
+package com.lostfound.model;
+
+// Model class for the position after the last row of a search page, used for keyset paging.
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+public class ReportCursor {
+    private BigDecimal score;
+    private Timestamp reportDate;
+    private int reportId;
+
+    public ReportCursor(BigDecimal score, Timestamp reportDate, int reportId) {
+        this.score = score;
+        this.reportDate = reportDate;
+        this.reportId = reportId;
+    }
+
+    public BigDecimal getScore() {
+        return score;
+    }
+
+    public Timestamp getReportDate() {
+        return reportDate;
+    }
+
+    public int getReportId() {
+        return reportId;
+    }
+}
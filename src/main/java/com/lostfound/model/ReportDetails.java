@@ -11,9 +11,13 @@ public class ReportDetails {
     private Timestamp reportDate;
     private String status;
     private String location;
+    private String description;
+    private String category;
+    private String storageLocation;
 
     public ReportDetails(int reportId, String itemName, String userName, String userContact,
-                         Timestamp reportDate, String status, String location) {
+                         Timestamp reportDate, String status, String location,
+                         String description, String category, String storageLocation) {
         this.reportId = reportId;
         this.itemName = itemName;
         this.userName = userName;
@@ -21,6 +25,9 @@ public class ReportDetails {
         this.reportDate = reportDate;
         this.status = status;
         this.location = location;
+        this.description = description;
+        this.category = category;
+        this.storageLocation = storageLocation;
     }
 
     public int getReportId() {
@@ -50,4 +57,17 @@ public class ReportDetails {
     public String getLocation() {
         return location;
     }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    // Where a found item is being kept; null for lost reports.
+    public String getStorageLocation() {
+        return storageLocation;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.lostfound.model;
+
+// Model class for the optional restrictions of a report search; null fields are not applied.
+import java.sql.Timestamp;
+import java.util.List;
+
+public class ReportFilter {
+    public static final ReportFilter NONE = new ReportFilter(null, null, null, null, List.of());
+
+    private String reportType;
+    private String category;
+    private Timestamp after;
+    private Timestamp before;
+    private List<String> nearTerms;
+
+    public ReportFilter(String reportType, String category, Timestamp after, Timestamp before,
+                        List<String> nearTerms) {
+        this.reportType = reportType;
+        this.category = category;
+        this.after = after;
+        this.before = before;
+        this.nearTerms = nearTerms != null ? List.copyOf(nearTerms) : List.of();
+    }
+
+    // "lost" or "found".
+    public String getReportType() {
+        return reportType;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    // Inclusive lower bound on the report date.
+    public Timestamp getAfter() {
+        return after;
+    }
+
+    // Exclusive upper bound on the report date.
+    public Timestamp getBefore() {
+        return before;
+    }
+
+    // Words that must all appear in the report's location.
+    public List<String> getNearTerms() {
+        return nearTerms;
+    }
+}
@@ -0,0 +1,27 @@
+package com.lostfound.model;
+
+// Model class for one page of report search results.
+import java.util.List;
+
+public class ReportPage {
+    private List<ReportDetails> reports;
+    private ReportCursor nextCursor;
+
+    public ReportPage(List<ReportDetails> reports, ReportCursor nextCursor) {
+        this.reports = reports;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ReportDetails> getReports() {
+        return reports;
+    }
+
+    // Null on the last page.
+    public ReportCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.lostfound.model;
+
+// Model class for an uploaded photo as kept in the content-addressed image store.
+public class StoredImage {
+    private String contentKey;
+    private String path;
+    private long size;
+    private boolean duplicate;
+
+    public StoredImage(String contentKey, String path, long size, boolean duplicate) {
+        this.contentKey = contentKey;
+        this.path = path;
+        this.size = size;
+        this.duplicate = duplicate;
+    }
+
+    // Hex SHA-256 of the photo's bytes.
+    public String getContentKey() {
+        return contentKey;
+    }
+
+    // The image_path that rows using the photo record.
+    public String getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    // True when the same bytes were already stored and this upload reused them.
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+}
@@ -0,0 +1,55 @@
+package com.lostfound.model;
+
+// Model class for one of a user's reports joined with its item and lost/found details.
+import java.sql.Timestamp;
+
+public class UserReport {
+    private int reportId;
+    private int itemId;
+    private String itemName;
+    private String reportType;
+    private Timestamp reportDate;
+    private boolean hasDetails;
+    private String location;
+
+    public UserReport(int reportId, int itemId, String itemName, String reportType,
+                      Timestamp reportDate, boolean hasDetails, String location) {
+        this.reportId = reportId;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.reportType = reportType;
+        this.reportDate = reportDate;
+        this.hasDetails = hasDetails;
+        this.location = location;
+    }
+
+    public int getReportId() {
+        return reportId;
+    }
+
+    public int getItemId() {
+        return itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public String getReportType() {
+        return reportType;
+    }
+
+    public Timestamp getReportDate() {
+        return reportDate;
+    }
+
+    // False when the lost_item or found_item row for the report's item is missing.
+    public boolean hasDetails() {
+        return hasDetails;
+    }
+
+    // Last seen location for lost reports, found location for found reports.
+    public String getLocation() {
+        return location;
+    }
+}
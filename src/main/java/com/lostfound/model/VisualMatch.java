@@ -0,0 +1,27 @@
+package com.lostfound.model;
+
+// Model class for a report of the other type whose item photo has similar colours and shapes.
+public class VisualMatch {
+    private int reportId;
+    private int candidateId;
+    private double similarity;
+
+    public VisualMatch(int reportId, int candidateId, double similarity) {
+        this.reportId = reportId;
+        this.candidateId = candidateId;
+        this.similarity = similarity;
+    }
+
+    public int getReportId() {
+        return reportId;
+    }
+
+    public int getCandidateId() {
+        return candidateId;
+    }
+
+    // Cosine similarity of the photo descriptors: 1 for the same photo, around 0.4 for unrelated ones.
+    public double getSimilarity() {
+        return similarity;
+    }
+}
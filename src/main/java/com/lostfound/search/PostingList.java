@@ -0,0 +1,66 @@
+package com.lostfound.search;
+
+// Sorted, growable list of report IDs: the unboxed posting list behind each index entry.
+import java.util.Arrays;
+import java.util.BitSet;
+
+final class PostingList {
+    private int[] ids = new int[2];
+    private int size;
+
+    // Report IDs are auto-increment keys, so new reports almost always append at the end.
+    void add(int id) {
+        if (size > 0 && ids[size - 1] < id) {
+            append(id);
+            return;
+        }
+        int at = Arrays.binarySearch(ids, 0, size, id);
+        if (at >= 0) {
+            return;
+        }
+        at = -at - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        ids[at] = id;
+        size++;
+    }
+
+    boolean remove(int id) {
+        int at = Arrays.binarySearch(ids, 0, size, id);
+        if (at < 0) {
+            return false;
+        }
+        System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void addTo(BitSet target) {
+        for (int i = 0; i < size; i++) {
+            target.set(ids[i]);
+        }
+    }
+
+    BitSet toBitSet() {
+        BitSet bits = new BitSet(size == 0 ? 0 : ids[size - 1] + 1);
+        addTo(bits);
+        return bits;
+    }
+
+    private void append(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+}
@@ -0,0 +1,588 @@
+package com.lostfound.search;
+
+// Inverted index over the searchable text of reports, with filter indexes and BM25 ranking.
+import com.lostfound.model.ReportDetails;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ReportIndex {
+    // Terms at least this long are found by substring through the trigram table; shorter query
+    // terms fall back to a prefix scan of the sorted dictionary.
+    static final int GRAM_SIZE = 3;
+    // Standard BM25 saturation and length normalisation parameters.
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Item name terms count this many times, a cheap stand-in for per-field BM25 weights.
+    private static final int NAME_WEIGHT = 2;
+    // Score factor for an indexed term that only contains the query term ("wal" in "wallet").
+    private static final double PARTIAL_MATCH_WEIGHT = 0.5;
+
+    // Best first: higher score, then newer report, then higher ID.
+    private static final Comparator<Candidate> RANKING = Comparator
+            .comparingDouble((Candidate c) -> c.score)
+            .thenComparingLong(c -> c.date)
+            .thenComparingInt(c -> c.reportId)
+            .reversed();
+
+    // Report IDs are dense auto-increment keys, so match sets are bitmaps over them and the
+    // posting lists are unboxed sorted arrays.
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    // trigram -> dictionary terms containing it
+    private final Map<String, Set<String>> grams = new HashMap<>();
+    // Indexed reports by report ID: an array lookup per match while ranking, not a boxed map.
+    private Document[] documents = new Document[16];
+    private int documentCount;
+    private final BitSet allReports = new BitSet();
+    private long totalLength;
+    // Bumped by every add and remove, so cached match sets can tell they are out of date.
+    private long version;
+    // Filter indexes: report type, whole normalised category, report date and location terms.
+    private final Map<String, PostingList> byType = new HashMap<>();
+    private final Map<String, PostingList> byCategory = new HashMap<>();
+    private final NavigableMap<Long, PostingList> byDate = new TreeMap<>();
+    private final NavigableMap<String, PostingList> byLocationTerm = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Adds the report, replacing any earlier version with the same ID.
+    public void add(ReportDetails report) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String term : Tokenizer.tokenize(report.getItemName())) {
+            terms.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String text : bodyText(report)) {
+            for (String term : Tokenizer.tokenize(text)) {
+                terms.merge(term, 1, Integer::sum);
+            }
+        }
+        TermVector vector = new TermVector(terms);
+        List<String> locationTerms = Tokenizer.tokenize(report.getLocation());
+        String category = SearchQuery.normalizeCategory(Objects.toString(report.getCategory(), ""));
+        int reportId = report.getReportId();
+        lock.writeLock().lock();
+        try {
+            removeLocked(reportId);
+            version++;
+            if (reportId >= documents.length) {
+                documents = Arrays.copyOf(documents, Math.max(reportId + 1, documents.length * 2));
+            }
+            documents[reportId] = new Document(report, vector);
+            documentCount++;
+            allReports.set(reportId);
+            totalLength += vector.length;
+            for (String term : vector.terms) {
+                PostingList docs = postings.get(term);
+                if (docs == null) {
+                    docs = new PostingList();
+                    postings.put(term, docs);
+                    addGrams(term);
+                }
+                docs.add(reportId);
+            }
+            String type = typeOf(report);
+            if (type != null) {
+                byType.computeIfAbsent(type, k -> new PostingList()).add(reportId);
+            }
+            byCategory.computeIfAbsent(category, k -> new PostingList()).add(reportId);
+            byDate.computeIfAbsent(dateOf(report), k -> new PostingList()).add(reportId);
+            for (String term : locationTerms) {
+                byLocationTerm.computeIfAbsent(term, k -> new PostingList()).add(reportId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Swaps in a newer copy of an indexed report whose searchable text is unchanged, so display
+    // fields stay current without re-tokenizing.
+    public void refresh(ReportDetails report) {
+        lock.writeLock().lock();
+        try {
+            Document document = document(report.getReportId());
+            if (document != null) {
+                document.report = report;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(int reportId) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(reportId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ReportDetails get(int reportId) {
+        lock.readLock().lock();
+        try {
+            Document document = document(reportId);
+            return document != null ? document.report : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Integer> getReportIds() {
+        lock.readLock().lock();
+        try {
+            Set<Integer> ids = new HashSet<>();
+            for (int id = allReports.nextSetBit(0); id >= 0; id = allReports.nextSetBit(id + 1)) {
+                ids.add(id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getVersion() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // IDs of every report matching the query's filters and text, unranked, as a new bitmap the
+    // caller owns. A query term matches every indexed term that contains it, so "wal" finds
+    // "wallet" and "wallets".
+    public BitSet match(SearchQuery query) {
+        return match(query, null);
+    }
+
+    // As match(query), but only considering the reports in within, typically the matches of a
+    // query this one narrows (see isNarrowing). A null within means every report; within itself
+    // is not modified.
+    public BitSet match(SearchQuery query, BitSet within) {
+        lock.readLock().lock();
+        try {
+            return matchLocked(query, within);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The best limit reports for the query. Text is ranked by BM25; a query without text lists
+    // the newest reports first. Only a heap of limit entries is ever sorted.
+    public List<ReportDetails> search(SearchQuery query, int limit) {
+        lock.readLock().lock();
+        try {
+            return rankLocked(query, matchLocked(query, null), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ranks a match set returned by match() for the same query. Reports removed since are skipped.
+    public List<ReportDetails> rank(SearchQuery query, BitSet matches, int limit) {
+        lock.readLock().lock();
+        try {
+            return rankLocked(query, matches, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // True when every report matching next also matches previous, so next can be evaluated
+    // within previous's matches. Covers the common case of typing on at the end of the query:
+    // a longer last term, an extra term or a tighter filter. Queries with OR are not compared.
+    public static boolean isNarrowing(SearchQuery previous, SearchQuery next) {
+        if (previous.getClauses().size() > 1 || next.getClauses().size() > 1) {
+            return false;
+        }
+        if (!extendsTerms(clauseOf(previous), clauseOf(next), GRAM_SIZE)
+                || !extendsTerms(previous.getNear(), next.getNear(), 0)) {
+            return false;
+        }
+        if (previous.getType() != null && !previous.getType().equals(next.getType())) {
+            return false;
+        }
+        if (previous.getCategory() != null && (next.getCategory() == null
+                || !SearchQuery.normalizeCategory(previous.getCategory())
+                        .equals(SearchQuery.normalizeCategory(next.getCategory())))) {
+            return false;
+        }
+        if (previous.getAfter() != null && (next.getAfter() == null || next.getAfter() < previous.getAfter())) {
+            return false;
+        }
+        return previous.getBefore() == null
+                || (next.getBefore() != null && next.getBefore() <= previous.getBefore());
+    }
+
+    // True when the two versions of a report would produce the same index entries.
+    public static boolean sameSearchableText(ReportDetails a, ReportDetails b) {
+        return a.getReportId() == b.getReportId()
+                && Objects.equals(a.getItemName(), b.getItemName())
+                && bodyText(a).equals(bodyText(b))
+                && Objects.equals(typeOf(a), typeOf(b))
+                && dateOf(a) == dateOf(b);
+    }
+
+    private static List<String> clauseOf(SearchQuery query) {
+        return query.getClauses().isEmpty() ? List.of() : query.getClauses().get(0);
+    }
+
+    // Each previous term must be a prefix of the term in the same position. A term matched by
+    // prefix only narrows into one matched the same way: "wa" finds "wa..." terms, but "wal"
+    // switches to substring matching and also finds "drywall".
+    private static boolean extendsTerms(List<String> previous, List<String> next, int substringLength) {
+        if (next.size() < previous.size()) {
+            return false;
+        }
+        for (int i = 0; i < previous.size(); i++) {
+            String before = previous.get(i);
+            String after = next.get(i);
+            if (!after.startsWith(before)) {
+                return false;
+            }
+            if (substringLength > 0 && !before.equals(after)
+                    && before.length() < substringLength && after.length() >= substringLength) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Free text besides the item name. Status is left to the type: filter.
+    private static List<String> bodyText(ReportDetails report) {
+        List<String> text = new ArrayList<>(4);
+        text.add(Objects.toString(report.getDescription(), ""));
+        text.add(Objects.toString(report.getCategory(), ""));
+        text.add(Objects.toString(report.getLocation(), ""));
+        text.add(Objects.toString(report.getStorageLocation(), ""));
+        return text;
+    }
+
+    private static String typeOf(ReportDetails report) {
+        return report.getStatus() == null ? null : Tokenizer.normalize(report.getStatus());
+    }
+
+    private static long dateOf(ReportDetails report) {
+        return report.getReportDate() == null ? 0L : report.getReportDate().getTime();
+    }
+
+    // Caller holds the read lock. Narrows by the filters first so the text terms are only
+    // checked against reports that can still qualify.
+    private BitSet matchLocked(SearchQuery query, BitSet within) {
+        BitSet candidates = filter(query);
+        if (within != null) {
+            if (candidates == null) {
+                candidates = (BitSet) within.clone();
+            } else {
+                candidates.and(within);
+            }
+        }
+        if (!query.hasText()) {
+            return candidates != null ? candidates : (BitSet) allReports.clone();
+        }
+        BitSet result = new BitSet();
+        for (List<String> clause : query.getClauses()) {
+            result.or(matchAll(clause, candidates));
+        }
+        return result;
+    }
+
+    // Reports passing every filter, or null when the query has none.
+    private BitSet filter(SearchQuery query) {
+        if (!query.hasFilters()) {
+            return null;
+        }
+        BitSet result = (BitSet) allReports.clone();
+        if (query.getType() != null) {
+            result.and(bits(byType.get(query.getType())));
+        }
+        if (query.getCategory() != null) {
+            result.and(bits(byCategory.get(SearchQuery.normalizeCategory(query.getCategory()))));
+        }
+        if (query.getAfter() != null || query.getBefore() != null) {
+            long from = query.getAfter() != null ? query.getAfter() : Long.MIN_VALUE;
+            long to = query.getBefore() != null ? query.getBefore() : Long.MAX_VALUE;
+            BitSet inRange = new BitSet();
+            if (from < to) {
+                for (PostingList ids : byDate.subMap(from, true, to, false).values()) {
+                    ids.addTo(inRange);
+                }
+            }
+            result.and(inRange);
+        }
+        for (String term : query.getNear()) {
+            BitSet nearTerm = new BitSet();
+            for (PostingList ids : byLocationTerm.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                ids.addTo(nearTerm);
+            }
+            result.and(nearTerm);
+        }
+        return result;
+    }
+
+    private static BitSet bits(PostingList ids) {
+        return ids == null ? new BitSet() : ids.toBitSet();
+    }
+
+    // Reports containing every term, within the candidates when given. Merging postings into a
+    // bitmap is sequential int work, far cheaper than probing each candidate's terms, so even a
+    // small candidate set is applied as a final AND.
+    private BitSet matchAll(List<String> terms, BitSet candidates) {
+        BitSet result = candidates != null ? (BitSet) candidates.clone() : null;
+        for (String term : terms) {
+            BitSet docs = new BitSet();
+            for (String indexed : expand(term)) {
+                postings.get(indexed).addTo(docs);
+            }
+            if (result == null) {
+                result = docs;
+            } else {
+                result.and(docs);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    // Caller holds the read lock.
+    private List<ReportDetails> rankLocked(SearchQuery query, BitSet matches, int limit) {
+        if (limit <= 0 || matches.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Double> termWeights = query.hasText() ? termWeights(query) : Map.of();
+        double averageLength = Math.max(1.0, (double) totalLength / Math.max(1, documentCount));
+        PriorityQueue<Candidate> top = new PriorityQueue<>(Math.min(limit, matches.cardinality()) + 1,
+                RANKING.reversed());
+        for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+            Document document = document(id);
+            if (document == null) {
+                continue;
+            }
+            double score = termWeights.isEmpty() ? 0.0 : score(document.terms, termWeights, averageLength);
+            if (top.size() < limit) {
+                top.add(new Candidate(id, score, document.date));
+            } else if (top.peek().isBehind(id, score, document.date)) {
+                top.poll();
+                top.add(new Candidate(id, score, document.date));
+            }
+        }
+        List<ReportDetails> results = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            results.add(document(top.poll().reportId).report);
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    // Indexed term -> its BM25 idf times the weight of the query terms expanding to it. Each
+    // distinct query term contributes every indexed term it expands to, with partial matches
+    // discounted.
+    private Map<String, Double> termWeights(SearchQuery query) {
+        Set<String> queryTerms = new HashSet<>();
+        for (List<String> clause : query.getClauses()) {
+            queryTerms.addAll(clause);
+        }
+        Map<String, Double> weights = new HashMap<>();
+        for (String term : queryTerms) {
+            for (String indexed : expand(term)) {
+                int df = postings.get(indexed).size();
+                double idf = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+                double weight = indexed.equals(term) ? 1.0 : PARTIAL_MATCH_WEIGHT;
+                weights.merge(indexed, weight * idf, Double::sum);
+            }
+        }
+        return weights;
+    }
+
+    // BM25 of one report, scored from its own term vector so the cost follows the number of
+    // matches rather than the length of the posting lists.
+    private static double score(TermVector vector, Map<String, Double> termWeights, double averageLength) {
+        double score = 0;
+        double norm = K1 * (1 - B + B * vector.length / averageLength);
+        for (int i = 0; i < vector.terms.length; i++) {
+            Double weight = termWeights.get(vector.terms[i]);
+            if (weight != null) {
+                int tf = vector.counts[i];
+                score += weight * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+        return score;
+    }
+
+    // Dictionary terms containing the query term.
+    private Set<String> expand(String term) {
+        if (term.length() < GRAM_SIZE) {
+            return postings.subMap(term, true, term + Character.MAX_VALUE, false).keySet();
+        }
+        Set<String> candidates = null;
+        for (String gram : grams(term)) {
+            Set<String> terms = this.grams.get(gram);
+            if (terms == null) {
+                return Set.of();
+            }
+            if (candidates == null) {
+                candidates = new HashSet<>(terms);
+            } else {
+                candidates.retainAll(terms);
+            }
+        }
+        // Sharing every trigram does not guarantee containment ("abcab" vs "bcabc").
+        candidates.removeIf(candidate -> !candidate.contains(term));
+        return candidates;
+    }
+
+    private Document document(int reportId) {
+        return reportId >= 0 && reportId < documents.length ? documents[reportId] : null;
+    }
+
+    private boolean removeLocked(int reportId) {
+        Document document = document(reportId);
+        if (document == null) {
+            return false;
+        }
+        documents[reportId] = null;
+        documentCount--;
+        version++;
+        allReports.clear(reportId);
+        ReportDetails report = document.report;
+        TermVector vector = document.terms;
+        for (String term : vector.terms) {
+            if (removeFrom(postings, term, reportId)) {
+                removeGrams(term);
+            }
+        }
+        totalLength -= vector.length;
+        String type = typeOf(report);
+        if (type != null) {
+            removeFrom(byType, type, reportId);
+        }
+        removeFrom(byCategory, SearchQuery.normalizeCategory(Objects.toString(report.getCategory(), "")), reportId);
+        removeFrom(byDate, dateOf(report), reportId);
+        for (String term : Tokenizer.tokenize(report.getLocation())) {
+            removeFrom(byLocationTerm, term, reportId);
+        }
+        return true;
+    }
+
+    // Returns true when the entry became empty and was dropped.
+    private static <K> boolean removeFrom(Map<K, PostingList> index, K key, int reportId) {
+        PostingList ids = index.get(key);
+        if (ids != null && ids.remove(reportId) && ids.isEmpty()) {
+            index.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    private void addGrams(String term) {
+        for (String gram : grams(term)) {
+            grams.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+    }
+
+    private void removeGrams(String term) {
+        for (String gram : grams(term)) {
+            Set<String> terms = grams.get(gram);
+            if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                grams.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String term) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= term.length(); i++) {
+            result.add(term.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+
+    private static final class Candidate {
+        private final int reportId;
+        private final double score;
+        private final long date;
+
+        private Candidate(int reportId, double score, long date) {
+            this.reportId = reportId;
+            this.score = score;
+            this.date = date;
+        }
+
+        // True when this candidate ranks after the given one; checked before allocating it.
+        private boolean isBehind(int otherId, double otherScore, long otherDate) {
+            if (score != otherScore) {
+                return score < otherScore;
+            }
+            if (date != otherDate) {
+                return date < otherDate;
+            }
+            return reportId < otherId;
+        }
+    }
+
+    private static final class Document {
+        private volatile ReportDetails report;
+        private final TermVector terms;
+        private final long date;
+
+        private Document(ReportDetails report, TermVector terms) {
+            this.report = report;
+            this.terms = terms;
+            this.date = dateOf(report);
+        }
+    }
+
+    // A report's distinct terms and their weighted counts, stored as arrays: there is one per
+    // report, so per-entry map overhead would dominate the index's memory.
+    private static final class TermVector {
+        private final String[] terms;
+        private final int[] counts;
+        private final int length;
+
+        private TermVector(Map<String, Integer> termCounts) {
+            terms = new String[termCounts.size()];
+            counts = new int[termCounts.size()];
+            int i = 0;
+            int total = 0;
+            for (Map.Entry<String, Integer> entry : termCounts.entrySet()) {
+                terms[i] = entry.getKey();
+                counts[i] = entry.getValue();
+                total += counts[i++];
+            }
+            length = total;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.lostfound.search;
+
+// Report search backed by an in-memory index that follows the database as reports change.
+import com.lostfound.config.QueryScope;
+import com.lostfound.model.ReportDetails;
+import com.lostfound.service.ReportChangeListener;
+import com.lostfound.service.ReportService;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ReportSearch implements ReportChangeListener {
+    private static final Logger LOGGER = Logger.getLogger(ReportSearch.class.getName());
+    // Search-as-you-type runs a search per keystroke; other clients' writes only need to show up
+    // within this long, so the data_version check is skipped in between. Writes made through
+    // this client reach the index straight away through the change listener.
+    private static final long SYNC_INTERVAL_MS = 1000;
+    // Match sets of recent queries, so a query extending one of them is evaluated within its
+    // matches and going back to one (backspace) is free.
+    private static final int RECENT_MATCHES = 16;
+
+    private final ReportService reportService;
+    private final ReportIndex index = new ReportIndex();
+    // The report listing the index was last reconciled with. ReportService hands back the same
+    // list until the data_version counter moves, so an unchanged identity means nothing to do.
+    private List<ReportDetails> syncedReports;
+    private long lastSyncAt;
+    private final Map<String, RecentMatch> recentMatches = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RecentMatch> eldest) {
+            return size() > RECENT_MATCHES;
+        }
+    };
+
+    public ReportSearch(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    // The best limit reports for the query, most relevant first; see SearchQuery for the syntax.
+    // Gives up with a CancellationException once the calling query executor task is cancelled.
+    public List<ReportDetails> search(String query, int limit) throws SQLException {
+        sync();
+        SearchQuery parsed = SearchQuery.parse(query);
+        BitSet matches = matches(parsed);
+        checkCancelled();
+        List<ReportDetails> results = index.rank(parsed, matches, limit);
+        LOGGER.log(Level.FINE, "Search {0} returned {1} of {2} reports",
+                new Object[]{parsed, results.size(), index.size()});
+        return results;
+    }
+
+    // Every matching report ID, unranked, for screens that filter their own listing.
+    public Set<Integer> searchIds(String query) throws SQLException {
+        sync();
+        SearchQuery parsed = SearchQuery.parse(query);
+        BitSet matches = matches(parsed);
+        Set<Integer> ids = new HashSet<>();
+        for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+            ids.add(id);
+        }
+        LOGGER.log(Level.FINE, "Search {0} matched {1} of {2} reports",
+                new Object[]{parsed, ids.size(), index.size()});
+        return ids;
+    }
+
+    // Applies writes made through this client immediately; the next sync() would catch them
+    // too, but only after the listing has been re-read.
+    @Override
+    public void reportCreated(int reportId) {
+        try {
+            ReportDetails report = reportService.getReportDetailsById(reportId);
+            if (report != null) {
+                index.add(report);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not index new report " + reportId
+                    + "; it will be picked up on the next sync", e);
+        }
+    }
+
+    @Override
+    public void reportDeleted(int reportId) {
+        index.remove(reportId);
+    }
+
+    // Reuses a cached match set when the index has not changed since: the same query's directly,
+    // or else the smallest one the query narrows. The returned set is shared and must not be
+    // modified.
+    private BitSet matches(SearchQuery query) {
+        long version = index.getVersion();
+        String key = query.toString();
+        RecentMatch narrowest = null;
+        synchronized (recentMatches) {
+            Iterator<RecentMatch> it = recentMatches.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().version != version) {
+                    it.remove();
+                }
+            }
+            RecentMatch same = recentMatches.get(key);
+            if (same != null) {
+                return same.reportIds;
+            }
+            for (RecentMatch recent : recentMatches.values()) {
+                if ((narrowest == null || recent.count < narrowest.count)
+                        && ReportIndex.isNarrowing(recent.query, query)) {
+                    narrowest = recent;
+                }
+            }
+        }
+        checkCancelled();
+        BitSet reportIds = index.match(query, narrowest != null ? narrowest.reportIds : null);
+        synchronized (recentMatches) {
+            // Tagged with the version read before matching, so a concurrent write only costs a miss.
+            recentMatches.put(key, new RecentMatch(query, version, reportIds));
+        }
+        LOGGER.log(Level.FINE, "Matched {0} {1}", new Object[]{query, narrowest != null
+                ? "within " + narrowest.count + " earlier matches" : "against the whole index"});
+        return reportIds;
+    }
+
+    private static void checkCancelled() {
+        if (QueryScope.isCurrentCancelled()) {
+            throw new CancellationException("Search was superseded");
+        }
+    }
+
+    // Reconciles the index with the current report listing, which covers writes made by other
+    // clients. Only reports whose searchable text changed are re-indexed.
+    private synchronized void sync() throws SQLException {
+        long now = System.currentTimeMillis();
+        if (syncedReports != null && now - lastSyncAt < SYNC_INTERVAL_MS) {
+            return;
+        }
+        lastSyncAt = now;
+        List<ReportDetails> reports = reportService.getAllReportsWithDetails();
+        if (reports == syncedReports) {
+            return;
+        }
+        Set<Integer> stale = index.getReportIds();
+        int updated = 0;
+        for (ReportDetails report : reports) {
+            stale.remove(report.getReportId());
+            ReportDetails indexed = index.get(report.getReportId());
+            if (indexed == null || !ReportIndex.sameSearchableText(indexed, report)) {
+                index.add(report);
+                updated++;
+            } else if (indexed != report) {
+                index.refresh(report);
+            }
+        }
+        for (int reportId : stale) {
+            index.remove(reportId);
+        }
+        syncedReports = reports;
+        LOGGER.log(Level.INFO, "Report index synced: {0} reports, {1} updated, {2} removed, {3} terms",
+                new Object[]{index.size(), updated, stale.size(), index.getTermCount()});
+    }
+
+    private static final class RecentMatch {
+        private final SearchQuery query;
+        private final long version;
+        private final BitSet reportIds;
+        private final int count;
+
+        private RecentMatch(SearchQuery query, long version, BitSet reportIds) {
+            this.query = query;
+            this.version = version;
+            this.reportIds = reportIds;
+            this.count = reportIds.cardinality();
+        }
+    }
+}
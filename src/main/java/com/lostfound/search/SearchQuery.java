@@ -0,0 +1,206 @@
+package com.lostfound.search;
+
+// Parsed report search: typed filters plus OR-separated groups of terms that must all match.
+import com.lostfound.model.ReportFilter;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class SearchQuery {
+    private static final SearchQuery EMPTY = new SearchQuery(List.of(), null, null, null, null, List.of());
+
+    private final List<List<String>> clauses;
+    private final String type;
+    private final String category;
+    private final Long after;
+    private final Long before;
+    private final List<String> near;
+
+    private SearchQuery(List<List<String>> clauses, String type, String category, Long after, Long before,
+                        List<String> near) {
+        this.clauses = clauses;
+        this.type = type;
+        this.category = category;
+        this.after = after;
+        this.before = before;
+        this.near = near;
+    }
+
+    // "black wallet OR purse type:lost after:2024-05-01 near:library" ->
+    // (black AND wallet) OR purse, restricted to lost reports filed from 1 May 2024 on whose
+    // location mentions the library. Terms are ANDed by default; "OR" and "|" start a new group
+    // and "AND" is accepted but redundant. The operators are only recognised in upper case so
+    // "or" stays searchable. Filter values may be quoted: category:"bags and wallets".
+    // A filter with a value that does not parse, such as a half-typed date, is ignored.
+    public static SearchQuery parse(String text) {
+        if (text == null || text.isBlank()) {
+            return EMPTY;
+        }
+        List<List<String>> clauses = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        String type = null;
+        String category = null;
+        Long after = null;
+        Long before = null;
+        List<String> near = new ArrayList<>();
+        for (String word : split(text)) {
+            int colon = word.indexOf(':');
+            String key = colon > 0 ? word.substring(0, colon).toLowerCase(Locale.ROOT) : "";
+            String value = colon > 0 ? unquote(word.substring(colon + 1)) : "";
+            switch (key) {
+                case "type":
+                    String normalized = Tokenizer.normalize(value.trim());
+                    if ("lost".equals(normalized) || "found".equals(normalized)) {
+                        type = normalized;
+                    }
+                    continue;
+                case "category":
+                    category = value.isBlank() ? category : value.trim();
+                    continue;
+                case "after":
+                    after = value.isBlank() ? after : startOfDay(value, after);
+                    continue;
+                case "before":
+                    before = value.isBlank() ? before : startOfDay(value, before);
+                    continue;
+                case "near":
+                    near.addAll(Tokenizer.tokenize(value));
+                    continue;
+                default:
+                    break;
+            }
+            if ("OR".equals(word) || "|".equals(word)) {
+                addClause(clauses, current);
+                current = new ArrayList<>();
+            } else if (!"AND".equals(word)) {
+                current.addAll(Tokenizer.tokenize(word));
+            }
+        }
+        addClause(clauses, current);
+        if (clauses.isEmpty() && type == null && category == null && after == null && before == null
+                && near.isEmpty()) {
+            return EMPTY;
+        }
+        return new SearchQuery(List.copyOf(clauses), type, category, after, before, List.copyOf(near));
+    }
+
+    // Category values are compared whole, after the same folding as indexed text.
+    static String normalizeCategory(String category) {
+        return String.join(" ", Tokenizer.tokenize(category));
+    }
+
+    // Splits on whitespace and "|", keeping double-quoted runs together.
+    private static List<String> split(String text) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                word.append(c);
+            } else if (!quoted && (Character.isWhitespace(c) || c == '|')) {
+                if (word.length() > 0) {
+                    words.add(word.toString());
+                    word.setLength(0);
+                }
+                if (c == '|') {
+                    words.add("|");
+                }
+            } else {
+                word.append(c);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private static String unquote(String value) {
+        return value.replace("\"", "");
+    }
+
+    private static Long startOfDay(String value, Long previous) {
+        try {
+            return LocalDate.parse(value.trim()).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return previous;
+        }
+    }
+
+    private static void addClause(List<List<String>> clauses, List<String> terms) {
+        if (!terms.isEmpty()) {
+            clauses.add(List.copyOf(terms));
+        }
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    // True when there is free text to score; a query of filters only is ordered by date.
+    public boolean hasText() {
+        return !clauses.isEmpty();
+    }
+
+    public boolean hasFilters() {
+        return type != null || category != null || after != null || before != null || !near.isEmpty();
+    }
+
+    public List<List<String>> getClauses() {
+        return clauses;
+    }
+
+    // "lost", "found" or null.
+    public String getType() {
+        return type;
+    }
+
+    // As typed; compare through normalizeCategory().
+    public String getCategory() {
+        return category;
+    }
+
+    // Inclusive lower bound on the report date, in epoch milliseconds, or null.
+    public Long getAfter() {
+        return after;
+    }
+
+    // Exclusive upper bound on the report date, in epoch milliseconds, or null.
+    public Long getBefore() {
+        return before;
+    }
+
+    // Location terms that must all appear, each matched as a prefix.
+    public List<String> getNear() {
+        return near;
+    }
+
+    // The free text alone, with groups joined by OR, for backends that do their own matching.
+    public String getText() {
+        List<String> groups = new ArrayList<>(clauses.size());
+        for (List<String> clause : clauses) {
+            groups.add(String.join(" ", clause));
+        }
+        return String.join(" OR ", groups);
+    }
+
+    public ReportFilter toReportFilter() {
+        if (!hasFilters()) {
+            return ReportFilter.NONE;
+        }
+        return new ReportFilter(type, category, after != null ? new Timestamp(after) : null,
+                before != null ? new Timestamp(before) : null, near);
+    }
+
+    @Override
+    public String toString() {
+        return clauses + (hasFilters() ? " type=" + type + " category=" + category + " after=" + after
+                + " before=" + before + " near=" + near : "");
+    }
+}
@@ -1,31 +1,38 @@
 package com.lostfound.service;
 
 // Service layer for managing admin-related operations.
-import com.lostfound.config.DBConnection;
+import com.lostfound.config.RoutingDataSource;
 import com.lostfound.dao.AdminDAO;
 import com.lostfound.model.Admin;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.sql.DataSource;
 
 public class AdminService {
     private static final Logger LOGGER = Logger.getLogger(AdminService.class.getName());
-    private AdminDAO adminDAO;
+    private final AdminDAO adminDAO;
+    private final DataSource dataSource;
 
-    public AdminService() {
-        adminDAO = new AdminDAO();
+    public AdminService(AdminDAO adminDAO, DataSource dataSource) {
+        this.adminDAO = adminDAO;
+        this.dataSource = dataSource;
         LOGGER.log(Level.INFO, "AdminService initialized successfully");
     }
 
     public boolean addAdmin(Admin admin) throws SQLException {
         LOGGER.log(Level.INFO, "Adding admin for userId: {0}", admin.getUserId());
-        return adminDAO.addAdmin(admin);
+        boolean added = adminDAO.addAdmin(admin);
+        RoutingDataSource.pinToPrimary(dataSource);
+        return added;
     }
 
     public boolean deleteAdmin(int adminId) throws SQLException {
         LOGGER.log(Level.INFO, "Deleting admin with adminId: {0}", adminId);
-        return adminDAO.deleteAdmin(adminId);
+        boolean deleted = adminDAO.deleteAdmin(adminId);
+        RoutingDataSource.pinToPrimary(dataSource);
+        return deleted;
     }
 
     public List<Admin> getAllAdmins() throws SQLException {
@@ -34,7 +41,7 @@ public class AdminService {
     }
 
     public void updateReportType(int reportId, String reportType) throws SQLException {
-        try (var conn = DBConnection.getConnection()) {
+        try (var conn = dataSource.getConnection()) {
             String sql = "UPDATE reports SET report_type = ? WHERE Report_ID = ?";
             try (var stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, reportType);
@@ -42,6 +49,7 @@ public class AdminService {
                 int rowsAffected = stmt.executeUpdate();
                 LOGGER.log(Level.INFO, "Updated report ID: {0} to report_type: {1}, Rows affected: {2}",
                         new Object[]{reportId, reportType, rowsAffected});
+                RoutingDataSource.pinToPrimary(dataSource);
             }
         }
     }
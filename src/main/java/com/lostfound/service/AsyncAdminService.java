@@ -0,0 +1,40 @@
+package com.lostfound.service;
+
+// Non-blocking facade over AdminService; each call runs on the shared query executor.
+import com.lostfound.config.QueryExecutor;
+import com.lostfound.model.Admin;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncAdminService {
+    private final AdminService adminService;
+    private final QueryExecutor executor;
+
+    public AsyncAdminService(AdminService adminService, QueryExecutor executor) {
+        this.adminService = adminService;
+        this.executor = executor;
+    }
+
+    public AdminService getBlocking() {
+        return adminService;
+    }
+
+    public CompletableFuture<Boolean> addAdmin(Admin admin) {
+        return executor.submit(() -> adminService.addAdmin(admin));
+    }
+
+    public CompletableFuture<Boolean> deleteAdmin(int adminId) {
+        return executor.submit(() -> adminService.deleteAdmin(adminId));
+    }
+
+    public CompletableFuture<List<Admin>> getAllAdmins() {
+        return executor.submit(adminService::getAllAdmins);
+    }
+
+    public CompletableFuture<Void> updateReportType(int reportId, String reportType) {
+        return executor.submit(() -> {
+            adminService.updateReportType(reportId, reportType);
+            return null;
+        });
+    }
+}
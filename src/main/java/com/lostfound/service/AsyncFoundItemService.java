@@ -0,0 +1,28 @@
+package com.lostfound.service;
+
+// Non-blocking facade over FoundItemService; each call runs on the shared query executor.
+import com.lostfound.config.QueryExecutor;
+import com.lostfound.model.FoundItem;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncFoundItemService {
+    private final FoundItemService foundItemService;
+    private final QueryExecutor executor;
+
+    public AsyncFoundItemService(FoundItemService foundItemService, QueryExecutor executor) {
+        this.foundItemService = foundItemService;
+        this.executor = executor;
+    }
+
+    public FoundItemService getBlocking() {
+        return foundItemService;
+    }
+
+    public CompletableFuture<Boolean> createFoundItem(FoundItem foundItem) {
+        return executor.submit(() -> foundItemService.createFoundItem(foundItem));
+    }
+
+    public CompletableFuture<FoundItem> getFoundItemDetails(int itemId) {
+        return executor.submit(() -> foundItemService.getFoundItemDetails(itemId));
+    }
+}
@@ -0,0 +1,34 @@
+package com.lostfound.service;
+
+// Non-blocking facade over ItemService; each call runs on the shared query executor.
+import com.lostfound.config.QueryExecutor;
+import com.lostfound.model.Item;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncItemService {
+    private final ItemService itemService;
+    private final QueryExecutor executor;
+
+    public AsyncItemService(ItemService itemService, QueryExecutor executor) {
+        this.itemService = itemService;
+        this.executor = executor;
+    }
+
+    public ItemService getBlocking() {
+        return itemService;
+    }
+
+    public CompletableFuture<Integer> createItem(Item item) {
+        return executor.submit(() -> itemService.createItem(item));
+    }
+
+    public CompletableFuture<Item> getItemById(int itemId) {
+        return executor.submit(() -> itemService.getItemById(itemId));
+    }
+
+    public CompletableFuture<Map<Integer, Item>> getItemsByIds(Collection<Integer> itemIds) {
+        return executor.submit(() -> itemService.getItemsByIds(itemIds));
+    }
+}
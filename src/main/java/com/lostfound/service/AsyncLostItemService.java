@@ -0,0 +1,28 @@
+package com.lostfound.service;
+
+// Non-blocking facade over LostItemService; each call runs on the shared query executor.
+import com.lostfound.config.QueryExecutor;
+import com.lostfound.model.LostItem;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncLostItemService {
+    private final LostItemService lostItemService;
+    private final QueryExecutor executor;
+
+    public AsyncLostItemService(LostItemService lostItemService, QueryExecutor executor) {
+        this.lostItemService = lostItemService;
+        this.executor = executor;
+    }
+
+    public LostItemService getBlocking() {
+        return lostItemService;
+    }
+
+    public CompletableFuture<Boolean> createLostItem(LostItem lostItem) {
+        return executor.submit(() -> lostItemService.createLostItem(lostItem));
+    }
+
+    public CompletableFuture<LostItem> getLostItemDetails(int itemId) {
+        return executor.submit(() -> lostItemService.getLostItemDetails(itemId));
+    }
+}
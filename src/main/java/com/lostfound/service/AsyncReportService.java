@@ -0,0 +1,59 @@
+package com.lostfound.service;
+
+// Non-blocking facade over ReportService; each call runs on the shared query executor.
+import com.lostfound.config.QueryExecutor;
+import com.lostfound.model.Report;
+import com.lostfound.model.ReportDetails;
+import com.lostfound.model.UserReport;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncReportService {
+    private final ReportService reportService;
+    private final QueryExecutor executor;
+
+    public AsyncReportService(ReportService reportService, QueryExecutor executor) {
+        this.reportService = reportService;
+        this.executor = executor;
+    }
+
+    public ReportService getBlocking() {
+        return reportService;
+    }
+
+    public CompletableFuture<List<ReportDetails>> getAllReportsWithDetails() {
+        return executor.submit(reportService::getAllReportsWithDetails);
+    }
+
+    public CompletableFuture<Boolean> createReport(Report report) {
+        return executor.submit(() -> reportService.createReport(report));
+    }
+
+    public CompletableFuture<List<Report>> getCurrentUserReports() {
+        return executor.submit(reportService::getCurrentUserReports);
+    }
+
+    public CompletableFuture<List<Report>> getReportsByUserId(int userId) {
+        return executor.submit(() -> reportService.getReportsByUserId(userId));
+    }
+
+    public CompletableFuture<List<UserReport>> getCurrentUserReportsWithDetails() {
+        return executor.submit(reportService::getCurrentUserReportsWithDetails);
+    }
+
+    public CompletableFuture<List<UserReport>> getUserReportsWithDetails(int userId) {
+        return executor.submit(() -> reportService.getUserReportsWithDetails(userId));
+    }
+
+    public CompletableFuture<List<Report>> getAllReports() {
+        return executor.submit(reportService::getAllReports);
+    }
+
+    public CompletableFuture<Boolean> deleteReport(int reportId) {
+        return executor.submit(() -> reportService.deleteReport(reportId));
+    }
+
+    public CompletableFuture<Report> getReportById(int reportId) {
+        return executor.submit(() -> reportService.getReportById(reportId));
+    }
+}
@@ -0,0 +1,62 @@
+package com.lostfound.service;
+
+// Non-blocking facade over UserService; each call runs on the shared query executor.
+import com.lostfound.config.QueryExecutor;
+import com.lostfound.model.User;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncUserService {
+    private final UserService userService;
+    private final QueryExecutor executor;
+
+    public AsyncUserService(UserService userService, QueryExecutor executor) {
+        this.userService = userService;
+        this.executor = executor;
+    }
+
+    public UserService getBlocking() {
+        return userService;
+    }
+
+    public CompletableFuture<User> login(String email, String password) {
+        return executor.submit(() -> userService.login(email, password));
+    }
+
+    public CompletableFuture<User> getUserById(int userId) {
+        return executor.submit(() -> userService.getUserById(userId));
+    }
+
+    public CompletableFuture<Map<Integer, User>> getUsersByIds(Collection<Integer> userIds) {
+        return executor.submit(() -> userService.getUsersByIds(userIds));
+    }
+
+    public CompletableFuture<List<User>> getAllUsers() {
+        return executor.submit(userService::getAllUsers);
+    }
+
+    public CompletableFuture<Boolean> updateUser(User user) {
+        return executor.submit(() -> userService.updateUser(user));
+    }
+
+    public CompletableFuture<Boolean> deleteUser(int userId) {
+        return executor.submit(() -> userService.deleteUser(userId));
+    }
+
+    public CompletableFuture<Boolean> registerUserWithRole(String name, String email, String password, String role, String contact) {
+        return executor.submit(() -> userService.registerUserWithRole(name, email, password, role, contact));
+    }
+
+    public CompletableFuture<Void> updateUserRole(int userId, String newRole) {
+        return executor.submit(() -> {
+            userService.updateUserRole(userId, newRole);
+            return null;
+        });
+    }
+
+    public CompletableFuture<User> findUserByEmail(String email) {
+        return executor.submit(() -> userService.findUserByEmail(email));
+    }
+}
@@ -0,0 +1,86 @@
+package com.lostfound.service;
+
+// DataLoader-style batcher that turns many single-key lookups into one multi-get call.
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class BatchLoader<K, V> {
+    private static final Logger LOGGER = Logger.getLogger(BatchLoader.class.getName());
+
+    @FunctionalInterface
+    public interface BatchFunction<K, V> {
+        // Returns the values found for the keys; keys missing from the map resolve to null.
+        Map<K, V> loadAll(Collection<K> keys) throws Exception;
+    }
+
+    private final BatchFunction<K, V> batchFunction;
+    private final int maxBatchSize;
+    // Keys queued since the last dispatch, in request order.
+    private final Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    // Every key requested through this loader, so repeated lookups share one future. A loader is
+    // meant to live for one unit of work (one screen load), which bounds this map.
+    private final Map<K, CompletableFuture<V>> requested = new HashMap<>();
+    private int batches;
+
+    public BatchLoader(BatchFunction<K, V> batchFunction, int maxBatchSize) {
+        this.batchFunction = batchFunction;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    // Queues a lookup. Nothing is fetched until dispatch() is called or the queue reaches
+    // maxBatchSize, so callers can issue one load per row and resolve them all together.
+    public CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future;
+        boolean full = false;
+        synchronized (this) {
+            future = requested.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            requested.put(key, future);
+            pending.put(key, future);
+            full = pending.size() >= maxBatchSize;
+        }
+        if (full) {
+            dispatch();
+        }
+        return future;
+    }
+
+    // Sends everything queued so far as one batch, on the calling thread.
+    public void dispatch() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+            batches++;
+        }
+        List<K> keys = new ArrayList<>(batch.keySet());
+        try {
+            Map<K, V> values = batchFunction.loadAll(keys);
+            for (Map.Entry<K, CompletableFuture<V>> entry : batch.entrySet()) {
+                entry.getValue().complete(values.get(entry.getKey()));
+            }
+            LOGGER.log(Level.FINE, "Batch loaded {0} keys", keys.size());
+        } catch (Exception e) {
+            for (CompletableFuture<V> future : batch.values()) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    public synchronized int getBatchCount() {
+        return batches;
+    }
+}
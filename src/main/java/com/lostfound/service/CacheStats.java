@@ -0,0 +1,63 @@
+package com.lostfound.service;
+
+// Point-in-time counters for one EntityCache.
+public class CacheStats {
+    private final String name;
+    private final int size;
+    private final long hits;
+    private final long negativeHits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+
+    public CacheStats(String name, int size, long hits, long negativeHits, long misses,
+                      long evictions, long expirations) {
+        this.name = name;
+        this.size = size;
+        this.hits = hits;
+        this.negativeHits = negativeHits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    // Hits on entries cached as "does not exist"; included in getHits().
+    public long getNegativeHits() {
+        return negativeHits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: size=%d hits=%d (negative=%d) misses=%d hitRatio=%.2f evictions=%d expirations=%d",
+                name, size, hits, negativeHits, misses, getHitRatio(), evictions, expirations);
+    }
+}
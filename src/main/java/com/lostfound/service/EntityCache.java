@@ -0,0 +1,179 @@
+package com.lostfound.service;
+
+// Bounded read-through cache for entities keyed by ID, with LRU eviction and expiry.
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class EntityCache<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        // Returns null when the entity does not exist.
+        V load(K key) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface BulkLoader<K, V> {
+        // Returns the entities found; keys missing from the map do not exist.
+        Map<K, V> loadAll(Collection<K> keys) throws SQLException;
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final Map<K, Entry<V>> entries;
+    // Bumped by every invalidation. A load that started before an invalidation does not store
+    // its result, so a read racing a write cannot put the old row back into the cache.
+    private long epoch;
+    private long hits;
+    private long negativeHits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    // A negativeTtlMillis of zero disables caching of missing entities.
+    public EntityCache(String name, int maxSize, long ttlMillis, long negativeTtlMillis) {
+        this.name = name;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > EntityCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        long startEpoch;
+        synchronized (this) {
+            Entry<V> entry = lookup(key);
+            if (entry != null) {
+                return entry.value;
+            }
+            misses++;
+            startEpoch = epoch;
+        }
+        V value = loader.load(key);
+        synchronized (this) {
+            store(key, value, startEpoch);
+        }
+        return value;
+    }
+
+    // Serves what it can from the cache and loads the rest with one bulk call.
+    public Map<K, V> getAll(Collection<K> keys, BulkLoader<K, V> loader) throws SQLException {
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        long startEpoch;
+        synchronized (this) {
+            for (K key : keys) {
+                if (result.containsKey(key) || missing.contains(key) || key == null) {
+                    continue;
+                }
+                Entry<V> entry = lookup(key);
+                if (entry == null) {
+                    misses++;
+                    missing.add(key);
+                } else if (entry.value != null) {
+                    result.put(key, entry.value);
+                }
+            }
+            startEpoch = epoch;
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        Map<K, V> loaded = loader.loadAll(missing);
+        synchronized (this) {
+            for (K key : missing) {
+                store(key, loaded.get(key), startEpoch);
+            }
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    public synchronized void invalidate(K key) {
+        epoch++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        epoch++;
+        entries.clear();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, entries.size(), hits, negativeHits, misses, evictions, expirations);
+    }
+
+    // Caller holds the lock. Returns null on a miss; a returned entry may hold a null value
+    // when the entity is known not to exist.
+    private Entry<V> lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expiresAt) {
+            entries.remove(key);
+            expirations++;
+            return null;
+        }
+        hits++;
+        if (entry.value == null) {
+            negativeHits++;
+        }
+        return entry;
+    }
+
+    private void store(K key, V value, long startEpoch) {
+        if (startEpoch != epoch) {
+            return;
+        }
+        long ttl = value != null ? ttlMillis : negativeTtlMillis;
+        if (ttl <= 0) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttl));
+        purgeExpiredHead();
+    }
+
+    // Drops expired entries from the least recently used end, so stale rows that nobody reads
+    // again do not hold on to capacity until LRU eviction reaches them.
+    private void purgeExpiredHead() {
+        long now = System.currentTimeMillis();
+        Iterator<Entry<V>> it = entries.values().iterator();
+        int checked = 0;
+        while (it.hasNext() && checked++ < 4) {
+            if (now >= it.next().expiresAt) {
+                it.remove();
+                expirations++;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,24 +1,30 @@
 package com.lostfound.service;
 
 // Service layer for managing found item operations.
-import com.lostfound.config.DBConnection;
+import com.lostfound.config.RoutingDataSource;
 import com.lostfound.model.FoundItem;
 import java.sql.*;
 import java.util.logging.Logger;
 import java.util.logging.Level;
+import javax.sql.DataSource;
 
 public class FoundItemService {
     private static final Logger LOGGER = Logger.getLogger(FoundItemService.class.getName());
 
-    public FoundItemService() throws SQLException {
+    private final DataSource dataSource;
+    private final EntityCache<Integer, FoundItem> cache;
+
+    public FoundItemService(DataSource dataSource, EntityCache<Integer, FoundItem> cache) {
+        this.dataSource = dataSource;
+        this.cache = cache;
         LOGGER.log(Level.INFO, "Initializing FoundItemService");
     }
 
     public boolean createFoundItem(FoundItem foundItem) throws SQLException {
         LOGGER.log(Level.INFO, "Creating found item for itemId: {0}", foundItem.getItemId());
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "INSERT INTO found_item (Item_ID, Found_Location, Found_Date, Storage_Location, Additional_Details, Image_Path) " +
-                    "VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection conn = dataSource.getConnection()) {
+            String sql = "INSERT INTO found_item (Item_ID, Found_Location, Found_Date, Storage_Location, Additional_Details, Image_Path, " +
+                    "Image_Key) VALUES (?, ?, ?, ?, ?, ?, ?)";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, foundItem.getItemId());
                 stmt.setString(2, foundItem.getFoundLocation());
@@ -26,7 +32,9 @@ public class FoundItemService {
                 stmt.setString(4, foundItem.getStorageLocation());
                 stmt.setString(5, foundItem.getAdditionalDetails());
                 stmt.setString(6, foundItem.getImagePath());
+                stmt.setString(7, foundItem.getImageKey());
                 int rows = stmt.executeUpdate();
+                cache.invalidate(foundItem.getItemId());
                 LOGGER.log(Level.INFO, "Inserted found item, rows affected: {0}", rows);
                 return rows > 0;
             }
@@ -34,8 +42,16 @@ public class FoundItemService {
     }
 
     public FoundItem getFoundItemDetails(int itemId) throws SQLException {
+        return cache.get(itemId, this::fetchFoundItemDetails);
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    private FoundItem fetchFoundItemDetails(int itemId) throws SQLException {
         LOGGER.log(Level.INFO, "Fetching found item details for itemId: {0}", itemId);
-        try (Connection conn = DBConnection.getConnection()) {
+        try (Connection conn = RoutingDataSource.readConnection(dataSource)) {
             String sql = "SELECT * FROM found_item WHERE Item_ID = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, itemId);
@@ -47,7 +63,8 @@ public class FoundItemService {
                                 rs.getDate("Found_Date"),
                                 rs.getString("Storage_Location"),
                                 rs.getString("Additional_Details"),
-                                rs.getString("Image_Path")
+                                rs.getString("Image_Path"),
+                                rs.getString("Image_Key")
                         );
                     }
                 }
@@ -0,0 +1,195 @@
+package com.lostfound.service;
+
+// Records identifiers found in item text as hashes and finds reports of the other type sharing one.
+import com.lostfound.config.RoutingDataSource;
+import com.lostfound.match.IdentifierExtractor;
+import com.lostfound.model.IdentifierMatch;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.sql.DataSource;
+
+public class IdentifierService implements ReportChangeListener {
+    private static final Logger LOGGER = Logger.getLogger(IdentifierService.class.getName());
+    // Card numbers and IMEIs have too little entropy for a plain hash to hide them, so the hash
+    // is keyed. Every client sharing a database must use the same IDENTIFIER_HASH_KEY; without
+    // one nothing is stored, since a key anyone can read would make the hashes reversible.
+    private static final String HASH_KEY_ENV = "IDENTIFIER_HASH_KEY";
+    private static final String HASH_ALGORITHM = "HmacSHA256";
+
+    private static final String ITEM_TEXT_QUERY = """
+            SELECT r.Item_ID, i.Description,
+                   COALESCE(l.Additional_Details, f.Additional_Details) AS Additional_Details
+            FROM reports r
+            JOIN item i ON i.Item_ID = r.Item_ID
+            LEFT JOIN lost_item l ON l.Item_ID = r.Item_ID
+            LEFT JOIN found_item f ON f.Item_ID = r.Item_ID
+            WHERE r.Report_ID = ?""";
+    private static final String INSERT_IDENTIFIER =
+            "INSERT IGNORE INTO item_identifier (Identifier_Hash, Item_ID, Kind, Last_Four) VALUES (?, ?, ?, ?)";
+    // Hash lookups on the primary key; only reports of the other type count as matches.
+    private static final String MATCHES_QUERY = """
+            SELECT DISTINCT other.Report_ID, b.Kind, b.Last_Four
+            FROM reports r
+            JOIN item_identifier a ON a.Item_ID = r.Item_ID
+            JOIN item_identifier b ON b.Identifier_Hash = a.Identifier_Hash AND b.Item_ID <> a.Item_ID
+            JOIN reports other ON other.Item_ID = b.Item_ID AND other.Report_Type <> r.Report_Type
+            WHERE r.Report_ID = ?
+            ORDER BY other.Report_ID DESC""";
+
+    private final DataSource dataSource;
+    // Null when no key is configured, which turns identifier indexing off.
+    private final SecretKeySpec hashKey;
+
+    public IdentifierService(DataSource dataSource) {
+        this.dataSource = dataSource;
+        String key = System.getenv(HASH_KEY_ENV);
+        if (key == null || key.isBlank()) {
+            LOGGER.log(Level.WARNING, "{0} is not set; identifiers are not extracted or stored", HASH_KEY_ENV);
+            hashKey = null;
+        } else {
+            hashKey = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), HASH_ALGORITHM);
+        }
+    }
+
+    // Extracts identifiers from the report's item description and additional details and
+    // stores them. Returns how many were found; storing them again is harmless. Stores nothing
+    // and returns 0 when no hash key is configured.
+    public int indexReport(int reportId) throws SQLException {
+        if (hashKey == null) {
+            return 0;
+        }
+        try {
+            ItemText item;
+            try (Connection conn = RoutingDataSource.readConnection(dataSource)) {
+                item = readItemText(conn, reportId);
+            }
+            // A report created a moment ago may not have reached the replica yet.
+            if (item == null && dataSource instanceof RoutingDataSource) {
+                try (Connection conn = dataSource.getConnection()) {
+                    item = readItemText(conn, reportId);
+                }
+            }
+            if (item == null) {
+                LOGGER.log(Level.WARNING, "No item found for report {0}", reportId);
+                return 0;
+            }
+            List<IdentifierExtractor.Identifier> identifiers = IdentifierExtractor.extract(item.text);
+            if (identifiers.isEmpty()) {
+                return 0;
+            }
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(INSERT_IDENTIFIER)) {
+                for (IdentifierExtractor.Identifier identifier : identifiers) {
+                    stmt.setBytes(1, hash(identifier.getValue()));
+                    stmt.setInt(2, item.itemId);
+                    stmt.setString(3, identifier.getKind());
+                    stmt.setString(4, identifier.getLastFour());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            LOGGER.log(Level.INFO, "Stored {0} identifiers for item {1}",
+                    new Object[]{identifiers.size(), item.itemId});
+            return identifiers.size();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error indexing identifiers for report {0}: {1}",
+                    new Object[]{reportId, e.getMessage()});
+            throw e;
+        }
+    }
+
+    // Reports of the other type whose item shares an identifier with this report's item.
+    public List<IdentifierMatch> findIdentifierMatches(int reportId) throws SQLException {
+        List<IdentifierMatch> matches = new ArrayList<>();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
+             PreparedStatement stmt = conn.prepareStatement(MATCHES_QUERY)) {
+            stmt.setInt(1, reportId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    matches.add(new IdentifierMatch(reportId, rs.getInt("Report_ID"), rs.getString("Kind"),
+                            rs.getString("Last_Four")));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding identifier matches for report {0}: {1}",
+                    new Object[]{reportId, e.getMessage()});
+            throw e;
+        }
+        return matches;
+    }
+
+    // Indexes the new report and flags any report of the other type carrying the same identifier.
+    @Override
+    public void reportCreated(int reportId) {
+        try {
+            if (indexReport(reportId) == 0) {
+                return;
+            }
+            List<IdentifierMatch> matches = findIdentifierMatches(reportId);
+            for (IdentifierMatch match : matches) {
+                LOGGER.log(Level.INFO, "Report {0} shares a {1} ending {2} with report {3}",
+                        new Object[]{reportId, match.getKind(), match.getLastFour(), match.getCandidateId()});
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not index identifiers for report " + reportId, e);
+        }
+    }
+
+    // A trigger on reports deletes the identifier rows with the report, including deletes made
+    // by other clients, so there is nothing left to do here.
+    @Override
+    public void reportDeleted(int reportId) {
+    }
+
+    private byte[] hash(String identifier) {
+        try {
+            Mac mac = Mac.getInstance(HASH_ALGORITHM);
+            mac.init(hashKey);
+            return mac.doFinal(identifier.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+        }
+    }
+
+    // The report's item and its description and additional details, or null for no such report.
+    private static ItemText readItemText(Connection conn, int reportId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(ITEM_TEXT_QUERY)) {
+            stmt.setInt(1, reportId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                StringBuilder text = new StringBuilder();
+                appendLine(text, rs.getString("Description"));
+                appendLine(text, rs.getString("Additional_Details"));
+                return new ItemText(rs.getInt("Item_ID"), text.toString());
+            }
+        }
+    }
+
+    private static void appendLine(StringBuilder text, String line) {
+        if (line != null) {
+            text.append(line).append('\n');
+        }
+    }
+
+    private static final class ItemText {
+        private final int itemId;
+        private final String text;
+
+        private ItemText(int itemId, String text) {
+            this.itemId = itemId;
+            this.text = text;
+        }
+    }
+}
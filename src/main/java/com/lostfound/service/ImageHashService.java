@@ -0,0 +1,238 @@
+package com.lostfound.service;
+
+// Perceptual hashes of item photos, and lookups of reports of the other type with a similar photo.
+import com.lostfound.config.RoutingDataSource;
+import com.lostfound.image.HammingIndex;
+import com.lostfound.image.ImageLocator;
+import com.lostfound.image.PerceptualHash;
+import com.lostfound.model.ImageMatch;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.imageio.ImageIO;
+import javax.sql.DataSource;
+
+public class ImageHashService {
+    private static final Logger LOGGER = Logger.getLogger(ImageHashService.class.getName());
+    // Rescaled, recompressed or re-lit copies of a photo stay a few pHash bits apart, while
+    // unrelated photos sit near 32 of 64.
+    public static final int DEFAULT_MAX_DISTANCE = 10;
+    // Images hashed per backfill batch.
+    private static final int BACKFILL_BATCH_SIZE = 100;
+
+    private static final String UPSERT_HASH = "INSERT INTO image_hash (Item_ID, Image_Path, DHash, PHash) "
+            + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE Image_Path = VALUES(Image_Path), "
+            + "DHash = VALUES(DHash), PHash = VALUES(PHash)";
+    private static final String INDEX_QUERY = """
+            SELECT r.Report_ID, r.Report_Type, h.DHash, h.PHash
+            FROM image_hash h
+            JOIN reports r ON r.Item_ID = h.Item_ID""";
+    // Images with no hash, or whose hash was taken from a photo since replaced, in Item_ID order.
+    private static final String UNHASHED_IMAGES_QUERY = """
+            (SELECT l.Item_ID, l.image_path
+             FROM lost_item l
+             LEFT JOIN image_hash h ON h.Item_ID = l.Item_ID
+             WHERE l.Item_ID > ? AND l.image_path IS NOT NULL AND l.image_path <> ''
+               AND (h.Item_ID IS NULL OR h.Image_Path <> l.image_path)
+             ORDER BY l.Item_ID LIMIT ?)
+            UNION ALL
+            (SELECT f.Item_ID, f.image_path
+             FROM found_item f
+             LEFT JOIN image_hash h ON h.Item_ID = f.Item_ID
+             WHERE f.Item_ID > ? AND f.image_path IS NOT NULL AND f.image_path <> ''
+               AND (h.Item_ID IS NULL OR h.Image_Path <> f.image_path)
+             ORDER BY f.Item_ID LIMIT ?)
+            ORDER BY Item_ID LIMIT ?""";
+
+    private final DataSource dataSource;
+    private final ImageLocator locator;
+    private final VersionedCache<ImageIndex> indexCache = new VersionedCache<>("image_hash", "reports", "item");
+
+    public ImageHashService(DataSource dataSource) {
+        this(dataSource, ImageLocator.LOCAL_FILES);
+    }
+
+    public ImageHashService(DataSource dataSource, ImageLocator locator) {
+        this.dataSource = dataSource;
+        this.locator = locator;
+    }
+
+    // Hashes the photo stored for the item and records it, replacing any earlier hash.
+    public void indexImage(int itemId, String imagePath) throws IOException, SQLException {
+        long[] hashes = hashImage(imagePath);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPSERT_HASH)) {
+            bindHash(stmt, itemId, imagePath, hashes);
+            stmt.executeUpdate();
+            LOGGER.log(Level.INFO, "Stored image hash for item {0}", itemId);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error storing image hash for item {0}: {1}",
+                    new Object[]{itemId, e.getMessage()});
+            throw e;
+        }
+    }
+
+    // Reports of the other type whose photo is within maxDistance pHash bits of this report's,
+    // closest first; empty when the report has no hashed photo. dHash breaks ties, since the two
+    // hashes rarely both collide on unrelated photos.
+    public List<ImageMatch> findSimilar(int reportId, int maxDistance, int limit) throws SQLException {
+        ImageIndex index;
+        try (Connection conn = RoutingDataSource.readConnection(dataSource)) {
+            index = indexCache.get(conn, ImageHashService::loadIndex);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading image hashes: {0}", e.getMessage());
+            throw e;
+        }
+        List<ImageMatch> matches = new ArrayList<>();
+        Entry entry = index.entries.get(reportId);
+        if (entry == null) {
+            return matches;
+        }
+        HammingIndex others = entry.lost ? index.found : index.lost;
+        others.search(entry.pHash, maxDistance, (candidateId, distance) -> matches.add(new ImageMatch(
+                reportId, candidateId, distance,
+                PerceptualHash.distance(entry.dHash, index.entries.get(candidateId).dHash))));
+        matches.sort(Comparator.comparingInt(ImageMatch::getPHashDistance)
+                .thenComparingInt(ImageMatch::getDHashDistance)
+                .thenComparing(Comparator.comparingInt(ImageMatch::getCandidateId).reversed()));
+        return new ArrayList<>(matches.subList(0, Math.min(limit, matches.size())));
+    }
+
+    // Hashes every stored photo that has no current hash, in batches, and returns how many were
+    // stored. Photos that are missing or unreadable are logged and skipped. Progress is only the
+    // rows written, so an interrupted backfill resumes where it stopped when run again.
+    public int backfill() throws SQLException {
+        int stored = 0;
+        int skipped = 0;
+        int after = 0;
+        while (true) {
+            Map<Integer, String> batch = readUnhashedImages(after);
+            if (batch.isEmpty()) {
+                break;
+            }
+            // Decoding and hashing happen with no connection held.
+            Map<Integer, long[]> hashes = new HashMap<>();
+            for (Map.Entry<Integer, String> image : batch.entrySet()) {
+                after = image.getKey();
+                try {
+                    hashes.put(image.getKey(), hashImage(image.getValue()));
+                } catch (IOException e) {
+                    skipped++;
+                    LOGGER.log(Level.WARNING, "Skipping image of item {0}: {1}",
+                            new Object[]{image.getKey(), e.getMessage()});
+                }
+            }
+            storeHashes(batch, hashes);
+            stored += hashes.size();
+            LOGGER.log(Level.INFO, "Image hash backfill: {0} stored, {1} skipped, up to item {2}",
+                    new Object[]{stored, skipped, after});
+        }
+        return stored;
+    }
+
+    // Read from a replica, which may lag: a photo it does not have yet was hashed at upload or is
+    // left for the next backfill, and one it still lists as unhashed is hashed again harmlessly.
+    private Map<Integer, String> readUnhashedImages(int after) throws SQLException {
+        Map<Integer, String> images = new LinkedHashMap<>();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
+             PreparedStatement stmt = conn.prepareStatement(UNHASHED_IMAGES_QUERY)) {
+            stmt.setInt(1, after);
+            stmt.setInt(2, BACKFILL_BATCH_SIZE);
+            stmt.setInt(3, after);
+            stmt.setInt(4, BACKFILL_BATCH_SIZE);
+            stmt.setInt(5, BACKFILL_BATCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    images.put(rs.getInt("Item_ID"), rs.getString("image_path"));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reading images to hash after item {0}: {1}",
+                    new Object[]{after, e.getMessage()});
+            throw e;
+        }
+        return images;
+    }
+
+    private void storeHashes(Map<Integer, String> paths, Map<Integer, long[]> hashes) throws SQLException {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPSERT_HASH)) {
+            for (Map.Entry<Integer, long[]> entry : hashes.entrySet()) {
+                bindHash(stmt, entry.getKey(), paths.get(entry.getKey()), entry.getValue());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error storing {0} image hashes: {1}",
+                    new Object[]{hashes.size(), e.getMessage()});
+            throw e;
+        }
+    }
+
+    private static void bindHash(PreparedStatement stmt, int itemId, String imagePath, long[] hashes)
+            throws SQLException {
+        stmt.setInt(1, itemId);
+        stmt.setString(2, imagePath);
+        stmt.setLong(3, hashes[0]);
+        stmt.setLong(4, hashes[1]);
+    }
+
+    // dHash and pHash of the photo, in that order.
+    private long[] hashImage(String imagePath) throws IOException {
+        BufferedImage image = ImageIO.read(locator.locate(imagePath));
+        if (image == null) {
+            throw new IOException("Unsupported image format: " + imagePath);
+        }
+        BufferedImage prepared = PerceptualHash.prepare(image);
+        return new long[]{PerceptualHash.dHash(prepared), PerceptualHash.pHash(prepared)};
+    }
+
+    private static ImageIndex loadIndex(Connection conn) throws SQLException {
+        ImageIndex index = new ImageIndex();
+        try (PreparedStatement stmt = conn.prepareStatement(INDEX_QUERY);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                int reportId = rs.getInt("Report_ID");
+                boolean lost = "Lost".equalsIgnoreCase(rs.getString("Report_Type"));
+                long pHash = rs.getLong("PHash");
+                index.entries.put(reportId, new Entry(rs.getLong("DHash"), pHash, lost));
+                (lost ? index.lost : index.found).add(pHash, reportId);
+            }
+        }
+        LOGGER.log(Level.INFO, "Loaded {0} image hashes", index.entries.size());
+        return index;
+    }
+
+    // Built once per data_version and never changed after, so readers share it without locks.
+    private static final class ImageIndex {
+        private final Map<Integer, Entry> entries = new HashMap<>();
+        private final HammingIndex lost = new HammingIndex();
+        private final HammingIndex found = new HammingIndex();
+    }
+
+    private static final class Entry {
+        private final long dHash;
+        private final long pHash;
+        private final boolean lost;
+
+        private Entry(long dHash, long pHash, boolean lost) {
+            this.dHash = dHash;
+            this.pHash = pHash;
+            this.lost = lost;
+        }
+    }
+}
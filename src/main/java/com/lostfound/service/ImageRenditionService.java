@@ -0,0 +1,174 @@
+package com.lostfound.service;
+
+// Creates the thumbnail and preview renditions of uploaded photos and records where they are.
+import com.lostfound.config.RoutingDataSource;
+import com.lostfound.image.BlobStore;
+import com.lostfound.image.ImagePipeline;
+import com.lostfound.image.Rendition;
+import com.lostfound.model.ImageRendition;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+public class ImageRenditionService {
+    private static final Logger LOGGER = Logger.getLogger(ImageRenditionService.class.getName());
+    // Photos rendered per backfill batch before their rows are written.
+    private static final int BACKFILL_BATCH_SIZE = 50;
+
+    private static final String UPSERT_RENDITION = "INSERT INTO image_rendition (Source_Path, Rendition, Path, "
+            + "Width, Height) VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE Path = VALUES(Path), "
+            + "Width = VALUES(Width), Height = VALUES(Height)";
+    private static final String RENDITION_QUERY =
+            "SELECT Path FROM image_rendition WHERE Source_Path = ? AND Rendition = ?";
+
+    private final DataSource dataSource;
+    // Where stored photos are fetched from and renditions of them are put; null when every
+    // photo is a plain local file.
+    private final BlobStore blobStore;
+
+    public ImageRenditionService(DataSource dataSource) {
+        this(dataSource, null);
+    }
+
+    public ImageRenditionService(DataSource dataSource, BlobStore blobStore) {
+        this.dataSource = dataSource;
+        this.blobStore = blobStore;
+    }
+
+    // Writes every rendition of the photo at sourcePath and records them under that path.
+    public List<ImageRendition> createRenditions(String sourcePath) throws IOException, SQLException {
+        long start = System.nanoTime();
+        File source = blobStore != null ? blobStore.locate(sourcePath) : new File(sourcePath);
+        List<ImageRendition> renditions = ImagePipeline.process(source);
+        publish(renditions);
+        store(renditions);
+        LOGGER.log(Level.INFO, "Created {0} renditions of {1} in {2} ms",
+                new Object[]{renditions.size(), sourcePath, (System.nanoTime() - start) / 1_000_000});
+        return renditions;
+    }
+
+    // Path of the recorded rendition of the photo, or null when it has none yet.
+    public String getRenditionPath(String sourcePath, Rendition rendition) throws SQLException {
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
+             PreparedStatement stmt = conn.prepareStatement(RENDITION_QUERY)) {
+            stmt.setString(1, sourcePath);
+            stmt.setString(2, rendition.getName());
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("Path") : null;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reading {0} rendition of {1}: {2}",
+                    new Object[]{rendition.getName(), sourcePath, e.getMessage()});
+            throw e;
+        }
+    }
+
+    // Renders every photo in the directories and their subdirectories whose renditions are
+    // missing or older than the photo, and records the renditions of all of them, so rows lost
+    // to an earlier failure come back too. Returns how many photos were rendered. Unreadable
+    // files are logged and skipped.
+    public int backfill(List<File> directories) throws SQLException {
+        int rendered = 0;
+        int skipped = 0;
+        List<ImageRendition> pending = new ArrayList<>();
+        for (File directory : directories) {
+            List<File> photos = new ArrayList<>();
+            if (!collectPhotos(directory, photos)) {
+                LOGGER.log(Level.WARNING, "Skipping {0}: not a readable directory", directory);
+                continue;
+            }
+            for (File source : photos) {
+                try {
+                    List<ImageRendition> existing = ImagePipeline.existingRenditions(source);
+                    if (existing != null) {
+                        pending.addAll(existing);
+                    } else {
+                        List<ImageRendition> renditions = ImagePipeline.process(source);
+                        publish(renditions);
+                        pending.addAll(renditions);
+                        rendered++;
+                    }
+                } catch (IOException e) {
+                    skipped++;
+                    LOGGER.log(Level.WARNING, "Skipping {0}: {1}", new Object[]{source, e.getMessage()});
+                }
+                if (pending.size() >= BACKFILL_BATCH_SIZE * Rendition.ALL.size()) {
+                    store(pending);
+                    pending.clear();
+                    LOGGER.log(Level.INFO, "Rendition backfill: {0} photos rendered, {1} skipped",
+                            new Object[]{rendered, skipped});
+                }
+            }
+        }
+        store(pending);
+        LOGGER.log(Level.INFO, "Rendition backfill finished: {0} photos rendered, {1} skipped",
+                new Object[]{rendered, skipped});
+        return rendered;
+    }
+
+    // Adds the photos under the directory in name order, leaving out rendition directories,
+    // the image store's staging area and dotfiles. Returns false when it cannot be listed.
+    private static boolean collectPhotos(File directory, List<File> photos) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return false;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(".")) {
+                continue;
+            }
+            if (file.isDirectory()) {
+                if (!name.equals(ImagePipeline.RENDITION_DIRECTORY) && !name.equals(BlobStore.STAGING_DIRECTORY)) {
+                    collectPhotos(file, photos);
+                }
+            } else if (file.isFile()) {
+                photos.add(file);
+            }
+        }
+        return true;
+    }
+
+    // Renditions are written beside their photo; puts those of stored photos into the store,
+    // which for a remote store uploads them.
+    private void publish(List<ImageRendition> renditions) throws IOException {
+        if (blobStore == null) {
+            return;
+        }
+        for (ImageRendition rendition : renditions) {
+            blobStore.publishFile(new File(rendition.getPath()));
+        }
+    }
+
+    private void store(List<ImageRendition> renditions) throws SQLException {
+        if (renditions.isEmpty()) {
+            return;
+        }
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPSERT_RENDITION)) {
+            for (ImageRendition rendition : renditions) {
+                stmt.setString(1, rendition.getSourcePath());
+                stmt.setString(2, rendition.getRendition());
+                stmt.setString(3, rendition.getPath());
+                stmt.setInt(4, rendition.getWidth());
+                stmt.setInt(5, rendition.getHeight());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error recording {0} renditions: {1}",
+                    new Object[]{renditions.size(), e.getMessage()});
+            throw e;
+        }
+    }
+}
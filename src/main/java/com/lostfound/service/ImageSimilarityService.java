@@ -0,0 +1,350 @@
+package com.lostfound.service;
+
+// Finds reports of the other type whose photo looks alike, through HNSW indexes of photo descriptors.
+import com.lostfound.config.RoutingDataSource;
+import com.lostfound.image.HnswIndex;
+import com.lostfound.image.ImageFeatures;
+import com.lostfound.image.ImageLocator;
+import com.lostfound.model.VisualMatch;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.imageio.ImageIO;
+import javax.sql.DataSource;
+
+public class ImageSimilarityService implements ReportChangeListener, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ImageSimilarityService.class.getName());
+    // Next to images/, since the descriptors are only good for the photos stored there.
+    public static final String DEFAULT_INDEX_FILE = "image-index/features.idx";
+    private static final int FILE_FORMAT = 1;
+    // Candidates kept by each search; about 0.99 recall@10 in ImageSimilarityBench.
+    private static final int SEARCH_EF = 64;
+    // In ImageSimilarityBench unrelated photos stay under 0.77 and edited copies of one photo
+    // average 0.92 or more.
+    public static final double DEFAULT_MIN_SIMILARITY = 0.8;
+    // Changes are written out this long after the first one, and on close.
+    private static final long SAVE_DELAY_MS = 30_000L;
+    // Graphs are rebuilt once removed nodes make up this share of them.
+    private static final double MAX_REMOVED_SHARE = 0.25;
+
+    private static final String REPORT_IMAGES_QUERY = """
+            SELECT r.Report_ID, r.Report_Type, COALESCE(l.image_path, f.image_path) AS image_path
+            FROM reports r
+            LEFT JOIN lost_item l ON l.Item_ID = r.Item_ID
+            LEFT JOIN found_item f ON f.Item_ID = r.Item_ID
+            WHERE COALESCE(l.image_path, f.image_path) <> ''""";
+    private static final String REPORT_IMAGE_QUERY = REPORT_IMAGES_QUERY + " AND r.Report_ID = ?";
+
+    private final DataSource dataSource;
+    private final File indexFile;
+    private final ImageLocator locator;
+    private final VersionedCache<Map<Integer, ReportImage>> listingCache =
+            new VersionedCache<>("image_hash", "reports", "item");
+    // All index changes happen on this thread; searches run on the caller's.
+    private final ScheduledExecutorService worker;
+    private final AtomicBoolean syncPending = new AtomicBoolean();
+    private final AtomicBoolean savePending = new AtomicBoolean();
+    private volatile HnswIndex lost = new HnswIndex(ImageFeatures.DIMENSIONS);
+    private volatile HnswIndex found = new HnswIndex(ImageFeatures.DIMENSIONS);
+    // Worker thread only: the photo each indexed report's vector came from, including photos
+    // that could not be read, so they are not retried on every sync.
+    private final Map<Integer, String> indexedPaths = new HashMap<>();
+    private Map<Integer, ReportImage> syncedListing;
+    private boolean dirty;
+
+    public ImageSimilarityService(DataSource dataSource) {
+        this(dataSource, new File(DEFAULT_INDEX_FILE));
+    }
+
+    public ImageSimilarityService(DataSource dataSource, File indexFile) {
+        this(dataSource, indexFile, ImageLocator.LOCAL_FILES);
+    }
+
+    public ImageSimilarityService(DataSource dataSource, File indexFile, ImageLocator locator) {
+        this.dataSource = dataSource;
+        this.indexFile = indexFile;
+        this.locator = locator;
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "image-index");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    // Loads the saved indexes and reconciles them with the reports, in the background.
+    public void start() {
+        worker.execute(this::load);
+        requestSync();
+    }
+
+    // Up to limit reports of the other type whose photo scores at least minSimilarity against
+    // this report's, best first. Answers from what is indexed so far, so reports added by other
+    // clients show up once the sync this call starts has caught up.
+    public List<VisualMatch> findSimilar(int reportId, int limit, double minSimilarity) {
+        requestSync();
+        List<VisualMatch> matches = new ArrayList<>();
+        HnswIndex lostIndex = lost;
+        HnswIndex foundIndex = found;
+        float[] vector = lostIndex.get(reportId);
+        HnswIndex others = foundIndex;
+        if (vector == null) {
+            vector = foundIndex.get(reportId);
+            others = lostIndex;
+        }
+        if (vector == null) {
+            return matches;
+        }
+        for (HnswIndex.Result result : others.search(vector, limit, Math.max(SEARCH_EF, limit))) {
+            if (result.getSimilarity() >= minSimilarity) {
+                matches.add(new VisualMatch(reportId, result.getId(), result.getSimilarity()));
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public void reportCreated(int reportId) {
+        worker.execute(() -> {
+            try {
+                ReportImage image = readReportImage(reportId);
+                if (image != null) {
+                    index(reportId, image);
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Could not index photo of report {0}; it will be picked up on the "
+                        + "next sync: {1}", new Object[]{reportId, e.getMessage()});
+            }
+        });
+    }
+
+    @Override
+    public void reportDeleted(int reportId) {
+        worker.execute(() -> unindex(reportId));
+    }
+
+    // Stops the worker and saves any changes it made.
+    @Override
+    public void close() {
+        worker.shutdownNow();
+        try {
+            if (!worker.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOGGER.log(Level.WARNING, "Image index worker did not stop; changes are not saved");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        save();
+    }
+
+    private void requestSync() {
+        if (syncPending.compareAndSet(false, true)) {
+            try {
+                worker.execute(this::sync);
+            } catch (RejectedExecutionException e) {
+                syncPending.set(false);
+            }
+        }
+    }
+
+    // Indexes photos of reports this client has not seen yet and drops deleted reports. The
+    // listing is a VersionedCache snapshot, so an unchanged one costs a primary key lookup.
+    private void sync() {
+        syncPending.set(false);
+        Map<Integer, ReportImage> listing;
+        try (Connection conn = RoutingDataSource.readConnection(dataSource)) {
+            listing = listingCache.get(conn, ImageSimilarityService::readReportImages);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not read report photos for the image index: {0}", e.getMessage());
+            return;
+        }
+        if (listing == syncedListing) {
+            return;
+        }
+        int added = 0;
+        for (Map.Entry<Integer, ReportImage> entry : listing.entrySet()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (!entry.getValue().path.equals(indexedPaths.get(entry.getKey()))) {
+                index(entry.getKey(), entry.getValue());
+                added++;
+            }
+        }
+        List<Integer> stale = new ArrayList<>(indexedPaths.keySet());
+        stale.removeAll(listing.keySet());
+        for (int reportId : stale) {
+            unindex(reportId);
+        }
+        if (lost.getRemovedShare() > MAX_REMOVED_SHARE) {
+            lost = lost.compacted();
+        }
+        if (found.getRemovedShare() > MAX_REMOVED_SHARE) {
+            found = found.compacted();
+        }
+        syncedListing = listing;
+        LOGGER.log(Level.INFO, "Image index synced: {0} lost and {1} found photos, {2} added, {3} removed",
+                new Object[]{lost.size(), found.size(), added, stale.size()});
+    }
+
+    private void index(int reportId, ReportImage image) {
+        indexedPaths.put(reportId, image.path);
+        lost.remove(reportId);
+        found.remove(reportId);
+        markDirty();
+        try {
+            BufferedImage photo = ImageIO.read(locator.locate(image.path));
+            if (photo == null) {
+                throw new IOException("Unsupported image format");
+            }
+            (image.lost ? lost : found).add(reportId, ImageFeatures.extract(photo));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not read photo {0} of report {1}: {2}",
+                    new Object[]{image.path, reportId, e.getMessage()});
+        }
+    }
+
+    private void unindex(int reportId) {
+        if (indexedPaths.remove(reportId) != null) {
+            lost.remove(reportId);
+            found.remove(reportId);
+            markDirty();
+        }
+    }
+
+    private void markDirty() {
+        dirty = true;
+        if (savePending.compareAndSet(false, true)) {
+            worker.schedule(this::save, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void load() {
+        if (!indexFile.isFile()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != FILE_FORMAT) {
+                LOGGER.log(Level.WARNING, "Ignoring image index {0} in an old format", indexFile);
+                return;
+            }
+            int count = in.readInt();
+            Map<Integer, String> paths = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                paths.put(in.readInt(), in.readUTF());
+            }
+            HnswIndex loadedLost = HnswIndex.read(in);
+            HnswIndex loadedFound = HnswIndex.read(in);
+            indexedPaths.putAll(paths);
+            lost = loadedLost;
+            found = loadedFound;
+            LOGGER.log(Level.INFO, "Loaded image index with {0} lost and {1} found photos",
+                    new Object[]{lost.size(), found.size()});
+        } catch (IOException e) {
+            // The file only saves work; the sync rebuilds whatever is missing.
+            LOGGER.log(Level.WARNING, "Could not load image index " + indexFile + "; rebuilding it", e);
+        }
+    }
+
+    // Written to a temporary file and moved into place, so a crash never leaves half an index.
+    private void save() {
+        savePending.set(false);
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        File directory = indexFile.getAbsoluteFile().getParentFile();
+        try {
+            Files.createDirectories(directory.toPath());
+            File temporary = File.createTempFile("features", ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temporary)))) {
+                out.writeInt(FILE_FORMAT);
+                Map<Integer, String> paths = new HashMap<>(indexedPaths);
+                out.writeInt(paths.size());
+                for (Map.Entry<Integer, String> entry : paths.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeUTF(entry.getValue());
+                }
+                lost.write(out);
+                found.write(out);
+            }
+            Files.move(temporary.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.log(Level.INFO, "Saved image index to {0}", indexFile);
+        } catch (IOException e) {
+            dirty = true;
+            LOGGER.log(Level.WARNING, "Could not save image index " + indexFile, e);
+        }
+    }
+
+    // Reads from a replica; a report too new to have reached it yet is read from the primary.
+    private ReportImage readReportImage(int reportId) throws SQLException {
+        ReportImage image;
+        try (Connection conn = RoutingDataSource.readConnection(dataSource)) {
+            image = readReportImage(conn, reportId);
+        }
+        if (image == null && dataSource instanceof RoutingDataSource) {
+            try (Connection conn = dataSource.getConnection()) {
+                image = readReportImage(conn, reportId);
+            }
+        }
+        return image;
+    }
+
+    private static ReportImage readReportImage(Connection conn, int reportId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(REPORT_IMAGE_QUERY)) {
+            stmt.setInt(1, reportId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? new ReportImage(rs.getString("Report_Type"), rs.getString("image_path")) : null;
+            }
+        }
+    }
+
+    private static Map<Integer, ReportImage> readReportImages(Connection conn) throws SQLException {
+        Map<Integer, ReportImage> images = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(REPORT_IMAGES_QUERY);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                images.put(rs.getInt("Report_ID"), new ReportImage(rs.getString("Report_Type"),
+                        rs.getString("image_path")));
+            }
+        }
+        return images;
+    }
+
+    private static final class ReportImage {
+        private final boolean lost;
+        private final String path;
+
+        private ReportImage(String reportType, String path) {
+            this.lost = "Lost".equalsIgnoreCase(reportType);
+            this.path = path;
+        }
+    }
+}
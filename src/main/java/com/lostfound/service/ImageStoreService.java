@@ -0,0 +1,224 @@
+package com.lostfound.service;
+
+// Stores uploaded photos once per distinct content and removes those no report uses any more.
+import com.lostfound.image.BlobStore;
+import com.lostfound.model.StoredImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+public class ImageStoreService {
+    private static final Logger LOGGER = Logger.getLogger(ImageStoreService.class.getName());
+
+    // Refreshing Last_Stored_At on a repeat upload restarts the grace period garbage collection
+    // gives a photo between its upload and the report row that points at it.
+    private static final String UPSERT_BLOB = "INSERT INTO image_blob (Content_Key, Path, Size) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE Last_Stored_At = CURRENT_TIMESTAMP";
+    private static final String RECOUNT_REFERENCES = """
+            UPDATE image_blob b
+            SET b.Ref_Count = (SELECT COUNT(*) FROM lost_item l WHERE l.Image_Key = b.Content_Key)
+                            + (SELECT COUNT(*) FROM found_item f WHERE f.Image_Key = b.Content_Key)""";
+    private static final String UNUSED_QUERY =
+            "SELECT Content_Key FROM image_blob WHERE Ref_Count = 0 AND Last_Stored_At < ?";
+    private static final String LOCK_UNUSED = "SELECT Path FROM image_blob "
+            + "WHERE Content_Key = ? AND Ref_Count = 0 AND Last_Stored_At < ? FOR UPDATE";
+    private static final String DELETE_BLOB = "DELETE FROM image_blob WHERE Content_Key = ?";
+    private static final String DELETE_RENDITIONS = "DELETE FROM image_rendition WHERE Source_Path = ?";
+    private static final String INSERT_PENDING = "INSERT IGNORE INTO image_blob_deleted (Content_Key) VALUES (?)";
+    private static final String PENDING_QUERY = "SELECT Content_Key FROM image_blob_deleted ORDER BY Deleted_At";
+    private static final String DELETE_PENDING = "DELETE FROM image_blob_deleted WHERE Content_Key = ?";
+    // Locks the key whether or not a row exists; for a missing row InnoDB locks the gap, which
+    // holds off an upload inserting the key again until the files are gone.
+    private static final String LOCK_KEY = "SELECT Content_Key FROM image_blob WHERE Content_Key = ? FOR UPDATE";
+
+    private final DataSource dataSource;
+    private final BlobStore blobStore;
+
+    public ImageStoreService(DataSource dataSource, BlobStore blobStore) {
+        this.dataSource = dataSource;
+        this.blobStore = blobStore;
+    }
+
+    // Stores the photo unless the same bytes are stored already, and returns the path and
+    // content key the report rows should record. The blob row is written before the file is
+    // published, so garbage collection, which deletes the file while holding a lock on that
+    // key, cannot remove a blob an upload has just reused.
+    public StoredImage store(File upload) throws IOException, SQLException {
+        BlobStore.StagedBlob staged;
+        try (InputStream in = Files.newInputStream(upload.toPath())) {
+            staged = blobStore.stage(in);
+        }
+        String contentKey = staged.getContentKey();
+        String path = blobStore.file(contentKey).getPath();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPSERT_BLOB)) {
+            stmt.setString(1, contentKey);
+            stmt.setString(2, path);
+            stmt.setLong(3, staged.getSize());
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            blobStore.discard(staged);
+            LOGGER.log(Level.SEVERE, "Error recording image blob {0}: {1}", new Object[]{contentKey, e.getMessage()});
+            throw e;
+        }
+        boolean stored = blobStore.publish(staged);
+        LOGGER.log(Level.INFO, "{0} image {1} ({2} bytes)",
+                new Object[]{stored ? "Stored" : "Reused stored", contentKey, staged.getSize()});
+        return new StoredImage(contentKey, path, staged.getSize(), !stored);
+    }
+
+    // Recounts references, then deletes the blobs no row has used for at least graceMillis
+    // along with their renditions. Returns how many were deleted. Files a previous run could
+    // not delete are retried first.
+    public int collectGarbage(long graceMillis) throws SQLException {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - graceMillis);
+        List<String> unused = new ArrayList<>();
+        List<String> pending = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(PENDING_QUERY);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    pending.add(rs.getString("Content_Key"));
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(RECOUNT_REFERENCES)) {
+                int corrected = stmt.executeUpdate();
+                LOGGER.log(Level.FINE, "Recounted image references, {0} counts changed", corrected);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(UNUSED_QUERY)) {
+                stmt.setTimestamp(1, cutoff);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        unused.add(rs.getString("Content_Key"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding unused image blobs: {0}", e.getMessage());
+            throw e;
+        }
+        if (!pending.isEmpty()) {
+            LOGGER.log(Level.INFO, "Retrying file deletion for {0} image blobs", pending.size());
+        }
+        int deleted = 0;
+        for (String contentKey : unused) {
+            if (deleteIfUnused(contentKey, cutoff)) {
+                pending.add(contentKey);
+                deleted++;
+            }
+        }
+        int failed = 0;
+        for (String contentKey : pending) {
+            if (!deleteFiles(contentKey)) {
+                failed++;
+            }
+        }
+        LOGGER.log(Level.INFO, "Image garbage collection deleted {0} of {1} unused blobs; {2} file deletions left to retry",
+                new Object[]{deleted, unused.size(), failed});
+        return deleted;
+    }
+
+    // Deletes the blob's rows and records it in image_blob_deleted, in one transaction; the files
+    // go afterwards in deleteFiles, so a failed commit never leaves rows pointing at missing
+    // bytes. The foreign keys from lost_item and found_item refuse the delete if a row started
+    // using the blob after the recount.
+    private boolean deleteIfUnused(String contentKey, Timestamp cutoff) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                String path;
+                try (PreparedStatement stmt = conn.prepareStatement(LOCK_UNUSED)) {
+                    stmt.setString(1, contentKey);
+                    stmt.setTimestamp(2, cutoff);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return false;
+                        }
+                        path = rs.getString("Path");
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(DELETE_BLOB)) {
+                    stmt.setString(1, contentKey);
+                    stmt.executeUpdate();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(DELETE_RENDITIONS)) {
+                    stmt.setString(1, path);
+                    stmt.executeUpdate();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_PENDING)) {
+                    stmt.setString(1, contentKey);
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                conn.rollback();
+                LOGGER.log(Level.FINE, "Image blob {0} is in use again, keeping it", contentKey);
+                return false;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error deleting image blob {0}: {1}", new Object[]{contentKey, e.getMessage()});
+            throw e;
+        }
+    }
+
+    // Deletes the files of a blob whose row is gone, holding the key locked so an upload of the
+    // same bytes waits and then finds the file missing and publishes it again. A blob uploaded
+    // again since its row was deleted keeps its files. Returns false when the files could not be
+    // deleted; the image_blob_deleted row stays for the next run.
+    private boolean deleteFiles(String contentKey) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                boolean storedAgain;
+                try (PreparedStatement stmt = conn.prepareStatement(LOCK_KEY)) {
+                    stmt.setString(1, contentKey);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        storedAgain = rs.next();
+                    }
+                }
+                if (!storedAgain) {
+                    blobStore.delete(contentKey);
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(DELETE_PENDING)) {
+                    stmt.setString(1, contentKey);
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+                return true;
+            } catch (IOException e) {
+                conn.rollback();
+                LOGGER.log(Level.WARNING, "Could not delete image blob {0}; will retry: {1}",
+                        new Object[]{contentKey, e.getMessage()});
+                return false;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error deleting files of image blob {0}: {1}",
+                    new Object[]{contentKey, e.getMessage()});
+            throw e;
+        }
+    }
+}
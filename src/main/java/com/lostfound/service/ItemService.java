@@ -1,22 +1,33 @@
 package com.lostfound.service;
 
 // Service layer for managing item operations.
-import com.lostfound.config.DBConnection;
+import com.lostfound.config.RoutingDataSource;
+import com.lostfound.dao.InClause;
 import com.lostfound.model.Item;
 import java.sql.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
+import javax.sql.DataSource;
 
 public class ItemService {
     private static final Logger LOGGER = Logger.getLogger(ItemService.class.getName());
 
-    public ItemService() throws SQLException {
+    private final DataSource dataSource;
+    private final EntityCache<Integer, Item> cache;
+
+    public ItemService(DataSource dataSource, EntityCache<Integer, Item> cache) {
+        this.dataSource = dataSource;
+        this.cache = cache;
         LOGGER.log(Level.INFO, "Initializing ItemService");
     }
 
     public int createItem(Item item) throws SQLException {
         LOGGER.log(Level.INFO, "Creating item: {0}", item.getName());
-        try (Connection conn = DBConnection.getConnection()) {
+        try (Connection conn = dataSource.getConnection()) {
             String sql = "INSERT INTO item (Name, Description, Category, User_ID, Status, Date) VALUES (?, ?, ?, ?, ?, ?)";
             try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
                 stmt.setString(1, item.getName());
@@ -30,6 +41,7 @@ public class ItemService {
                     try (ResultSet rs = stmt.getGeneratedKeys()) {
                         if (rs.next()) {
                             int itemId = rs.getInt(1);
+                            cache.invalidate(itemId);
                             LOGGER.log(Level.INFO, "Created item with ID: {0}", itemId);
                             return itemId;
                         }
@@ -42,8 +54,12 @@ public class ItemService {
     }
 
     public Item getItemById(int itemId) throws SQLException {
+        return cache.get(itemId, this::fetchItemById);
+    }
+
+    private Item fetchItemById(int itemId) throws SQLException {
         LOGGER.log(Level.INFO, "Fetching item with ID: {0}", itemId);
-        try (Connection conn = DBConnection.getConnection()) {
+        try (Connection conn = RoutingDataSource.readConnection(dataSource)) {
             String sql = "SELECT Item_ID, Name, Description, Category, User_ID, Status, Date FROM item WHERE Item_ID = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, itemId);
@@ -65,4 +81,52 @@ public class ItemService {
         LOGGER.log(Level.WARNING, "Item not found for ID: {0}", itemId);
         return null;
     }
+
+    // Multi-get keyed by item ID; IDs with no item are absent from the map. Cached items are
+    // served directly; the rest cost one round trip per InClause.MAX_CHUNK_SIZE distinct IDs.
+    public Map<Integer, Item> getItemsByIds(Collection<Integer> itemIds) throws SQLException {
+        return cache.getAll(itemIds, this::fetchItemsByIds);
+    }
+
+    private Map<Integer, Item> fetchItemsByIds(Collection<Integer> itemIds) throws SQLException {
+        Map<Integer, Item> items = new HashMap<>();
+        List<List<Integer>> chunks = InClause.chunks(itemIds);
+        if (chunks.isEmpty()) {
+            return items;
+        }
+        try (Connection conn = RoutingDataSource.readConnection(dataSource)) {
+            for (List<Integer> chunk : chunks) {
+                String sql = "SELECT Item_ID, Name, Description, Category, User_ID, Status, Date FROM item WHERE Item_ID IN ("
+                        + InClause.placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InClause.bind(stmt, 1, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Item item = new Item(
+                                    rs.getInt("Item_ID"),
+                                    rs.getString("Name"),
+                                    rs.getString("Description"),
+                                    rs.getString("Category"),
+                                    rs.getInt("User_ID"),
+                                    rs.getString("Status"),
+                                    rs.getTimestamp("Date")
+                            );
+                            items.put(item.getItemId(), item);
+                        }
+                    }
+                }
+            }
+        }
+        LOGGER.log(Level.INFO, "Fetched {0} items in {1} queries", new Object[]{items.size(), chunks.size()});
+        return items;
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    // Batches getItemById-style lookups for one unit of work into getItemsByIds calls.
+    public BatchLoader<Integer, Item> newItemLoader() {
+        return new BatchLoader<>(this::getItemsByIds, InClause.MAX_CHUNK_SIZE);
+    }
 }
\ No newline at end of file
@@ -8,24 +8,21 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class LostItemService {
-    private LostItemDAO lostItemDAO;
+    private final LostItemDAO lostItemDAO;
+    private final EntityCache<Integer, LostItem> cache;
     private static final Logger LOGGER = Logger.getLogger(LostItemService.class.getName());
 
-    public LostItemService() throws SQLException {
+    public LostItemService(LostItemDAO lostItemDAO, EntityCache<Integer, LostItem> cache) {
         LOGGER.log(Level.INFO, "Initializing LostItemService");
-        try {
-            lostItemDAO = new LostItemDAO();
-            LOGGER.log(Level.INFO, "LostItemDAO initialized successfully");
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Failed to initialize LostItemDAO", e);
-            throw new SQLException("LostItemService initialization failed: " + e.getMessage(), e);
-        }
+        this.lostItemDAO = lostItemDAO;
+        this.cache = cache;
     }
 
     public boolean createLostItem(LostItem lostItem) throws SQLException {
         LOGGER.log(Level.INFO, "Creating lost item for itemId: {0}", lostItem.getItemId());
         try {
             boolean success = lostItemDAO.createLostItem(lostItem);
+            cache.invalidate(lostItem.getItemId());
             if (success) {
                 LOGGER.log(Level.INFO, "Successfully created lost item for itemId: {0}", lostItem.getItemId());
             } else {
@@ -40,6 +37,10 @@ public class LostItemService {
 
     public LostItem getLostItemDetails(int itemId) throws SQLException {
         LOGGER.log(Level.INFO, "Fetching lost item details for itemId: {0}", itemId);
-        return lostItemDAO.getLostItemById(itemId);
+        return cache.get(itemId, lostItemDAO::getLostItemById);
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
     }
 }
\ No newline at end of file
@@ -0,0 +1,319 @@
+package com.lostfound.service;
+
+// Background job that keeps the match_candidate table current as reports are added and changed.
+import com.lostfound.config.ConnectionPool;
+import com.lostfound.model.MatchCandidate;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+public class MatchJob implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(MatchJob.class.getName());
+    private static final String JOB_NAME = "matching";
+    // SQLSTATE for "table doesn't exist": the schema predates the matching tables.
+    private static final String TABLE_NOT_FOUND_STATE = "42S02";
+    // Matches stored per report.
+    public static final int TOP_K = 10;
+    // A new or changed report may now belong in the top K of its own best counterparts, so this
+    // many of them are re-matched along with it.
+    private static final int REVERSE_FANOUT = 20;
+    // Reports taken from the watermark and from the change queue per run.
+    private static final int BATCH_SIZE = 50;
+    // Pause between runs: short while there is a backlog, longer once caught up.
+    private static final long BACKLOG_DELAY_MS = 1000L;
+    private static final long IDLE_DELAY_MS = 15000L;
+    // Runs are put off while interactive work holds more than this share of the pool.
+    private static final double MAX_POOL_SHARE = 0.5;
+    // Every client starts the job, but only the holder of the match_job lease runs it. The
+    // holder renews the lease each tick; if it goes away, another client takes over once the
+    // lease has run out.
+    private static final int LEASE_SECONDS = 60;
+
+    private static final String WATERMARK_QUERY = "SELECT Watermark FROM match_job WHERE Name = ?";
+    private static final String NEW_REPORTS_QUERY =
+            "SELECT Report_ID FROM reports WHERE Report_ID > ? ORDER BY Report_ID LIMIT ?";
+    private static final String CHANGED_REPORTS_QUERY =
+            "SELECT Report_ID, Changed_At FROM match_dirty ORDER BY Changed_At LIMIT ?";
+    private static final String DELETE_MATCHES = "DELETE FROM match_candidate WHERE Report_ID = ?";
+    // IGNORE skips candidates deleted since they were scored instead of failing the batch.
+    private static final String INSERT_MATCH = "INSERT IGNORE INTO match_candidate (Report_ID, "
+            + "Candidate_Report_ID, Score, Text_Score, Category_Score, Location_Score, Date_Score) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // Only clears a queue entry that did not change again while the batch was being scored.
+    private static final String CLEAR_CHANGED = "DELETE FROM match_dirty WHERE Report_ID = ? AND Changed_At = ?";
+    private static final String ACQUIRE_LEASE = """
+            UPDATE match_job
+            SET Lease_Owner = ?, Lease_Until = CURRENT_TIMESTAMP(6) + INTERVAL ? SECOND
+            WHERE Name = ? AND (Lease_Owner = ? OR Lease_Until IS NULL OR Lease_Until < CURRENT_TIMESTAMP(6))""";
+    private static final String RELEASE_LEASE =
+            "UPDATE match_job SET Lease_Owner = NULL, Lease_Until = NULL WHERE Name = ? AND Lease_Owner = ?";
+    // New reports missing from the listing are queued for one more try instead of holding up
+    // the watermark.
+    private static final String QUEUE_CHANGED = "INSERT INTO match_dirty (Report_ID) VALUES (?) "
+            + "ON DUPLICATE KEY UPDATE Changed_At = CURRENT_TIMESTAMP(6)";
+    private static final String ADVANCE_WATERMARK =
+            "UPDATE match_job SET Watermark = GREATEST(Watermark, ?) WHERE Name = ?";
+
+    private final DataSource dataSource;
+    private final MatchService matchService;
+    private final ScheduledExecutorService scheduler;
+    private final String leaseOwner = UUID.randomUUID().toString();
+    private volatile boolean closed;
+    private boolean leaseHeld;
+
+    public MatchJob(DataSource dataSource, MatchService matchService) {
+        this.dataSource = dataSource;
+        this.matchService = matchService;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "match-job");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    public void start() {
+        schedule(IDLE_DELAY_MS);
+        LOGGER.log(Level.INFO, "Match job started");
+    }
+
+    // Matches one batch and returns how many reports it took. All progress is kept in the
+    // database and moves in the same transaction as the results, and results replace earlier
+    // ones, so a run cut short at any point is simply repeated.
+    public int runOnce() throws SQLException {
+        int watermark;
+        List<Integer> newReports;
+        Map<Integer, Timestamp> changedReports;
+        try (Connection conn = dataSource.getConnection()) {
+            watermark = readWatermark(conn);
+            newReports = readNewReports(conn, watermark);
+            changedReports = readChangedReports(conn);
+        }
+        if (newReports.isEmpty() && changedReports.isEmpty()) {
+            return 0;
+        }
+
+        // Scored with no connection held.
+        Map<Integer, List<MatchCandidate>> scored = matchService.findMatches(newReports, REVERSE_FANOUT);
+        int newWatermark = newReports.isEmpty() ? watermark : newReports.get(newReports.size() - 1);
+        // A report the listing does not show, such as one still replicating or one whose item
+        // or user row is missing, goes to the change queue so it gets another try; holding the
+        // watermark for it would stall matching for every later report.
+        List<Integer> missing = new ArrayList<>();
+        for (int reportId : newReports) {
+            if (!scored.containsKey(reportId)) {
+                missing.add(reportId);
+            }
+        }
+        int newCount = scored.size();
+        scored.putAll(matchService.findMatches(changedReports.keySet(), REVERSE_FANOUT));
+        Map<Integer, List<MatchCandidate>> results = new LinkedHashMap<>();
+        Set<Integer> counterparts = new LinkedHashSet<>();
+        for (Map.Entry<Integer, List<MatchCandidate>> entry : scored.entrySet()) {
+            List<MatchCandidate> matches = entry.getValue();
+            results.put(entry.getKey(), matches.subList(0, Math.min(TOP_K, matches.size())));
+            for (MatchCandidate match : matches) {
+                counterparts.add(match.getCandidateId());
+            }
+        }
+        // Changed reports that left the listing, or are no longer lost or found, keep no matches.
+        for (int reportId : changedReports.keySet()) {
+            results.putIfAbsent(reportId, List.of());
+        }
+        counterparts.removeAll(results.keySet());
+        results.putAll(matchService.findMatches(counterparts, TOP_K));
+
+        store(results, changedReports, missing, newWatermark);
+        LOGGER.log(Level.INFO, "Matched {0} new and {1} changed reports, {2} stored, {3} requeued; watermark {4}",
+                new Object[]{newCount, changedReports.size(), results.size(), missing.size(), newWatermark});
+        return newReports.size() + changedReports.size();
+    }
+
+    // Hands the lease back so another client can take over without waiting for it to expire.
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (leaseHeld) {
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(RELEASE_LEASE)) {
+                stmt.setString(1, JOB_NAME);
+                stmt.setString(2, leaseOwner);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Could not release the match job lease: {0}", e.getMessage());
+            }
+        }
+        LOGGER.log(Level.INFO, "Match job stopped");
+    }
+
+    private void schedule(long delayMillis) {
+        if (!closed) {
+            scheduler.schedule(this::tick, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void tick() {
+        long delay = IDLE_DELAY_MS;
+        try {
+            if (poolIsBusy()) {
+                LOGGER.log(Level.FINE, "Match job deferred; the connection pool is busy");
+            } else if (!acquireLease()) {
+                LOGGER.log(Level.FINE, "Match job is running in another client");
+            } else if (runOnce() > 0) {
+                delay = BACKLOG_DELAY_MS;
+            }
+        } catch (SQLException e) {
+            if (TABLE_NOT_FOUND_STATE.equals(e.getSQLState())) {
+                LOGGER.log(Level.WARNING, "Matching tables are missing; match job stopped: {0}", e.getMessage());
+                return;
+            }
+            LOGGER.log(Level.WARNING, "Match job run failed; will retry: {0}", e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Match job run failed; will retry", e);
+        }
+        schedule(delay);
+    }
+
+    // Takes or renews the lease; false while another client holds it.
+    private boolean acquireLease() throws SQLException {
+        boolean held;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ACQUIRE_LEASE)) {
+            stmt.setString(1, leaseOwner);
+            stmt.setInt(2, LEASE_SECONDS);
+            stmt.setString(3, JOB_NAME);
+            stmt.setString(4, leaseOwner);
+            held = stmt.executeUpdate() > 0;
+        }
+        if (held != leaseHeld) {
+            LOGGER.log(Level.INFO, held ? "Match job lease acquired" : "Match job lease lost");
+            leaseHeld = held;
+        }
+        return held;
+    }
+
+    private boolean poolIsBusy() throws SQLException {
+        if (!dataSource.isWrapperFor(ConnectionPool.class)) {
+            return false;
+        }
+        ConnectionPool pool = dataSource.unwrap(ConnectionPool.class);
+        return pool.getActiveConnections() > pool.getMaxSize() * MAX_POOL_SHARE;
+    }
+
+    private static int readWatermark(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(WATERMARK_QUERY)) {
+            stmt.setString(1, JOB_NAME);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static List<Integer> readNewReports(Connection conn, int watermark) throws SQLException {
+        List<Integer> reportIds = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(NEW_REPORTS_QUERY)) {
+            stmt.setInt(1, watermark);
+            stmt.setInt(2, BATCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reportIds.add(rs.getInt(1));
+                }
+            }
+        }
+        return reportIds;
+    }
+
+    private static Map<Integer, Timestamp> readChangedReports(Connection conn) throws SQLException {
+        Map<Integer, Timestamp> changed = new LinkedHashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(CHANGED_REPORTS_QUERY)) {
+            stmt.setInt(1, BATCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    changed.put(rs.getInt("Report_ID"), rs.getTimestamp("Changed_At"));
+                }
+            }
+        }
+        return changed;
+    }
+
+    private void store(Map<Integer, List<MatchCandidate>> results, Map<Integer, Timestamp> changedReports,
+                       List<Integer> requeued, int watermark) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement delete = conn.prepareStatement(DELETE_MATCHES);
+                     PreparedStatement insert = conn.prepareStatement(INSERT_MATCH)) {
+                    for (Map.Entry<Integer, List<MatchCandidate>> entry : results.entrySet()) {
+                        delete.setInt(1, entry.getKey());
+                        delete.addBatch();
+                        for (MatchCandidate match : entry.getValue()) {
+                            insert.setInt(1, match.getReportId());
+                            insert.setInt(2, match.getCandidateId());
+                            insert.setDouble(3, match.getScore());
+                            insert.setDouble(4, match.getTextScore());
+                            insert.setDouble(5, match.getCategoryScore());
+                            insert.setDouble(6, match.getLocationScore());
+                            insert.setDouble(7, match.getDateScore());
+                            insert.addBatch();
+                        }
+                    }
+                    delete.executeBatch();
+                    insert.executeBatch();
+                }
+                try (PreparedStatement clear = conn.prepareStatement(CLEAR_CHANGED)) {
+                    for (Map.Entry<Integer, Timestamp> entry : changedReports.entrySet()) {
+                        clear.setInt(1, entry.getKey());
+                        clear.setTimestamp(2, entry.getValue());
+                        clear.addBatch();
+                    }
+                    clear.executeBatch();
+                }
+                try (PreparedStatement queue = conn.prepareStatement(QUEUE_CHANGED)) {
+                    for (int reportId : requeued) {
+                        queue.setInt(1, reportId);
+                        queue.addBatch();
+                    }
+                    queue.executeBatch();
+                }
+                try (PreparedStatement advance = conn.prepareStatement(ADVANCE_WATERMARK)) {
+                    advance.setInt(1, watermark);
+                    advance.setString(2, JOB_NAME);
+                    advance.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    LOGGER.log(Level.SEVERE, "Rollback failed", rollbackEx);
+                }
+                LOGGER.log(Level.SEVERE, "Error storing matches for {0} reports: {1}",
+                        new Object[]{results.size(), e.getMessage()});
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.lostfound.service;
+
+// Suggests found reports for a lost report and lost reports for a found one.
+import com.lostfound.config.RoutingDataSource;
+import com.lostfound.match.MatchIndex;
+import com.lostfound.model.MatchCandidate;
+import com.lostfound.model.ReportDetails;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+public class MatchService implements ReportChangeListener {
+    private static final Logger LOGGER = Logger.getLogger(MatchService.class.getName());
+
+    private static final String STORED_MATCHES_QUERY = "SELECT Report_ID, Candidate_Report_ID, Score, Text_Score, "
+            + "Category_Score, Location_Score, Date_Score FROM match_candidate WHERE Report_ID = ? "
+            + "ORDER BY Score DESC LIMIT ?";
+
+    private final DataSource dataSource;
+    private final ReportService reportService;
+    private final MatchIndex index = new MatchIndex();
+    // The report listing the index was last reconciled with; see ReportSearch.
+    private List<ReportDetails> syncedReports;
+
+    public MatchService(DataSource dataSource, ReportService reportService) {
+        this.dataSource = dataSource;
+        this.reportService = reportService;
+    }
+
+    // The best limit counterparts for the report, best first; empty for unknown reports.
+    public List<MatchCandidate> findMatches(int reportId, int limit) throws SQLException {
+        sync();
+        List<MatchCandidate> matches = index.topMatches(reportId, limit);
+        LOGGER.log(Level.FINE, "Found {0} match candidates for report {1}",
+                new Object[]{matches.size(), reportId});
+        return matches;
+    }
+
+    // Best matches for several reports against one sync of the listing. Reports that are not
+    // in the listing are absent from the map.
+    public Map<Integer, List<MatchCandidate>> findMatches(Collection<Integer> reportIds, int limit)
+            throws SQLException {
+        sync();
+        Map<Integer, List<MatchCandidate>> matches = new LinkedHashMap<>();
+        for (int reportId : reportIds) {
+            if (index.get(reportId) != null) {
+                matches.put(reportId, index.topMatches(reportId, limit));
+            }
+        }
+        return matches;
+    }
+
+    // Matches materialized by MatchJob, best first. A single indexed read, so screens can show
+    // them without waiting for the index to load; reports the job has not reached yet have none.
+    public List<MatchCandidate> getStoredMatches(int reportId, int limit) throws SQLException {
+        List<MatchCandidate> matches = new ArrayList<>();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
+             PreparedStatement stmt = conn.prepareStatement(STORED_MATCHES_QUERY)) {
+            stmt.setInt(1, reportId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    matches.add(new MatchCandidate(
+                            rs.getInt("Report_ID"),
+                            rs.getInt("Candidate_Report_ID"),
+                            rs.getDouble("Score"),
+                            rs.getDouble("Text_Score"),
+                            rs.getDouble("Category_Score"),
+                            rs.getDouble("Location_Score"),
+                            rs.getDouble("Date_Score")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error fetching stored matches for report {0}: {1}",
+                    new Object[]{reportId, e.getMessage()});
+            throw e;
+        }
+        return matches;
+    }
+
+    // The indexed copy of a report, as of the last sync.
+    public ReportDetails getReport(int reportId) throws SQLException {
+        sync();
+        return index.get(reportId);
+    }
+
+    @Override
+    public void reportCreated(int reportId) {
+        try {
+            ReportDetails report = reportService.getReportDetailsById(reportId);
+            if (report != null) {
+                index.add(report);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not index new report " + reportId
+                    + " for matching; it will be picked up on the next sync", e);
+        }
+    }
+
+    @Override
+    public void reportDeleted(int reportId) {
+        index.remove(reportId);
+    }
+
+    // Reconciles the index with the current report listing. Only reports whose matched fields
+    // changed are re-indexed.
+    private synchronized void sync() throws SQLException {
+        List<ReportDetails> reports = reportService.getAllReportsWithDetails();
+        if (reports == syncedReports) {
+            return;
+        }
+        Set<Integer> stale = index.getReportIds();
+        int updated = 0;
+        for (ReportDetails report : reports) {
+            stale.remove(report.getReportId());
+            ReportDetails indexed = index.get(report.getReportId());
+            if (indexed == null || !MatchIndex.sameMatchFields(indexed, report)) {
+                index.add(report);
+                updated++;
+            }
+        }
+        for (int reportId : stale) {
+            index.remove(reportId);
+        }
+        syncedReports = reports;
+        LOGGER.log(Level.INFO, "Match index synced: {0} reports, {1} updated, {2} removed",
+                new Object[]{index.size(), updated, stale.size()});
+    }
+}
@@ -0,0 +1,9 @@
+package com.lostfound.service;
+
+// Notified after ReportService commits a report write made by this client, on ReportService's
+// listener thread.
+public interface ReportChangeListener {
+    void reportCreated(int reportId);
+
+    void reportDeleted(int reportId);
+}
@@ -1,59 +1,136 @@
 package com.lostfound.service;
 
 // Service layer for managing report operations.
-import com.lostfound.config.DBConnection;
+import com.lostfound.config.RoutingDataSource;
+import com.lostfound.dao.InClause;
 import com.lostfound.model.Report;
+import com.lostfound.model.ReportCursor;
 import com.lostfound.model.ReportDetails;
+import com.lostfound.model.ReportFilter;
+import com.lostfound.model.ReportPage;
 import com.lostfound.model.User;
+import com.lostfound.model.UserReport;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
 
 public class ReportService {
     private static final Logger LOGGER = Logger.getLogger(ReportService.class.getName());
 
-    public ReportService() throws SQLException {
-        LOGGER.log(Level.INFO, "ReportService initialized");
-    }
-
-    public List<ReportDetails> getAllReportsWithDetails() throws SQLException {
-        List<ReportDetails> reports = new ArrayList<>();
-        String query = """
-            SELECT 
+    // Every report joined with its item, reporter and lost/found details.
+    private static final String REPORT_DETAILS_COLUMNS = """
                 r.report_id,
                 i.Name AS item_name,
+                i.Description AS description,
+                i.Category AS category,
                 u.name AS user_name,
                 u.contact AS user_contact,
                 r.report_date,
                 r.report_type AS status,
-                COALESCE(l.last_seen_location, f.found_location) AS location
+                COALESCE(l.last_seen_location, f.found_location) AS location,
+                f.storage_location
+            """;
+    private static final String REPORT_DETAILS_JOINS = """
             FROM lostfounddb.reports r
             JOIN item i ON r.item_id = i.item_id
             JOIN user u ON r.user_id = u.user_id
             LEFT JOIN lost_item l ON r.item_id = l.item_id AND r.report_type = 'lost'
             LEFT JOIN found_item f ON r.item_id = f.item_id AND r.report_type = 'found'
-        """;
+            """;
+    private static final String REPORT_DETAILS_QUERY = "SELECT" + REPORT_DETAILS_COLUMNS + REPORT_DETAILS_JOINS;
+
+    // Full-text relevance summed over the FULLTEXT indexes in lostfounddb.sql. Each MATCH takes
+    // the whole boolean-mode query; a null-extended lost/found row scores zero.
+    private static final String SEARCH_SCORE = """
+            COALESCE(MATCH(i.Name, i.Description) AGAINST (? IN BOOLEAN MODE), 0)
+                + COALESCE(MATCH(l.Last_Seen_Location) AGAINST (? IN BOOLEAN MODE), 0)
+                + COALESCE(MATCH(f.Found_Location) AGAINST (? IN BOOLEAN MODE), 0)
+                + COALESCE(MATCH(f.Storage_Location) AGAINST (? IN BOOLEAN MODE), 0)
+            """;
+    // Items mentioning one search word in any indexed column. Each branch is a standalone MATCH
+    // so MySQL answers it from the FULLTEXT index instead of evaluating it per joined row.
+    private static final String ITEMS_MATCHING_TERM = """
+            r.item_id IN (
+                SELECT Item_ID FROM item WHERE MATCH(Name, Description) AGAINST (? IN BOOLEAN MODE)
+                UNION SELECT Item_ID FROM lost_item WHERE MATCH(Last_Seen_Location) AGAINST (? IN BOOLEAN MODE)
+                UNION SELECT Item_ID FROM found_item WHERE MATCH(Found_Location) AGAINST (? IN BOOLEAN MODE)
+                UNION SELECT Item_ID FROM found_item WHERE MATCH(Storage_Location) AGAINST (? IN BOOLEAN MODE))
+            """;
+    private static final String ITEMS_NEAR_TERM = """
+            r.item_id IN (
+                SELECT Item_ID FROM lost_item WHERE MATCH(Last_Seen_Location) AGAINST (? IN BOOLEAN MODE)
+                UNION SELECT Item_ID FROM found_item WHERE MATCH(Found_Location) AGAINST (? IN BOOLEAN MODE))
+            """;
+    private static final Pattern OR_SEPARATOR = Pattern.compile("\\s+OR\\s+|\\|");
+    // Words InnoDB leaves out of FULLTEXT indexes: those shorter than innodb_ft_min_token_size
+    // (default 3) and its default stopwords. Required as search words they would match nothing,
+    // so they are dropped from the query.
+    private static final int MIN_TOKEN_SIZE = 3;
+    private static final Set<String> STOPWORDS = Set.of("a", "about", "an", "are", "as", "at", "be", "by",
+            "com", "de", "en", "for", "from", "how", "i", "in", "is", "it", "la", "of", "on", "or", "that",
+            "the", "this", "to", "was", "what", "when", "where", "who", "will", "with", "und", "www");
+    // Relevance is compared across pages, so it is fixed to this many decimals in SQL; exact
+    // equality on a recomputed double is not reliable.
+    private static final String SCORE_TYPE = "DECIMAL(20,6)";
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final DataSource dataSource;
+    private final UserService userService;
+    private final List<ReportChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Listeners run their own queries, so they are notified on this thread rather than the
+    // writer's, which is often the EDT. One thread keeps the events in commit order.
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "report-listeners");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Report listing keyed on the data_version counters of the tables it joins (see lostfounddb.sql).
+    private final VersionedCache<List<ReportDetails>> reportDetailsCache =
+            new VersionedCache<>("reports", "item", "lost_item", "found_item", "user");
+
+    public ReportService(DataSource dataSource, UserService userService) {
+        this.dataSource = dataSource;
+        this.userService = userService;
+        LOGGER.log(Level.INFO, "ReportService initialized");
+    }
+
+    // Served from a snapshot while the data version is unchanged, so repeated opens and
+    // searches cost one primary key lookup instead of the full join. The list is immutable.
+    public List<ReportDetails> getAllReportsWithDetails() throws SQLException {
+        try (Connection conn = RoutingDataSource.readConnection(dataSource)) {
+            return reportDetailsCache.get(conn, this::queryAllReportsWithDetails);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error fetching reports with details: {0}", e.getMessage());
+            throw e;
+        }
+    }
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query);
+    private List<ReportDetails> queryAllReportsWithDetails(Connection conn) throws SQLException {
+        List<ReportDetails> reports = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(REPORT_DETAILS_QUERY);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                ReportDetails report = new ReportDetails(
-                        rs.getInt("report_id"),
-                        rs.getString("item_name"),
-                        rs.getString("user_name"),
-                        rs.getString("user_contact"),
-                        rs.getTimestamp("report_date"),
-                        rs.getString("status"),
-                        rs.getString("location")
-                );
+                ReportDetails report = mapReportDetails(rs);
                 reports.add(report);
                 LOGGER.log(Level.FINE, "Created ReportDetails: ID={0}, ItemName={1}, Status={2}, Location={3}, UserName={4}, UserContact={5}, Date={6}",
                         new Object[]{
@@ -66,19 +143,246 @@ public class ReportService {
                                 report.getReportDate()
                         });
             }
+        }
+
+        LOGGER.log(Level.INFO, "Fetched {0} reports with details", reports.size());
+        return List.copyOf(reports);
+    }
+
+    // One page of reports matching the query, searched by MySQL through FULLTEXT indexes so only
+    // the page crosses the network. Words are ANDed and matched as prefixes in the item name,
+    // description and locations, leaving out stopwords and words too short to be indexed; "OR"
+    // or "|" separates alternatives. A blank query lists every report passing the filters. Pages
+    // are ordered by relevance, then newest first; pass the previous page's cursor, or null for
+    // the first page.
+    public ReportPage searchReports(String query, ReportFilter filters, int limit, ReportCursor cursor)
+            throws SQLException {
+        List<List<String>> groups = parseSearchGroups(query);
+        ReportFilter filter = filters != null ? filters : ReportFilter.NONE;
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM (SELECT").append(REPORT_DETAILS_COLUMNS);
+        if (groups.isEmpty()) {
+            sql.append(", CAST(0 AS ").append(SCORE_TYPE).append(") AS score ");
+        } else {
+            String scoreQuery = String.join(" ", groups.stream().flatMap(List::stream).map(t -> t + "*").toList());
+            sql.append(", CAST(").append(SEARCH_SCORE).append(" AS ").append(SCORE_TYPE).append(") AS score ");
+            for (int i = 0; i < 4; i++) {
+                params.add(scoreQuery);
+            }
+        }
+        sql.append(REPORT_DETAILS_JOINS).append(" WHERE 1 = 1");
+        if (filter.getReportType() != null) {
+            sql.append(" AND r.report_type = ?");
+            params.add(filter.getReportType());
+        }
+        if (filter.getCategory() != null) {
+            sql.append(" AND i.Category = ?");
+            params.add(filter.getCategory());
+        }
+        if (filter.getAfter() != null) {
+            sql.append(" AND r.report_date >= ?");
+            params.add(filter.getAfter());
+        }
+        if (filter.getBefore() != null) {
+            sql.append(" AND r.report_date < ?");
+            params.add(filter.getBefore());
+        }
+        for (String term : filter.getNearTerms()) {
+            sql.append(" AND ").append(ITEMS_NEAR_TERM);
+            params.add(term + "*");
+            params.add(term + "*");
+        }
+        if (!groups.isEmpty()) {
+            sql.append(" AND (");
+            for (int g = 0; g < groups.size(); g++) {
+                sql.append(g == 0 ? "(" : " OR (");
+                for (int t = 0; t < groups.get(g).size(); t++) {
+                    sql.append(t == 0 ? "" : " AND ").append(ITEMS_MATCHING_TERM);
+                    for (int i = 0; i < 4; i++) {
+                        params.add(groups.get(g).get(t) + "*");
+                    }
+                }
+                sql.append(")");
+            }
+            sql.append(")");
+        }
+        sql.append(") t");
+        if (cursor != null) {
+            sql.append(" WHERE t.score < ? OR (t.score = ? AND (t.report_date < ?"
+                    + " OR (t.report_date = ? AND t.report_id < ?)))");
+            params.add(cursor.getScore());
+            params.add(cursor.getScore());
+            params.add(cursor.getReportDate());
+            params.add(cursor.getReportDate());
+            params.add(cursor.getReportId());
+        }
+        // One extra row tells whether another page exists.
+        sql.append(" ORDER BY t.score DESC, t.report_date DESC, t.report_id DESC LIMIT ?");
+        params.add(limit + 1);
+
+        List<ReportDetails> reports = new ArrayList<>();
+        ReportCursor next = null;
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                BigDecimal lastScore = null;
+                while (rs.next()) {
+                    if (reports.size() == limit) {
+                        ReportDetails last = reports.get(reports.size() - 1);
+                        next = new ReportCursor(lastScore, last.getReportDate(), last.getReportId());
+                        break;
+                    }
+                    reports.add(mapReportDetails(rs));
+                    lastScore = rs.getBigDecimal("score");
+                }
+            }
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error fetching reports with details: {0}", e.getMessage());
+            LOGGER.log(Level.SEVERE, "Error searching reports for query: {0}: {1}",
+                    new Object[]{query, e.getMessage()});
             throw e;
         }
+        LOGGER.log(Level.INFO, "Search {0} returned {1} reports, more: {2}",
+                new Object[]{query, reports.size(), next != null});
+        return new ReportPage(reports, next);
+    }
 
-        LOGGER.log(Level.INFO, "Fetched {0} reports with details", reports.size());
+    // Splits the query into OR groups of plain words. Everything but letters and digits is
+    // dropped, which also strips MySQL's boolean-mode operators from user input. Words the
+    // FULLTEXT index does not hold are left out. Only when no group has any other word are they
+    // kept, to match as prefixes of longer words.
+    private static List<List<String>> parseSearchGroups(String query) {
+        List<List<String>> groups = new ArrayList<>();
+        List<List<String>> unindexedGroups = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return groups;
+        }
+        for (String part : OR_SEPARATOR.split(query.trim())) {
+            List<String> terms = new ArrayList<>();
+            List<String> unindexed = new ArrayList<>();
+            for (String term : NON_WORD.split(part)) {
+                if (term.isEmpty() || "AND".equals(term)) {
+                    continue;
+                }
+                if (term.length() < MIN_TOKEN_SIZE || STOPWORDS.contains(term.toLowerCase(Locale.ROOT))) {
+                    unindexed.add(term);
+                } else {
+                    terms.add(term);
+                }
+            }
+            if (!terms.isEmpty()) {
+                groups.add(terms);
+            } else if (!unindexed.isEmpty()) {
+                unindexedGroups.add(unindexed);
+            }
+        }
+        return groups.isEmpty() ? unindexedGroups : groups;
+    }
+
+    public ReportDetails getReportDetailsById(int reportId) throws SQLException {
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
+             PreparedStatement stmt = conn.prepareStatement(REPORT_DETAILS_QUERY + " WHERE r.report_id = ?")) {
+            stmt.setInt(1, reportId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapReportDetails(rs);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error fetching report details for ID: {0}: {1}",
+                    new Object[]{reportId, e.getMessage()});
+            throw e;
+        }
+        LOGGER.log(Level.WARNING, "No report details found for ID: {0}", reportId);
+        return null;
+    }
+
+    // Multi-get keyed by report ID; IDs with no report are absent from the map.
+    public Map<Integer, ReportDetails> getReportDetailsByIds(Collection<Integer> reportIds) throws SQLException {
+        Map<Integer, ReportDetails> reports = new HashMap<>();
+        List<List<Integer>> chunks = InClause.chunks(reportIds);
+        if (chunks.isEmpty()) {
+            return reports;
+        }
+        try (Connection conn = RoutingDataSource.readConnection(dataSource)) {
+            for (List<Integer> chunk : chunks) {
+                String sql = REPORT_DETAILS_QUERY + " WHERE r.report_id IN (" + InClause.placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InClause.bind(stmt, 1, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            ReportDetails report = mapReportDetails(rs);
+                            reports.put(report.getReportId(), report);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error fetching report details for {0} IDs: {1}",
+                    new Object[]{reportIds.size(), e.getMessage()});
+            throw e;
+        }
         return reports;
     }
 
+    private static ReportDetails mapReportDetails(ResultSet rs) throws SQLException {
+        return new ReportDetails(
+                rs.getInt("report_id"),
+                rs.getString("item_name"),
+                rs.getString("user_name"),
+                rs.getString("user_contact"),
+                rs.getTimestamp("report_date"),
+                rs.getString("status"),
+                rs.getString("location"),
+                rs.getString("description"),
+                rs.getString("category"),
+                rs.getString("storage_location")
+        );
+    }
+
+    public void addChangeListener(ReportChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    private void fireReportCreated(int reportId) {
+        publish(() -> {
+            for (ReportChangeListener listener : listeners) {
+                try {
+                    listener.reportCreated(reportId);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Report listener failed for created report " + reportId, e);
+                }
+            }
+        });
+    }
+
+    private void fireReportDeleted(int reportId) {
+        publish(() -> {
+            for (ReportChangeListener listener : listeners) {
+                try {
+                    listener.reportDeleted(reportId);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Report listener failed for deleted report " + reportId, e);
+                }
+            }
+        });
+    }
+
+    // After close the event is dropped; listeners that keep state catch up on their next sync.
+    private void publish(Runnable event) {
+        try {
+            notifier.execute(event);
+        } catch (RejectedExecutionException e) {
+            LOGGER.log(Level.FINE, "Report event dropped after close");
+        }
+    }
+
     public boolean createReport(Report report) throws SQLException {
         String sql = "INSERT INTO lostfounddb.reports (user_id, item_id, report_type, report_date) VALUES (?, ?, ?, ?)";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setInt(1, report.getUserId());
             stmt.setInt(2, report.getItemId());
             stmt.setString(3, report.getReportType());
@@ -86,6 +390,14 @@ public class ReportService {
             int rows = stmt.executeUpdate();
             LOGGER.log(Level.INFO, "Created report for item_id: {0}, rows affected: {1}",
                     new Object[]{report.getItemId(), rows});
+            if (rows > 0) {
+                RoutingDataSource.pinToPrimary(dataSource);
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        fireReportCreated(keys.getInt(1));
+                    }
+                }
+            }
             return rows > 0;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error creating report for item_id: {0}: {1}",
@@ -95,7 +407,6 @@ public class ReportService {
     }
 
     public List<Report> getCurrentUserReports() throws SQLException, IOException {
-        UserService userService = new UserService();
         User currentUser = userService.getCurrentUser();
         if (currentUser == null) {
             LOGGER.log(Level.WARNING, "No current user found for getCurrentUserReports");
@@ -107,7 +418,7 @@ public class ReportService {
     public List<Report> getReportsByUserId(int userId) throws SQLException {
         List<Report> reports = new ArrayList<>();
         String sql = "SELECT report_id, user_id, item_id, report_type, report_date FROM lostfounddb.reports WHERE user_id = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, userId);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -134,10 +445,66 @@ public class ReportService {
         return reports;
     }
 
+    public List<UserReport> getCurrentUserReportsWithDetails() throws SQLException {
+        User currentUser = userService.getCurrentUser();
+        if (currentUser == null) {
+            LOGGER.log(Level.WARNING, "No current user found for getCurrentUserReportsWithDetails");
+            return new ArrayList<>();
+        }
+        return getUserReportsWithDetails(currentUser.getUserId());
+    }
+
+    // One round trip for the "My Reports" screen: each report joined with its item and the
+    // matching lost_item or found_item row. Reports whose item is gone are left out.
+    public List<UserReport> getUserReportsWithDetails(int userId) throws SQLException {
+        List<UserReport> reports = new ArrayList<>();
+        String sql = """
+            SELECT
+                r.report_id,
+                r.item_id,
+                i.Name AS item_name,
+                r.report_type,
+                r.report_date,
+                COALESCE(l.item_id, f.item_id) AS details_item_id,
+                COALESCE(l.last_seen_location, f.found_location) AS location
+            FROM lostfounddb.reports r
+            JOIN item i ON r.item_id = i.item_id
+            LEFT JOIN lost_item l ON r.item_id = l.item_id AND r.report_type = 'lost'
+            LEFT JOIN found_item f ON r.item_id = f.item_id AND r.report_type = 'found'
+            WHERE r.user_id = ?
+        """;
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rs.getInt("details_item_id");
+                    boolean hasDetails = !rs.wasNull();
+                    reports.add(new UserReport(
+                            rs.getInt("report_id"),
+                            rs.getInt("item_id"),
+                            rs.getString("item_name"),
+                            rs.getString("report_type"),
+                            rs.getTimestamp("report_date"),
+                            hasDetails,
+                            rs.getString("location")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error fetching reports with details for user_id: {0}: {1}",
+                    new Object[]{userId, e.getMessage()});
+            throw e;
+        }
+        LOGGER.log(Level.INFO, "Fetched {0} reports with details for user_id: {1}",
+                new Object[]{reports.size(), userId});
+        return reports;
+    }
+
     public List<Report> getAllReports() throws SQLException {
         List<Report> reports = new ArrayList<>();
         String sql = "SELECT report_id, user_id, item_id, report_type, report_date FROM lostfounddb.reports";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
@@ -161,12 +528,16 @@ public class ReportService {
 
     public boolean deleteReport(int reportId) throws SQLException {
         String sql = "DELETE FROM lostfounddb.reports WHERE report_id = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, reportId);
             int rows = stmt.executeUpdate();
             LOGGER.log(Level.INFO, "Deleted report ID: {0}, rows affected: {1}",
                     new Object[]{reportId, rows});
+            if (rows > 0) {
+                RoutingDataSource.pinToPrimary(dataSource);
+                fireReportDeleted(reportId);
+            }
             return rows > 0;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error deleting report ID: {0}: {1}",
@@ -177,7 +548,7 @@ public class ReportService {
 
     public Report getReportById(int reportId) throws SQLException {
         String sql = "SELECT report_id, user_id, item_id, report_type, report_date FROM lostfounddb.reports WHERE report_id = ?";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = RoutingDataSource.readConnection(dataSource);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, reportId);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -202,7 +573,17 @@ public class ReportService {
         return null;
     }
 
+    // Lets listeners finish the events already queued, up to a few seconds.
     public void close() {
-        LOGGER.log(Level.INFO, "ReportService closed");
+        notifier.shutdown();
+        try {
+            if (!notifier.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOGGER.log(Level.WARNING, "Report listeners still busy at close");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.log(Level.INFO, "ReportService closed (report snapshot hits={0}, refreshes={1})",
+                new Object[]{reportDetailsCache.getHits(), reportDetailsCache.getRefreshes()});
     }
 }
\ No newline at end of file
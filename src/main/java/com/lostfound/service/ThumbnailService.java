@@ -0,0 +1,167 @@
+package com.lostfound.service;
+
+// Loads report thumbnails on background threads and keeps the decoded images in a ThumbnailCache.
+import com.lostfound.image.ImageDecoder;
+import com.lostfound.image.ImageLocator;
+import com.lostfound.image.ImagePipeline;
+import com.lostfound.image.Rendition;
+import com.lostfound.image.ThumbnailCache;
+import com.lostfound.image.ThumbnailCacheStats;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.imageio.ImageIO;
+
+public class ThumbnailService implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ThumbnailService.class.getName());
+    // Two loaders, so one photo that still has to be decoded from the original does not hold
+    // up thumbnails that are ready.
+    private static final int LOADER_THREADS = 2;
+    // Read ahead of fetching an original: enough to tell its format, and all of a small photo.
+    private static final int HEADER_BYTES = 64 * 1024;
+
+    private final ImageRenditionService renditionService;
+    private final ImageLocator locator;
+    private final ThumbnailCache cache;
+    private final ExecutorService loader;
+    // Loads in progress by image path, so flipping back to a report that is still loading
+    // waits for the same decode instead of starting another.
+    private final Map<String, CompletableFuture<BufferedImage>> inFlight = new HashMap<>();
+
+    public ThumbnailService(ImageRenditionService renditionService, long maxCacheBytes) {
+        this(renditionService, ImageLocator.LOCAL_FILES, maxCacheBytes);
+    }
+
+    public ThumbnailService(ImageRenditionService renditionService, ImageLocator locator, long maxCacheBytes) {
+        this.renditionService = renditionService;
+        this.locator = locator;
+        this.cache = new ThumbnailCache(maxCacheBytes);
+        AtomicInteger counter = new AtomicInteger();
+        this.loader = Executors.newFixedThreadPool(LOADER_THREADS, r -> {
+            Thread thread = new Thread(r, "thumbnail-loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // The thumbnail of the photo at imagePath, completing with null when the photo file is gone.
+    // Prefers the stored thumbnail rendition and falls back to scaling the original. A cached
+    // thumbnail comes back as an already completed future, so callers on the EDT can show it
+    // without a placeholder.
+    public CompletableFuture<BufferedImage> load(String imagePath) {
+        BufferedImage cached = cache.get(imagePath);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        synchronized (inFlight) {
+            CompletableFuture<BufferedImage> pending = inFlight.get(imagePath);
+            if (pending != null) {
+                return pending;
+            }
+            CompletableFuture<BufferedImage> future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return read(imagePath);
+                } catch (IOException | SQLException e) {
+                    throw new CompletionException(e);
+                }
+            }, loader);
+            inFlight.put(imagePath, future);
+            future.whenComplete((image, error) -> {
+                synchronized (inFlight) {
+                    inFlight.remove(imagePath);
+                }
+            });
+            return future;
+        }
+    }
+
+    public void invalidate(String imagePath) {
+        cache.invalidate(imagePath);
+    }
+
+    public ThumbnailCacheStats getStats() {
+        return cache.getStats();
+    }
+
+    private BufferedImage read(String imagePath) throws IOException, SQLException {
+        long start = System.nanoTime();
+        BufferedImage thumbnail;
+        String thumbnailPath = renditionService.getRenditionPath(imagePath, Rendition.THUMBNAIL);
+        File thumbnailFile = thumbnailPath != null ? find(thumbnailPath) : null;
+        if (thumbnailFile != null && thumbnailFile.isFile()) {
+            thumbnail = decode(thumbnailFile);
+        } else {
+            // Not rendered yet: scale the original the same way the pipeline would, decoding only
+            // the pixels a thumbnail needs. A ranged read of its first bytes comes first, so a
+            // missing or undecodable photo is never fetched whole and a small one is decoded
+            // from those bytes alone.
+            byte[] header = readHeader(imagePath);
+            if (header == null) {
+                return null;
+            }
+            if (!ImageDecoder.isSupported(header)) {
+                throw new IOException("Unsupported image format: " + imagePath);
+            }
+            int size = Rendition.THUMBNAIL.getMaxSize();
+            BufferedImage original;
+            if (header.length < HEADER_BYTES) {
+                original = ImageDecoder.decodeToFit(header, size);
+            } else {
+                File imageFile = find(imagePath);
+                if (imageFile == null || !imageFile.isFile()) {
+                    return null;
+                }
+                original = ImageDecoder.decodeToFit(imageFile, size);
+            }
+            thumbnail = ImagePipeline.fit(original, size);
+        }
+        cache.put(imagePath, thumbnail);
+        LOGGER.log(Level.FINE, "Loaded thumbnail of {0} in {1} ms; {2}",
+                new Object[]{imagePath, (System.nanoTime() - start) / 1_000_000, cache.getStats()});
+        return thumbnail;
+    }
+
+    // Up to HEADER_BYTES from the start of the photo, or null when the store no longer has it.
+    private byte[] readHeader(String imagePath) throws IOException {
+        try (InputStream in = locator.openRange(imagePath, 0, HEADER_BYTES)) {
+            return in.readAllBytes();
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    // The local file for an image path, or null when the store no longer has it.
+    private File find(String path) throws IOException {
+        try {
+            return locator.locate(path);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static BufferedImage decode(File file) throws IOException {
+        BufferedImage image = ImageIO.read(file);
+        if (image == null) {
+            throw new IOException("Unsupported image format: " + file);
+        }
+        return image;
+    }
+
+    @Override
+    public void close() {
+        loader.shutdownNow();
+        LOGGER.log(Level.INFO, "Thumbnail cache {0}", cache.getStats());
+    }
+}
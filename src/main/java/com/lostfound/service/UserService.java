@@ -1,19 +1,24 @@
 package com.lostfound.service;
 
 // Service layer for managing user-related operations.
+import com.lostfound.dao.InClause;
 import com.lostfound.dao.UserDAO;
 import com.lostfound.model.User;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class UserService {
     private static final Logger LOGGER = Logger.getLogger(UserService.class.getName());
-    private UserDAO userDAO;
+    private final UserDAO userDAO;
+    private final EntityCache<Integer, User> cache;
 
-    public UserService() {
-        userDAO = new UserDAO();
+    public UserService(UserDAO userDAO, EntityCache<Integer, User> cache) {
+        this.userDAO = userDAO;
+        this.cache = cache;
         LOGGER.log(Level.INFO, "UserService initialized");
     }
 
@@ -42,7 +47,21 @@ public class UserService {
 
     public User getUserById(int userId) throws SQLException {
         LOGGER.log(Level.INFO, "Fetching user by userId: {0}", userId);
-        return userDAO.getUserById(userId);
+        return cache.get(userId, userDAO::getUserById);
+    }
+
+    public Map<Integer, User> getUsersByIds(Collection<Integer> userIds) throws SQLException {
+        LOGGER.log(Level.INFO, "Fetching {0} users by ID", userIds.size());
+        return cache.getAll(userIds, userDAO::getUsersByIds);
+    }
+
+    // Batches getUserById-style lookups for one unit of work into getUsersByIds calls.
+    public BatchLoader<Integer, User> newUserLoader() {
+        return new BatchLoader<>(this::getUsersByIds, InClause.MAX_CHUNK_SIZE);
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
     }
 
     public List<User> getAllUsers() throws SQLException {
@@ -54,7 +73,12 @@ public class UserService {
 
     public boolean updateUser(User user) throws SQLException {
         LOGGER.log(Level.INFO, "Updating user with userId: {0}", user.getUserId());
-        boolean success = userDAO.updateUser(user);
+        boolean success;
+        try {
+            success = userDAO.updateUser(user);
+        } finally {
+            cache.invalidate(user.getUserId());
+        }
         LOGGER.log(Level.INFO, "Update {0} for userId: {1}",
                 new Object[]{success ? "successful" : "failed", user.getUserId()});
         return success;
@@ -62,7 +86,12 @@ public class UserService {
 
     public boolean deleteUser(int userId) throws SQLException {
         LOGGER.log(Level.INFO, "Deleting user with userId: {0}", userId);
-        boolean success = userDAO.deleteUser(userId);
+        boolean success;
+        try {
+            success = userDAO.deleteUser(userId);
+        } finally {
+            cache.invalidate(userId);
+        }
         LOGGER.log(Level.INFO, "Deletion {0} for userId: {1}",
                 new Object[]{success ? "successful" : "failed", userId});
         return success;
@@ -71,6 +100,8 @@ public class UserService {
     public boolean registerUserWithRole(String name, String email, String password, String role, String contact) throws SQLException {
         LOGGER.log(Level.INFO, "Registering user with email: {0}", email);
         boolean success = userDAO.createUserWithRole(name, email, password, role, contact);
+        // The new ID is not returned, so drop everything rather than risk a cached "not found".
+        cache.invalidateAll();
         LOGGER.log(Level.INFO, "Registration {0} for email: {1}",
                 new Object[]{success ? "successful" : "failed", email});
         return success;
@@ -82,7 +113,11 @@ public class UserService {
             throw new SecurityException("Admin privileges required");
         }
         LOGGER.log(Level.INFO, "Updating role for userId: {0} to {1}", new Object[]{userId, newRole});
-        userDAO.updateUserRole(userId, newRole);
+        try {
+            userDAO.updateUserRole(userId, newRole);
+        } finally {
+            cache.invalidate(userId);
+        }
     }
 
     public boolean isAdmin() {
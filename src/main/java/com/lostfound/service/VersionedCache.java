@@ -0,0 +1,108 @@
+package com.lostfound.service;
+
+// Caches one query result tagged with the data_version counters that database triggers bump.
+import com.lostfound.dao.InClause;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class VersionedCache<T> {
+    private static final Logger LOGGER = Logger.getLogger(VersionedCache.class.getName());
+    // SQLSTATE for "table doesn't exist": the schema predates the data_version table.
+    private static final String TABLE_NOT_FOUND_STATE = "42S02";
+    // The sum over all slots of the named counters; every bump raises it.
+    private static final String VERSION_QUERY = "SELECT SUM(Version), COUNT(*) FROM data_version WHERE Name IN (";
+
+    @FunctionalInterface
+    public interface Query<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    private final List<String> tables;
+    private final String counterName;
+    private final String versionQuery;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private volatile Snapshot<T> snapshot;
+    private volatile boolean versioningAvailable = true;
+
+    // tables are the ones the cached query reads, each with its own data_version counter.
+    public VersionedCache(String... tables) {
+        this.tables = List.of(tables);
+        this.counterName = String.join("+", this.tables);
+        this.versionQuery = VERSION_QUERY + InClause.placeholders(tables.length) + ")";
+    }
+
+    // Returns the cached result if the counter has not moved since it was taken, otherwise
+    // reruns the query. The counter lives in the database, so writes made by other clients
+    // sharing it invalidate this cache too. The query should return an immutable value.
+    public T get(Connection conn, Query<T> query) throws SQLException {
+        if (!versioningAvailable) {
+            return query.run(conn);
+        }
+        Long version = readVersion(conn);
+        if (version == null) {
+            return query.run(conn);
+        }
+        Snapshot<T> current = snapshot;
+        if (current != null && current.version == version) {
+            hits.incrementAndGet();
+            return current.value;
+        }
+        // The version is read before the query, so a write that lands in between leaves this
+        // snapshot tagged as older than its data and the next call simply refreshes again.
+        T value = query.run(conn);
+        snapshot = new Snapshot<>(version, value);
+        refreshes.incrementAndGet();
+        LOGGER.log(Level.FINE, "Refreshed {0} snapshot at version {1}", new Object[]{counterName, version});
+        return value;
+    }
+
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    private Long readVersion(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(versionQuery)) {
+            for (int i = 0; i < tables.size(); i++) {
+                stmt.setString(i + 1, tables.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getInt(2) > 0) {
+                    return rs.getLong(1);
+                }
+            }
+            LOGGER.log(Level.WARNING, "No data_version rows for {0}; result caching disabled", counterName);
+        } catch (SQLException e) {
+            if (!TABLE_NOT_FOUND_STATE.equals(e.getSQLState())) {
+                throw e;
+            }
+            LOGGER.log(Level.WARNING, "data_version table missing; result caching disabled for {0}", counterName);
+        }
+        versioningAvailable = false;
+        return null;
+    }
+
+    private static final class Snapshot<T> {
+        private final long version;
+        private final T value;
+
+        private Snapshot(long version, T value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
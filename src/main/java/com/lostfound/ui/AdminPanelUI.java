@@ -1,6 +1,7 @@
 package com.lostfound.ui;
 
 // Admin Panel UI for managing users and reports.
+import com.lostfound.app.AppContext;
 import com.lostfound.model.User;
 import com.lostfound.service.UserService;
 import javax.swing.*;
@@ -14,6 +15,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class AdminPanelUI extends JFrame {
+    private final AppContext context;
     private JButton btnManageUsers, btnManageReports, btnViewReports, btnBack, btnLogout, btnClose;
     private UserService userService;
     private static final Logger LOGGER = Logger.getLogger(AdminPanelUI.class.getName());
@@ -23,7 +25,8 @@ public class AdminPanelUI extends JFrame {
     private static final Color TEXT_COLOR = new Color(240, 240, 240);
     private static final Color SECONDARY_TEXT = new Color(180, 180, 180);
 
-    public AdminPanelUI() throws IOException, SQLException {
+    public AdminPanelUI(AppContext context) throws IOException, SQLException {
+        this.context = context;
         setTitle("Admin Panel - Tracify");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(600, 500);
@@ -31,14 +34,14 @@ public class AdminPanelUI extends JFrame {
         setUndecorated(true);
         setShape(new RoundRectangle2D.Double(0, 0, getWidth(), getHeight(), 20, 20));
 
-        userService = new UserService();
+        userService = context.getUserService();
         User currentUser = userService.getCurrentUser();
         if (currentUser == null) {
             LOGGER.log(Level.WARNING, "No user logged in, redirecting to LoginUI");
             JOptionPane.showMessageDialog(this, "Please login first", "Error", JOptionPane.ERROR_MESSAGE);
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new LoginUI().setVisible(true);
+                    new LoginUI(context).setVisible(true);
                 } catch (SQLException ex) {
                     Logger.getLogger(AdminPanelUI.class.getName()).log(Level.SEVERE, null, ex);
                 }
@@ -52,7 +55,7 @@ public class AdminPanelUI extends JFrame {
                     "Error", JOptionPane.ERROR_MESSAGE);
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new UserPanelUI().setVisible(true);
+                    new UserPanelUI(context).setVisible(true);
                 } catch (SQLException ex) {
                     Logger.getLogger(AdminPanelUI.class.getName()).log(Level.SEVERE, null, ex);
                 }
@@ -146,7 +149,7 @@ public class AdminPanelUI extends JFrame {
             LOGGER.log(Level.INFO, "Opening ManageUsersUI");
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new ManageUsersUI().setVisible(true);
+                    new ManageUsersUI(context).setVisible(true);
                     dispose();
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening ManageUsersUI", ex);
@@ -160,7 +163,7 @@ public class AdminPanelUI extends JFrame {
             LOGGER.log(Level.INFO, "Opening ManageReportsUI (manage mode)");
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new ManageReportsUI("manage").setVisible(true);
+                    new ManageReportsUI(context, "manage").setVisible(true);
                     dispose();
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening ManageReportsUI", ex);
@@ -174,7 +177,7 @@ public class AdminPanelUI extends JFrame {
             LOGGER.log(Level.INFO, "Opening ManageReportsUI (view mode)");
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new ManageReportsUI("view").setVisible(true);
+                    new ManageReportsUI(context, "view").setVisible(true);
                     dispose();
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening ManageReportsUI", ex);
@@ -188,7 +191,7 @@ public class AdminPanelUI extends JFrame {
             LOGGER.log(Level.INFO, "Navigating to UserPanelUI");
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new UserPanelUI().setVisible(true);
+                    new UserPanelUI(context).setVisible(true);
                     dispose();
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening UserPanelUI", ex);
@@ -207,7 +210,7 @@ public class AdminPanelUI extends JFrame {
                 userService.logout();
                 SwingUtilities.invokeLater(() -> {
                     try {
-                        new LoginUI().setVisible(true);
+                        new LoginUI(context).setVisible(true);
                     } catch (SQLException ex) {
                         Logger.getLogger(AdminPanelUI.class.getName()).log(Level.SEVERE, null, ex);
                     }
@@ -317,7 +320,7 @@ public class AdminPanelUI extends JFrame {
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
-                new AdminPanelUI().setVisible(true);
+                new AdminPanelUI(AppContext.createDefault()).setVisible(true);
             } catch (IOException ex) {
                 Logger.getLogger(AdminPanelUI.class.getName()).log(Level.SEVERE, null, ex);
             } catch (SQLException ex) {
@@ -0,0 +1,71 @@
+package com.lostfound.ui;
+
+// Runs screen loads off the event dispatch thread and publishes only the newest result.
+import com.lostfound.config.QueryExecutor;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+
+public class BackgroundLoader<T> {
+    private static final Logger LOGGER = Logger.getLogger(BackgroundLoader.class.getName());
+
+    private final QueryExecutor executor;
+    private final LoadingIndicator indicator;
+    // Confined to the EDT. Every load takes a new generation; a finished load whose generation
+    // is no longer current has been superseded and its result is dropped.
+    private long generation;
+    private CompletableFuture<T> inFlight;
+
+    public BackgroundLoader(QueryExecutor executor, LoadingIndicator indicator) {
+        this.executor = executor;
+        this.indicator = indicator;
+    }
+
+    // Must be called on the EDT. The task runs on the query executor and should return a value
+    // the EDT can publish without further database work; both callbacks run on the EDT.
+    public void load(Callable<T> task, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        long ticket = ++generation;
+        if (inFlight != null) {
+            inFlight.cancel(true);
+        }
+        indicator.setLoading(true);
+        CompletableFuture<T> future = executor.submit(task);
+        inFlight = future;
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (ticket != generation) {
+                LOGGER.log(Level.FINE, "Dropping superseded load {0}", ticket);
+                return;
+            }
+            inFlight = null;
+            indicator.setLoading(false);
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (!(cause instanceof CancellationException)) {
+                    onFailure.accept(cause);
+                }
+            }
+        }));
+    }
+
+    // Abandons the current load, if any. Must be called on the EDT.
+    public void cancel() {
+        generation++;
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+        }
+        indicator.setLoading(false);
+    }
+
+    public boolean isLoading() {
+        return inFlight != null;
+    }
+}
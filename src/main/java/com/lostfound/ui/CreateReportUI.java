@@ -1,10 +1,12 @@
 package com.lostfound.ui;
 
 // UI for creating lost or found item reports.
+import com.lostfound.app.AppContext;
 import com.lostfound.model.Item;
 import com.lostfound.model.LostItem;
 import com.lostfound.model.FoundItem;
 import com.lostfound.model.Report;
+import com.lostfound.model.StoredImage;
 import com.lostfound.model.User;
 import com.lostfound.service.ItemService;
 import com.lostfound.service.LostItemService;
@@ -18,14 +20,13 @@ import java.awt.event.*;
 import java.awt.geom.RoundRectangle2D;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class CreateReportUI extends JFrame {
+    private final AppContext context;
     private JTextField txtTitle, txtLastSeenLocation, txtReward, txtFoundLocation, txtStorageLocation;
     private JTextArea txtDescription;
     private JComboBox<String> cmbCategory;
@@ -55,22 +56,13 @@ public class CreateReportUI extends JFrame {
             new EmptyBorder(9, 14, 9, 14) // Adjust padding
     );
 
-    public CreateReportUI() {
-        try {
-            userService = new UserService();
-            itemService = new ItemService();
-            lostItemService = new LostItemService();
-            foundItemService = new FoundItemService();
-            reportService = new ReportService();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error initializing services", e);
-            SwingUtilities.invokeLater(() -> {
-                JOptionPane.showMessageDialog(this, "Failed to initialize: " + e.getMessage(),
-                        "Error", JOptionPane.ERROR_MESSAGE);
-                dispose();
-            });
-            return;
-        }
+    public CreateReportUI(AppContext context) {
+        this.context = context;
+        userService = context.getUserService();
+        itemService = context.getItemService();
+        lostItemService = context.getLostItemService();
+        foundItemService = context.getFoundItemService();
+        reportService = context.getReportService();
 
         User currentUser = userService.getCurrentUser();
         if (currentUser == null) {
@@ -78,7 +70,7 @@ public class CreateReportUI extends JFrame {
             SwingUtilities.invokeLater(() -> {
                 JOptionPane.showMessageDialog(this, "Please login first", "Error", JOptionPane.ERROR_MESSAGE);
                 try {
-                    new LoginUI().setVisible(true);
+                    new LoginUI(context).setVisible(true);
                     dispose();
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening LoginUI", ex);
@@ -231,7 +223,7 @@ public class CreateReportUI extends JFrame {
             LOGGER.log(Level.INFO, "Cancelling report creation");
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new UserPanelUI().setVisible(true);
+                    new UserPanelUI(context).setVisible(true);
                     dispose();
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening UserPanelUI", ex);
@@ -420,7 +412,7 @@ public class CreateReportUI extends JFrame {
                 SwingUtilities.invokeLater(() -> {
                     JOptionPane.showMessageDialog(this, "Please login first", "Error", JOptionPane.ERROR_MESSAGE);
                     try {
-                        new LoginUI().setVisible(true);
+                        new LoginUI(context).setVisible(true);
                         dispose();
                     } catch (Exception ex) {
                         LOGGER.log(Level.SEVERE, "Error opening LoginUI", ex);
@@ -442,7 +434,9 @@ public class CreateReportUI extends JFrame {
                 return;
             }
 
-            String imagePath = processImage(category);
+            StoredImage storedImage = processImage();
+            String imagePath = storedImage != null ? storedImage.getPath() : null;
+            String imageKey = storedImage != null ? storedImage.getContentKey() : null;
 
             Item item = new Item(
                     0,
@@ -485,7 +479,8 @@ public class CreateReportUI extends JFrame {
                         lastSeenLocation,
                         new java.sql.Date(System.currentTimeMillis()),
                         additionalDetails,
-                        imagePath
+                        imagePath,
+                        imageKey
                 );
                 if (!lostItemService.createLostItem(lostItem)) {
                     throw new SQLException("Failed to create lost item");
@@ -506,7 +501,8 @@ public class CreateReportUI extends JFrame {
                         new java.sql.Date(System.currentTimeMillis()),
                         storageLocation,
                         null,
-                        imagePath
+                        imagePath,
+                        imageKey
                 );
                 if (!foundItemService.createFoundItem(foundItem)) {
                     throw new SQLException("Failed to create found item");
@@ -525,6 +521,9 @@ public class CreateReportUI extends JFrame {
                 throw new SQLException("Failed to create report");
             }
             LOGGER.log(Level.INFO, "Created report for itemId: {0}", itemId);
+            if (imagePath != null) {
+                indexImage(itemId, imagePath);
+            }
 
             JOptionPane.showMessageDialog(this,
                     "Report submitted successfully!\nReference ID: " + itemId,
@@ -532,7 +531,7 @@ public class CreateReportUI extends JFrame {
 
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new UserPanelUI().setVisible(true);
+                    new UserPanelUI(context).setVisible(true);
                     dispose();
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening UserPanelUI", ex);
@@ -558,25 +557,47 @@ public class CreateReportUI extends JFrame {
         }
     }
 
-    private String processImage(String type) throws IOException {
+    // Puts the selected photo in the image store. A photo already stored by another report is
+    // reused as is, renditions included.
+    private StoredImage processImage() throws IOException, SQLException {
         if (selectedImageFile == null) {
             return null;
         }
-        String targetDir = "images/" + type;
-        File dir = new File(targetDir);
-        if (!dir.exists() && !dir.mkdirs()) {
-            throw new IOException("Failed to create image directory: " + targetDir);
+        StoredImage stored = context.getImageStoreService().store(selectedImageFile);
+        LOGGER.log(Level.INFO, "Image stored at: {0}", stored.getPath());
+        if (!stored.isDuplicate()) {
+            createRenditions(stored.getPath());
         }
-        String newFileName = System.currentTimeMillis() + "_" + selectedImageFile.getName();
-        File targetFile = new File(dir, newFileName);
-        Files.copy(selectedImageFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-        LOGGER.log(Level.INFO, "Image copied to: {0}", targetFile.getPath());
-        return targetFile.getPath();
+        return stored;
+    }
+
+    // Renders the thumbnail and preview off the event thread. Until they exist, or if this
+    // fails, viewers fall back to the original and the rendition backfill picks it up.
+    private void createRenditions(String imagePath) {
+        context.getQueryExecutor().submit(() -> context.getImageRenditionService().createRenditions(imagePath))
+                .whenComplete((renditions, error) -> {
+                    if (error != null) {
+                        LOGGER.log(Level.WARNING, "Could not create renditions of " + imagePath, error);
+                    }
+                });
+    }
+
+    // Hashes the stored photo off the event thread; a report whose photo could not be hashed is
+    // still saved and is picked up by the next image hash backfill.
+    private void indexImage(int itemId, String imagePath) {
+        context.getQueryExecutor().submit(() -> {
+            context.getImageHashService().indexImage(itemId, imagePath);
+            return null;
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.WARNING, "Could not hash image for itemId: " + itemId, error);
+            }
+        });
     }
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
-            CreateReportUI frame = new CreateReportUI();
+            CreateReportUI frame = new CreateReportUI(AppContext.createDefault());
             frame.setVisible(true);
         });
     }
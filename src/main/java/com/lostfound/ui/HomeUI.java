@@ -1,7 +1,13 @@
 package com.lostfound.ui;
 
 // Home UI for displaying and searching reports.
+import com.lostfound.app.AppContext;
+import com.lostfound.model.ReportCursor;
+import com.lostfound.model.ReportDetails;
+import com.lostfound.model.ReportPage;
 import com.lostfound.model.User;
+import com.lostfound.search.ReportSearch;
+import com.lostfound.search.SearchQuery;
 import com.lostfound.service.ReportService;
 import com.lostfound.service.UserService;
 import javax.swing.*;
@@ -11,19 +17,39 @@ import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.*;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import javax.swing.border.Border;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 public class HomeUI extends JFrame {
+    private final AppContext context;
     private UserService userService;
     private ReportService reportService;
+    private ReportSearch reportSearch;
     private JTable reportsTable;
+    private DefaultTableModel reportsModel;
+    private BackgroundLoader<ReportRows> reportsLoader;
+    private Timer searchDebounce;
+    private String lastSearchQuery;
+    private boolean serverSideSearch;
+    private JButton btnMore;
+    // Where the next server-side page starts, and the query it belongs to.
+    private ReportCursor nextCursor;
+    private String pagedQuery;
     private JTextField searchField;
     private JLabel statusLabel;
     private static final Logger LOGGER = Logger.getLogger(HomeUI.class.getName());
+    // Ranked results shown per search; the index keeps only this many in its top-K heap. The
+    // unfiltered "Latest Reports" listing is not a search and shows every report.
+    private static final int MAX_RESULTS = 200;
+    // Pause in typing after which the search runs; short enough to feel live.
+    private static final int SEARCH_DEBOUNCE_MS = 150;
     private static final Color BACKGROUND_DARK = new Color(32, 34, 37);
     private static final Color CARD_COLOR = new Color(44, 47, 51);
     private static final Color PRIMARY_COLOR = new Color(0, 168, 150);
@@ -40,15 +66,16 @@ public class HomeUI extends JFrame {
             new EmptyBorder(4, 9, 4, 9) // Adjust padding
     );
 
-    public HomeUI() throws SQLException {
-        userService = new UserService();
+    public HomeUI(AppContext context) throws SQLException {
+        this.context = context;
+        userService = context.getUserService();
         User currentUser = userService.getCurrentUser();
         if (currentUser == null) {
             LOGGER.log(Level.WARNING, "No user logged in, redirecting to LoginUI");
             JOptionPane.showMessageDialog(this, "Please login first", "Error", JOptionPane.ERROR_MESSAGE);
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new LoginUI().setVisible(true);
+                    new LoginUI(context).setVisible(true);
                 } catch (SQLException ex) {
                     Logger.getLogger(HomeUI.class.getName()).log(Level.SEVERE, null, ex);
                 }
@@ -57,22 +84,9 @@ public class HomeUI extends JFrame {
             return;
         }
 
-        try {
-            reportService = new ReportService();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error initializing ReportService", e);
-            JOptionPane.showMessageDialog(this, "Failed to load reports: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            SwingUtilities.invokeLater(() -> {
-                try {
-                    new LoginUI().setVisible(true);
-                } catch (SQLException ex) {
-                    Logger.getLogger(HomeUI.class.getName()).log(Level.SEVERE, null, ex);
-                }
-                dispose();
-            });
-            return;
-        }
+        reportService = context.getReportService();
+        reportSearch = context.getReportSearch();
+        serverSideSearch = context.isServerSideSearch();
 
         setTitle("Home - Tracify");
         setSize(900, 600);
@@ -121,7 +135,8 @@ public class HomeUI extends JFrame {
         searchField.setForeground(TEXT_COLOR);
         searchField.setBorder(BORDER_DEFAULT); // Use default border
         searchField.getAccessibleContext().setAccessibleName("Search Field");
-        searchField.getAccessibleContext().setAccessibleDescription("Enter item name, location, or lost/found status to search reports");
+        searchField.getAccessibleContext().setAccessibleDescription("Enter words to search reports, optionally with type:, category:, after:, before: or near: filters");
+        searchField.setToolTipText("e.g. black wallet type:lost category:accessories after:2024-05-01 near:library");
         searchPanel.add(searchField);
 
         // --- Add Focus Listener ---
@@ -151,14 +166,18 @@ public class HomeUI extends JFrame {
         btnClearSearch.addActionListener(e -> {
             searchField.setText("");
             statusLabel.setText("");
-            try {
-                showLatestReports("");
-            } catch (SQLException ex) {
-                handleReportLoadError(ex);
-            }
+            showLatestReports("");
         });
         searchPanel.add(btnClearSearch);
 
+        btnMore = new JButton("More");
+        styleMinimalButton(btnMore);
+        btnMore.getAccessibleContext().setAccessibleName("More Results Button");
+        btnMore.getAccessibleContext().setAccessibleDescription("Load the next page of search results");
+        btnMore.setVisible(false);
+        btnMore.addActionListener(e -> loadMoreReports());
+        searchPanel.add(btnMore);
+
         titleSearchPanel.add(searchPanel, BorderLayout.EAST);
         headerPanel.add(titleSearchPanel, BorderLayout.NORTH);
 
@@ -178,7 +197,7 @@ public class HomeUI extends JFrame {
                 userService.logout();
                 SwingUtilities.invokeLater(() -> {
                     try {
-                        new LoginUI().setVisible(true);
+                        new LoginUI(context).setVisible(true);
                     } catch (SQLException ex) {
                         Logger.getLogger(HomeUI.class.getName()).log(Level.SEVERE, null, ex);
                     }
@@ -197,7 +216,23 @@ public class HomeUI extends JFrame {
 
         mainPanel.add(headerPanel, BorderLayout.NORTH);
 
-        reportsTable = new JTable();
+        reportsModel = new DefaultTableModel(
+                new String[]{"Report ID", "Item Name", "User Name", "User Contact", "Date"}, 0
+        ) {
+            @Override
+            public Class<?> getColumnClass(int columnIndex) {
+                if (columnIndex == 0) {
+                    return Integer.class;
+                }
+                return String.class;
+            }
+
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        reportsTable = new JTable(reportsModel);
         reportsTable.setRowHeight(30);
         reportsTable.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         reportsTable.setForeground(TEXT_COLOR);
@@ -207,6 +242,18 @@ public class HomeUI extends JFrame {
         reportsTable.getAccessibleContext().setAccessibleName("Reports Table");
         reportsTable.getAccessibleContext().setAccessibleDescription("Table displaying the latest lost and found reports");
 
+        reportsTable.getColumnModel().getColumn(0).setPreferredWidth(80);
+        reportsTable.getColumnModel().getColumn(1).setPreferredWidth(200);
+        reportsTable.getColumnModel().getColumn(2).setPreferredWidth(150);
+        reportsTable.getColumnModel().getColumn(3).setPreferredWidth(150);
+        reportsTable.getColumnModel().getColumn(4).setPreferredWidth(120);
+
+        DefaultTableCellRenderer centerRenderer = new DefaultTableCellRenderer();
+        centerRenderer.setHorizontalAlignment(JLabel.CENTER);
+        for (int i = 0; i < reportsTable.getColumnCount(); i++) {
+            reportsTable.getColumnModel().getColumn(i).setCellRenderer(centerRenderer);
+        }
+
         JTableHeader header = reportsTable.getTableHeader();
         header.setFont(new Font("Segoe UI", Font.BOLD, 14));
         header.setForeground(TEXT_COLOR);
@@ -228,7 +275,7 @@ public class HomeUI extends JFrame {
             LOGGER.log(Level.INFO, "Navigating to UserPanelUI");
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new UserPanelUI().setVisible(true);
+                    new UserPanelUI(context).setVisible(true);
                     dispose();
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening UserPanelUI", ex);
@@ -270,7 +317,7 @@ public class HomeUI extends JFrame {
                                     ? (Integer) reportIdObj
                                     : Integer.parseInt(reportIdObj.toString());
                             LOGGER.log(Level.INFO, "Opening ReportUI for reportId: {0}", reportId);
-                            new ReportUI(reportId).setVisible(true);
+                            new ReportUI(context, reportId).setVisible(true);
                             dispose();
                         } catch (NumberFormatException ex) {
                             LOGGER.log(Level.SEVERE, "Invalid reportId format: {0}", reportIdObj);
@@ -286,108 +333,114 @@ public class HomeUI extends JFrame {
             }
         });
 
-        try {
-            showLatestReports("");
-        } catch (SQLException e) {
-            handleReportLoadError(e);
-        }
+        reportsLoader = new BackgroundLoader<>(context.getQueryExecutor(),
+                new LoadingIndicator(this, statusLabel, "Loading reports..."));
+        showLatestReports("");
 
-        searchField.addKeyListener(new KeyAdapter() {
+        // Search as you type: every edit restarts the timer and the search runs once typing
+        // pauses. Enter searches at once. Starting a search cancels the one still running.
+        searchDebounce = new Timer(SEARCH_DEBOUNCE_MS, e -> {
+            if (!searchField.getText().trim().equals(lastSearchQuery)) {
+                searchReports();
+            }
+        });
+        searchDebounce.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
             @Override
-            public void keyReleased(KeyEvent e) {
-                if (e.getKeyCode() == KeyEvent.VK_ENTER) {
-                    searchReports();
-                } else {
-                    searchReports();
-                }
+            public void insertUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchDebounce.restart();
             }
         });
+        searchField.addActionListener(e -> searchReports());
     }
 
     private void searchReports() {
+        searchDebounce.stop();
         String query = searchField.getText().trim();
-        LOGGER.log(Level.INFO, "Searching reports with query: {0}", query);
-        try {
-            showLatestReports(query);
-            statusLabel.setText(query.isEmpty() ? "" : "Showing results for: " + query);
-            statusLabel.setForeground(PRIMARY_COLOR);
-        } catch (SQLException e) {
-            handleReportLoadError(e);
-        }
+        LOGGER.log(Level.FINE, "Searching reports with query: {0}", query);
+        showLatestReports(query);
     }
 
-    private void showLatestReports(String searchQuery) throws SQLException {
-        DefaultTableModel model = new DefaultTableModel(
-                new String[]{"Report ID", "Item Name", "User Name", "User Contact", "Date"}, 0
-        ) {
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                if (columnIndex == 0) {
-                    return Integer.class;
-                }
-                return String.class;
-            }
-
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+    // Searches on the query executor; the EDT only swaps in the finished rows.
+    private void showLatestReports(String searchQuery) {
+        lastSearchQuery = searchQuery;
+        reportsLoader.load(() -> fetchReportRows(searchQuery, null),
+                rows -> publishReports(searchQuery, rows), this::handleReportLoadError);
+    }
 
-        var reports = reportService.getAllReportsWithDetails();
-        if (reports == null) {
-            LOGGER.log(Level.WARNING, "ReportService returned null reports");
-            model.addRow(new Object[]{"", "Error: No reports available", "", "", ""});
-            statusLabel.setText("Error: Failed to load reports");
-            statusLabel.setForeground(Color.RED);
-            reportsTable.setModel(model);
-            updateTableUI();
+    private void loadMoreReports() {
+        ReportCursor cursor = nextCursor;
+        String query = pagedQuery;
+        if (cursor == null) {
             return;
         }
+        reportsLoader.load(() -> fetchReportRows(query, cursor), rows -> {
+            rows.snapshot.appendTo(reportsModel);
+            setNextPage(query, rows.next);
+            updateTableUI();
+        }, this::handleReportLoadError);
+    }
 
-        String query = searchQuery.toLowerCase();
-        int matchCount = 0;
-
-        for (var report : reports) {
-            boolean matches = query.isEmpty() ||
-                    (report.getItemName() != null && report.getItemName().toLowerCase().contains(query)) ||
-                    (report.getStatus() != null && report.getStatus().toLowerCase().contains(query)) ||
-                    (report.getLocation() != null && report.getLocation().toLowerCase().contains(query));
-            if (matches) {
-                model.addRow(new Object[]{
-                        report.getReportId(),
-                        report.getItemName() != null ? report.getItemName() : "",
-                        report.getUserName() != null ? report.getUserName() : "",
-                        report.getUserContact() != null ? report.getUserContact() : "",
-                        report.getReportDate() != null ? report.getReportDate().toString() : ""
-                });
-                matchCount++;
-            }
+    // With server-side search only one page of matches is fetched from MySQL; otherwise the
+    // in-memory index ranks the matches.
+    private ReportRows fetchReportRows(String searchQuery, ReportCursor cursor) throws SQLException {
+        List<ReportDetails> reports;
+        ReportCursor next = null;
+        if (serverSideSearch) {
+            SearchQuery query = SearchQuery.parse(searchQuery);
+            ReportPage page = reportService.searchReports(query.getText(), query.toReportFilter(),
+                    MAX_RESULTS, cursor);
+            reports = page.getReports();
+            next = page.getNextCursor();
+        } else {
+            reports = reportSearch.search(searchQuery, searchQuery.isBlank() ? Integer.MAX_VALUE : MAX_RESULTS);
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (ReportDetails report : reports) {
+            rows.add(new Object[]{
+                    report.getReportId(),
+                    report.getItemName() != null ? report.getItemName() : "",
+                    report.getUserName() != null ? report.getUserName() : "",
+                    report.getUserContact() != null ? report.getUserContact() : "",
+                    report.getReportDate() != null ? report.getReportDate().toString() : ""
+            });
         }
+        return new ReportRows(new TableSnapshot(rows), next);
+    }
+
+    private void setNextPage(String searchQuery, ReportCursor cursor) {
+        pagedQuery = searchQuery;
+        nextCursor = cursor;
+        btnMore.setVisible(cursor != null);
+    }
 
-        if (matchCount == 0 && !query.isEmpty()) {
-            model.addRow(new Object[]{"", "No reports found", "", "", ""});
+    private void publishReports(String searchQuery, ReportRows rows) {
+        TableSnapshot snapshot = rows.snapshot;
+        snapshot.applyTo(reportsModel);
+        setNextPage(searchQuery, rows.next);
+        if (snapshot.isEmpty() && !searchQuery.isEmpty()) {
+            reportsModel.addRow(new Object[]{"", "No reports found", "", "", ""});
             statusLabel.setText("No results for: " + searchQuery);
             statusLabel.setForeground(Color.YELLOW);
-        } else if (matchCount == 0 && query.isEmpty()) {
-            model.addRow(new Object[]{"", "No reports available", "", "", ""});
+        } else if (snapshot.isEmpty()) {
+            reportsModel.addRow(new Object[]{"", "No reports available", "", "", ""});
             statusLabel.setText("No reports available");
             statusLabel.setForeground(Color.YELLOW);
+        } else {
+            String shown = snapshot.size() >= MAX_RESULTS ? "Showing top " + MAX_RESULTS : "Showing";
+            statusLabel.setText(searchQuery.isEmpty() ? "" : shown + " results for: " + searchQuery);
+            statusLabel.setForeground(PRIMARY_COLOR);
         }
-
-        reportsTable.setModel(model);
-        reportsTable.getColumnModel().getColumn(0).setPreferredWidth(80);
-        reportsTable.getColumnModel().getColumn(1).setPreferredWidth(200);
-        reportsTable.getColumnModel().getColumn(2).setPreferredWidth(150);
-        reportsTable.getColumnModel().getColumn(3).setPreferredWidth(150);
-        reportsTable.getColumnModel().getColumn(4).setPreferredWidth(120);
-
-        DefaultTableCellRenderer centerRenderer = new DefaultTableCellRenderer();
-        centerRenderer.setHorizontalAlignment(JLabel.CENTER);
-        for (int i = 0; i < reportsTable.getColumnCount(); i++) {
-            reportsTable.getColumnModel().getColumn(i).setCellRenderer(centerRenderer);
-        }
-
         updateTableUI();
     }
 
@@ -400,13 +453,13 @@ public class HomeUI extends JFrame {
         });
     }
 
-    private void handleReportLoadError(SQLException e) {
+    private void handleReportLoadError(Throwable e) {
         LOGGER.log(Level.SEVERE, "Error loading reports: {0}", e.getMessage());
         JOptionPane.showMessageDialog(this, "Error loading reports: " + e.getMessage(),
                 "Error", JOptionPane.ERROR_MESSAGE);
         SwingUtilities.invokeLater(() -> {
             try {
-                new LoginUI().setVisible(true);
+                new LoginUI(context).setVisible(true);
             } catch (SQLException ex) {
                 Logger.getLogger(HomeUI.class.getName()).log(Level.SEVERE, null, ex);
             }
@@ -437,10 +490,20 @@ public class HomeUI extends JFrame {
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
-                new HomeUI().setVisible(true);
+                new HomeUI(AppContext.createDefault()).setVisible(true);
             } catch (SQLException ex) {
                 Logger.getLogger(HomeUI.class.getName()).log(Level.SEVERE, null, ex);
             }
         });
     }
-}
\ No newline at end of file
+
+    private static final class ReportRows {
+        private final TableSnapshot snapshot;
+        private final ReportCursor next;
+
+        private ReportRows(TableSnapshot snapshot, ReportCursor next) {
+            this.snapshot = snapshot;
+            this.next = next;
+        }
+    }
+}
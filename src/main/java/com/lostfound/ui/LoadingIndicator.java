@@ -0,0 +1,50 @@
+package com.lostfound.ui;
+
+// Shows that a screen is loading: a wait cursor on the window and an optional status message.
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Cursor;
+import javax.swing.JLabel;
+
+public class LoadingIndicator {
+    private static final Color LOADING_COLOR = new Color(180, 180, 180);
+
+    private final Component window;
+    private final JLabel statusLabel;
+    private final String message;
+    private boolean loading;
+    private String previousText;
+    private Color previousColor;
+
+    public LoadingIndicator(Component window) {
+        this(window, null, null);
+    }
+
+    public LoadingIndicator(Component window, JLabel statusLabel, String message) {
+        this.window = window;
+        this.statusLabel = statusLabel;
+        this.message = message;
+    }
+
+    // Idempotent; must be called on the EDT.
+    public void setLoading(boolean loading) {
+        if (this.loading == loading) {
+            return;
+        }
+        this.loading = loading;
+        window.setCursor(loading ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+        if (statusLabel == null || message == null) {
+            return;
+        }
+        if (loading) {
+            previousText = statusLabel.getText();
+            previousColor = statusLabel.getForeground();
+            statusLabel.setText(message);
+            statusLabel.setForeground(LOADING_COLOR);
+        } else if (message.equals(statusLabel.getText())) {
+            // Nothing replaced the loading message, so put back what was there before.
+            statusLabel.setText(previousText);
+            statusLabel.setForeground(previousColor);
+        }
+    }
+}
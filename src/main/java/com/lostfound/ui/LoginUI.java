@@ -1,6 +1,7 @@
 package com.lostfound.ui;
 
 // Login UI for user authentication.
+import com.lostfound.app.AppContext;
 import com.lostfound.model.User;
 import com.lostfound.service.UserService;
 import javax.swing.*;
@@ -14,6 +15,7 @@ import java.util.logging.Logger;
 import java.util.regex.Pattern;
 
 public class LoginUI extends JFrame {
+    private final AppContext context;
     private UserService userService;
     private static final Logger LOGGER = Logger.getLogger(LoginUI.class.getName());
     private static final Color BACKGROUND_DARK = new Color(32, 34, 37);
@@ -36,7 +38,8 @@ public class LoginUI extends JFrame {
     private JPasswordField passwordField;
     private JButton loginButton, registerButton;
 
-    public LoginUI() throws SQLException {
+    public LoginUI(AppContext context) throws SQLException {
+        this.context = context;
         setTitle("Tracify - Login");
         setSize(500, 400);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -44,7 +47,7 @@ public class LoginUI extends JFrame {
         setUndecorated(true);
         setShape(new RoundRectangle2D.Double(0, 0, getWidth(), getHeight(), 25, 25));
 
-        userService = new UserService();
+        userService = context.getUserService();
 
         JPanel mainPanel = new JPanel(new BorderLayout()) {
             @Override
@@ -211,7 +214,7 @@ public class LoginUI extends JFrame {
                 LOGGER.log(Level.INFO, "Opening UserPanelUI for user: {0}", user.getEmail());
                 SwingUtilities.invokeLater(() -> {
                     try {
-                        new UserPanelUI().setVisible(true);
+                        new UserPanelUI(context).setVisible(true);
                         dispose();
                     } catch (Exception ex) {
                         LOGGER.log(Level.SEVERE, "Failed to open UserPanelUI", ex);
@@ -244,7 +247,7 @@ public class LoginUI extends JFrame {
         LOGGER.log(Level.INFO, "Navigating to RegisterUI");
         SwingUtilities.invokeLater(() -> {
             try {
-                new RegisterUI().setVisible(true);
+                new RegisterUI(context).setVisible(true);
                 dispose();
             } catch (Exception ex) {
                 LOGGER.log(Level.SEVERE, "Failed to open RegisterUI", ex);
@@ -345,7 +348,7 @@ public class LoginUI extends JFrame {
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
-                new LoginUI().setVisible(true);
+                new LoginUI(AppContext.createDefault()).setVisible(true);
             } catch (SQLException ex) {
                 Logger.getLogger(LoginUI.class.getName()).log(Level.SEVERE, null, ex);
             }
@@ -1,6 +1,7 @@
 package com.lostfound.ui;
 
 // UI for managing user's lost and found reports.
+import com.lostfound.app.AppContext;
 import com.lostfound.model.*;
 import com.lostfound.service.*;
 import javax.swing.*;
@@ -11,15 +12,14 @@ import java.awt.event.*;
 import java.awt.geom.RoundRectangle2D;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class ManageMyReportsUI extends JFrame {
+    private final AppContext context;
     private ReportService reportService;
-    private ItemService itemService;
-    private LostItemService lostItemService;
-    private FoundItemService foundItemService;
     private UserService userService;
     private static final Logger LOGGER = Logger.getLogger(ManageMyReportsUI.class.getName());
     private static final Color BACKGROUND_DARK = new Color(32, 34, 37);
@@ -31,8 +31,10 @@ public class ManageMyReportsUI extends JFrame {
 
     private JTable foundTable, lostTable;
     private DefaultTableModel foundTableModel, lostTableModel;
+    private BackgroundLoader<MyReportRows> reportsLoader;
 
-    public ManageMyReportsUI() throws IOException {
+    public ManageMyReportsUI(AppContext context) throws IOException {
+        this.context = context;
         setTitle("Manage My Reports");
         setSize(1000, 700);
         setLocationRelativeTo(null);
@@ -40,21 +42,8 @@ public class ManageMyReportsUI extends JFrame {
         setUndecorated(true);
         setShape(new RoundRectangle2D.Double(0, 0, getWidth(), getHeight(), 25, 25));
 
-        try {
-            userService = new UserService();
-            reportService = new ReportService();
-            itemService = new ItemService();
-            lostItemService = new LostItemService();
-            foundItemService = new FoundItemService();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error initializing services", e);
-            SwingUtilities.invokeLater(() -> {
-                JOptionPane.showMessageDialog(this, "Failed to initialize report management: " + e.getMessage(),
-                        "Error", JOptionPane.ERROR_MESSAGE);
-                dispose();
-            });
-            return;
-        }
+        userService = context.getUserService();
+        reportService = context.getReportService();
 
         User currentUser = userService.getCurrentUser();
         if (currentUser == null) {
@@ -62,7 +51,7 @@ public class ManageMyReportsUI extends JFrame {
             SwingUtilities.invokeLater(() -> {
                 JOptionPane.showMessageDialog(this, "Please login first", "Error", JOptionPane.ERROR_MESSAGE);
                 try {
-                    new LoginUI().setVisible(true);
+                    new LoginUI(context).setVisible(true);
                     dispose();
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening LoginUI", ex);
@@ -174,16 +163,7 @@ public class ManageMyReportsUI extends JFrame {
         btnRefresh.getAccessibleContext().setAccessibleDescription("Reload the report tables");
         btnRefresh.addActionListener(e -> {
             LOGGER.log(Level.INFO, "Refreshing report tables");
-            try {
-                populateTables();
-            } catch (SQLException ex) {
-                LOGGER.log(Level.SEVERE, "Error refreshing data", ex);
-                SwingUtilities.invokeLater(() ->
-                        JOptionPane.showMessageDialog(this, "Error refreshing data: " + ex.getMessage(),
-                                "Error", JOptionPane.ERROR_MESSAGE));
-            } catch (IOException ex) {
-                Logger.getLogger(ManageMyReportsUI.class.getName()).log(Level.SEVERE, null, ex);
-            }
+            populateTables();
         });
 
         JButton btnBack = createModernButton("Back to Dashboard", new Color(70, 200, 150));
@@ -193,7 +173,7 @@ public class ManageMyReportsUI extends JFrame {
             LOGGER.log(Level.INFO, "Navigating to UserPanelUI");
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new UserPanelUI().setVisible(true);
+                    new UserPanelUI(context).setVisible(true);
                     reportService.close();
                     dispose();
                 } catch (Exception ex) {
@@ -217,7 +197,7 @@ public class ManageMyReportsUI extends JFrame {
                 if (confirm == JOptionPane.YES_OPTION) {
                     userService.logout();
                     try {
-                        new LoginUI().setVisible(true);
+                        new LoginUI(context).setVisible(true);
                         reportService.close();
                         dispose();
                     } catch (Exception ex) {
@@ -235,14 +215,8 @@ public class ManageMyReportsUI extends JFrame {
         footerPanel.add(btnLogout);
         mainPanel.add(footerPanel, BorderLayout.SOUTH);
 
-        try {
-            populateTables();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error loading reports", e);
-            SwingUtilities.invokeLater(() ->
-                    JOptionPane.showMessageDialog(this, "Error loading reports: " + e.getMessage(),
-                            "Error", JOptionPane.ERROR_MESSAGE));
-        }
+        reportsLoader = new BackgroundLoader<>(context.getQueryExecutor(), new LoadingIndicator(this));
+        populateTables();
     }
 
     private JTable createStyledTable(DefaultTableModel model) {
@@ -313,18 +287,15 @@ public class ManageMyReportsUI extends JFrame {
         return panel;
     }
 
-    private void populateTables() throws SQLException, IOException {
+    private void populateTables() {
         LOGGER.log(Level.INFO, "Populating report tables");
-        foundTableModel.setRowCount(0);
-        lostTableModel.setRowCount(0);
-
         User currentUser = userService.getCurrentUser();
         if (currentUser == null) {
             LOGGER.log(Level.WARNING, "No user logged in during populateTables");
             SwingUtilities.invokeLater(() -> {
                 JOptionPane.showMessageDialog(this, "Please login first", "Error", JOptionPane.ERROR_MESSAGE);
                 try {
-                    new LoginUI().setVisible(true);
+                    new LoginUI(context).setVisible(true);
                     reportService.close();
                     dispose();
                 } catch (Exception ex) {
@@ -336,56 +307,72 @@ public class ManageMyReportsUI extends JFrame {
             return;
         }
 
-        List<Report> reports = reportService.getCurrentUserReports();
-        if (reports == null || reports.isEmpty()) {
-            LOGGER.log(Level.INFO, "No reports found for user: {0}", currentUser.getEmail());
-            foundTableModel.addRow(new Object[]{0, 0, "No found reports", "", "", ""});
-            lostTableModel.addRow(new Object[]{0, 0, "No lost reports", "", "", ""});
-            return;
-        }
-
-        for (Report report : reports) {
-            Item item = itemService.getItemById(report.getItemId());
-            if (item == null) {
-                LOGGER.log(Level.WARNING, "Item not found for report ID: {0}", report.getReportId());
-                continue;
+        reportsLoader.load(this::fetchReportRows, rows -> {
+            rows.found.applyTo(foundTableModel);
+            rows.lost.applyTo(lostTableModel);
+            if (rows.reportCount == 0) {
+                LOGGER.log(Level.INFO, "No reports found for user: {0}", currentUser.getEmail());
+                foundTableModel.addRow(new Object[]{0, 0, "No found reports", "", "", ""});
+                lostTableModel.addRow(new Object[]{0, 0, "No lost reports", "", "", ""});
+                return;
             }
+            LOGGER.log(Level.INFO, "Loaded {0} reports for user: {1}",
+                    new Object[]{rows.reportCount, currentUser.getEmail()});
+        }, e -> {
+            LOGGER.log(Level.SEVERE, "Error loading reports", e);
+            JOptionPane.showMessageDialog(this, "Error loading reports: " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    // Runs on the query executor; a single joined query fills both tables.
+    private MyReportRows fetchReportRows() throws SQLException {
+        List<UserReport> reports = reportService.getCurrentUserReportsWithDetails();
+        List<Object[]> foundRows = new ArrayList<>();
+        List<Object[]> lostRows = new ArrayList<>();
 
-            String details = "";
+        for (UserReport report : reports) {
             if ("found".equalsIgnoreCase(report.getReportType())) {
-                FoundItem foundItem = foundItemService.getFoundItemDetails(item.getItemId());
-                details = foundItem != null ? "Location: " + foundItem.getFoundLocation() : "N/A";
-                if (foundItem == null) {
-                    LOGGER.log(Level.WARNING, "FoundItem details missing for item ID: {0}", item.getItemId());
+                if (!report.hasDetails()) {
+                    LOGGER.log(Level.WARNING, "FoundItem details missing for item ID: {0}", report.getItemId());
                 }
-                Object[] row = {
+                String details = report.hasDetails() ? "Location: " + report.getLocation() : "N/A";
+                foundRows.add(new Object[]{
                         report.getReportId(),
-                        item.getItemId(),
-                        item.getName(),
+                        report.getItemId(),
+                        report.getItemName(),
                         details,
                         report.getReportDate(),
                         "Delete"
-                };
-                foundTableModel.addRow(row);
+                });
             } else if ("lost".equalsIgnoreCase(report.getReportType())) {
-                LostItem lostItem = lostItemService.getLostItemDetails(item.getItemId());
-                details = lostItem != null ? "Last seen: " + lostItem.getLastSeenLocation() : "N/A";
-                if (lostItem == null) {
-                    LOGGER.log(Level.WARNING, "LostItem details missing for item ID: {0}", item.getItemId());
+                if (!report.hasDetails()) {
+                    LOGGER.log(Level.WARNING, "LostItem details missing for item ID: {0}", report.getItemId());
                 }
-                Object[] row = {
+                String details = report.hasDetails() ? "Last seen: " + report.getLocation() : "N/A";
+                lostRows.add(new Object[]{
                         report.getReportId(),
-                        item.getItemId(),
-                        item.getName(),
+                        report.getItemId(),
+                        report.getItemName(),
                         details,
                         report.getReportDate(),
                         "Delete"
-                };
-                lostTableModel.addRow(row);
+                });
             }
         }
-        LOGGER.log(Level.INFO, "Loaded {0} reports for user: {1}",
-                new Object[]{reports.size(), currentUser.getEmail()});
+        return new MyReportRows(reports.size(), new TableSnapshot(foundRows), new TableSnapshot(lostRows));
+    }
+
+    private static final class MyReportRows {
+        private final int reportCount;
+        private final TableSnapshot found;
+        private final TableSnapshot lost;
+
+        private MyReportRows(int reportCount, TableSnapshot found, TableSnapshot lost) {
+            this.reportCount = reportCount;
+            this.found = found;
+            this.lost = lost;
+        }
     }
 
     private class ButtonRenderer extends JButton implements TableCellRenderer {
@@ -475,8 +462,6 @@ public class ManageMyReportsUI extends JFrame {
                                     JOptionPane.showMessageDialog(ManageMyReportsUI.this,
                                             "Failed to delete report: " + ex.getMessage(),
                                             "Error", JOptionPane.ERROR_MESSAGE));
-                        } catch (IOException ex) {
-                            Logger.getLogger(ManageMyReportsUI.class.getName()).log(Level.SEVERE, null, ex);
                         }
                     }
                     fireEditingStopped();
@@ -566,7 +551,7 @@ public class ManageMyReportsUI extends JFrame {
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
-                new ManageMyReportsUI().setVisible(true);
+                new ManageMyReportsUI(AppContext.createDefault()).setVisible(true);
             } catch (IOException ex) {
                 Logger.getLogger(ManageMyReportsUI.class.getName()).log(Level.SEVERE, null, ex);
             }
@@ -1,9 +1,12 @@
 package com.lostfound.ui;
 
 // UI for managing reports based on mode (manage, view, user).
+import com.lostfound.app.AppContext;
 import com.lostfound.model.Item;
 import com.lostfound.model.Report;
 import com.lostfound.model.User;
+import com.lostfound.search.ReportSearch;
+import com.lostfound.service.BatchLoader;
 import com.lostfound.service.ItemService;
 import com.lostfound.service.ReportService;
 import com.lostfound.service.UserService;
@@ -14,14 +17,21 @@ import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.RoundRectangle2D;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ManageReportsUI extends JFrame {
+    private final AppContext context;
     private JTable reportTable;
     private DefaultTableModel tableModel;
+    private BackgroundLoader<TableSnapshot> reportsLoader;
     private ReportService reportService;
+    private ReportSearch reportSearch;
+    private JTextField filterField;
     private ItemService itemService;
     private UserService userService;
     private String mode;
@@ -33,7 +43,8 @@ public class ManageReportsUI extends JFrame {
     private static final Color SECONDARY_TEXT = new Color(180, 180, 180);
     private static final Color ERROR_COLOR = new Color(220, 53, 69);
 
-    public ManageReportsUI(String mode) throws SQLException {
+    public ManageReportsUI(AppContext context, String mode) throws SQLException {
+        this.context = context;
         this.mode = mode;
         setTitle(getTitleForMode());
         setSize(900, 600);
@@ -42,17 +53,10 @@ public class ManageReportsUI extends JFrame {
         setUndecorated(true);
         setShape(new RoundRectangle2D.Double(0, 0, getWidth(), getHeight(), 25, 25));
 
-        userService = new UserService();
-        try {
-            reportService = new ReportService();
-            itemService = new ItemService();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error initializing services", e);
-            SwingUtilities.invokeLater(() ->
-                    showErrorDialog("Failed to initialize report management: " + e.getMessage()));
-            navigateToFallback();
-            return;
-        }
+        userService = context.getUserService();
+        reportService = context.getReportService();
+        reportSearch = context.getReportSearch();
+        itemService = context.getItemService();
 
         User currentUser = userService.getCurrentUser();
         if (currentUser == null) {
@@ -60,7 +64,7 @@ public class ManageReportsUI extends JFrame {
             SwingUtilities.invokeLater(() -> {
                 showErrorDialog("Please login first");
                 try {
-                    new LoginUI().setVisible(true);
+                    new LoginUI(context).setVisible(true);
                 } catch (SQLException ex) {
                     Logger.getLogger(ManageReportsUI.class.getName()).log(Level.SEVERE, null, ex);
                 }
@@ -74,7 +78,7 @@ public class ManageReportsUI extends JFrame {
             SwingUtilities.invokeLater(() -> {
                 showErrorDialog("Access denied: Admin privileges required");
                 try {
-                    new UserPanelUI().setVisible(true);
+                    new UserPanelUI(context).setVisible(true);
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening UserPanelUI", ex);
                     showErrorDialog("Error opening dashboard: " + ex.getMessage());
@@ -113,6 +117,22 @@ public class ManageReportsUI extends JFrame {
         titleLabel.getAccessibleContext().setAccessibleDescription("Title for the report management interface");
         headerPanel.add(titleLabel, BorderLayout.WEST);
 
+        filterField = new JTextField(20);
+        filterField.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        filterField.setForeground(TEXT_COLOR);
+        filterField.setBackground(CARD_COLOR);
+        filterField.setCaretColor(TEXT_COLOR);
+        filterField.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(PRIMARY_COLOR, 1), new EmptyBorder(5, 8, 5, 8)));
+        filterField.setToolTipText("Filter by item, description, category or location (use OR for alternatives)");
+        filterField.getAccessibleContext().setAccessibleName("Report Filter Field");
+        filterField.getAccessibleContext().setAccessibleDescription("Filter the reports shown in the table");
+        filterField.addActionListener(e -> loadReports());
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 0));
+        filterPanel.setOpaque(false);
+        filterPanel.add(filterField);
+        headerPanel.add(filterPanel, BorderLayout.CENTER);
+
         JButton btnClose = styleMinimalButton("Close");
         btnClose.getAccessibleContext().setAccessibleName("Close Button");
         btnClose.getAccessibleContext().setAccessibleDescription("Close the report management window");
@@ -171,9 +191,9 @@ public class ManageReportsUI extends JFrame {
             SwingUtilities.invokeLater(() -> {
                 try {
                     if ("user".equals(mode)) {
-                        new UserPanelUI().setVisible(true);
+                        new UserPanelUI(context).setVisible(true);
                     } else {
-                        new AdminPanelUI().setVisible(true);
+                        new AdminPanelUI(context).setVisible(true);
                     }
                     dispose();
                 } catch (Exception ex) {
@@ -197,7 +217,7 @@ public class ManageReportsUI extends JFrame {
                 if (confirm == JOptionPane.YES_OPTION) {
                     userService.logout();
                     try {
-                        new LoginUI().setVisible(true);
+                        new LoginUI(context).setVisible(true);
                         dispose();
                     } catch (Exception ex) {
                         LOGGER.log(Level.SEVERE, "Error opening LoginUI", ex);
@@ -217,6 +237,7 @@ public class ManageReportsUI extends JFrame {
 
         mainPanel.add(buttonPanel, BorderLayout.SOUTH);
 
+        reportsLoader = new BackgroundLoader<>(context.getQueryExecutor(), new LoadingIndicator(this));
         loadReports();
     }
 
@@ -276,27 +297,36 @@ public class ManageReportsUI extends JFrame {
     }
 
     private void loadReports() {
-        try {
-            List<Report> reports;
-            if ("user".equals(mode)) {
-                User currentUser = userService.getCurrentUser();
-                if (currentUser == null) {
-                    SwingUtilities.invokeLater(() -> {
-                        showErrorDialog("No user logged in");
-                        navigateToFallback();
-                    });
-                    return;
-                }
-                int userId = currentUser.getUserId();
-                reports = reportService.getReportsByUserId(userId);
-            } else {
-                reports = reportService.getAllReports();
+        User currentUser = userService.getCurrentUser();
+        if ("user".equals(mode) && currentUser == null) {
+            SwingUtilities.invokeLater(() -> {
+                showErrorDialog("No user logged in");
+                navigateToFallback();
+            });
+            return;
+        }
+        String filter = filterField.getText().trim();
+        reportsLoader.load(() -> {
+            List<Report> reports = "user".equals(mode)
+                    ? reportService.getReportsByUserId(currentUser.getUserId())
+                    : reportService.getAllReports();
+            if (!filter.isEmpty()) {
+                Set<Integer> matches = reportSearch.searchIds(filter);
+                reports.removeIf(report -> !matches.contains(report.getReportId()));
             }
-            tableModel.setRowCount(0);
-
+            // One load per row, resolved together: ceil(n / 512) item queries for n distinct items
+            // rather than one per row.
+            BatchLoader<Integer, Item> itemLoader = itemService.newItemLoader();
+            List<CompletableFuture<Item>> itemLookups = new ArrayList<>();
             for (Report report : reports) {
-                Item item = itemService.getItemById(report.getItemId());
-                tableModel.addRow(new Object[]{
+                itemLookups.add(itemLoader.load(report.getItemId()));
+            }
+            itemLoader.dispatch();
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < reports.size(); i++) {
+                Report report = reports.get(i);
+                Item item = itemLookups.get(i).join();
+                rows.add(new Object[]{
                         report.getReportId(),
                         report.getUserId(),
                         item != null ? item.getName() : "N/A",
@@ -305,13 +335,15 @@ public class ManageReportsUI extends JFrame {
                         report.getReportDate()
                 });
             }
+            return new TableSnapshot(rows);
+        }, snapshot -> {
+            snapshot.applyTo(tableModel);
             LOGGER.log(Level.INFO, "Loaded {0} reports in {1} mode",
-                    new Object[]{reports.size(), mode});
-        } catch (SQLException e) {
+                    new Object[]{snapshot.size(), mode});
+        }, e -> {
             LOGGER.log(Level.SEVERE, "Error loading reports in {0} mode", mode);
-            SwingUtilities.invokeLater(() ->
-                    showErrorDialog("Error loading reports: " + e.getMessage()));
-        }
+            showErrorDialog("Error loading reports: " + e.getMessage());
+        });
     }
 
     private void deleteSelectedReport() {
@@ -365,9 +397,9 @@ public class ManageReportsUI extends JFrame {
         SwingUtilities.invokeLater(() -> {
             try {
                 if ("user".equals(mode)) {
-                    new UserPanelUI().setVisible(true);
+                    new UserPanelUI(context).setVisible(true);
                 } else {
-                    new AdminPanelUI().setVisible(true);
+                    new AdminPanelUI(context).setVisible(true);
                 }
                 dispose();
             } catch (Exception ex) {
@@ -470,7 +502,7 @@ public class ManageReportsUI extends JFrame {
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
-                new ManageReportsUI("manage").setVisible(true);
+                new ManageReportsUI(AppContext.createDefault(), "manage").setVisible(true);
             } catch (SQLException ex) {
                 Logger.getLogger(ManageReportsUI.class.getName()).log(Level.SEVERE, null, ex);
             }
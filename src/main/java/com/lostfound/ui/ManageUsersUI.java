@@ -1,6 +1,7 @@
 package com.lostfound.ui;
 
 // UI for admin to manage users (delete, promote/demote admin).
+import com.lostfound.app.AppContext;
 import com.lostfound.model.User;
 import com.lostfound.service.UserService;
 import com.lostfound.service.AdminService;
@@ -12,17 +13,22 @@ import java.awt.*;
 import java.awt.event.*;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ManageUsersUI extends JFrame {
+    private final AppContext context;
     private JTable userTable;
     private JScrollPane scrollPane;
     private JPanel mainPanel;
     private JLabel statusLabel;
     private UserService userService;
     private AdminService adminService;
+    private BackgroundLoader<TableSnapshot> usersLoader;
     private static final Logger LOGGER = Logger.getLogger(ManageUsersUI.class.getName());
     private static final Color BACKGROUND_DARK = new Color(32, 34, 37);
     private static final Color CARD_COLOR = new Color(44, 47, 51);
@@ -30,15 +36,16 @@ public class ManageUsersUI extends JFrame {
     private static final Color TEXT_COLOR = new Color(240, 240, 240);
     private static final Color SECONDARY_TEXT = new Color(180, 180, 180);
 
-    public ManageUsersUI() throws SQLException {
+    public ManageUsersUI(AppContext context) throws SQLException {
+        this.context = context;
         setTitle("User Management - Tracify");
         setSize(800, 600);
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setMinimumSize(new Dimension(600, 400));
 
-        userService = new UserService();
-        adminService = new AdminService();
+        userService = context.getUserService();
+        adminService = context.getAdminService();
 
         User currentUser = userService.getCurrentUser();
         if (currentUser == null) {
@@ -46,7 +53,7 @@ public class ManageUsersUI extends JFrame {
             JOptionPane.showMessageDialog(this, "Please login first", "Error", JOptionPane.ERROR_MESSAGE);
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new LoginUI().setVisible(true);
+                    new LoginUI(context).setVisible(true);
                     dispose();
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening LoginUI", ex);
@@ -60,7 +67,7 @@ public class ManageUsersUI extends JFrame {
             JOptionPane.showMessageDialog(this, "Access denied: Admin privileges required", "Error", JOptionPane.ERROR_MESSAGE);
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new UserPanelUI().setVisible(true);
+                    new UserPanelUI(context).setVisible(true);
                     dispose();
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error opening UserPanelUI", ex);
@@ -142,7 +149,7 @@ public class ManageUsersUI extends JFrame {
 
         btnBack.addActionListener(e -> {
             try {
-                navigateTo(new AdminPanelUI(), "Admin Panel");
+                navigateTo(new AdminPanelUI(context), "Admin Panel");
             } catch (IOException ex) {
                 Logger.getLogger(ManageUsersUI.class.getName()).log(Level.SEVERE, null, ex);
             } catch (SQLException ex) {
@@ -174,7 +181,7 @@ public class ManageUsersUI extends JFrame {
         btnRefresh.addActionListener(e -> refreshData());
         btnDashboard.addActionListener(e -> {
             try {
-                navigateTo(new UserPanelUI(), "Dashboard");
+                navigateTo(new UserPanelUI(context), "Dashboard");
             } catch (SQLException ex) {
                 Logger.getLogger(ManageUsersUI.class.getName()).log(Level.SEVERE, null, ex);
             }
@@ -182,62 +189,68 @@ public class ManageUsersUI extends JFrame {
         btnLogout.addActionListener(e -> logout());
         btnClose.addActionListener(e -> System.exit(0));
 
+        usersLoader = new BackgroundLoader<>(context.getQueryExecutor(),
+                new LoadingIndicator(this, statusLabel, "Loading users..."));
         refreshData();
     }
 
-    private void loadUserData() throws SQLException {
-        LOGGER.log(Level.INFO, "Loading user data...");
-        statusLabel.setText("Loading users...");
-        statusLabel.setForeground(SECONDARY_TEXT);
-
-        List<User> users;
-        List<Admin> admins;
-        try {
-            users = userService.getAllUsers();
-            admins = adminService.getAllAdmins();
-            LOGGER.log(Level.INFO, "Fetched {0} users and {1} admins", new Object[]{users.size(), admins.size()});
-        } catch (SQLException ex) {
-            LOGGER.log(Level.SEVERE, "Error fetching data: {0}", ex.getMessage());
-            statusLabel.setText("Failed to load users: " + ex.getMessage());
-            statusLabel.setForeground(Color.RED);
-            DefaultTableModel errorModel = new DefaultTableModel(new String[]{"ID", "Username", "Email", "Contact", "Role"}, 0) {
-                @Override
-                public boolean isCellEditable(int row, int column) {
-                    return false;
-                }
-            };
-            errorModel.addRow(new Object[]{"", "Error: " + ex.getMessage(), "", "", ""});
-            userTable.setModel(errorModel);
-            updateTableUI();
-            throw ex;
+    // Runs on the query executor; admin membership is resolved here so the EDT only copies rows.
+    private TableSnapshot fetchUserRows() throws SQLException {
+        List<User> users = userService.getAllUsers();
+        List<Admin> admins = adminService.getAllAdmins();
+        LOGGER.log(Level.INFO, "Fetched {0} users and {1} admins", new Object[]{users.size(), admins.size()});
+        Set<Integer> adminUserIds = new HashSet<>();
+        for (Admin admin : admins) {
+            adminUserIds.add(admin.getUserId());
         }
+        List<Object[]> rows = new ArrayList<>();
+        for (User user : users) {
+            String name = user.getName() != null ? user.getName() : "";
+            String email = user.getEmail() != null ? user.getEmail() : "";
+            String contact = user.getContact() != null ? user.getContact() : "";
+            String role = user.getRole() != null ? user.getRole() : "user";
+            boolean isAdmin = adminUserIds.contains(user.getUserId());
+            rows.add(new Object[]{user.getUserId(), name, email, contact, isAdmin ? "admin" : role});
+        }
+        return new TableSnapshot(rows);
+    }
 
-        String[] columnNames = {"ID", "Username", "Email", "Contact", "Role"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-
-        if (users == null || users.isEmpty()) {
+    private void showUsers(TableSnapshot users) {
+        DefaultTableModel model = createUserModel();
+        if (users.isEmpty()) {
             LOGGER.log(Level.WARNING, "No users found");
             model.addRow(new Object[]{"", "No users found", "", "", ""});
             statusLabel.setText("No users found in the database.");
             statusLabel.setForeground(Color.YELLOW);
         } else {
-            for (User user : users) {
-                String name = user.getName() != null ? user.getName() : "";
-                String email = user.getEmail() != null ? user.getEmail() : "";
-                String contact = user.getContact() != null ? user.getContact() : "";
-                String role = user.getRole() != null ? user.getRole() : "user";
-                boolean isAdmin = admins != null && admins.stream().anyMatch(admin -> admin.getUserId() == user.getUserId());
-                model.addRow(new Object[]{user.getUserId(), name, email, contact, isAdmin ? "admin" : role});
-            }
+            users.applyTo(model);
             statusLabel.setText("Loaded " + users.size() + " users.");
             statusLabel.setForeground(PRIMARY_COLOR);
         }
+        setUserModel(model);
+    }
 
+    private void showLoadError(Throwable ex) {
+        LOGGER.log(Level.SEVERE, "Error refreshing data: {0}", ex.getMessage());
+        statusLabel.setText("Failed to refresh: " + ex.getMessage());
+        statusLabel.setForeground(Color.RED);
+        DefaultTableModel errorModel = createUserModel();
+        errorModel.addRow(new Object[]{"", "Error: " + ex.getMessage(), "", "", ""});
+        setUserModel(errorModel);
+        showErrorDialog("Failed to refresh data: " + ex.getMessage());
+    }
+
+    private DefaultTableModel createUserModel() {
+        String[] columnNames = {"ID", "Username", "Email", "Contact", "Role"};
+        return new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    private void setUserModel(DefaultTableModel model) {
         userTable.setModel(model);
         LOGGER.log(Level.INFO, "Table model set with {0} rows", model.getRowCount());
 
@@ -412,18 +425,8 @@ public class ManageUsersUI extends JFrame {
     }
 
     private void refreshData() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                loadUserData();
-                statusLabel.setText("Data refreshed successfully.");
-                statusLabel.setForeground(PRIMARY_COLOR);
-            } catch (SQLException ex) {
-                LOGGER.log(Level.SEVERE, "Error refreshing data: {0}", ex.getMessage());
-                statusLabel.setText("Failed to refresh: " + ex.getMessage());
-                statusLabel.setForeground(Color.RED);
-                showErrorDialog("Failed to refresh data: " + ex.getMessage());
-            }
-        });
+        LOGGER.log(Level.INFO, "Loading user data...");
+        usersLoader.load(this::fetchUserRows, this::showUsers, this::showLoadError);
     }
 
     private void navigateTo(JFrame frame, String destination) {
@@ -446,7 +449,7 @@ public class ManageUsersUI extends JFrame {
         if (confirm == JOptionPane.YES_OPTION) {
             userService.logout();
             try {
-                new LoginUI().setVisible(true);
+                new LoginUI(context).setVisible(true);
                 dispose();
             } catch (Exception ex) {
                 LOGGER.log(Level.SEVERE, "Error opening LoginUI: {0}", ex.getMessage());
@@ -462,7 +465,7 @@ public class ManageUsersUI extends JFrame {
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
-                new ManageUsersUI().setVisible(true);
+                new ManageUsersUI(AppContext.createDefault()).setVisible(true);
             } catch (SQLException ex) {
                 Logger.getLogger(ManageUsersUI.class.getName()).log(Level.SEVERE, null, ex);
             }
@@ -1,6 +1,7 @@
 package com.lostfound.ui;
 
 // UI for user registration.
+import com.lostfound.app.AppContext;
 import com.lostfound.service.UserService;
 import javax.swing.*;
 import javax.swing.border.*;
@@ -14,6 +15,7 @@ import java.util.regex.Pattern;
 import javax.swing.event.DocumentListener;
 
 public class RegisterUI extends JFrame {
+    private final AppContext context;
     private JTextField txtFullName, txtEmail, txtContact;
     private JPasswordField txtPassword, txtConfirmPassword;
     private JComboBox<String> cmbRole;
@@ -42,7 +44,8 @@ public class RegisterUI extends JFrame {
             new EmptyBorder(9, 14, 9, 14)
     );
 
-    public RegisterUI() throws SQLException {
+    public RegisterUI(AppContext context) throws SQLException {
+        this.context = context;
         setTitle("User Registration");
         setSize(700, 800);
         setLocationRelativeTo(null);
@@ -50,7 +53,7 @@ public class RegisterUI extends JFrame {
         setUndecorated(true);
         setShape(new RoundRectangle2D.Double(0, 0, getWidth(), getHeight(), 25, 25));
 
-        userService = new UserService();
+        userService = context.getUserService();
 
         JPanel mainPanel = new JPanel(new BorderLayout()) {
             @Override
@@ -167,7 +170,7 @@ public class RegisterUI extends JFrame {
             LOGGER.log(Level.INFO, "Navigating back to LoginUI");
             dispose();
             try {
-                new LoginUI().setVisible(true);
+                new LoginUI(context).setVisible(true);
             } catch (SQLException ex) {
                 Logger.getLogger(RegisterUI.class.getName()).log(Level.SEVERE, null, ex);
             }
@@ -346,7 +349,7 @@ public class RegisterUI extends JFrame {
                                     "Success", JOptionPane.INFORMATION_MESSAGE);
                             LOGGER.log(Level.INFO, "Registration successful for email: {0}", email);
                             dispose();
-                            new LoginUI().setVisible(true);
+                            new LoginUI(context).setVisible(true);
                         } else {
                             showErrorDialog("Registration failed. Please try again.");
                             LOGGER.log(Level.WARNING, "Registration failed for email: {0}", email);
@@ -503,7 +506,7 @@ public class RegisterUI extends JFrame {
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
-                RegisterUI frame = new RegisterUI();
+                RegisterUI frame = new RegisterUI(AppContext.createDefault());
                 frame.setVisible(true);
             } catch (SQLException ex) {
                 LOGGER.log(Level.SEVERE, "Failed to initialize RegisterUI", ex);
@@ -1,54 +1,76 @@
 package com.lostfound.ui;
 
 // UI for displaying detailed report information for a specific report ID.
+import com.lostfound.app.AppContext;
+import com.lostfound.image.Rendition;
 import com.lostfound.model.FoundItem;
+import com.lostfound.model.IdentifierMatch;
+import com.lostfound.model.ImageMatch;
 import com.lostfound.model.Item;
 import com.lostfound.model.LostItem;
+import com.lostfound.model.MatchCandidate;
 import com.lostfound.model.Report;
+import com.lostfound.model.ReportDetails;
+import com.lostfound.model.VisualMatch;
 import com.lostfound.service.FoundItemService;
+import com.lostfound.service.IdentifierService;
+import com.lostfound.service.ImageHashService;
+import com.lostfound.service.ImageSimilarityService;
 import com.lostfound.service.ItemService;
 import com.lostfound.service.LostItemService;
+import com.lostfound.service.MatchService;
 import com.lostfound.service.ReportService;
+import com.lostfound.service.ThumbnailService;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.imageio.ImageIO;
 import javax.swing.border.EmptyBorder;
 
 public class ReportUI extends JFrame {
+    private final AppContext context;
     private ReportService reportService;
     private ItemService itemService;
     private LostItemService lostItemService;
     private FoundItemService foundItemService;
+    private MatchService matchService;
+    private IdentifierService identifierService;
+    private ImageHashService imageHashService;
+    private ThumbnailService thumbnailService;
+    private ImageSimilarityService imageSimilarityService;
+    private BackgroundLoader<List<MatchRow>> matchesLoader;
     private static final Logger LOGGER = Logger.getLogger(ReportUI.class.getName());
     private static final Color BACKGROUND_DARK = new Color(32, 34, 37);
     private static final Color TEXT_COLOR = new Color(240, 240, 240);
     private static final Color PRIMARY_COLOR = new Color(0, 168, 150);
     private static final Color SECONDARY_TEXT = new Color(180, 180, 180);
+    // Possible matches listed under the details, best first.
+    private static final int MATCHES_SHOWN = 5;
 
-    public ReportUI(int reportId) throws SQLException {
+    public ReportUI(AppContext context, int reportId) throws SQLException {
+        this.context = context;
         LOGGER.log(Level.INFO, "Initializing ReportUI for reportId: {0}", reportId);
 
-        try {
-            reportService = new ReportService();
-            itemService = new ItemService();
-            lostItemService = new LostItemService();
-            foundItemService = new FoundItemService();
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error initializing services", e);
-            JOptionPane.showMessageDialog(this, "Failed to initialize services: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            dispose();
-            return;
-        }
+        reportService = context.getReportService();
+        itemService = context.getItemService();
+        lostItemService = context.getLostItemService();
+        foundItemService = context.getFoundItemService();
+        matchService = context.getMatchService();
+        identifierService = context.getIdentifierService();
+        imageHashService = context.getImageHashService();
+        thumbnailService = context.getThumbnailService();
+        imageSimilarityService = context.getImageSimilarityService();
 
         setTitle("Report Details - Tracify");
         setSize(600, 600);
@@ -92,7 +114,7 @@ public class ReportUI extends JFrame {
         btnClose.addActionListener(e -> {
             LOGGER.log(Level.INFO, "Navigating to HomeUI from ReportUI for reportId: {0}", reportId);
             try {
-                new HomeUI().setVisible(true);
+                new HomeUI(context).setVisible(true);
             } catch (SQLException ex) {
                 Logger.getLogger(ReportUI.class.getName()).log(Level.SEVERE, null, ex);
             }
@@ -170,21 +192,7 @@ public class ReportUI extends JFrame {
         }
 
         if (imagePath != null) {
-            try {
-                File imageFile = new File(imagePath);
-                if (imageFile.exists()) {
-                    BufferedImage img = ImageIO.read(imageFile);
-                    Image scaledImg = img.getScaledInstance(200, 200, Image.SCALE_SMOOTH);
-                    imageLabel.setIcon(new ImageIcon(scaledImg));
-                } else {
-                    imageLabel.setText("Image Not Found");
-                    imageLabel.setForeground(TEXT_COLOR);
-                }
-            } catch (IOException e) {
-                LOGGER.log(Level.WARNING, "Error loading image from path: {0}", imagePath);
-                imageLabel.setText("Error Loading Image");
-                imageLabel.setForeground(TEXT_COLOR);
-            }
+            loadThumbnail(imageLabel, imagePath);
         } else {
             imageLabel.setText("No Image Available");
             imageLabel.setForeground(TEXT_COLOR);
@@ -219,6 +227,27 @@ public class ReportUI extends JFrame {
         detailsPanel.add(imagePanel, BorderLayout.NORTH);
         detailsPanel.add(textDetailsPanel, BorderLayout.CENTER);
 
+        JPanel matchesPanel = new JPanel();
+        matchesPanel.setOpaque(false);
+        matchesPanel.setLayout(new BoxLayout(matchesPanel, BoxLayout.Y_AXIS));
+        matchesPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+        JLabel matchesTitle = new JLabel("Possible Matches");
+        matchesTitle.setFont(new Font("Segoe UI Semibold", Font.BOLD, 16));
+        matchesTitle.setForeground(TEXT_COLOR);
+        matchesPanel.add(matchesTitle);
+        JLabel matchesStatus = new JLabel(" ");
+        matchesStatus.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        matchesStatus.setForeground(SECONDARY_TEXT);
+        matchesPanel.add(matchesStatus);
+        detailsPanel.add(matchesPanel, BorderLayout.SOUTH);
+        matchesLoader = new BackgroundLoader<>(context.getQueryExecutor(),
+                new LoadingIndicator(this, matchesStatus, "Looking for possible matches..."));
+        matchesLoader.load(() -> fetchMatches(reportId), rows -> showMatches(matchesPanel, matchesStatus, rows),
+                error -> {
+                    LOGGER.log(Level.WARNING, "Could not load possible matches for reportId: {0}", reportId);
+                    matchesStatus.setText("Possible matches are unavailable");
+                });
+
         JScrollPane scrollPane = new JScrollPane(detailsPanel);
         scrollPane.setOpaque(false);
         scrollPane.getViewport().setOpaque(false);
@@ -234,7 +263,7 @@ public class ReportUI extends JFrame {
         btnBack.addActionListener(e -> {
             LOGGER.log(Level.INFO, "Navigating to HomeUI from ReportUI for reportId: {0}", reportId);
             try {
-                new HomeUI().setVisible(true);
+                new HomeUI(context).setVisible(true);
             } catch (SQLException ex) {
                 Logger.getLogger(ReportUI.class.getName()).log(Level.SEVERE, null, ex);
             }
@@ -244,6 +273,136 @@ public class ReportUI extends JFrame {
         mainPanel.add(buttonPanel, BorderLayout.SOUTH);
     }
 
+    // Shows the thumbnail straight away when it is cached; otherwise shows a placeholder of the
+    // same size and fills it in once the thumbnail service has loaded the photo.
+    private void loadThumbnail(JLabel imageLabel, String imagePath) {
+        CompletableFuture<BufferedImage> thumbnail = thumbnailService.load(imagePath);
+        if (!thumbnail.isDone()) {
+            int size = Rendition.THUMBNAIL.getMaxSize();
+            imageLabel.setPreferredSize(new Dimension(size, size));
+            imageLabel.setText("Loading image...");
+            imageLabel.setForeground(SECONDARY_TEXT);
+        }
+        thumbnail.whenComplete((image, error) -> {
+            Runnable show = () -> {
+                imageLabel.setPreferredSize(null);
+                if (error != null) {
+                    LOGGER.log(Level.WARNING, "Error loading image from path: " + imagePath, error);
+                    imageLabel.setText("Error Loading Image");
+                    imageLabel.setForeground(TEXT_COLOR);
+                } else if (image == null) {
+                    imageLabel.setText("Image Not Found");
+                    imageLabel.setForeground(TEXT_COLOR);
+                } else {
+                    imageLabel.setText(null);
+                    imageLabel.setIcon(new ImageIcon(image));
+                }
+                imageLabel.revalidate();
+            };
+            if (SwingUtilities.isEventDispatchThread()) {
+                show.run();
+            } else {
+                SwingUtilities.invokeLater(show);
+            }
+        });
+    }
+
+    // Reports sharing an identifier come first, then near-duplicate photos, then photos that look
+    // alike, then the matches stored by the background match job; their details are read in one
+    // query.
+    private List<MatchRow> fetchMatches(int reportId) throws SQLException {
+        List<IdentifierMatch> identified = identifierService.findIdentifierMatches(reportId);
+        List<ImageMatch> lookalikes = imageHashService.findSimilar(reportId, ImageHashService.DEFAULT_MAX_DISTANCE,
+                MATCHES_SHOWN);
+        List<VisualMatch> alike = imageSimilarityService.findSimilar(reportId, MATCHES_SHOWN,
+                ImageSimilarityService.DEFAULT_MIN_SIMILARITY);
+        List<MatchCandidate> matches = matchService.getStoredMatches(reportId, MATCHES_SHOWN);
+        List<Integer> candidateIds = new ArrayList<>();
+        for (IdentifierMatch match : identified) {
+            candidateIds.add(match.getCandidateId());
+        }
+        for (ImageMatch match : lookalikes) {
+            candidateIds.add(match.getCandidateId());
+        }
+        for (VisualMatch match : alike) {
+            candidateIds.add(match.getCandidateId());
+        }
+        for (MatchCandidate match : matches) {
+            candidateIds.add(match.getCandidateId());
+        }
+        Map<Integer, ReportDetails> details = reportService.getReportDetailsByIds(candidateIds);
+        List<MatchRow> rows = new ArrayList<>();
+        Set<Integer> shown = new HashSet<>();
+        for (IdentifierMatch match : identified) {
+            ReportDetails candidate = details.get(match.getCandidateId());
+            if (candidate != null && shown.add(candidate.getReportId())) {
+                rows.add(new MatchRow("Same " + match.getKind() + " ending " + match.getLastFour(), candidate));
+            }
+        }
+        for (ImageMatch match : lookalikes) {
+            ReportDetails candidate = details.get(match.getCandidateId());
+            if (candidate != null && shown.add(candidate.getReportId())) {
+                rows.add(new MatchRow("Similar photo", candidate));
+            }
+        }
+        for (VisualMatch match : alike) {
+            ReportDetails candidate = details.get(match.getCandidateId());
+            if (candidate != null && shown.add(candidate.getReportId())) {
+                rows.add(new MatchRow("Looks alike", candidate));
+            }
+        }
+        for (MatchCandidate match : matches) {
+            ReportDetails candidate = details.get(match.getCandidateId());
+            if (candidate != null && shown.add(candidate.getReportId())) {
+                rows.add(new MatchRow(Math.round(match.getScore() * 100) + "%", candidate));
+            }
+        }
+        return rows;
+    }
+
+    private void showMatches(JPanel panel, JLabel status, List<MatchRow> rows) {
+        if (rows.isEmpty()) {
+            status.setText("No possible matches yet");
+            return;
+        }
+        status.setText(" ");
+        for (MatchRow row : rows) {
+            ReportDetails candidate = row.candidate;
+            String text = String.format("%s  %s (%s, %s)%s", row.reason,
+                    candidate.getItemName(), candidate.getStatus(),
+                    candidate.getReportDate() != null ? candidate.getReportDate().toLocalDateTime().toLocalDate() : "N/A",
+                    candidate.getLocation() != null ? " - " + candidate.getLocation() : "");
+            JButton link = new JButton(text);
+            styleMinimalButton(link);
+            link.setBorder(BorderFactory.createEmptyBorder(4, 0, 4, 0));
+            link.getAccessibleContext().setAccessibleName("Possible match " + candidate.getReportId());
+            link.getAccessibleContext().setAccessibleDescription("Open report " + candidate.getReportId());
+            link.addActionListener(e -> {
+                LOGGER.log(Level.INFO, "Opening possible match reportId: {0}", candidate.getReportId());
+                try {
+                    new ReportUI(context, candidate.getReportId()).setVisible(true);
+                    dispose();
+                } catch (SQLException ex) {
+                    LOGGER.log(Level.SEVERE, null, ex);
+                }
+            });
+            panel.add(link);
+        }
+        panel.revalidate();
+        panel.repaint();
+    }
+
+    private static final class MatchRow {
+        // Why it is suggested: a shared identifier, a similar photo or the match score.
+        private final String reason;
+        private final ReportDetails candidate;
+
+        private MatchRow(String reason, ReportDetails candidate) {
+            this.reason = reason;
+            this.candidate = candidate;
+        }
+    }
+
     private void addLabel(JPanel panel, GridBagConstraints gbc, String labelText, String value, int row) {
         gbc.gridx = 0;
         gbc.gridy = row;
@@ -286,7 +445,7 @@ public class ReportUI extends JFrame {
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
-                new ReportUI(1).setVisible(true);
+                new ReportUI(AppContext.createDefault(), 1).setVisible(true);
             } catch (SQLException e) {
                 Logger.getLogger(ReportUI.class.getName()).log(Level.SEVERE, "Error starting ReportUI", e);
             }
@@ -0,0 +1,58 @@
+package com.lostfound.ui;
+
+// Immutable table rows built off the EDT and published to a table model in a single update.
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Vector;
+import javax.swing.table.DefaultTableModel;
+
+public final class TableSnapshot {
+    private final List<Object[]> rows;
+
+    public TableSnapshot(List<Object[]> rows) {
+        List<Object[]> copy = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            copy.add(row.clone());
+        }
+        this.rows = Collections.unmodifiableList(copy);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    public Object getValueAt(int row, int column) {
+        return rows.get(row)[column];
+    }
+
+    // Replaces the model's rows and fires one change event. Must be called on the EDT.
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void applyTo(DefaultTableModel model) {
+        Vector data = model.getDataVector();
+        data.clear();
+        for (Object[] row : rows) {
+            data.add(new Vector<>(Arrays.asList(row)));
+        }
+        model.fireTableDataChanged();
+    }
+
+    // Adds the rows after the model's existing ones, for paged results. Must be called on the EDT.
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void appendTo(DefaultTableModel model) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Vector data = model.getDataVector();
+        int first = data.size();
+        for (Object[] row : rows) {
+            data.add(new Vector<>(Arrays.asList(row)));
+        }
+        model.fireTableRowsInserted(first, data.size() - 1);
+    }
+}
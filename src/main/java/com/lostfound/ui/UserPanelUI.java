@@ -1,6 +1,7 @@
 package com.lostfound.ui;
 
 // User dashboard UI for accessing report forms, managing reports, and admin functions.
+import com.lostfound.app.AppContext;
 import com.lostfound.model.User;
 import com.lostfound.service.UserService;
 import javax.swing.*;
@@ -14,6 +15,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class UserPanelUI extends JFrame {
+    private final AppContext context;
     private UserService userService;
     private JButton btnFoundItemForm, btnLostItemForm, btnManageReports, btnAdminPanel, btnHome, btnLogout, btnClose;
     private static final Logger LOGGER = Logger.getLogger(UserPanelUI.class.getName());
@@ -23,7 +25,8 @@ public class UserPanelUI extends JFrame {
     private static final Color TEXT_COLOR = new Color(240, 240, 240);
     private static final Color SECONDARY_TEXT = new Color(180, 180, 180);
 
-    public UserPanelUI() throws SQLException {
+    public UserPanelUI(AppContext context) throws SQLException {
+        this.context = context;
         setTitle("Tracify - User Dashboard");
         setSize(700, 600);
         setLocationRelativeTo(null);
@@ -31,7 +34,7 @@ public class UserPanelUI extends JFrame {
         setUndecorated(true);
         setShape(new RoundRectangle2D.Double(0, 0, getWidth(), getHeight(), 25, 25));
 
-        userService = new UserService();
+        userService = context.getUserService();
 
         User currentUser = userService.getCurrentUser();
         if (currentUser == null) {
@@ -39,7 +42,7 @@ public class UserPanelUI extends JFrame {
             JOptionPane.showMessageDialog(this, "Please login first", "Error", JOptionPane.ERROR_MESSAGE);
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new LoginUI().setVisible(true);
+                    new LoginUI(context).setVisible(true);
                 } catch (SQLException ex) {
                     Logger.getLogger(UserPanelUI.class.getName()).log(Level.SEVERE, null, ex);
                 }
@@ -89,7 +92,7 @@ public class UserPanelUI extends JFrame {
                 userService.logout();
                 SwingUtilities.invokeLater(() -> {
                     try {
-                        new LoginUI().setVisible(true);
+                        new LoginUI(context).setVisible(true);
                     } catch (SQLException ex) {
                         Logger.getLogger(UserPanelUI.class.getName()).log(Level.SEVERE, null, ex);
                     }
@@ -158,7 +161,7 @@ public class UserPanelUI extends JFrame {
         btnFoundItemForm.addActionListener(e -> {
             LOGGER.log(Level.INFO, "Navigating to CreateReportUI (Found)");
             SwingUtilities.invokeLater(() -> {
-                CreateReportUI reportUI = new CreateReportUI();
+                CreateReportUI reportUI = new CreateReportUI(context);
                 reportUI.setCategory("Found");
                 reportUI.setVisible(true);
                 dispose();
@@ -168,7 +171,7 @@ public class UserPanelUI extends JFrame {
         btnLostItemForm.addActionListener(e -> {
             LOGGER.log(Level.INFO, "Navigating to CreateReportUI (Lost)");
             SwingUtilities.invokeLater(() -> {
-                CreateReportUI reportUI = new CreateReportUI();
+                CreateReportUI reportUI = new CreateReportUI(context);
                 reportUI.setCategory("Lost");
                 reportUI.setVisible(true);
                 dispose();
@@ -179,7 +182,7 @@ public class UserPanelUI extends JFrame {
             LOGGER.log(Level.INFO, "Navigating to ManageReportsUI (user)");
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new ManageReportsUI("user").setVisible(true);
+                    new ManageReportsUI(context, "user").setVisible(true);
                 } catch (SQLException ex) {
                     Logger.getLogger(UserPanelUI.class.getName()).log(Level.SEVERE, null, ex);
                 }
@@ -191,7 +194,7 @@ public class UserPanelUI extends JFrame {
             LOGGER.log(Level.INFO, "Navigating to HomeUI");
             SwingUtilities.invokeLater(() -> {
                 try {
-                    new HomeUI().setVisible(true);
+                    new HomeUI(context).setVisible(true);
                 } catch (SQLException ex) {
                     Logger.getLogger(UserPanelUI.class.getName()).log(Level.SEVERE, null, ex);
                 }
@@ -204,7 +207,7 @@ public class UserPanelUI extends JFrame {
                 LOGGER.log(Level.INFO, "Navigating to AdminPanelUI");
                 SwingUtilities.invokeLater(() -> {
                     try {
-                        new AdminPanelUI().setVisible(true);
+                        new AdminPanelUI(context).setVisible(true);
                     } catch (IOException ex) {
                         Logger.getLogger(UserPanelUI.class.getName()).log(Level.SEVERE, null, ex);
                     } catch (SQLException ex) {
@@ -351,7 +354,7 @@ public class UserPanelUI extends JFrame {
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
-                new UserPanelUI().setVisible(true);
+                new UserPanelUI(AppContext.createDefault()).setVisible(true);
             } catch (SQLException e) {
                 LOGGER.log(Level.SEVERE, "Error starting UserPanelUI", e);
             }
@@ -0,0 +1,95 @@
+package com.lostfound.config;
+
+// State transitions and jittered backoff of CircuitBreaker.
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterThresholdConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60_000, 60_000);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 60_000, 60_000);
+
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void letsOneTrialThroughOnceDelayPasses() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 10, 10);
+        breaker.recordFailure();
+        Thread.sleep(30);
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void failedTrialReopens() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(5, 10, 10);
+        for (int i = 0; i < 5; i++) {
+            breaker.recordFailure();
+        }
+        Thread.sleep(30);
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void delayIsJitteredBetweenHalfAndFull() {
+        for (int i = 0; i < 100; i++) {
+            CircuitBreaker breaker = new CircuitBreaker(1, 1_000, 10_000);
+            long before = System.currentTimeMillis();
+            breaker.recordFailure();
+            long after = System.currentTimeMillis();
+
+            assertTrue(breaker.getRetryAt() >= before + 500, "retry before half the delay");
+            assertTrue(breaker.getRetryAt() <= after + 1_000, "retry after the full delay");
+        }
+    }
+
+    @Test
+    void delayDoublesPerReopenUpToCap() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 4, 16);
+        long[] fullDelays = {4, 8, 16, 16};
+        for (long delay : fullDelays) {
+            long before = System.currentTimeMillis();
+            breaker.recordFailure();
+            long after = System.currentTimeMillis();
+            assertTrue(breaker.getRetryAt() >= before + delay / 2);
+            assertTrue(breaker.getRetryAt() <= after + delay);
+
+            Thread.sleep(delay + 5);
+            assertTrue(breaker.allowRequest());
+        }
+    }
+}
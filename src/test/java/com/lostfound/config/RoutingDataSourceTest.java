@@ -0,0 +1,244 @@
+package com.lostfound.config;
+
+// Replica selection, primary stickiness and fallback of RoutingDataSource, against stub data sources.
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+class RoutingDataSourceTest {
+
+    @Test
+    void readsRoundRobinOverReplicas() throws SQLException {
+        StubDataSource primary = new StubDataSource("primary");
+        StubDataSource first = new StubDataSource("first");
+        StubDataSource second = new StubDataSource("second");
+        RoutingDataSource routing = new RoutingDataSource(primary, List.of(first, second), 0);
+
+        for (int i = 0; i < 4; i++) {
+            routing.getReadConnection().close();
+        }
+
+        assertEquals(0, primary.borrowed);
+        assertEquals(2, first.borrowed);
+        assertEquals(2, second.borrowed);
+        assertTrue(first.readOnly && second.readOnly);
+    }
+
+    @Test
+    void pinKeepsReadsOnPrimaryForStickyWindow() throws SQLException {
+        StubDataSource primary = new StubDataSource("primary");
+        StubDataSource replica = new StubDataSource("replica");
+        RoutingDataSource routing = new RoutingDataSource(primary, List.of(replica), 60_000);
+
+        assertFalse(routing.isPinnedToPrimary());
+        RoutingDataSource.pinToPrimary(routing);
+        assertTrue(routing.isPinnedToPrimary());
+        routing.getReadConnection().close();
+
+        assertEquals(1, primary.borrowed);
+        assertEquals(0, replica.borrowed);
+    }
+
+    @Test
+    void primaryCheckoutDoesNotPin() throws SQLException {
+        StubDataSource primary = new StubDataSource("primary");
+        StubDataSource replica = new StubDataSource("replica");
+        RoutingDataSource routing = new RoutingDataSource(primary, List.of(replica), 60_000);
+
+        routing.getConnection().close();
+        routing.getReadConnection().close();
+
+        assertFalse(routing.isPinnedToPrimary());
+        assertEquals(1, primary.borrowed);
+        assertEquals(1, replica.borrowed);
+    }
+
+    @Test
+    void stickinessEndsAfterWindow() throws SQLException, InterruptedException {
+        StubDataSource primary = new StubDataSource("primary");
+        StubDataSource replica = new StubDataSource("replica");
+        RoutingDataSource routing = new RoutingDataSource(primary, List.of(replica), 20);
+
+        routing.pinToPrimary();
+        Thread.sleep(50);
+        routing.getReadConnection().close();
+
+        assertFalse(routing.isPinnedToPrimary());
+        assertEquals(1, replica.borrowed);
+    }
+
+    @Test
+    void zeroWindowNeverPins() throws SQLException {
+        StubDataSource primary = new StubDataSource("primary");
+        StubDataSource replica = new StubDataSource("replica");
+        RoutingDataSource routing = new RoutingDataSource(primary, List.of(replica), 0);
+
+        routing.pinToPrimary();
+        routing.getReadConnection().close();
+
+        assertFalse(routing.isPinnedToPrimary());
+        assertEquals(1, replica.borrowed);
+    }
+
+    @Test
+    void skipsUnavailableReplica() throws SQLException {
+        StubDataSource primary = new StubDataSource("primary");
+        StubDataSource down = new StubDataSource("down");
+        down.failConnect = true;
+        StubDataSource up = new StubDataSource("up");
+        RoutingDataSource routing = new RoutingDataSource(primary, List.of(down, up), 0);
+
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = routing.getReadConnection()) {
+                assertEquals("up", connection.toString());
+            }
+        }
+        assertEquals(0, primary.borrowed);
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenNoReplicaAnswers() throws SQLException {
+        StubDataSource primary = new StubDataSource("primary");
+        StubDataSource down = new StubDataSource("down");
+        down.failConnect = true;
+        RoutingDataSource routing = new RoutingDataSource(primary, List.of(down), 0);
+
+        try (Connection connection = routing.getReadConnection()) {
+            assertEquals("primary", connection.toString());
+        }
+    }
+
+    @Test
+    void closesReplicaConnectionWhenSetReadOnlyFails() throws SQLException {
+        StubDataSource primary = new StubDataSource("primary");
+        StubDataSource broken = new StubDataSource("broken");
+        broken.failReadOnly = true;
+        RoutingDataSource routing = new RoutingDataSource(primary, List.of(broken), 0);
+
+        try (Connection connection = routing.getReadConnection()) {
+            assertEquals("primary", connection.toString());
+        }
+        assertEquals(1, broken.borrowed);
+        assertEquals(1, broken.closed);
+    }
+
+    @Test
+    void plainDataSourceIsUsedAsItIs() throws SQLException {
+        StubDataSource plain = new StubDataSource("plain");
+        try (Connection connection = RoutingDataSource.readConnection(plain)) {
+            assertEquals("plain", connection.toString());
+        }
+        assertFalse(plain.readOnly);
+    }
+
+    @Test
+    void closeClosesEveryDataSource() {
+        StubDataSource primary = new StubDataSource("primary");
+        StubDataSource replica = new StubDataSource("replica");
+        new RoutingDataSource(primary, List.of(replica), 0).close();
+
+        assertTrue(primary.shutDown);
+        assertTrue(replica.shutDown);
+    }
+
+    @Test
+    void unwrapsToItself() throws SQLException {
+        RoutingDataSource routing = new RoutingDataSource(new StubDataSource("primary"), new ArrayList<>(), 0);
+        assertSame(routing, routing.unwrap(RoutingDataSource.class));
+    }
+
+    // Hands out proxy connections that only answer setReadOnly, close and toString.
+    private static final class StubDataSource implements DataSource, AutoCloseable {
+        private final String name;
+        boolean failConnect;
+        boolean failReadOnly;
+        boolean readOnly;
+        boolean shutDown;
+        int borrowed;
+        int closed;
+
+        StubDataSource(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failConnect) {
+                throw new SQLException(name + " is down");
+            }
+            borrowed++;
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "setReadOnly":
+                                if (failReadOnly) {
+                                    throw new SQLException(name + " rejected read-only");
+                                }
+                                readOnly = (Boolean) args[0];
+                                return null;
+                            case "close":
+                                closed++;
+                                return null;
+                            case "toString":
+                                return name;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+
+        @Override
+        public void close() {
+            shutDown = true;
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("Not a wrapper");
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.lostfound.image;
+
+// Key layout, staging, publishing and deletion of BlobStore on a temporary directory.
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BlobStoreTest {
+    private static final byte[] PHOTO = "photo".getBytes(StandardCharsets.UTF_8);
+    private static final String PHOTO_KEY = sha256Hex(PHOTO);
+
+    @TempDir
+    Path root;
+
+    @Test
+    void laysKeysOutTwoLevelsDeep() {
+        BlobStore store = new BlobStore(root.toFile());
+        String key = "abcd" + "0".repeat(60);
+
+        assertEquals(root.resolve("ab").resolve("cd").resolve(key).toFile(), store.file(key));
+        assertThrows(IllegalArgumentException.class, () -> store.file("../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> store.file(key.toUpperCase()));
+    }
+
+    @Test
+    void stagesUnderContentHashAndPublishesOnce() throws IOException {
+        BlobStore store = new BlobStore(root.toFile());
+
+        BlobStore.StagedBlob first = store.stage(new ByteArrayInputStream(PHOTO));
+        assertEquals(PHOTO_KEY, first.getContentKey());
+        assertEquals(PHOTO.length, first.getSize());
+        assertFalse(store.file(PHOTO_KEY).exists());
+
+        assertTrue(store.publish(first));
+        assertArrayEquals(PHOTO, Files.readAllBytes(store.file(PHOTO_KEY).toPath()));
+
+        BlobStore.StagedBlob second = store.stage(new ByteArrayInputStream(PHOTO));
+        assertFalse(store.publish(second));
+        assertFalse(second.getFile().exists());
+        assertEquals(0, root.resolve(BlobStore.STAGING_DIRECTORY).toFile().list().length);
+    }
+
+    @Test
+    void discardRemovesStagingFile() throws IOException {
+        BlobStore store = new BlobStore(root.toFile());
+        BlobStore.StagedBlob blob = store.stage(new ByteArrayInputStream(PHOTO));
+
+        store.discard(blob);
+
+        assertFalse(blob.getFile().exists());
+        assertFalse(store.file(PHOTO_KEY).exists());
+    }
+
+    @Test
+    void publishesOnlyFilesUnderRoot(@TempDir Path elsewhere) throws IOException {
+        BlobStore store = new BlobStore(root.toFile());
+        File inside = root.resolve("ab").resolve("renditions").resolve("x.thumb.jpg").toFile();
+        assertTrue(inside.getParentFile().mkdirs());
+        Files.write(inside.toPath(), PHOTO);
+        File outside = elsewhere.resolve("x.jpg").toFile();
+        Files.write(outside.toPath(), PHOTO);
+
+        assertTrue(store.publishFile(inside));
+        assertTrue(inside.isFile());
+        assertFalse(store.publishFile(outside));
+    }
+
+    @Test
+    void locatesStoredAndLegacyPaths(@TempDir Path elsewhere) throws IOException {
+        BlobStore store = new BlobStore(root.toFile());
+        store.publish(store.stage(new ByteArrayInputStream(PHOTO)));
+        String legacy = elsewhere.resolve("images").resolve("lost").resolve("old.jpg").toString();
+
+        assertEquals(store.file(PHOTO_KEY), store.locate(store.file(PHOTO_KEY).getPath()));
+        assertEquals(new File(legacy), store.locate(legacy));
+    }
+
+    @Test
+    void readsRangesOfStoredAndLegacyPaths(@TempDir Path elsewhere) throws IOException {
+        BlobStore store = new BlobStore(root.toFile());
+        store.publish(store.stage(new ByteArrayInputStream(PHOTO)));
+        File legacy = elsewhere.resolve("old.jpg").toFile();
+        Files.write(legacy.toPath(), PHOTO);
+
+        assertArrayEquals("hot".getBytes(StandardCharsets.UTF_8),
+                readRange(store, store.file(PHOTO_KEY).getPath(), 1, 3));
+        assertArrayEquals("to".getBytes(StandardCharsets.UTF_8), readRange(store, legacy.getPath(), 3, 10));
+        assertArrayEquals(new byte[0], readRange(store, legacy.getPath(), 20, 4));
+        assertThrows(FileNotFoundException.class,
+                () -> readRange(store, elsewhere.resolve("gone.jpg").toString(), 0, 4));
+    }
+
+    @Test
+    void deleteRemovesBlobAndRenditions() throws IOException {
+        BlobStore store = new BlobStore(root.toFile());
+        store.publish(store.stage(new ByteArrayInputStream(PHOTO)));
+        File photo = store.file(PHOTO_KEY);
+        for (Rendition rendition : Rendition.ALL) {
+            File file = ImagePipeline.renditionFile(photo, rendition);
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(), PHOTO);
+        }
+
+        assertTrue(store.delete(PHOTO_KEY));
+
+        assertFalse(photo.exists());
+        for (Rendition rendition : Rendition.ALL) {
+            assertFalse(ImagePipeline.renditionFile(photo, rendition).exists());
+        }
+        assertFalse(store.delete(PHOTO_KEY));
+    }
+
+    private static byte[] readRange(BlobStore store, String imagePath, long offset, long length)
+            throws IOException {
+        try (InputStream in = store.openRange(imagePath, offset, length)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.lostfound.image;
+
+// HammingIndex finds exactly what a linear scan finds, on both the probing and the scanning path.
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HammingIndexTest {
+
+    @Test
+    void matchesLinearScan() {
+        Random random = new Random(42);
+        long[] hashes = new long[2_000];
+        HammingIndex index = new HammingIndex();
+        for (int i = 0; i < hashes.length; i++) {
+            // Every fourth hash is a near copy of an earlier one, so small radii find something.
+            hashes[i] = i % 4 == 3 ? flipBits(hashes[i - 1], 1 + random.nextInt(8), random) : random.nextLong();
+            index.add(hashes[i], i);
+        }
+        assertEquals(hashes.length, index.size());
+
+        for (int maxDistance : new int[]{0, 3, 8, 12, 15, 16, 20}) {
+            for (int q = 0; q < 50; q++) {
+                long query = flipBits(hashes[random.nextInt(hashes.length)], random.nextInt(6), random);
+                Map<Integer, Integer> expected = new HashMap<>();
+                for (int i = 0; i < hashes.length; i++) {
+                    int distance = PerceptualHash.distance(query, hashes[i]);
+                    if (distance <= maxDistance) {
+                        expected.put(i, distance);
+                    }
+                }
+                Map<Integer, Integer> found = new HashMap<>();
+                index.search(query, maxDistance, (id, distance) -> {
+                    Integer previous = found.put(id, distance);
+                    assertNull(previous, "visited twice: " + id);
+                });
+                assertEquals(expected, found, "radius " + maxDistance);
+            }
+        }
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        new HammingIndex().search(0L, 64, (id, distance) -> {
+            throw new AssertionError("unexpected " + id);
+        });
+    }
+
+    private static long flipBits(long hash, int bits, Random random) {
+        long flipped = hash;
+        while (PerceptualHash.distance(flipped, hash) < bits) {
+            flipped ^= 1L << random.nextInt(64);
+        }
+        return flipped;
+    }
+}
@@ -0,0 +1,179 @@
+package com.lostfound.image;
+
+// HnswIndex recall against brute force, removal, compaction and the on-disk format.
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class HnswIndexTest {
+    private static final int DIMENSIONS = 32;
+    private static final int VECTORS = 2_000;
+    private static final int K = 10;
+
+    @Test
+    void recallAgainstBruteForce() {
+        Random random = new Random(7);
+        float[][] vectors = vectors(VECTORS, random);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, new Random(1));
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i, vectors[i]);
+        }
+        assertEquals(VECTORS, index.size());
+
+        assertTrue(recall(index, vectors, null, random) >= 0.95);
+    }
+
+    @Test
+    void exactVectorComesFirst() {
+        Random random = new Random(3);
+        float[][] vectors = vectors(500, random);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, new Random(1));
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i, vectors[i]);
+        }
+
+        List<HnswIndex.Result> results = index.search(vectors[123], 1, 50);
+
+        assertEquals(123, results.get(0).getId());
+        assertEquals(1.0f, results.get(0).getSimilarity(), 1e-5f);
+    }
+
+    @Test
+    void removedVectorsAreNotReturned() {
+        Random random = new Random(11);
+        float[][] vectors = vectors(VECTORS, random);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, new Random(1));
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i, vectors[i]);
+        }
+        Set<Integer> removed = new HashSet<>();
+        for (int i = 0; i < VECTORS; i += 3) {
+            assertTrue(index.remove(i));
+            removed.add(i);
+        }
+        assertFalse(index.remove(0));
+        assertEquals(VECTORS - removed.size(), index.size());
+        assertTrue(index.getRemovedShare() > 0.3);
+
+        for (HnswIndex.Result result : index.search(vectors[0], K, 50)) {
+            assertFalse(removed.contains(result.getId()));
+        }
+        assertTrue(recall(index, vectors, removed, random) >= 0.9);
+
+        HnswIndex compacted = index.compacted();
+        assertEquals(index.size(), compacted.size());
+        assertEquals(0.0, compacted.getRemovedShare());
+        assertTrue(recall(compacted, vectors, removed, random) >= 0.95);
+    }
+
+    @Test
+    void addReplacesEarlierVector() {
+        Random random = new Random(5);
+        float[][] vectors = vectors(2, random);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, new Random(1));
+        index.add(1, vectors[0]);
+        index.add(1, vectors[1]);
+
+        assertEquals(1, index.size());
+        List<HnswIndex.Result> results = index.search(vectors[1], 5, 10);
+        assertEquals(1, results.size());
+        assertEquals(1.0f, results.get(0).getSimilarity(), 1e-5f);
+    }
+
+    @Test
+    void rejectsWrongDimensions() {
+        HnswIndex index = new HnswIndex(DIMENSIONS);
+        assertThrows(IllegalArgumentException.class, () -> index.add(1, new float[DIMENSIONS - 1]));
+    }
+
+    @Test
+    void readsBackWhatItWrote() throws IOException {
+        Random random = new Random(9);
+        float[][] vectors = vectors(300, random);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, new Random(1));
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i, vectors[i]);
+        }
+        index.remove(17);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            index.write(out);
+        }
+        HnswIndex copy = HnswIndex.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(index.size(), copy.size());
+        assertEquals(index.getIds(), copy.getIds());
+        for (int q = 0; q < 20; q++) {
+            float[] query = vectors[random.nextInt(vectors.length)];
+            assertEquals(ids(index.search(query, K, 40)), ids(copy.search(query, K, 40)));
+        }
+    }
+
+    // Share of the true top K, among the vectors not in removed, that search finds.
+    private static double recall(HnswIndex index, float[][] vectors, Set<Integer> removed, Random random) {
+        int found = 0;
+        int queries = 100;
+        for (int q = 0; q < queries; q++) {
+            float[] query = unit(random);
+            List<Integer> exact = new ArrayList<>();
+            for (int i = 0; i < vectors.length; i++) {
+                if (removed == null || !removed.contains(i)) {
+                    exact.add(i);
+                }
+            }
+            exact.sort((a, b) -> Float.compare(ImageFeatures.similarity(query, vectors[b]),
+                    ImageFeatures.similarity(query, vectors[a])));
+            Set<Integer> truth = new HashSet<>(exact.subList(0, K));
+            for (HnswIndex.Result result : index.search(query, K, 64)) {
+                if (truth.contains(result.getId())) {
+                    found++;
+                }
+            }
+        }
+        return (double) found / (queries * K);
+    }
+
+    private static float[][] vectors(int count, Random random) {
+        float[][] vectors = new float[count][];
+        for (int i = 0; i < count; i++) {
+            vectors[i] = unit(random);
+        }
+        return vectors;
+    }
+
+    // Similarity is a dot product, so stored vectors are unit length like those of ImageFeatures.
+    private static float[] unit(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = (float) random.nextGaussian();
+            norm += vector[d] * vector[d];
+        }
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+
+    private static List<Integer> ids(List<HnswIndex.Result> results) {
+        List<Integer> ids = new ArrayList<>();
+        for (HnswIndex.Result result : results) {
+            ids.add(result.getId());
+        }
+        return ids;
+    }
+}
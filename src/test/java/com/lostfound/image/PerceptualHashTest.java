@@ -0,0 +1,96 @@
+package com.lostfound.image;
+
+// dHash and pHash stay close for edited copies of a picture and far apart for different pictures.
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import org.junit.jupiter.api.Test;
+
+class PerceptualHashTest {
+
+    @Test
+    void distanceCountsDifferingBits() {
+        assertEquals(0, PerceptualHash.distance(0x5AL, 0x5AL));
+        assertEquals(1, PerceptualHash.distance(0L, 1L));
+        assertEquals(64, PerceptualHash.distance(0L, -1L));
+    }
+
+    @Test
+    void scaledCopyHashesClose() {
+        BufferedImage original = scene(640, 480, 0);
+        BufferedImage smaller = resize(original, 200, 150);
+
+        assertTrue(PerceptualHash.distance(PerceptualHash.dHash(original), PerceptualHash.dHash(smaller)) <= 6);
+        assertTrue(PerceptualHash.distance(PerceptualHash.pHash(original), PerceptualHash.pHash(smaller)) <= 6);
+    }
+
+    @Test
+    void brighterCopyHashesClose() {
+        BufferedImage original = scene(320, 240, 0);
+        BufferedImage brighter = scene(320, 240, 40);
+
+        assertTrue(PerceptualHash.distance(PerceptualHash.dHash(original), PerceptualHash.dHash(brighter)) <= 6);
+        assertTrue(PerceptualHash.distance(PerceptualHash.pHash(original), PerceptualHash.pHash(brighter)) <= 6);
+    }
+
+    @Test
+    void differentPicturesHashFarApart() {
+        BufferedImage scene = scene(320, 240, 0);
+        BufferedImage mirrored = mirror(scene);
+
+        assertTrue(PerceptualHash.distance(PerceptualHash.dHash(scene), PerceptualHash.dHash(mirrored)) > 16);
+        assertTrue(PerceptualHash.distance(PerceptualHash.pHash(scene), PerceptualHash.pHash(mirrored)) > 16);
+    }
+
+    @Test
+    void preparedImageHashesLikeTheOriginal() {
+        BufferedImage original = scene(1600, 1200, 0);
+        BufferedImage prepared = PerceptualHash.prepare(original);
+
+        assertTrue(Math.min(prepared.getWidth(), prepared.getHeight()) < 128);
+        assertTrue(PerceptualHash.distance(PerceptualHash.dHash(original), PerceptualHash.dHash(prepared)) <= 4);
+        assertTrue(PerceptualHash.distance(PerceptualHash.pHash(original), PerceptualHash.pHash(prepared)) <= 4);
+    }
+
+    // A gradient with a few shapes on it; brighten lifts every channel.
+    private static BufferedImage scene(int width, int height, int brighten) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int level = Math.min(255, 30 + 150 * x / width + brighten);
+                image.setRGB(x, y, new Color(level, level, Math.min(255, 60 + brighten)).getRGB());
+            }
+        }
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(Math.min(255, 200 + brighten), Math.min(255, 40 + brighten), Math.min(255, 40 + brighten)));
+        g.fillOval(width / 8, height / 5, width / 3, height / 2);
+        g.setColor(new Color(Math.min(255, 20 + brighten), Math.min(255, 20 + brighten), Math.min(255, 20 + brighten)));
+        g.fillRect(width * 3 / 5, height / 3, width / 4, height / 2);
+        g.dispose();
+        return image;
+    }
+
+    private static BufferedImage mirror(BufferedImage image) {
+        int width = image.getWidth();
+        BufferedImage mirrored = new BufferedImage(width, image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < width; x++) {
+                mirrored.setRGB(width - 1 - x, y, image.getRGB(x, y));
+            }
+        }
+        return mirrored;
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return resized;
+    }
+}
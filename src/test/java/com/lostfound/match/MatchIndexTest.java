@@ -0,0 +1,121 @@
+package com.lostfound.match;
+
+// Candidate blocking and scoring of MatchIndex.
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.lostfound.model.MatchCandidate;
+import com.lostfound.model.ReportDetails;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MatchIndexTest {
+
+    @Test
+    void suggestsReportsOfTheOtherTypeBestFirst() {
+        MatchIndex index = new MatchIndex();
+        index.add(report(1, "Black leather wallet", "Lost", "2024-05-01", "Library", "Wallets"));
+        index.add(report(2, "Black leather wallet", "Found", "2024-05-02", "Library", "Wallets"));
+        index.add(report(3, "Brown wallet", "Found", "2024-05-20", "Gym", "Wallets"));
+        index.add(report(4, "Black leather wallet", "Lost", "2024-05-02", "Library", "Wallets"));
+
+        List<MatchCandidate> matches = index.topMatches(1, 10);
+
+        assertEquals(2, matches.size());
+        assertEquals(2, matches.get(0).getCandidateId());
+        assertEquals(3, matches.get(1).getCandidateId());
+        assertEquals(1, matches.get(0).getReportId());
+        assertTrue(matches.get(0).getScore() > matches.get(1).getScore());
+        assertTrue(matches.get(0).getScore() <= 1.0);
+    }
+
+    @Test
+    void requiresASharedTerm() {
+        MatchIndex index = new MatchIndex();
+        index.add(report(1, "Umbrella", "Lost", "2024-05-01", "Library", "Other"));
+        index.add(report(2, "Scarf", "Found", "2024-05-01", "Library", "Other"));
+
+        assertTrue(index.topMatches(1, 10).isEmpty());
+    }
+
+    @Test
+    void keepsToTheDateWindow() {
+        MatchIndex index = new MatchIndex();
+        index.add(report(1, "Umbrella", "Lost", "2024-05-01", "Library", "Other"));
+        // Handed in a month and a half before the loss was reported: outside the window.
+        index.add(report(2, "Umbrella", "Found", "2024-03-15", "Library", "Other"));
+        index.add(report(3, "Umbrella", "Found", "2024-07-15", "Library", "Other"));
+
+        List<MatchCandidate> matches = index.topMatches(1, 10);
+
+        assertEquals(1, matches.size());
+        assertEquals(3, matches.get(0).getCandidateId());
+    }
+
+    @Test
+    void blocksByCategoryExceptUncategorised() {
+        MatchIndex index = new MatchIndex();
+        index.add(report(1, "Blue bag", "Lost", "2024-05-01", "Library", "Bags"));
+        index.add(report(2, "Blue bag", "Found", "2024-05-01", "Library", "Clothing"));
+        index.add(report(3, "Blue bag", "Found", "2024-05-01", "Library", null));
+
+        List<MatchCandidate> matches = index.topMatches(1, 10);
+
+        assertEquals(1, matches.size());
+        assertEquals(3, matches.get(0).getCandidateId());
+        assertEquals(0.0, matches.get(0).getCategoryScore());
+    }
+
+    @Test
+    void limitKeepsTheBestAndBreaksTiesByNewerId() {
+        MatchIndex index = new MatchIndex();
+        index.add(report(1, "Umbrella", "Lost", "2024-05-01", "Library", "Other"));
+        for (int id = 2; id <= 6; id++) {
+            index.add(report(id, "Umbrella", "Found", "2024-05-01", "Library", "Other"));
+        }
+
+        List<MatchCandidate> matches = index.topMatches(1, 2);
+
+        assertEquals(2, matches.size());
+        assertEquals(6, matches.get(0).getCandidateId());
+        assertEquals(5, matches.get(1).getCandidateId());
+    }
+
+    @Test
+    void replacesAndRemovesReports() {
+        MatchIndex index = new MatchIndex();
+        index.add(report(1, "Umbrella", "Lost", "2024-05-01", "Library", "Other"));
+        index.add(report(2, "Umbrella", "Found", "2024-05-01", "Library", "Other"));
+
+        index.add(report(2, "Umbrella", "Claimed", "2024-05-01", "Library", "Other"));
+        assertTrue(index.topMatches(1, 10).isEmpty());
+        assertEquals(1, index.size());
+
+        index.add(report(2, "Umbrella", "Found", "2024-05-01", "Library", "Other"));
+        assertEquals(1, index.topMatches(1, 10).size());
+        assertTrue(index.remove(2));
+        assertFalse(index.remove(2));
+        assertTrue(index.topMatches(1, 10).isEmpty());
+    }
+
+    @Test
+    void comparesMatchFields() {
+        ReportDetails report = report(1, "Umbrella", "Lost", "2024-05-01", "Library", "Other");
+        ReportDetails sameFields = report(1, "Umbrella", "Lost", "2024-05-01", "Library", "Other");
+        ReportDetails moved = report(1, "Umbrella", "Lost", "2024-05-01", "Gym", "Other");
+
+        assertTrue(MatchIndex.sameMatchFields(report, sameFields));
+        assertFalse(MatchIndex.sameMatchFields(report, moved));
+    }
+
+    private static ReportDetails report(int id, String name, String status, String date, String location,
+                                        String category) {
+        long millis = LocalDate.parse(date).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new ReportDetails(id, name, "Owner " + id, "555-000" + id, new Timestamp(millis), status,
+                location, null, category, null);
+    }
+}
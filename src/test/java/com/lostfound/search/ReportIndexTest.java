@@ -0,0 +1,143 @@
+package com.lostfound.search;
+
+// Matching, filtering, BM25 ranking and narrowing checks of the in-memory ReportIndex.
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.lostfound.model.ReportDetails;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReportIndexTest {
+    private ReportIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ReportIndex();
+        index.add(report(1, "Black wallet", "Lost", "2024-05-01", "Library", "Leather wallet with cards", "Wallets"));
+        index.add(report(2, "Blue umbrella", "Found", "2024-05-03", "Cafeteria", "Folding umbrella", "Other"));
+        index.add(report(3, "Brown wallet", "Found", "2024-05-10", "Library steps", "Wallet, no cards", "Wallets"));
+        index.add(report(4, "Keys", "Lost", "2024-04-20", "Gym", "Car keys on a black lanyard", "Keys"));
+    }
+
+    @Test
+    void matchesSubstringsOfIndexedTerms() {
+        assertEquals(ids(1, 3), index.match(SearchQuery.parse("wal")));
+        assertEquals(ids(1, 3), index.match(SearchQuery.parse("allet")));
+        assertEquals(ids(4), index.match(SearchQuery.parse("lanyard")));
+    }
+
+    @Test
+    void termsAreAndedAndGroupsOred() {
+        assertEquals(ids(1, 4), index.match(SearchQuery.parse("black")));
+        assertEquals(ids(1), index.match(SearchQuery.parse("black wallet")));
+        assertEquals(ids(1, 2), index.match(SearchQuery.parse("black wallet OR umbrella")));
+    }
+
+    @Test
+    void appliesFilters() {
+        assertEquals(ids(3), index.match(SearchQuery.parse("wallet type:found")));
+        assertEquals(ids(1, 3), index.match(SearchQuery.parse("category:wallets")));
+        assertEquals(ids(1, 3), index.match(SearchQuery.parse("near:library")));
+        assertEquals(ids(2, 3), index.match(SearchQuery.parse("after:2024-05-02")));
+        assertEquals(ids(4), index.match(SearchQuery.parse("before:2024-05-01")));
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        index.add(report(5, "Purse", "Lost", "2024-05-02", "Hall", "Small purse, looks like a wallet", "Bags"));
+
+        List<ReportDetails> results = index.search(SearchQuery.parse("wallet"), 10);
+
+        assertEquals(3, results.size());
+        assertEquals(5, results.get(2).getReportId());
+    }
+
+    @Test
+    void listsNewestFirstWithoutText() {
+        List<ReportDetails> results = index.search(SearchQuery.parse(""), 10);
+
+        assertEquals(List.of(3, 2, 1, 4), reportIds(results));
+    }
+
+    @Test
+    void limitKeepsTheBest() {
+        List<ReportDetails> all = index.search(SearchQuery.parse(""), Integer.MAX_VALUE);
+        List<ReportDetails> top = index.search(SearchQuery.parse(""), 2);
+
+        assertEquals(4, all.size());
+        assertEquals(reportIds(all).subList(0, 2), reportIds(top));
+    }
+
+    @Test
+    void rankSkipsReportsRemovedSinceMatch() {
+        SearchQuery query = SearchQuery.parse("wallet");
+        BitSet matches = index.match(query);
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+
+        assertEquals(List.of(3), reportIds(index.rank(query, matches, 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void addReplacesEarlierVersion() {
+        index.add(report(1, "Red scarf", "Lost", "2024-05-01", "Library", "Wool scarf", "Clothing"));
+
+        assertEquals(ids(3), index.match(SearchQuery.parse("wallet")));
+        assertEquals(ids(1), index.match(SearchQuery.parse("scarf")));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void narrowingFollowsTypingOn() {
+        assertTrue(ReportIndex.isNarrowing(SearchQuery.parse("wal"), SearchQuery.parse("wall")));
+        assertTrue(ReportIndex.isNarrowing(SearchQuery.parse("wallet"), SearchQuery.parse("wallet black")));
+        assertTrue(ReportIndex.isNarrowing(SearchQuery.parse("wallet"), SearchQuery.parse("wallet type:lost")));
+        // "wa" matches by prefix and "wal" by substring, which finds more than "wa" did.
+        assertFalse(ReportIndex.isNarrowing(SearchQuery.parse("wa"), SearchQuery.parse("wal")));
+        assertFalse(ReportIndex.isNarrowing(SearchQuery.parse("wallet black"), SearchQuery.parse("wallet")));
+        assertFalse(ReportIndex.isNarrowing(SearchQuery.parse("wallet type:lost"), SearchQuery.parse("wallet")));
+        assertFalse(ReportIndex.isNarrowing(SearchQuery.parse("wallet OR keys"), SearchQuery.parse("wallet")));
+    }
+
+    @Test
+    void narrowedMatchEqualsFullMatch() {
+        SearchQuery previous = SearchQuery.parse("wal");
+        SearchQuery next = SearchQuery.parse("wallet lib");
+
+        assertTrue(ReportIndex.isNarrowing(previous, next));
+        assertEquals(index.match(next), index.match(next, index.match(previous)));
+    }
+
+    private static ReportDetails report(int id, String name, String status, String date, String location,
+                                        String description, String category) {
+        long millis = LocalDate.parse(date).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new ReportDetails(id, name, "Owner " + id, "555-000" + id, new Timestamp(millis), status,
+                location, description, category, null);
+    }
+
+    private static BitSet ids(int... ids) {
+        BitSet bits = new BitSet();
+        for (int id : ids) {
+            bits.set(id);
+        }
+        return bits;
+    }
+
+    private static List<Integer> reportIds(List<ReportDetails> reports) {
+        List<Integer> ids = new ArrayList<>();
+        for (ReportDetails report : reports) {
+            ids.add(report.getReportId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,156 @@
+package com.lostfound.service;
+
+// Read-through loading, negative caching, expiry, eviction and invalidation of EntityCache.
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class EntityCacheTest {
+
+    @Test
+    void loadsOnceThenHits() throws SQLException {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60_000, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get(1, key -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get(1, key -> "v" + loads.incrementAndGet()));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, loads.get());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void cachesMissingEntities() throws SQLException {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60_000, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get(1, key -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get(1, key -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().getNegativeHits());
+    }
+
+    @Test
+    void zeroNegativeTtlDoesNotCacheMissingEntities() throws SQLException {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60_000, 0);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            cache.get(1, key -> {
+                loads.incrementAndGet();
+                return null;
+            });
+        }
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void expiresAfterTtl() throws SQLException, InterruptedException {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 20, 20);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, key -> "v" + loads.incrementAndGet());
+        Thread.sleep(40);
+
+        assertEquals("v2", cache.get(1, key -> "v" + loads.incrementAndGet()));
+        assertEquals(1, cache.getStats().getExpirations());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() throws SQLException {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 2, 60_000, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, key -> "one");
+        cache.get(2, key -> "two");
+        cache.get(1, key -> "reloaded");
+        cache.get(3, key -> "three");
+
+        assertEquals("one", cache.get(1, key -> "reloaded"));
+        assertEquals("two again", cache.get(2, key -> {
+            loads.incrementAndGet();
+            return "two again";
+        }));
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.getStats().getEvictions());
+        assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    void invalidateForcesReload() throws SQLException {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60_000, 60_000);
+
+        cache.get(1, key -> "old");
+        cache.invalidate(1);
+        assertEquals("new", cache.get(1, key -> "new"));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void loadRacingInvalidationIsNotStored() throws SQLException {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60_000, 60_000);
+
+        assertEquals("stale", cache.get(1, key -> {
+            cache.invalidate(key);
+            return "stale";
+        }));
+
+        assertEquals(0, cache.getStats().getSize());
+        assertEquals("fresh", cache.get(1, key -> "fresh"));
+    }
+
+    @Test
+    void getAllLoadsOnlyMissingKeys() throws SQLException {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60_000, 60_000);
+        cache.get(1, key -> "one");
+        List<List<Integer>> requested = new ArrayList<>();
+
+        Map<Integer, String> result = cache.getAll(List.of(1, 2, 3, 2), keys -> {
+            requested.add(List.copyOf(keys));
+            Map<Integer, String> found = new HashMap<>();
+            found.put(2, "two");
+            return found;
+        });
+
+        assertEquals(Map.of(1, "one", 2, "two"), result);
+        assertEquals(List.of(List.of(2, 3)), requested);
+        // 3 is now known missing and 2 cached, so nothing is loaded again.
+        Map<Integer, String> again = cache.getAll(List.of(2, 3), keys -> {
+            throw new SQLException("unexpected load of " + keys);
+        });
+        assertEquals(Map.of(2, "two"), again);
+    }
+
+    @Test
+    void bulkLoadRacingInvalidationIsNotStored() throws SQLException {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60_000, 60_000);
+
+        cache.getAll(List.of(1, 2), keys -> {
+            cache.invalidateAll();
+            return Map.of(1, "one", 2, "two");
+        });
+
+        assertEquals(0, cache.getStats().getSize());
+    }
+}